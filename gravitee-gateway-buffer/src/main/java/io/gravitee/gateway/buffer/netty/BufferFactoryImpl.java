@@ -17,34 +17,90 @@ package io.gravitee.gateway.buffer.netty;
 
 import io.gravitee.gateway.api.buffer.Buffer;
 import io.gravitee.gateway.api.buffer.BufferFactory;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
 
 /**
+ * Creates unpooled buffers by default. This is the factory behind {@link Buffer#factory}, used by the policies and
+ * plugins which are not aware of releasing buffers, so it never creates pooled buffers.
+ *
+ * Pooled buffers, backed by a {@link ByteBufAllocator} such as the {@link io.netty.buffer.PooledByteBufAllocator},
+ * are created by a factory explicitly built with this allocator. They must only be created where the ownership of
+ * the buffer is known, as they must be released once consumed (see {@link BufferImpl#release()}). The gateway
+ * releases them once written to the client or to the backend.
+ *
  * @author David BRASSELY (david at gravitee.io)
  * @author GraviteeSource Team
  */
 public class BufferFactoryImpl implements BufferFactory  {
+
+    private final ByteBufAllocator allocator;
+
+    public BufferFactoryImpl() {
+        this(null);
+    }
+
+    /**
+     * @param allocator the allocator of pooled buffers, or <code>null</code> to create unpooled buffers.
+     */
+    public BufferFactoryImpl(ByteBufAllocator allocator) {
+        this.allocator = allocator;
+    }
+
     @Override
     public Buffer buffer(int initialSizeHint) {
+        if (allocator != null) {
+            return new BufferImpl(allocator.heapBuffer(initialSizeHint, Integer.MAX_VALUE), true);
+        }
+
         return new BufferImpl(initialSizeHint);
     }
 
     @Override
     public Buffer buffer() {
+        if (allocator != null) {
+            return buffer(0);
+        }
+
         return new BufferImpl();
     }
 
     @Override
     public Buffer buffer(String str) {
+        if (allocator != null) {
+            return buffer(str.getBytes(StandardCharsets.UTF_8));
+        }
+
         return new BufferImpl(str);
     }
 
     @Override
     public Buffer buffer(String str, String enc) {
+        if (allocator != null) {
+            return buffer(str.getBytes(Charset.forName(Objects.requireNonNull(enc))));
+        }
+
         return new BufferImpl(str, enc);
     }
 
     @Override
     public Buffer buffer(byte[] bytes) {
+        if (allocator != null) {
+            ByteBuf buffer = allocator.heapBuffer(bytes.length, Integer.MAX_VALUE);
+            return new BufferImpl(buffer.writeBytes(bytes), true);
+        }
+
         return new BufferImpl(bytes);
     }
+
+    /**
+     * @return <code>true</code> if buffers created by this factory are pooled and must be released once consumed.
+     */
+    public boolean isPooled() {
+        return allocator != null;
+    }
 }
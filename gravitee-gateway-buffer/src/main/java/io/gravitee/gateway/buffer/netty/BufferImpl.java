@@ -17,31 +17,58 @@ package io.gravitee.gateway.buffer.netty;
 
 import io.gravitee.gateway.api.buffer.Buffer;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.util.CharsetUtil;
+import io.netty.util.ReferenceCounted;
 
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 
 /**
+ * A {@link Buffer} backed by a Netty {@link ByteBuf}.
+ *
+ * By default, buffers are unpooled and never need to be released. Buffers created by a pooled
+ * {@link BufferFactoryImpl} are backed by pooled memory: they must be released once consumed, which is done by the
+ * gateway when a buffer is written to the client or to the backend.
+ *
  * @author David BRASSELY (david at gravitee.io)
  * @author GraviteeSource Team
  */
-public class BufferImpl implements Buffer {
+public class BufferImpl implements Buffer, ReferenceCounted {
 
     private ByteBuf buffer;
+    private CompositeByteBuf composite;
+    private final boolean pooled;
 
     BufferImpl() {
         this(0);
     }
 
     BufferImpl(int initialSizeHint) {
-        buffer = Unpooled.unreleasableBuffer(Unpooled.buffer(initialSizeHint, Integer.MAX_VALUE));
+        this(Unpooled.unreleasableBuffer(Unpooled.buffer(initialSizeHint, Integer.MAX_VALUE)), false);
     }
 
     BufferImpl(byte[] bytes) {
-        buffer = Unpooled.unreleasableBuffer(Unpooled.buffer(bytes.length, Integer.MAX_VALUE)).writeBytes(bytes);
+        this(Unpooled.unreleasableBuffer(Unpooled.buffer(bytes.length, Integer.MAX_VALUE)).writeBytes(bytes), false);
+    }
+
+    /**
+     * Wraps the given buffer without copying its content. The buffer is made unreleasable: its memory stays owned by
+     * the one who allocated it.
+     */
+    BufferImpl(ByteBuf nativeBuffer) {
+        this(Unpooled.unreleasableBuffer(nativeBuffer), false);
+    }
+
+    /**
+     * Takes the ownership of the given buffer. When <code>pooled</code>, the buffer is released along with this
+     * {@link Buffer}.
+     */
+    BufferImpl(ByteBuf nativeBuffer, boolean pooled) {
+        this.buffer = nativeBuffer;
+        this.pooled = pooled;
     }
 
     BufferImpl(String str, String enc) {
@@ -56,6 +83,27 @@ public class BufferImpl implements Buffer {
         this(str, StandardCharsets.UTF_8);
     }
 
+    /**
+     * Creates a {@link Buffer} sharing the content of the given Netty buffer, no byte is copied.
+     *
+     * Readable bytes are expected to start at index 0, which is the case for the buffers given by Vert.x. Otherwise,
+     * the readable bytes are copied.
+     */
+    public static Buffer wrap(ByteBuf nativeBuffer) {
+        if (nativeBuffer.readerIndex() != 0) {
+            return new BufferImpl(Unpooled.copiedBuffer(nativeBuffer));
+        }
+
+        return new BufferImpl(nativeBuffer);
+    }
+
+    /**
+     * @return <code>true</code> if this buffer is backed by pooled memory and must be released once consumed.
+     */
+    public boolean isPooled() {
+        return pooled;
+    }
+
     @Override
     public Buffer appendBuffer(Buffer buff) {
         ByteBuf cb = (ByteBuf) buff.getNativeBuffer();
@@ -84,12 +132,48 @@ public class BufferImpl implements Buffer {
         return this;
     }
 
+    /**
+     * Appends the content of the given buffer without copying it: the content is shared with the given buffer, as a
+     * component of a composite buffer. This avoids copying the chunks aggregated by a body-transforming policy.
+     *
+     * Any later change to the given buffer is visible from this buffer, so the given buffer must neither be modified
+     * nor reused once appended. When pooled, the given buffer is retained until this buffer is released, so it can
+     * still be released by its owner.
+     *
+     * @param buff the buffer to append.
+     * @return this buffer.
+     */
+    public BufferImpl appendSharedBuffer(Buffer buff) {
+        ByteBuf cb = (ByteBuf) buff.getNativeBuffer();
+
+        if (cb.isReadable()) {
+            composite().addComponent(true, cb.retainedSlice(cb.readerIndex(), cb.readableBytes()));
+        }
+        return this;
+    }
+
     private Buffer appendBuf(ByteBuf cb, int length) {
-        buffer.writeBytes(cb, length);
-        cb.readerIndex(0); // Need to reset readerindex since Netty write modifies readerIndex of source!
+        // The appended buffer is left untouched: its reader index is not moved
+        buffer.writeBytes(cb, cb.readerIndex(), length);
         return this;
     }
 
+    private CompositeByteBuf composite() {
+        if (composite == null) {
+            composite = new CompositeByteBuf(buffer.alloc(), false, Integer.MAX_VALUE);
+
+            if (buffer.isReadable()) {
+                composite.addComponent(true, buffer);
+            } else {
+                buffer.release();
+            }
+
+            buffer = (pooled) ? composite : Unpooled.unreleasableBuffer(composite);
+        }
+
+        return composite;
+    }
+
     @Override
     public String toString() {
         return buffer.toString(StandardCharsets.UTF_8);
@@ -121,4 +205,43 @@ public class BufferImpl implements Buffer {
     public Object getNativeBuffer() {
         return buffer;
     }
+
+    @Override
+    public int refCnt() {
+        return buffer.refCnt();
+    }
+
+    @Override
+    public BufferImpl retain() {
+        buffer.retain();
+        return this;
+    }
+
+    @Override
+    public BufferImpl retain(int increment) {
+        buffer.retain(increment);
+        return this;
+    }
+
+    @Override
+    public BufferImpl touch() {
+        buffer.touch();
+        return this;
+    }
+
+    @Override
+    public BufferImpl touch(Object hint) {
+        buffer.touch(hint);
+        return this;
+    }
+
+    @Override
+    public boolean release() {
+        return buffer.release();
+    }
+
+    @Override
+    public boolean release(int decrement) {
+        return buffer.release(decrement);
+    }
 }
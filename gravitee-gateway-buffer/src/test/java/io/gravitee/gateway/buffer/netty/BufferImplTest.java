@@ -0,0 +1,205 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.buffer.netty;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.gravitee.gateway.api.buffer.Buffer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.util.ResourceLeakDetector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public class BufferImplTest {
+
+    private final BufferFactoryImpl unpooledFactory = new BufferFactoryImpl(null);
+    private final BufferFactoryImpl pooledFactory = new BufferFactoryImpl(new PooledByteBufAllocator(false));
+
+    private ListAppender<ILoggingEvent> leakAppender;
+
+    @Before
+    public void setUp() {
+        leakAppender = new ListAppender<>();
+        leakAppender.start();
+        ((Logger) LoggerFactory.getLogger(ResourceLeakDetector.class)).addAppender(leakAppender);
+    }
+
+    @After
+    public void tearDown() {
+        ((Logger) LoggerFactory.getLogger(ResourceLeakDetector.class)).detachAppender(leakAppender);
+    }
+
+    @Test
+    public void shouldBeUnpooledByDefault() {
+        assertFalse(new BufferFactoryImpl().isPooled());
+        assertFalse(((BufferImpl) Buffer.buffer("gravitee")).isPooled());
+    }
+
+    @Test
+    public void shouldNotReleaseUnpooledBuffer() {
+        BufferImpl buffer = (BufferImpl) unpooledFactory.buffer("gravitee");
+
+        assertFalse(buffer.isPooled());
+        assertFalse(buffer.release());
+        assertEquals(1, buffer.refCnt());
+        assertEquals("gravitee", buffer.toString());
+    }
+
+    @Test
+    public void shouldReleasePooledBuffer() {
+        BufferImpl buffer = (BufferImpl) pooledFactory.buffer("gravitee");
+
+        assertTrue(buffer.isPooled());
+        assertEquals("gravitee", buffer.toString());
+        assertTrue(buffer.release());
+        assertEquals(0, buffer.refCnt());
+    }
+
+    @Test
+    public void shouldAppendBuffersByCopy() {
+        Buffer chunk1 = unpooledFactory.buffer("grav");
+        Buffer chunk2 = unpooledFactory.buffer("itee");
+        Buffer buffer = unpooledFactory.buffer();
+
+        buffer.appendBuffer(chunk1).appendBuffer(chunk2).appendBuffer(chunk2, 2).appendString("!");
+
+        assertEquals("graviteeit!", buffer.toString());
+        assertEquals(11, buffer.length());
+        assertArrayEquals("graviteeit!".getBytes(), buffer.getBytes());
+
+        // Appended buffers are left untouched, and can be reused without changing the buffer
+        assertEquals("grav", chunk1.toString());
+        assertEquals(0, ((ByteBuf) chunk1.getNativeBuffer()).readerIndex());
+
+        ((ByteBuf) chunk1.getNativeBuffer()).setByte(0, 'G');
+        assertEquals("graviteeit!", buffer.toString());
+    }
+
+    @Test
+    public void shouldAppendSharedBuffersWithoutCopy() {
+        Buffer chunk1 = unpooledFactory.buffer("grav");
+        Buffer chunk2 = unpooledFactory.buffer("itee");
+        BufferImpl buffer = (BufferImpl) unpooledFactory.buffer();
+
+        buffer.appendSharedBuffer(chunk1).appendSharedBuffer(chunk2).appendString("!");
+
+        assertEquals("gravitee!", buffer.toString());
+        assertEquals(9, buffer.length());
+        assertArrayEquals("gravitee!".getBytes(), buffer.getBytes());
+
+        CompositeByteBuf composite = (CompositeByteBuf) ((ByteBuf) buffer.getNativeBuffer()).unwrap();
+        assertEquals(((ByteBuf) chunk1.getNativeBuffer()).array(), composite.component(0).array());
+        assertEquals(((ByteBuf) chunk2.getNativeBuffer()).array(), composite.component(1).array());
+
+        // Appended buffers are left untouched
+        assertEquals("grav", chunk1.toString());
+        assertEquals(0, ((ByteBuf) chunk1.getNativeBuffer()).readerIndex());
+    }
+
+    @Test
+    public void shouldKeepContentWhenAppendingToNonEmptyBuffer() {
+        Buffer buffer = unpooledFactory.buffer("gra");
+
+        buffer.appendBuffer(unpooledFactory.buffer("vitee"));
+
+        assertEquals("gravitee", buffer.toString());
+    }
+
+    @Test
+    public void shouldAggregatePooledChunksWithoutCopy() {
+        BufferImpl chunk1 = (BufferImpl) pooledFactory.buffer("grav");
+        BufferImpl chunk2 = (BufferImpl) pooledFactory.buffer("itee");
+        BufferImpl buffer = (BufferImpl) pooledFactory.buffer();
+
+        buffer.appendSharedBuffer(chunk1).appendSharedBuffer(chunk2);
+
+        // Chunks are consumed, the aggregated buffer still holds their content
+        assertFalse(chunk1.release());
+        assertFalse(chunk2.release());
+        assertEquals("gravitee", buffer.toString());
+
+        assertTrue(buffer.release());
+        assertEquals(0, chunk1.refCnt());
+        assertEquals(0, chunk2.refCnt());
+
+        assertNoLeak();
+    }
+
+    @Test
+    public void shouldAggregatePooledChunksByCopy() {
+        BufferImpl shared = (BufferImpl) pooledFactory.buffer("vi");
+        BufferImpl chunk = (BufferImpl) pooledFactory.buffer("tee");
+        BufferImpl buffer = (BufferImpl) pooledFactory.buffer("gra");
+
+        buffer.appendSharedBuffer(shared).appendBuffer(chunk);
+
+        // The copied chunk is not retained by the aggregated buffer, the shared one is
+        assertTrue(chunk.release());
+        assertFalse(shared.release());
+        assertEquals("gravitee", buffer.toString());
+        assertTrue(buffer.release());
+
+        assertNoLeak();
+    }
+
+    @Test
+    public void shouldAggregateUnpooledChunksIntoPooledBuffer() {
+        BufferImpl buffer = (BufferImpl) pooledFactory.buffer("gra");
+
+        buffer.appendBuffer(BufferImpl.wrap(io.netty.buffer.Unpooled.copiedBuffer("vitee".getBytes())));
+
+        assertEquals("gravitee", buffer.toString());
+        assertTrue(buffer.release());
+
+        assertNoLeak();
+    }
+
+    @Test
+    public void shouldReportLeakOfPooledBuffer() throws InterruptedException {
+        assertEquals(ResourceLeakDetector.Level.PARANOID, ResourceLeakDetector.getLevel());
+
+        pooledFactory.buffer("leaked");
+
+        // Leaks are reported while allocating, once the leaked buffer has been garbage collected
+        for (int i = 0; i < 50 && leakAppender.list.isEmpty(); i++) {
+            System.gc();
+            Thread.sleep(10);
+            ((BufferImpl) pooledFactory.buffer(1)).release();
+        }
+
+        assertFalse(leakAppender.list.isEmpty());
+    }
+
+    private void assertNoLeak() {
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            ((BufferImpl) pooledFactory.buffer(1)).release();
+        }
+
+        assertTrue(leakAppender.list.toString(), leakAppender.list.isEmpty());
+    }
+}
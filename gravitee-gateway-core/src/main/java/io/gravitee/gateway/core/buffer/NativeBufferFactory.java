@@ -0,0 +1,45 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.core.buffer;
+
+import io.gravitee.gateway.api.buffer.Buffer;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Creates {@link Buffer}s from the Netty buffers read from a connection, without copying their content.
+ *
+ * The implementation is looked up with the {@link java.util.ServiceLoader}, as the {@link Buffer#factory} is, and
+ * should be used through {@link NativeBuffers}.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public interface NativeBufferFactory {
+
+    /**
+     * Creates a {@link Buffer} sharing the readable bytes of the given Netty buffer.
+     *
+     * @param nativeBuffer the buffer to share, its memory stays owned by the one who allocated it.
+     * @return the buffer.
+     */
+    Buffer wrap(ByteBuf nativeBuffer);
+
+    /**
+     * @param buffer the buffer.
+     * @return <code>true</code> if the buffer is backed by pooled memory and must be released once consumed.
+     */
+    boolean isPooled(Buffer buffer);
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.core.buffer;
+
+import io.gravitee.gateway.api.buffer.Buffer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+
+import java.util.Iterator;
+import java.util.ServiceLoader;
+
+/**
+ * Gives access to the {@link NativeBufferFactory}. When none is available, the content of the Netty buffers is
+ * copied into a new {@link Buffer}.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public final class NativeBuffers {
+
+    private static final NativeBufferFactory FACTORY = load();
+
+    private NativeBuffers() {
+    }
+
+    /**
+     * @see NativeBufferFactory#wrap(ByteBuf)
+     */
+    public static Buffer wrap(ByteBuf nativeBuffer) {
+        if (FACTORY != null) {
+            return FACTORY.wrap(nativeBuffer);
+        }
+
+        return Buffer.buffer(ByteBufUtil.getBytes(nativeBuffer));
+    }
+
+    /**
+     * @see NativeBufferFactory#isPooled(Buffer)
+     */
+    public static boolean isPooled(Buffer buffer) {
+        return FACTORY != null && FACTORY.isPooled(buffer);
+    }
+
+    private static NativeBufferFactory load() {
+        Iterator<NativeBufferFactory> factories = ServiceLoader.load(NativeBufferFactory.class).iterator();
+        return factories.hasNext() ? factories.next() : null;
+    }
+}
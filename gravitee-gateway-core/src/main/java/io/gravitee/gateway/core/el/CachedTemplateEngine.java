@@ -0,0 +1,60 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.core.el;
+
+import io.gravitee.el.exceptions.ExpressionEvaluationException;
+import io.gravitee.el.spel.SpelTemplateEngine;
+import io.gravitee.el.spel.context.SpelTemplateContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ParseException;
+import org.springframework.expression.spel.SpelEvaluationException;
+
+/**
+ * A {@link SpelTemplateEngine} looking for the parsed templates into the {@link ExpressionCache} instead of parsing
+ * them for each evaluation.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public class CachedTemplateEngine extends SpelTemplateEngine {
+
+    private final ExpressionCache cache;
+
+    public CachedTemplateEngine() {
+        this(ExpressionCache.templates());
+    }
+
+    CachedTemplateEngine(ExpressionCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public <T> T getValue(String expression, Class<T> clazz) {
+        Expression parsedExpression;
+
+        try {
+            parsedExpression = cache.get(expression);
+        } catch (ParseException pe) {
+            throw new ExpressionEvaluationException(expression, pe);
+        }
+
+        try {
+            return parsedExpression.getValue(((SpelTemplateContext) getTemplateContext()).getContext(), clazz);
+        } catch (SpelEvaluationException see) {
+            throw new ExpressionEvaluationException(parsedExpression.getExpressionString(), see);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.core.el;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.gravitee.el.spel.TemplateParserContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ParseException;
+import org.springframework.expression.ParserContext;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.util.concurrent.ExecutionException;
+import java.util.regex.Pattern;
+
+/**
+ * A bounded cache of parsed expressions, shared by all the APIs deployed on the gateway, so that the same expression
+ * is not parsed again for each request.
+ *
+ * Parsed expressions are thread-safe and can be evaluated concurrently against different evaluation contexts.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public final class ExpressionCache {
+
+    private static final int MAXIMUM_SIZE = 10_000;
+
+    private static final Pattern EXPRESSION_REGEX_PATTERN = Pattern.compile("\\{([^#|T|(])");
+    private static final String EXPRESSION_REGEX_SUBSTITUTE = "{'{'}$1";
+
+    private static final SpelExpressionParser EXPRESSION_PARSER = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, ExpressionCache.class.getClassLoader()));
+
+    private static final ExpressionCache TEMPLATES = new ExpressionCache(new TemplateParserContext());
+
+    private static final ExpressionCache EXPRESSIONS = new ExpressionCache(null);
+
+    private final Cache<String, Expression> cache = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .recordStats()
+            .build();
+
+    private final ParserContext parserContext;
+
+    private ExpressionCache(ParserContext parserContext) {
+        this.parserContext = parserContext;
+    }
+
+    /**
+     * Returns the cache of templates, as evaluated by the {@link io.gravitee.el.TemplateEngine}: the expressions are
+     * delimited by <code>{</code> and <code>}</code>.
+     */
+    public static ExpressionCache templates() {
+        return TEMPLATES;
+    }
+
+    /**
+     * Returns the cache of plain expressions, as used by logging conditions.
+     */
+    public static ExpressionCache expressions() {
+        return EXPRESSIONS;
+    }
+
+    /**
+     * Returns the parsed expression, parsing it only if it is not already cached.
+     *
+     * @param expression The expression to parse.
+     * @return The parsed expression.
+     * @throws ParseException if the expression is not valid, invalid expressions are not cached.
+     */
+    public Expression get(String expression) throws ParseException {
+        try {
+            return cache.get(expression, () -> parse(expression));
+        } catch (ExecutionException | UncheckedExecutionException ex) {
+            if (ex.getCause() instanceof ParseException) {
+                throw (ParseException) ex.getCause();
+            }
+
+            throw new IllegalStateException("Unable to parse expression " + expression, ex.getCause());
+        }
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private Expression parse(String expression) {
+        String escaped = EXPRESSION_REGEX_PATTERN.matcher(expression).replaceAll(EXPRESSION_REGEX_SUBSTITUTE);
+
+        return (parserContext != null) ?
+                EXPRESSION_PARSER.parseExpression(escaped, parserContext) :
+                EXPRESSION_PARSER.parseExpression(escaped);
+    }
+}
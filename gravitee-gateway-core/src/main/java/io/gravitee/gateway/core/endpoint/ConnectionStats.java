@@ -0,0 +1,137 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.core.endpoint;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of the connections opened by a connector to its endpoint.
+ *
+ * A connection is active while a request is using it, and idle otherwise. Requests are pending while they are
+ * waiting for a connection, either because a new one is being opened or because all of them are active.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public class ConnectionStats {
+
+    private final AtomicInteger open = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder waitTime = new LongAdder();
+
+    private final LongAdder connects = new LongAdder();
+    private final LongAdder connectTime = new LongAdder();
+
+    public void opened() {
+        open.incrementAndGet();
+    }
+
+    public void closed() {
+        open.decrementAndGet();
+    }
+
+    /**
+     * A new connection has been established for a request.
+     *
+     * @param connectTime the time, in nanoseconds, it took to establish the connection.
+     */
+    public void established(long connectTime) {
+        connects.increment();
+        this.connectTime.add(connectTime);
+    }
+
+    /**
+     * A request is waiting for a connection.
+     */
+    public void requested() {
+        pending.incrementAndGet();
+    }
+
+    /**
+     * A waiting request got a connection.
+     *
+     * @param waitTime the time, in nanoseconds, the request has been waiting for the connection.
+     */
+    public void acquired(long waitTime) {
+        pending.decrementAndGet();
+        active.incrementAndGet();
+
+        acquisitions.increment();
+        this.waitTime.add(waitTime);
+    }
+
+    /**
+     * A waiting request got a connection, at a time which is not precisely known: it is not accounted in the average
+     * wait time.
+     */
+    public void acquired() {
+        pending.decrementAndGet();
+        active.incrementAndGet();
+    }
+
+    /**
+     * A request does not use its connection anymore.
+     */
+    public void released() {
+        active.decrementAndGet();
+    }
+
+    /**
+     * A request ended while waiting for a connection.
+     */
+    public void abandoned() {
+        pending.decrementAndGet();
+    }
+
+    public int open() {
+        return open.get();
+    }
+
+    public int active() {
+        return active.get();
+    }
+
+    public int idle() {
+        return Math.max(0, open.get() - active.get());
+    }
+
+    public int pending() {
+        return pending.get();
+    }
+
+    /**
+     * @return the average time, in nanoseconds, requests have been waiting for a connection.
+     */
+    public long averageWaitTime() {
+        return average(waitTime, acquisitions);
+    }
+
+    /**
+     * @return the average time, in nanoseconds, it took to establish a new connection.
+     */
+    public long averageConnectTime() {
+        return average(connectTime, connects);
+    }
+
+    private static long average(LongAdder total, LongAdder count) {
+        long n = count.sum();
+        return (n == 0) ? 0 : total.sum() / n;
+    }
+}
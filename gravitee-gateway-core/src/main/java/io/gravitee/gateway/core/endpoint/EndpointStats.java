@@ -0,0 +1,110 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.core.endpoint;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live statistics of an endpoint, maintained by its connector while requests are processed and used by the
+ * load-balancers which take the load of the endpoints into account.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public class EndpointStats {
+
+    /**
+     * Default weight of a new response in the moving averages.
+     */
+    public static final double DEFAULT_DECAY = 0.3;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final ConnectionStats connections = new ConnectionStats();
+
+    private volatile double decay = DEFAULT_DECAY;
+
+    private long responses;
+
+    private volatile double latency;
+
+    private volatile double errorRate;
+
+    public void requestStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    public void requestEnded() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * @return the number of requests sent to the endpoint and not yet completed.
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return the statistics of the connections to the endpoint.
+     */
+    public ConnectionStats connections() {
+        return connections;
+    }
+
+    /**
+     * Record the outcome of a request, once the endpoint has responded or failed.
+     *
+     * @param latency the time, in nanoseconds, between the request and the response (or the failure).
+     * @param error <code>true</code> if the endpoint failed to process the request.
+     */
+    public synchronized void responded(long latency, boolean error) {
+        if (responses++ == 0) {
+            this.latency = latency;
+            this.errorRate = error ? 1 : 0;
+        } else {
+            this.latency += decay * (latency - this.latency);
+            this.errorRate += decay * ((error ? 1 : 0) - this.errorRate);
+        }
+    }
+
+    /**
+     * @return the exponentially weighted moving average of the latency of the endpoint, in nanoseconds.
+     */
+    public double latency() {
+        return latency;
+    }
+
+    /**
+     * @return the exponentially weighted moving average of the error rate of the endpoint, between 0 and 1.
+     */
+    public double errorRate() {
+        return errorRate;
+    }
+
+    /**
+     * Set how fast the moving averages forget about the past responses.
+     *
+     * @param decay the weight of a new response in the moving averages, between 0 (exclusive) and 1.
+     */
+    public void decay(double decay) {
+        if (decay <= 0 || decay > 1) {
+            throw new IllegalArgumentException("Decay must be greater than 0 and lower than or equal to 1");
+        }
+
+        this.decay = decay;
+    }
+}
@@ -28,11 +28,18 @@ public class ManagedEndpoint extends AbstractEndpoint implements EndpointStatusL
 
     private final io.gravitee.definition.model.Endpoint endpoint;
     private final Connector connector;
+    private final EndpointStats stats;
 
     public ManagedEndpoint(final io.gravitee.definition.model.Endpoint endpoint, final Connector connector) {
+        this(endpoint, connector, new EndpointStats());
+    }
+
+    public ManagedEndpoint(final io.gravitee.definition.model.Endpoint endpoint, final Connector connector,
+                           final EndpointStats stats) {
         this.endpoint = endpoint;
         this.endpoint.addEndpointAvailabilityListener(this);
         this.connector = connector;
+        this.stats = stats;
     }
 
     @Override
@@ -65,6 +72,10 @@ public class ManagedEndpoint extends AbstractEndpoint implements EndpointStatusL
         return endpoint.getWeight();
     }
 
+    public EndpointStats stats() {
+        return stats;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
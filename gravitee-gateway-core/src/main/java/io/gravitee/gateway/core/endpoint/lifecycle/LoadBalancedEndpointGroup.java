@@ -15,6 +15,7 @@
  */
 package io.gravitee.gateway.core.endpoint.lifecycle;
 
+import io.gravitee.gateway.api.ExecutionContext;
 import io.gravitee.gateway.api.endpoint.Endpoint;
 import io.gravitee.gateway.core.loadbalancer.LoadBalancerStrategy;
 
@@ -38,6 +39,11 @@ public class LoadBalancedEndpointGroup implements LoadBalancerStrategy {
         return strategy.next();
     }
 
+    @Override
+    public Endpoint next(ExecutionContext context) {
+        return strategy.next(context);
+    }
+
     public String getName() {
         return name;
     }
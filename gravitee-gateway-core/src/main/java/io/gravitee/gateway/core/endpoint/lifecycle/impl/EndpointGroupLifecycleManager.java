@@ -25,6 +25,7 @@ import io.gravitee.definition.model.EndpointGroup;
 import io.gravitee.definition.model.LoadBalancer;
 import io.gravitee.definition.model.endpoint.HttpEndpoint;
 import io.gravitee.gateway.core.endpoint.EndpointException;
+import io.gravitee.gateway.core.endpoint.EndpointStats;
 import io.gravitee.gateway.core.endpoint.factory.EndpointFactory;
 import io.gravitee.gateway.core.endpoint.factory.template.EndpointContext;
 import io.gravitee.gateway.core.endpoint.lifecycle.EndpointLifecycleManager;
@@ -48,6 +49,20 @@ public class EndpointGroupLifecycleManager extends AbstractLifecycleComponent<En
 
     private final Logger logger = LoggerFactory.getLogger(EndpointGroupLifecycleManager.class);
 
+    /**
+     * Prefix of the API properties configuring the load-balancer of an endpoint group, for the settings which are not
+     * part of the API definition model: <code>gravitee.loadbalancer.{group name}.{setting}</code>.
+     * The <code>type</code> setting overrides the load-balancer type of the group. The <code>EWMA</code> type also
+     * reads the <code>decay</code> and <code>probe</code> settings, the <code>CONSISTENT_HASH</code> type reads the
+     * <code>key</code> (an expression) and <code>cookie</code> (enables the sticky mode) settings.
+     */
+    static final String LOAD_BALANCER_PROPERTY_PREFIX = "gravitee.loadbalancer.";
+
+    static final String LEAST_CONNECTIONS = "LEAST_CONNECTIONS";
+    static final String POWER_OF_TWO_CHOICES = "POWER_OF_TWO_CHOICES";
+    static final String EWMA = "EWMA";
+    static final String CONSISTENT_HASH = "CONSISTENT_HASH";
+
     @Autowired
     private Api api;
 
@@ -97,29 +112,82 @@ public class EndpointGroupLifecycleManager extends AbstractLifecycleComponent<En
                 })
                 .forEach(this::start);
 
+        lbGroup = new LoadBalancedEndpointGroup(group.getName(), createLoadBalancer());
+    }
+
+    private LoadBalancerStrategy createLoadBalancer() {
+        String type = getLoadBalancerProperty("type");
+
+        if (type != null) {
+            switch (type.toUpperCase()) {
+                case LEAST_CONNECTIONS:
+                    return new LeastConnectionsLoadBalancer(this.endpoints);
+                case POWER_OF_TWO_CHOICES:
+                    return new PowerOfTwoChoicesLoadBalancer(this.endpoints);
+                case EWMA:
+                    return createEwmaLoadBalancer();
+                case CONSISTENT_HASH:
+                    String key = getLoadBalancerProperty("key");
+                    return new ConsistentHashLoadBalancer(this.endpoints,
+                            (key != null) ? key : ConsistentHashLoadBalancer.DEFAULT_KEY, getLoadBalancerProperty("cookie"));
+                default:
+                    logger.warn("Unknown load-balancer type [{}] for endpoint group [{}], using the one from the API definition",
+                            type, group.getName());
+            }
+        }
+
         LoadBalancer loadBalancerDef = group.getLoadBalancer();
-        LoadBalancerStrategy strategy;
 
-        if (loadBalancerDef != null) {
+        if (loadBalancerDef != null && loadBalancerDef.getType() != null) {
             switch (loadBalancerDef.getType()) {
                 case RANDOM:
-                    strategy = new RandomLoadBalancer(this.endpoints);
-                    break;
+                    return new RandomLoadBalancer(this.endpoints);
                 case WEIGHTED_RANDOM:
-                    strategy = new WeightedRandomLoadBalancer(this.endpoints);
-                    break;
+                    return new WeightedRandomLoadBalancer(this.endpoints);
                 case WEIGHTED_ROUND_ROBIN:
-                    strategy = new WeightedRoundRobinLoadBalancer(this.endpoints);
-                    break;
+                    return new WeightedRoundRobinLoadBalancer(this.endpoints);
                 default:
-                    strategy = new RoundRobinLoadBalancer(this.endpoints);
-                    break;
+                    return new RoundRobinLoadBalancer(this.endpoints);
             }
-        } else {
-            strategy = new RoundRobinLoadBalancer(this.endpoints);
         }
 
-        lbGroup = new LoadBalancedEndpointGroup(group.getName(), strategy);
+        return new RoundRobinLoadBalancer(this.endpoints);
+    }
+
+    private LoadBalancerStrategy createEwmaLoadBalancer() {
+        double decay = getLoadBalancerProperty("decay", EndpointStats.DEFAULT_DECAY);
+        double probe = getLoadBalancerProperty("probe", EwmaLoadBalancer.DEFAULT_PROBE);
+
+        try {
+            return new EwmaLoadBalancer(this.endpoints, decay, probe);
+        } catch (IllegalArgumentException iae) {
+            logger.warn("Invalid EWMA load-balancer settings for endpoint group [{}]: {}. Using default settings",
+                    group.getName(), iae.getMessage());
+            return new EwmaLoadBalancer(this.endpoints);
+        }
+    }
+
+    private double getLoadBalancerProperty(String name, double defaultValue) {
+        String value = getLoadBalancerProperty(name);
+        if (value == null) {
+            return defaultValue;
+        }
+
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException nfe) {
+            logger.warn("Invalid load-balancer {} [{}] for endpoint group [{}], using {}",
+                    name, value, group.getName(), defaultValue);
+            return defaultValue;
+        }
+    }
+
+    private String getLoadBalancerProperty(String name) {
+        if (api.getProperties() == null || api.getProperties().getValues() == null) {
+            return null;
+        }
+
+        return api.getProperties().getValues().get(LOAD_BALANCER_PROPERTY_PREFIX + group.getName() + '.' + name);
     }
 
     @Override
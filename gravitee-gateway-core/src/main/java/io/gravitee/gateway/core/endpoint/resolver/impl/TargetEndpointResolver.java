@@ -50,7 +50,8 @@ public class TargetEndpointResolver implements EndpointResolver {
     private static final String QUERY_SEPARATOR = "?";
     private static final String QUERYPARAM_SEPARATOR = "&";
 
-    private static final Pattern URI_SCHEME_PATTERN = Pattern.compile("^(https?|wss?|grpcs?)://.*$");
+    // Schemes for which the double slash following the scheme separator must be kept
+    private static final String[] URI_SCHEMES = {"http:", "https:", "ws:", "wss:", "grpc:", "grpcs:"};
 
     @Autowired
     private ReferenceRegister referenceRegister;
@@ -63,8 +64,8 @@ public class TargetEndpointResolver implements EndpointResolver {
         String targetUri = (String) context.getAttribute(ExecutionContext.ATTR_REQUEST_ENDPOINT);
 
         return (targetUri != null)
-                ? selectUserDefinedEndpoint(context.request(), targetUri)
-                : selectLoadBalancedEndpoint(context.request());
+                ? selectUserDefinedEndpoint(context, targetUri)
+                : selectLoadBalancedEndpoint(context);
     }
 
     /**
@@ -72,30 +73,38 @@ public class TargetEndpointResolver implements EndpointResolver {
      * The resolver must select the next endpoint from the default group (considering that the default group is the
      * first one).
      */
-    private ConnectorEndpoint selectLoadBalancedEndpoint(Request serverRequest) {
+    private ConnectorEndpoint selectLoadBalancedEndpoint(ExecutionContext context) {
         // Get the first group
         LoadBalancedEndpointGroup group = groupManager.getDefault();
 
         // Resolve to the next endpoint from group LB
-        Endpoint endpoint = group.next();
+        Endpoint endpoint = group.next(context);
 
-        return createEndpoint(endpoint, (endpoint != null) ? endpoint.target() + serverRequest.pathInfo() : null);
+        return createEndpoint(endpoint, (endpoint != null) ? concat(endpoint.target(), context.request().pathInfo()) : null);
     }
 
     /**
      * Select an endpoint according to the URI passed in the execution request attribute.
      */
-    private ConnectorEndpoint selectUserDefinedEndpoint(Request serverRequest, String target) {
+    private ConnectorEndpoint selectUserDefinedEndpoint(ExecutionContext context, String target) {
+        Request serverRequest = context.request();
+
         // Do we have a relative or an absolute path ?
-        if (URI_SCHEME_PATTERN.matcher(target).matches()) {
+        if (hasScheme(target)) {
             // When the user selected endpoint which is not defined (according to the given target), the gateway
             // is always returning the first endpoints reference and took into account its configuration.
             Collection<EndpointReference> endpoints = referenceRegister.referencesByType(EndpointReference.class);
-            Reference reference = endpoints
-                    .stream()
-                    .filter(endpointEntry -> target.startsWith(endpointEntry.endpoint().target()))
-                    .findFirst()
-                    .orElse(endpoints.iterator().next());
+            Reference reference = null;
+            for (EndpointReference endpointReference : endpoints) {
+                if (target.startsWith(endpointReference.endpoint().target())) {
+                    reference = endpointReference;
+                    break;
+                }
+            }
+
+            if (reference == null) {
+                reference = endpoints.iterator().next();
+            }
 
             if (reference == null) {
                 return null;
@@ -108,7 +117,7 @@ public class TargetEndpointResolver implements EndpointResolver {
             LoadBalancedEndpointGroup group = groupManager.getDefault();
 
             // Resolve to the next endpoint from group LB
-            Endpoint endpoint = group.next();
+            Endpoint endpoint = group.next(context);
             if (endpoint == null) {
                 return createEndpoint(endpoint, null);
             }
@@ -195,7 +204,7 @@ public class TargetEndpointResolver implements EndpointResolver {
 
         if (reachable) {
             // Remove duplicate slash
-            final String target = DUPLICATE_SLASH_REMOVER.matcher(uri).replaceAll(URI_PATH_SEPARATOR);
+            final String target = removeDuplicateSlashes(uri);
 
             return new ConnectorEndpoint() {
                 @Override
@@ -212,4 +221,49 @@ public class TargetEndpointResolver implements EndpointResolver {
             return null;
         }
     }
+
+    /**
+     * Appends the request path to the endpoint target, without doubling the slash between them.
+     */
+    private static String concat(String target, String path) {
+        if (!target.isEmpty() && !path.isEmpty()
+                && target.charAt(target.length() - 1) == '/' && path.charAt(0) == '/') {
+            return new StringBuilder(target.length() + path.length() - 1)
+                    .append(target)
+                    .append(path, 1, path.length())
+                    .toString();
+        }
+
+        return target.concat(path);
+    }
+
+    private static boolean hasScheme(String uri) {
+        int separatorIdx = uri.indexOf("//");
+        return separatorIdx != -1 && isSchemeSeparator(uri, separatorIdx, true);
+    }
+
+    /**
+     * Same as applying {@link #DUPLICATE_SLASH_REMOVER}, but the URI is returned as is, without any regex
+     * evaluation, when the only double slash it contains is the one following the scheme.
+     */
+    private static String removeDuplicateSlashes(String uri) {
+        int separatorIdx = uri.indexOf("//");
+        if (separatorIdx == -1
+                || (isSchemeSeparator(uri, separatorIdx, false) && uri.indexOf("//", separatorIdx + 1) == -1)) {
+            return uri;
+        }
+
+        return DUPLICATE_SLASH_REMOVER.matcher(uri).replaceAll(URI_PATH_SEPARATOR);
+    }
+
+    private static boolean isSchemeSeparator(String uri, int separatorIdx, boolean leading) {
+        for (String scheme : URI_SCHEMES) {
+            int schemeIdx = separatorIdx - scheme.length();
+            if ((leading ? schemeIdx == 0 : schemeIdx >= 0) && uri.startsWith(scheme, schemeIdx)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
 }
@@ -0,0 +1,257 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.core.loadbalancer;
+
+import io.gravitee.common.http.HttpHeaders;
+import io.gravitee.gateway.api.ExecutionContext;
+import io.gravitee.gateway.api.endpoint.Endpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Selects the endpoint from a hash ring, according to a key evaluated from the request with the expression language
+ * (a header, a cookie, the API key or the client IP, ...). Requests with the same key are always served by the same
+ * endpoint while it is available.
+ *
+ * Each endpoint is placed many times on the ring (virtual nodes): when an endpoint becomes unavailable, only the
+ * keys it was serving are moved, and they are spread over all the remaining endpoints.
+ *
+ * In sticky mode, the position of the request on the ring is kept in a cookie, so that a client keeps being served
+ * by the same endpoint even if the key can not be evaluated from its next requests.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public class ConsistentHashLoadBalancer extends LoadBalancer {
+
+    private final Logger logger = LoggerFactory.getLogger(ConsistentHashLoadBalancer.class);
+
+    public static final String DEFAULT_KEY = "{#request.remoteAddress}";
+
+    /**
+     * Position of the request on the ring, computed once per request.
+     */
+    static final String ATTR_HASH = ExecutionContext.ATTR_PREFIX + "loadbalancer.hash";
+
+    static final int VIRTUAL_NODES = 160;
+
+    private final String key;
+    private final String cookie;
+
+    private final AtomicInteger counter = new AtomicInteger(0);
+
+    /**
+     * Set by the super constructor as soon as an endpoint is added: must not be initialized here.
+     */
+    private volatile Ring ring;
+
+    public ConsistentHashLoadBalancer(Collection<Endpoint> endpoints) {
+        this(endpoints, DEFAULT_KEY, null);
+    }
+
+    /**
+     * @param key the expression evaluating the key of the requests.
+     * @param cookie the name of the cookie keeping the position of a client on the ring, <code>null</code> to
+     *               disable the sticky mode.
+     */
+    public ConsistentHashLoadBalancer(Collection<Endpoint> endpoints, String key, String cookie) {
+        super(endpoints);
+
+        this.key = key;
+        this.cookie = cookie;
+    }
+
+    @Override
+    protected void refresh(List<Endpoint> endpoints) {
+        ring = new Ring(endpoints);
+    }
+
+    @Override
+    Endpoint nextEndpoint(ExecutionContext context) {
+        Ring ring = this.ring;
+        if (ring == null || ring.isEmpty()) {
+            return null;
+        }
+
+        Long hash = hash(context);
+        return (hash != null) ? ring.get(hash) : nextEndpoint();
+    }
+
+    /**
+     * Without any key, requests are distributed in a round-robin way.
+     */
+    @Override
+    Endpoint nextEndpoint() {
+        List<Endpoint> endpoints = this.endpoints;
+
+        int size = endpoints.size();
+        if (size == 0) {
+            return null;
+        }
+
+        return endpoints.get(Math.abs(counter.getAndIncrement() % size));
+    }
+
+    private Long hash(ExecutionContext context) {
+        Long hash = (Long) context.getAttribute(ATTR_HASH);
+        if (hash != null) {
+            return hash;
+        }
+
+        if (cookie != null) {
+            hash = fromCookie(context);
+        }
+
+        if (hash == null) {
+            String value = evaluateKey(context);
+            if (value != null && !value.isEmpty()) {
+                hash = hash(value);
+            } else if (cookie != null) {
+                // No key for this client: pick a random position which will be kept by the cookie
+                hash = hash(UUID.randomUUID().toString());
+            }
+
+            if (hash != null && cookie != null) {
+                setCookie(context, hash);
+            }
+        }
+
+        if (hash != null) {
+            context.setAttribute(ATTR_HASH, hash);
+        }
+
+        return hash;
+    }
+
+    private String evaluateKey(ExecutionContext context) {
+        try {
+            return context.getTemplateEngine().getValue(key, String.class);
+        } catch (Exception ex) {
+            logger.debug("Unable to evaluate load-balancing key {}: {}", key, ex.getMessage());
+            return null;
+        }
+    }
+
+    private Long fromCookie(ExecutionContext context) {
+        List<String> headers = context.request().headers().get(HttpHeaders.COOKIE);
+        if (headers == null) {
+            return null;
+        }
+
+        for (String header : headers) {
+            for (String pair : header.split(";")) {
+                int idx = pair.indexOf('=');
+                if (idx != -1 && pair.substring(0, idx).trim().equals(cookie)) {
+                    try {
+                        return Long.parseUnsignedLong(pair.substring(idx + 1).trim(), 16);
+                    } catch (NumberFormatException nfe) {
+                        // Not a value set by the gateway, a new one is going to be set
+                        return null;
+                    }
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private void setCookie(ExecutionContext context, long hash) {
+        Object contextPath = context.getAttribute(ExecutionContext.ATTR_CONTEXT_PATH);
+
+        context.response().headers().add(HttpHeaders.SET_COOKIE, cookie + '=' + Long.toHexString(hash)
+                + "; Path=" + ((contextPath != null) ? contextPath : "/") + "; HttpOnly");
+    }
+
+    /**
+     * 64-bit FNV-1a hash, followed by the finalizer of MurmurHash3 so that close keys are spread over the ring.
+     */
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "ConsistentHashLoadBalancer";
+    }
+
+    private static final class Ring {
+
+        private final long[] hashes;
+        private final Endpoint[] endpoints;
+
+        Ring(List<Endpoint> endpoints) {
+            long[][] nodes = new long[endpoints.size() * VIRTUAL_NODES][];
+
+            for (int i = 0; i < endpoints.size(); i++) {
+                // Virtual nodes only depend on the endpoint name: they stay in place when other endpoints come and go
+                String name = endpoints.get(i).name();
+                for (int j = 0; j < VIRTUAL_NODES; j++) {
+                    nodes[i * VIRTUAL_NODES + j] = new long[] {hash(name + '#' + j), i};
+                }
+            }
+
+            Arrays.sort(nodes, (a, b) -> Long.compare(a[0], b[0]));
+
+            this.hashes = new long[nodes.length];
+            this.endpoints = new Endpoint[nodes.length];
+            for (int i = 0; i < nodes.length; i++) {
+                this.hashes[i] = nodes[i][0];
+                this.endpoints[i] = endpoints.get((int) nodes[i][1]);
+            }
+        }
+
+        boolean isEmpty() {
+            return hashes.length == 0;
+        }
+
+        /**
+         * @return the endpoint of the first virtual node following the given position on the ring.
+         */
+        Endpoint get(long hash) {
+            int low = 0;
+            int high = hashes.length;
+
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (hashes[mid] < hash) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+
+            return endpoints[(low == hashes.length) ? 0 : low];
+        }
+    }
+}
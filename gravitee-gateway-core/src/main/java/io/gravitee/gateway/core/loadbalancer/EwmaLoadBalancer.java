@@ -0,0 +1,126 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.core.loadbalancer;
+
+import io.gravitee.gateway.api.endpoint.Endpoint;
+import io.gravitee.gateway.core.endpoint.EndpointStats;
+import io.gravitee.gateway.core.endpoint.ManagedEndpoint;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Selects the endpoint with the best score, computed from the moving averages of its latency and error rate and
+ * from its in-flight requests. A fraction of the requests is sent to a random endpoint so that the averages of the
+ * endpoints which are not selected anymore are refreshed, and slow endpoints get a chance to recover.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public class EwmaLoadBalancer extends LoadAwareLoadBalancer {
+
+    public static final double DEFAULT_PROBE = 0.05;
+
+    /**
+     * Latency added to each endpoint, in nanoseconds, so that an endpoint failing immediately is not seen as fast.
+     */
+    private static final double MIN_LATENCY = 1_000_000;
+
+    private static final double MAX_ERROR_RATE = 0.99;
+
+    private final double decay;
+    private final double probe;
+
+    private final AtomicInteger counter = new AtomicInteger(0);
+
+    public EwmaLoadBalancer(Collection<Endpoint> endpoints) {
+        this(endpoints, EndpointStats.DEFAULT_DECAY, DEFAULT_PROBE);
+    }
+
+    public EwmaLoadBalancer(Collection<Endpoint> endpoints, double decay, double probe) {
+        super(endpoints);
+
+        if (decay <= 0 || decay > 1) {
+            throw new IllegalArgumentException("Decay must be greater than 0 and lower than or equal to 1");
+        }
+
+        if (probe < 0 || probe > 1) {
+            throw new IllegalArgumentException("Probe must be between 0 and 1");
+        }
+
+        this.decay = decay;
+        this.probe = probe;
+
+        // Endpoints have been registered before the decay was known
+        synchronized (this) {
+            refresh(this.endpoints);
+        }
+    }
+
+    @Override
+    protected void refresh(List<Endpoint> endpoints) {
+        // Called from the super constructor, before the decay is known
+        if (decay != 0) {
+            for (Endpoint endpoint : endpoints) {
+                if (endpoint instanceof ManagedEndpoint) {
+                    ((ManagedEndpoint) endpoint).stats().decay(decay);
+                }
+            }
+        }
+
+        super.refresh(endpoints);
+    }
+
+    @Override
+    int select(EndpointStats[] stats) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (probe > 0 && random.nextDouble() < probe) {
+            return random.nextInt(stats.length);
+        }
+
+        // Start from a different endpoint each time so that endpoints with the same score share the traffic
+        int start = Math.abs(counter.getAndIncrement() % stats.length);
+        int selected = start;
+        double best = score(stats[start]);
+
+        for (int i = 1; i < stats.length; i++) {
+            int idx = (start + i) % stats.length;
+            double score = score(stats[idx]);
+            if (score < best) {
+                selected = idx;
+                best = score;
+            }
+        }
+
+        return selected;
+    }
+
+    /**
+     * The expected time to serve a request: the latency of the endpoint, multiplied by the requests it is already
+     * serving and by the attempts it should take for the request to succeed.
+     */
+    static double score(EndpointStats stats) {
+        return (stats.latency() + MIN_LATENCY) * (stats.inFlight() + 1)
+                / (1 - Math.min(stats.errorRate(), MAX_ERROR_RATE));
+    }
+
+    @Override
+    public String toString() {
+        return "EwmaLoadBalancer";
+    }
+}
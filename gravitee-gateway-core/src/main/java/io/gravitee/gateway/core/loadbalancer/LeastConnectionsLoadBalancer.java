@@ -0,0 +1,61 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.core.loadbalancer;
+
+import io.gravitee.gateway.api.endpoint.Endpoint;
+import io.gravitee.gateway.core.endpoint.EndpointStats;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Selects the endpoint with the fewest in-flight requests. Ties are broken in a round-robin way so that idle
+ * endpoints share the traffic evenly.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public class LeastConnectionsLoadBalancer extends LoadAwareLoadBalancer {
+
+    private final AtomicInteger counter = new AtomicInteger(0);
+
+    public LeastConnectionsLoadBalancer(Collection<Endpoint> endpoints) {
+        super(endpoints);
+    }
+
+    @Override
+    int select(EndpointStats[] stats) {
+        int start = Math.abs(counter.getAndIncrement() % stats.length);
+        int selected = start;
+        int least = stats[start].inFlight();
+
+        for (int i = 1; i < stats.length && least > 0; i++) {
+            int idx = (start + i) % stats.length;
+            int inFlight = stats[idx].inFlight();
+            if (inFlight < least) {
+                selected = idx;
+                least = inFlight;
+            }
+        }
+
+        return selected;
+    }
+
+    @Override
+    public String toString() {
+        return "LeastConnectionsLoadBalancer";
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.core.loadbalancer;
+
+import io.gravitee.gateway.api.endpoint.Endpoint;
+import io.gravitee.gateway.core.endpoint.EndpointStats;
+import io.gravitee.gateway.core.endpoint.ManagedEndpoint;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Base class for the load-balancers selecting endpoints according to their live statistics.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public abstract class LoadAwareLoadBalancer extends LoadBalancer {
+
+    /**
+     * Statistics of the endpoints, at the same position as the endpoints of the current snapshot.
+     */
+    private volatile Candidates candidates;
+
+    LoadAwareLoadBalancer(Collection<Endpoint> endpoints) {
+        super(endpoints);
+    }
+
+    @Override
+    protected void refresh(List<Endpoint> endpoints) {
+        candidates = new Candidates(endpoints);
+    }
+
+    @Override
+    Endpoint nextEndpoint() {
+        Candidates candidates = this.candidates;
+        if (candidates == null || candidates.endpoints.length == 0) {
+            return null;
+        } else if (candidates.endpoints.length == 1) {
+            return candidates.endpoints[0];
+        }
+
+        return candidates.endpoints[select(candidates.stats)];
+    }
+
+    /**
+     * Select an endpoint from the statistics of at least two endpoints.
+     *
+     * @return the position of the selected endpoint.
+     */
+    abstract int select(EndpointStats[] stats);
+
+    private static final class Candidates {
+
+        private final Endpoint[] endpoints;
+        private final EndpointStats[] stats;
+
+        Candidates(List<Endpoint> endpoints) {
+            this.endpoints = endpoints.toArray(new Endpoint[0]);
+            this.stats = new EndpointStats[this.endpoints.length];
+
+            for (int i = 0; i < this.endpoints.length; i++) {
+                // Endpoints which are not managed by the gateway have no statistics: they are seen as idle
+                this.stats[i] = (this.endpoints[i] instanceof ManagedEndpoint) ?
+                        ((ManagedEndpoint) this.endpoints[i]).stats() : new EndpointStats();
+            }
+        }
+    }
+}
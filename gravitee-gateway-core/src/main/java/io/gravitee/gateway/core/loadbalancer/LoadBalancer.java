@@ -17,15 +17,20 @@ package io.gravitee.gateway.core.loadbalancer;
 
 import io.gravitee.common.util.ChangeListener;
 import io.gravitee.common.util.ObservableCollection;
+import io.gravitee.gateway.api.ExecutionContext;
 import io.gravitee.gateway.api.endpoint.Endpoint;
 import io.gravitee.gateway.api.endpoint.EndpointAvailabilityListener;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
+ * Endpoints are kept as immutable snapshots: a new list is built and published each time an endpoint is added,
+ * removed or when its availability changes, so that selecting an endpoint never requires any lock.
+ *
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
@@ -34,13 +39,12 @@ public abstract class LoadBalancer implements LoadBalancerStrategy, EndpointAvai
     /**
      * Primary endpoints
      */
-    protected final List<Endpoint> endpoints = new ArrayList<>();
+    protected volatile List<Endpoint> endpoints = Collections.emptyList();
 
     /**
      * Secondary (ie. backup) endpoints
-     * @param endpoints
      */
-    private final List<Endpoint> secondaryEndpoints = new ArrayList<>();
+    private volatile List<Endpoint> secondaryEndpoints = Collections.emptyList();
 
     private final AtomicInteger secondaryCounter = new AtomicInteger(0);
 
@@ -53,11 +57,11 @@ public abstract class LoadBalancer implements LoadBalancerStrategy, EndpointAvai
     }
 
     @Override
-    public void onAvailabilityChange(Endpoint endpoint, boolean available) {
+    public synchronized void onAvailabilityChange(Endpoint endpoint, boolean available) {
         if (available && !endpoints.contains(endpoint)) {
-            endpoints.add(endpoint);
-        } else if (! available){
-            endpoints.remove(endpoint);
+            setEndpoints(with(endpoints, endpoint));
+        } else if (!available && endpoints.contains(endpoint)) {
+            setEndpoints(without(endpoints, endpoint));
         }
     }
 
@@ -67,7 +71,15 @@ public abstract class LoadBalancer implements LoadBalancerStrategy, EndpointAvai
         return (endpoint != null) ? endpoint : nextSecondary();
     }
 
+    @Override
+    public Endpoint next(ExecutionContext context) {
+        Endpoint endpoint = nextEndpoint(context);
+        return (endpoint != null) ? endpoint : nextSecondary();
+    }
+
     private Endpoint nextSecondary() {
+        List<Endpoint> secondaryEndpoints = this.secondaryEndpoints;
+
         int size = secondaryEndpoints.size();
         if (size == 0) {
             return null;
@@ -87,28 +99,57 @@ public abstract class LoadBalancer implements LoadBalancerStrategy, EndpointAvai
     }
 
     @Override
-    public boolean postAdd(Endpoint endpoint) {
+    public synchronized boolean postAdd(Endpoint endpoint) {
         if (endpoint.primary()) {
             endpoint.addEndpointAvailabilityListener(LoadBalancer.this);
-            endpoints.add(endpoint);
+            setEndpoints(with(endpoints, endpoint));
         } else {
-            secondaryEndpoints.add(endpoint);
+            secondaryEndpoints = with(secondaryEndpoints, endpoint);
         }
 
         return false;
     }
 
     @Override
-    public boolean postRemove(Endpoint endpoint) {
+    public synchronized boolean postRemove(Endpoint endpoint) {
         if (endpoint.primary()) {
             endpoint.removeEndpointAvailabilityListener(LoadBalancer.this);
-            endpoints.remove(endpoint);
+            setEndpoints(without(endpoints, endpoint));
         } else {
-            secondaryEndpoints.remove(endpoint);
+            secondaryEndpoints = without(secondaryEndpoints, endpoint);
         }
 
         return false;
     }
 
+    private void setEndpoints(List<Endpoint> endpoints) {
+        this.endpoints = endpoints;
+        refresh(endpoints);
+    }
+
+    /**
+     * Called, while holding the load-balancer lock, each time a new snapshot of the primary endpoints is published.
+     * Implementations can build any additional selection state from it.
+     */
+    protected void refresh(List<Endpoint> endpoints) {
+    }
+
     abstract Endpoint nextEndpoint();
+
+    Endpoint nextEndpoint(ExecutionContext context) {
+        return nextEndpoint();
+    }
+
+    private static List<Endpoint> with(List<Endpoint> endpoints, Endpoint endpoint) {
+        List<Endpoint> copy = new ArrayList<>(endpoints.size() + 1);
+        copy.addAll(endpoints);
+        copy.add(endpoint);
+        return Collections.unmodifiableList(copy);
+    }
+
+    private static List<Endpoint> without(List<Endpoint> endpoints, Endpoint endpoint) {
+        List<Endpoint> copy = new ArrayList<>(endpoints);
+        copy.remove(endpoint);
+        return Collections.unmodifiableList(copy);
+    }
 }
@@ -15,6 +15,7 @@
  */
 package io.gravitee.gateway.core.loadbalancer;
 
+import io.gravitee.gateway.api.ExecutionContext;
 import io.gravitee.gateway.api.endpoint.Endpoint;
 
 /**
@@ -32,4 +33,15 @@ public interface LoadBalancerStrategy {
      * @return Endpoint name or <code>null</code> if none can be selected.
      */
     Endpoint next();
+
+    /**
+     * Select next endpoint to serve the request of the given execution context. Strategies which do not depend on
+     * the request select the next endpoint the same way as {@link #next()}.
+     *
+     * @param context Execution context of the request to serve.
+     * @return Endpoint name or <code>null</code> if none can be selected.
+     */
+    default Endpoint next(ExecutionContext context) {
+        return next();
+    }
 }
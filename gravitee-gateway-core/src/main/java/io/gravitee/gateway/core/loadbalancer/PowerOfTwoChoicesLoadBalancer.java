@@ -0,0 +1,53 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.core.loadbalancer;
+
+import io.gravitee.gateway.api.endpoint.Endpoint;
+import io.gravitee.gateway.core.endpoint.EndpointStats;
+
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks two distinct endpoints at random and selects the one with the fewest in-flight requests. Unlike
+ * {@link LeastConnectionsLoadBalancer}, the cost of a selection does not depend on the number of endpoints, and
+ * concurrent selections do not all rush to the same least loaded endpoint.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public class PowerOfTwoChoicesLoadBalancer extends LoadAwareLoadBalancer {
+
+    public PowerOfTwoChoicesLoadBalancer(Collection<Endpoint> endpoints) {
+        super(endpoints);
+    }
+
+    @Override
+    int select(EndpointStats[] stats) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        int first = random.nextInt(stats.length);
+        // Shift the second choice so that it can not be the same as the first one
+        int second = (first + 1 + random.nextInt(stats.length - 1)) % stats.length;
+
+        return (stats[second].inFlight() < stats[first].inFlight()) ? second : first;
+    }
+
+    @Override
+    public String toString() {
+        return "PowerOfTwoChoicesLoadBalancer";
+    }
+}
@@ -18,7 +18,8 @@ package io.gravitee.gateway.core.loadbalancer;
 import io.gravitee.gateway.api.endpoint.Endpoint;
 
 import java.util.Collection;
-import java.util.Random;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -26,14 +27,14 @@ import java.util.Random;
  */
 public class RandomLoadBalancer extends LoadBalancer {
 
-    private static final Random RANDOM = new Random();
-
     public RandomLoadBalancer(Collection<Endpoint> endpoints) {
         super(endpoints);
     }
 
     @Override
-    public synchronized Endpoint nextEndpoint() {
+    public Endpoint nextEndpoint() {
+        List<Endpoint> endpoints = this.endpoints;
+
         int size = endpoints.size();
         if (size == 0) {
             return null;
@@ -42,7 +43,7 @@ public class RandomLoadBalancer extends LoadBalancer {
             return endpoints.get(0);
         }
 
-        return endpoints.get(RANDOM.nextInt(size));
+        return endpoints.get(ThreadLocalRandom.current().nextInt(size));
     }
 
     @Override
@@ -18,6 +18,7 @@ package io.gravitee.gateway.core.loadbalancer;
 import io.gravitee.gateway.api.endpoint.Endpoint;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -34,6 +35,8 @@ public class RoundRobinLoadBalancer extends LoadBalancer {
 
     @Override
     public Endpoint nextEndpoint() {
+        List<Endpoint> endpoints = this.endpoints;
+
         int size = endpoints.size();
         if (size == 0) {
             return null;
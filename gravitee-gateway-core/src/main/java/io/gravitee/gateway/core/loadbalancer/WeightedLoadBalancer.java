@@ -17,7 +17,7 @@ package io.gravitee.gateway.core.loadbalancer;
 
 import io.gravitee.gateway.api.endpoint.Endpoint;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
@@ -27,64 +27,26 @@ import java.util.List;
  */
 public abstract class WeightedLoadBalancer extends LoadBalancer {
 
-    transient int lastIndex;
-
-    private List<WeightRatio> runtimeRatios;
-
     WeightedLoadBalancer(Collection<Endpoint> endpoints) {
         super(endpoints);
     }
 
-    protected void refresh() {
-        this.loadRuntimeRatios();
-    }
-
-    private void loadRuntimeRatios() {
-        if (runtimeRatios == null) {
-            runtimeRatios = new ArrayList<>(endpoints.size());
-        } else {
-            runtimeRatios.clear();
-        }
-
-        int position = 0;
-
-        for (Endpoint endpoint : endpoints) {
-            runtimeRatios.add(new WeightRatio(position++, endpoint.weight()));
-        }
-    }
-
-    boolean isRuntimeRatiosZeroed() {
-        boolean cleared = true;
+    /**
+     * Weights of the given endpoints. When no endpoint has a positive weight, they are all considered as equal.
+     */
+    static int[] weights(List<Endpoint> endpoints) {
+        int[] weights = new int[endpoints.size()];
+        boolean weighted = false;
 
-        for (WeightRatio runtimeRatio : runtimeRatios) {
-            if (runtimeRatio.getRuntime() > 0) {
-                cleared = false;
-            }
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = Math.max(endpoints.get(i).weight(), 0);
+            weighted |= weights[i] > 0;
         }
-        return cleared;
-    }
 
-    void resetRuntimeRatios() {
-        for (WeightRatio runtimeRatio : runtimeRatios) {
-            runtimeRatio.setRuntime(runtimeRatio.getDistribution());
+        if (!weighted) {
+            Arrays.fill(weights, 1);
         }
-    }
-
-    List<WeightRatio> getRuntimeRatios() {
-        return runtimeRatios;
-    }
-
-    @Override
-    public boolean postAdd(Endpoint object) {
-        super.postAdd(object);
-        this.refresh();
-        return false;
-    }
 
-    @Override
-    public boolean postRemove(Endpoint object) {
-        super.postRemove(object);
-        this.refresh();
-        return false;
+        return weights;
     }
 }
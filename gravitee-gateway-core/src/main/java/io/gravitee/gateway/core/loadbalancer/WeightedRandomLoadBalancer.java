@@ -19,7 +19,7 @@ import io.gravitee.gateway.api.endpoint.Endpoint;
 
 import java.util.Collection;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -27,74 +27,69 @@ import java.util.Random;
  */
 public class WeightedRandomLoadBalancer extends WeightedLoadBalancer {
 
-    private final Random rnd = new Random();
-    private int distributionRatioSum;
-    private int runtimeRatioSum;
+    /**
+     * Endpoints with the cumulative sum of their weights, rebuilt from each endpoints snapshot.
+     */
+    private volatile Distribution distribution;
 
     public WeightedRandomLoadBalancer(Collection<Endpoint> endpoints) {
         super(endpoints);
     }
 
     @Override
-    protected void refresh() {
-        super.refresh();
-        this.loadRatios();
+    protected void refresh(List<Endpoint> endpoints) {
+        distribution = new Distribution(endpoints);
     }
 
-    private void loadRatios() {
-        int sum = 0;
-
-        for (Endpoint endpoint : endpoints) {
-            sum += endpoint.weight();
+    @Override
+    public Endpoint nextEndpoint() {
+        Distribution distribution = this.distribution;
+        if (distribution == null || distribution.endpoints.length == 0) {
+            return null;
         }
 
-        distributionRatioSum = sum;
-        runtimeRatioSum = distributionRatioSum;
+        return distribution.select(ThreadLocalRandom.current().nextInt(distribution.total));
     }
 
     @Override
-    public synchronized Endpoint nextEndpoint() {
-        if (endpoints.isEmpty()) {
-            return null;
-        }
+    public String toString() {
+        return "WeightedRandomLoadBalancer";
+    }
 
-        if (endpoints.size() != getRuntimeRatios().size()) {
-            refresh();
-        }
+    private static final class Distribution {
 
-        int index = selectProcessIndex();
-        lastIndex = index;
-        return endpoints.get(index);
-    }
+        private final Endpoint[] endpoints;
+        private final int[] cumulativeWeights;
+        private final int total;
 
-    private int selectProcessIndex() {
-        if (runtimeRatioSum == 0) {
-            for (WeightRatio distributionRatio : getRuntimeRatios()) {
-                int weight = distributionRatio.getDistribution();
-                distributionRatio.setRuntime(weight);
-            }
-            runtimeRatioSum = distributionRatioSum;
-        }
+        Distribution(List<Endpoint> endpoints) {
+            int[] weights = weights(endpoints);
+
+            this.endpoints = endpoints.toArray(new Endpoint[0]);
+            this.cumulativeWeights = new int[weights.length];
 
-        WeightRatio selected = null;
-        int randomWeight = rnd.nextInt(runtimeRatioSum);
-        int choiceWeight = 0;
-        for (WeightRatio distributionRatio : getRuntimeRatios()) {
-            choiceWeight += distributionRatio.getRuntime();
-            if (randomWeight < choiceWeight) {
-                selected = distributionRatio;
-                break;
+            int sum = 0;
+            for (int i = 0; i < weights.length; i++) {
+                sum += weights[i];
+                cumulativeWeights[i] = sum;
             }
-        }
 
-        selected.setRuntime(selected.getRuntime() - 1);
-        runtimeRatioSum--;
+            this.total = sum;
+        }
 
-        return selected.getPosition();
-    }
+        Endpoint select(int randomWeight) {
+            // First endpoint whose cumulative weight is greater than the random weight
+            int low = 0, high = cumulativeWeights.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulativeWeights[mid] > randomWeight) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
 
-    @Override
-    public String toString() {
-        return "WeightedRandomLoadBalancer";
+            return endpoints[low];
+        }
     }
 }
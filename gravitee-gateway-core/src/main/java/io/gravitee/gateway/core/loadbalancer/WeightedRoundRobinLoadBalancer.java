@@ -18,6 +18,8 @@ package io.gravitee.gateway.core.loadbalancer;
 import io.gravitee.gateway.api.endpoint.Endpoint;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -25,48 +27,95 @@ import java.util.Collection;
  */
 public class WeightedRoundRobinLoadBalancer extends WeightedLoadBalancer {
 
-    private int counter;
+    private final AtomicLong counter = new AtomicLong(0);
+
+    /**
+     * The weighted round, rebuilt from each endpoints snapshot.
+     */
+    private volatile Schedule schedule;
 
     public WeightedRoundRobinLoadBalancer(Collection<Endpoint> endpoints) {
         super(endpoints);
     }
 
     @Override
-    public synchronized Endpoint nextEndpoint() {
-        if (endpoints.isEmpty()) {
+    protected void refresh(List<Endpoint> endpoints) {
+        schedule = new Schedule(endpoints);
+    }
+
+    @Override
+    public Endpoint nextEndpoint() {
+        Schedule schedule = this.schedule;
+        if (schedule == null || schedule.total == 0) {
             return null;
         }
 
-        if (endpoints.size() != getRuntimeRatios().size()) {
-            refresh();
-        }
+        return schedule.select(Math.floorMod(counter.getAndIncrement(), schedule.total));
+    }
+
+    @Override
+    public String toString() {
+        return "WeightedRoundRobinLoadBalancer";
+    }
+
+    /**
+     * Endpoints are interleaved: each pass over the endpoints selects the ones with remaining weight, until all the
+     * weights are consumed. The round is not materialized, its length being the sum of the weights: the endpoint at a
+     * given position is computed from the weights only.
+     */
+    private static final class Schedule {
+
+        private final Endpoint[] endpoints;
+        private final int[] weights;
+        private final int maxWeight;
+        private final long total;
 
-        if (isRuntimeRatiosZeroed())  {
-            resetRuntimeRatios();
-            counter = 0;
+        Schedule(List<Endpoint> endpoints) {
+            this.endpoints = endpoints.toArray(new Endpoint[0]);
+            this.weights = weights(endpoints);
+
+            int max = 0;
+            for (int weight : weights) {
+                max = Math.max(max, weight);
+            }
+
+            this.maxWeight = max;
+            this.total = positions(max);
         }
 
-        boolean found = false;
-        while (!found) {
-            if (counter >= getRuntimeRatios().size()) {
-                counter = 0;
+        Endpoint select(long position) {
+            // Last pass starting at or before the position
+            int low = 0, high = maxWeight - 1;
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (positions(mid) <= position) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
             }
 
-            if (getRuntimeRatios().get(counter).getRuntime() > 0) {
-                getRuntimeRatios().get(counter).setRuntime((getRuntimeRatios().get(counter).getRuntime()) - 1);
-                found = true;
-            } else {
-                counter++;
+            // Then the endpoint at the remaining offset among the ones selected by this pass
+            long offset = position - positions(low);
+            for (int i = 0; i < weights.length; i++) {
+                if (weights[i] > low && offset-- == 0) {
+                    return endpoints[i];
+                }
             }
-        }
 
-        lastIndex = counter;
+            return null;
+        }
 
-        return endpoints.get(counter++);
-    }
+        /**
+         * Number of positions taken by the given number of passes.
+         */
+        private long positions(int passes) {
+            long positions = 0;
+            for (int weight : weights) {
+                positions += Math.min(weight, passes);
+            }
 
-    @Override
-    public String toString() {
-        return "WeightedRoundRobinLoadBalancer";
+            return positions;
+        }
     }
 }
@@ -18,30 +18,46 @@ package io.gravitee.gateway.core.logging.condition.evaluation.el;
 import io.gravitee.gateway.api.ExecutionContext;
 import io.gravitee.gateway.api.Request;
 import io.gravitee.gateway.api.el.EvaluableRequest;
+import io.gravitee.gateway.core.el.ExpressionCache;
 import io.gravitee.gateway.core.logging.condition.evaluation.ConditionEvaluator;
-import org.springframework.expression.Expression;
-import org.springframework.expression.ParseException;
+import org.springframework.expression.*;
 import org.springframework.expression.common.LiteralExpression;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
 public class ExpressionLanguageBasedConditionEvaluator implements ConditionEvaluator {
 
-    private static final String EXPRESSION_REGEX = "\\{([^#|T|(])";
-    private static final String EXPRESSION_REGEX_SUBSTITUTE = "{'{'}$1";
+    private static final String VARIABLE_REQUEST = "request";
+    private static final String VARIABLE_CONTEXT = "context";
 
     private Expression expression;
     private static final Expression FALSE_EXPRESSION = new LiteralExpression("false");
 
+    /**
+     * Resolvers and accessors are shared by all the evaluations, so that their caches are not lost after each one.
+     */
+    private static final StandardEvaluationContext SHARED_CONTEXT = new StandardEvaluationContext();
+
+    static {
+        // Initialize the lazily created resolvers and accessors before sharing them between threads
+        SHARED_CONTEXT.getPropertyAccessors();
+        SHARED_CONTEXT.getConstructorResolvers();
+        SHARED_CONTEXT.getMethodResolvers();
+        SHARED_CONTEXT.getTypeLocator();
+        SHARED_CONTEXT.getTypeConverter();
+    }
+
     public ExpressionLanguageBasedConditionEvaluator(final String condition) {
         if (condition != null) {
             try {
-                this.expression = new SpelExpressionParser().parseExpression(
-                        condition.replaceAll(EXPRESSION_REGEX, EXPRESSION_REGEX_SUBSTITUTE));
+                this.expression = ExpressionCache.expressions().get(condition);
             } catch (ParseException e) {
                 this.expression = FALSE_EXPRESSION;
             }
@@ -51,12 +67,99 @@ public class ExpressionLanguageBasedConditionEvaluator implements ConditionEvalu
     @Override
     public boolean evaluate(Request request, ExecutionContext executionContext) {
         if (expression != null) {
-            StandardEvaluationContext context = new StandardEvaluationContext();
-            context.setVariable("request", new EvaluableRequest(request));
-            context.setVariable("context", new EvaluableExecutionContext(executionContext));
-            return this.expression.getValue(context, Boolean.class);
+            return this.expression.getValue(
+                    new ConditionEvaluationContext(new EvaluableRequest(request), new EvaluableExecutionContext(executionContext)),
+                    Boolean.class);
         }
 
         return true;
     }
+
+    /**
+     * Evaluation context holding the variables of a single evaluation, everything else being delegated to the
+     * shared context.
+     */
+    private static class ConditionEvaluationContext implements EvaluationContext {
+
+        private final EvaluableRequest request;
+
+        private final EvaluableExecutionContext context;
+
+        /**
+         * Variables assigned by the expression itself.
+         */
+        private Map<String, Object> variables;
+
+        ConditionEvaluationContext(EvaluableRequest request, EvaluableExecutionContext context) {
+            this.request = request;
+            this.context = context;
+        }
+
+        @Override
+        public TypedValue getRootObject() {
+            return SHARED_CONTEXT.getRootObject();
+        }
+
+        @Override
+        public List<PropertyAccessor> getPropertyAccessors() {
+            return SHARED_CONTEXT.getPropertyAccessors();
+        }
+
+        @Override
+        public List<ConstructorResolver> getConstructorResolvers() {
+            return SHARED_CONTEXT.getConstructorResolvers();
+        }
+
+        @Override
+        public List<MethodResolver> getMethodResolvers() {
+            return SHARED_CONTEXT.getMethodResolvers();
+        }
+
+        @Override
+        public BeanResolver getBeanResolver() {
+            return SHARED_CONTEXT.getBeanResolver();
+        }
+
+        @Override
+        public TypeLocator getTypeLocator() {
+            return SHARED_CONTEXT.getTypeLocator();
+        }
+
+        @Override
+        public TypeConverter getTypeConverter() {
+            return SHARED_CONTEXT.getTypeConverter();
+        }
+
+        @Override
+        public TypeComparator getTypeComparator() {
+            return SHARED_CONTEXT.getTypeComparator();
+        }
+
+        @Override
+        public OperatorOverloader getOperatorOverloader() {
+            return SHARED_CONTEXT.getOperatorOverloader();
+        }
+
+        @Override
+        public void setVariable(String name, Object value) {
+            if (variables == null) {
+                variables = new HashMap<>();
+            }
+
+            variables.put(name, value);
+        }
+
+        @Override
+        public Object lookupVariable(String name) {
+            if (variables != null && variables.containsKey(name)) {
+                return variables.get(name);
+            } else if (VARIABLE_REQUEST.equals(name)) {
+                return request;
+            } else if (VARIABLE_CONTEXT.equals(name)) {
+                return context;
+            }
+
+            return null;
+        }
+    }
 }
@@ -34,12 +34,23 @@ public abstract class AbstractStreamableProcessorChain<T, S, P extends Streamabl
     private Handler<ProcessorFailure> streamErrorHandler;
     P previousProcessor = null;
 
+    // Handlers given to each processor of the chain, they are created once per chain instead of once per processor
+    private Handler<T> nextHandler;
+    private final Handler<ProcessorFailure> errorForwarder = failure -> errorHandler.handle(failure);
+    private final Handler<Void> exitForwarder = stream -> exitHandler.handle(null);
+    private final Handler<ProcessorFailure> streamErrorForwarder = failure -> streamErrorHandler.handle(failure);
+
     @Override
     public void handle(T data) {
-        if (hasNext()) {
+        while (hasNext()) {
             try {
                 P processor = next(data);
 
+                // A provider may have nothing to do for the current data, skip it instead of linking a no-op processor
+                if (processor == null) {
+                    continue;
+                }
+
                 if (streamableProcessorChain == null) {
                     streamableProcessorChain = processor;
                 }
@@ -53,24 +64,30 @@ public abstract class AbstractStreamableProcessorChain<T, S, P extends Streamabl
                 // Previous stream is now the current policy stream
                 previousProcessor = processor;
 
+                if (nextHandler == null) {
+                    nextHandler = __ -> handle(data);
+                }
+
                 processor
-                        .handler(__ -> handle(data))
-                        .errorHandler(failure -> errorHandler.handle(failure))
-                        .exitHandler(stream -> exitHandler.handle(null))
-                        .streamErrorHandler(failure -> streamErrorHandler.handle(failure))
+                        .handler(nextHandler)
+                        .errorHandler(errorForwarder)
+                        .exitHandler(exitForwarder)
+                        .streamErrorHandler(streamErrorForwarder)
                         .handle(data);
             } catch (Exception ex) {
                 errorHandler.handle(new RuntimeProcessorFailure(ex.getMessage()));
             }
-        } else {
-            ReadWriteStream<S> tailPolicyStreamer = previousProcessor;
-            if (streamableProcessorChain != null && tailPolicyStreamer != null) {
-                tailPolicyStreamer.bodyHandler(bodyPart -> {if (bodyHandler != null) bodyHandler.handle(bodyPart);});
-                tailPolicyStreamer.endHandler(result -> {if (endHandler != null) endHandler.handle(result);});
-            }
 
-            resultHandler.handle(data);
+            return;
         }
+
+        ReadWriteStream<S> tailPolicyStreamer = previousProcessor;
+        if (streamableProcessorChain != null && tailPolicyStreamer != null) {
+            tailPolicyStreamer.bodyHandler(bodyPart -> {if (bodyHandler != null) bodyHandler.handle(bodyPart);});
+            tailPolicyStreamer.endHandler(result -> {if (endHandler != null) endHandler.handle(result);});
+        }
+
+        resultHandler.handle(data);
     }
 
     private Handler<S> bodyHandler;
@@ -91,13 +108,22 @@ public abstract class AbstractStreamableProcessorChain<T, S, P extends Streamabl
 
     @Override
     public WriteStream<S> write(S chunk) {
-        streamableProcessorChain.write(chunk);
+        if (streamableProcessorChain != null) {
+            streamableProcessorChain.write(chunk);
+        } else if (bodyHandler != null) {
+            // No processor in the chain, the content is given as-is
+            bodyHandler.handle(chunk);
+        }
         return this;
     }
 
     @Override
     public void end() {
-        streamableProcessorChain.end();
+        if (streamableProcessorChain != null) {
+            streamableProcessorChain.end();
+        } else if (endHandler != null) {
+            endHandler.handle(null);
+        }
     }
 
     @Override
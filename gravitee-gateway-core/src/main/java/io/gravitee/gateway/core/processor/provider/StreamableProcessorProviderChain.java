@@ -18,7 +18,6 @@ package io.gravitee.gateway.core.processor.provider;
 import io.gravitee.gateway.core.processor.StreamableProcessor;
 import io.gravitee.gateway.core.processor.chain.AbstractStreamableProcessorChain;
 
-import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -27,20 +26,29 @@ import java.util.List;
  */
 public class StreamableProcessorProviderChain<T, S> extends AbstractStreamableProcessorChain<T, S, StreamableProcessor<T, S>> {
 
-    private final Iterator<ProcessorProvider<T, StreamableProcessor<T, S>>> ite;
+    private final ProcessorProvider<T, StreamableProcessor<T, S>>[] providers;
+
+    private int idx;
 
     public StreamableProcessorProviderChain(List<ProcessorProvider<T, StreamableProcessor<T, S>>> providers) {
-        this.ite = providers.iterator();
+        this(providers.toArray(new ProcessorProvider[0]));
+    }
+
+    /**
+     * Creates a chain from a template of providers. The array is shared, it must not be modified once given to a chain.
+     */
+    public StreamableProcessorProviderChain(ProcessorProvider<T, StreamableProcessor<T, S>>[] providers) {
+        this.providers = providers;
     }
 
     @Override
     protected StreamableProcessor<T, S> next(T data) {
-        return ite.next().provide(data);
+        return providers[idx++].provide(data);
     }
 
     @Override
     public boolean hasNext() {
-        return ite.hasNext();
+        return idx < providers.length;
     }
 
     @Override
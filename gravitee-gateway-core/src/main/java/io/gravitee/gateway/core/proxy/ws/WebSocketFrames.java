@@ -0,0 +1,66 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.core.proxy.ws;
+
+import io.gravitee.gateway.api.buffer.Buffer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.http.WebSocketFrame;
+import io.vertx.core.http.impl.FrameType;
+import io.vertx.core.http.impl.ws.WebSocketFrameImpl;
+
+/**
+ * Converts gateway frames to Vert.x frames so that they are relayed as they are: fragmented messages are not
+ * re-assembled and text is not decoded.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public final class WebSocketFrames {
+
+    private WebSocketFrames() {
+    }
+
+    /**
+     * @return the Vert.x frame, or <code>null</code> if the frame type can not be relayed.
+     */
+    public static WebSocketFrame toVertx(io.gravitee.gateway.api.ws.WebSocketFrame frame) {
+        switch (frame.type()) {
+            case BINARY:
+                return WebSocketFrame.binaryFrame(io.vertx.core.buffer.Buffer.buffer(payload(frame.data())), frame.isFinal());
+            case CONTINUATION:
+                return WebSocketFrame.continuationFrame(io.vertx.core.buffer.Buffer.buffer(payload(frame.data())), frame.isFinal());
+            case TEXT:
+                // The public factory only accepts a String, which would decode and re-encode the payload
+                return new WebSocketFrameImpl(FrameType.TEXT, payload(frame.data()), frame.isFinal());
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * The payload is given to Netty which releases it once written.
+     */
+    private static ByteBuf payload(Buffer data) {
+        Object nativeBuffer = data.getNativeBuffer();
+
+        if (nativeBuffer instanceof ByteBuf) {
+            return ((ByteBuf) nativeBuffer).duplicate();
+        }
+
+        return Unpooled.wrappedBuffer(data.getBytes());
+    }
+}
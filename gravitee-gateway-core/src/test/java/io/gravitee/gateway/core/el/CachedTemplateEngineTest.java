@@ -0,0 +1,103 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.core.el;
+
+import io.gravitee.el.TemplateEngine;
+import io.gravitee.el.exceptions.ExpressionEvaluationException;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.expression.ParseException;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public class CachedTemplateEngineTest {
+
+    private final ExpressionCache cache = ExpressionCache.templates();
+
+    @Before
+    public void setUp() {
+        cache.invalidateAll();
+    }
+
+    @Test
+    public void shouldEvaluateTemplate() {
+        TemplateEngine engine = new CachedTemplateEngine();
+        engine.getTemplateContext().setVariable("properties", Collections.singletonMap("host", "localhost"));
+
+        assertEquals("http://localhost:8080/", engine.convert("http://{#properties['host']}:8080/"));
+        assertEquals(Boolean.TRUE, engine.getValue("{#properties['host'] == 'localhost'}", Boolean.class));
+    }
+
+    @Test
+    public void shouldParseTemplateOnce() {
+        long misses = cache.stats().missCount();
+        long hits = cache.stats().hitCount();
+
+        for (int i = 0; i < 10; i++) {
+            TemplateEngine engine = new CachedTemplateEngine();
+            engine.getTemplateContext().setVariable("value", i);
+
+            assertEquals(Integer.valueOf(i * 2), engine.getValue("{#value * 2}", Integer.class));
+        }
+
+        assertEquals(1, cache.stats().missCount() - misses);
+        assertEquals(9, cache.stats().hitCount() - hits);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void shouldResolveFunctions() {
+        TemplateEngine engine = new CachedTemplateEngine();
+        engine.getTemplateContext().setVariable("content", "{\"name\": \"gravitee\"}");
+
+        assertEquals("gravitee", engine.convert("{#jsonPath(#content, '$.name')}"));
+    }
+
+    @Test
+    public void shouldNotCacheInvalidTemplate() {
+        TemplateEngine engine = new CachedTemplateEngine();
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                engine.getValue("{#value *}", Integer.class);
+                fail("Template must not be parsed");
+            } catch (ExpressionEvaluationException eee) {
+                assertTrue(eee.getCause() instanceof ParseException);
+                assertEquals(0, cache.size());
+            }
+        }
+    }
+
+    @Test
+    public void shouldThrowEvaluationException() {
+        TemplateEngine engine = new CachedTemplateEngine();
+
+        try {
+            engine.getValue("{#unknown.value}", String.class);
+            fail("Template must not be evaluated");
+        } catch (ExpressionEvaluationException eee) {
+            assertTrue(eee.getMessage().contains("#unknown.value"));
+        }
+    }
+}
@@ -195,7 +195,7 @@ public class TargetEndpointResolverTest {
         verify(endpoint, never()).available();
 
         verify(groupManager, never()).getDefault();
-        verify(loadBalancedEndpointGroup, never()).next();
+        verify(loadBalancedEndpointGroup, never()).next(executionContext);
     }
 
     @Test
@@ -362,6 +362,61 @@ public class TargetEndpointResolverTest {
         );
     }
 
+    @Test
+    public void shouldResolveUserDefinedEndpoint_withDuplicateSlashes() {
+        resolveUserDefinedEndpoint(
+                "http://host:8080/test/path",
+                "http://host:8080/test//path",
+                "endpoint",
+                "http://endpoint:8080/test"
+        );
+    }
+
+    @Test
+    public void shouldResolveUserDefinedEndpoint_withDuplicateSlashesAfterScheme() {
+        resolveUserDefinedEndpoint(
+                "http://host:8080/test",
+                "http:///host:8080/test",
+                "endpoint",
+                "http://endpoint:8080/test"
+        );
+    }
+
+    @Test
+    public void shouldResolveLoadBalancedEndpoint() {
+        resolveLoadBalancedEndpoint("http://endpoint:8080/test/path", "/path", "http://endpoint:8080/test");
+    }
+
+    @Test
+    public void shouldResolveLoadBalancedEndpoint_withTrailingSlashInTarget() {
+        resolveLoadBalancedEndpoint("http://endpoint:8080/test/path", "/path", "http://endpoint:8080/test/");
+    }
+
+    @Test
+    public void shouldResolveLoadBalancedEndpoint_withDuplicateSlashesInPath() {
+        resolveLoadBalancedEndpoint("http://endpoint:8080/test/path/", "//path//", "http://endpoint:8080/test/");
+    }
+
+    @Test
+    public void shouldResolveLoadBalancedEndpoint_withEmptyPath() {
+        resolveLoadBalancedEndpoint("grpcs://endpoint:8080/", "", "grpcs://endpoint:8080/");
+    }
+
+    private void resolveLoadBalancedEndpoint(String expectedURI, String pathInfo, String endpointTarget) {
+        Endpoint endpoint = mock(Endpoint.class);
+        when(endpoint.target()).thenReturn(endpointTarget);
+        when(endpoint.available()).thenReturn(true);
+
+        when(groupManager.getDefault()).thenReturn(loadBalancedEndpointGroup);
+        when(loadBalancedEndpointGroup.next(executionContext)).thenReturn(endpoint);
+        when(serverRequest.pathInfo()).thenReturn(pathInfo);
+
+        EndpointResolver.ConnectorEndpoint connectorEndpoint = resolver.resolve(executionContext);
+
+        Assert.assertNotNull(connectorEndpoint);
+        Assert.assertEquals(expectedURI, connectorEndpoint.getUri());
+    }
+
     private void resolveUserDefinedEndpoint(String expectedURI, String requestEndpoint, String endpointName, String endpointTarget) {
         resolveUserDefinedEndpoint(expectedURI, null, requestEndpoint, endpointName, endpointTarget);
     }
@@ -375,7 +430,7 @@ public class TargetEndpointResolverTest {
         referenceRegister.add(new EndpointReference(endpoint));
 
         when(groupManager.getDefault()).thenReturn(loadBalancedEndpointGroup);
-        when(loadBalancedEndpointGroup.next()).thenReturn(endpoint);
+        when(loadBalancedEndpointGroup.next(executionContext)).thenReturn(endpoint);
         MultiValueMap<String, String> parameters = new LinkedMultiValueMap<>();
         when(serverRequest.parameters()).thenReturn(parameters);
 
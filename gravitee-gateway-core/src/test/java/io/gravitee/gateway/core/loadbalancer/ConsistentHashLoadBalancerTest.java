@@ -0,0 +1,285 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.core.loadbalancer;
+
+import io.gravitee.common.http.HttpHeaders;
+import io.gravitee.common.util.ObservableCollection;
+import io.gravitee.definition.model.Endpoint;
+import io.gravitee.definition.model.endpoint.HttpEndpoint;
+import io.gravitee.el.TemplateContext;
+import io.gravitee.el.TemplateEngine;
+import io.gravitee.gateway.api.Connector;
+import io.gravitee.gateway.api.ExecutionContext;
+import io.gravitee.gateway.api.Request;
+import io.gravitee.gateway.api.Response;
+import io.gravitee.gateway.core.endpoint.ManagedEndpoint;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public class ConsistentHashLoadBalancerTest {
+
+    private static final String KEY = "{#request.headers['X-Client'][0]}";
+
+    private static final int KEYS = 2_000;
+
+    @Test
+    public void shouldAlwaysSelectSameEndpointForSameKey() {
+        LoadBalancer loadBalancer = new ConsistentHashLoadBalancer(endpoints("a", "b", "c"), KEY, null);
+
+        String selected = loadBalancer.next(context("client-1")).name();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(selected, loadBalancer.next(context("client-1")).name());
+        }
+    }
+
+    @Test
+    public void shouldDistributeKeys() {
+        LoadBalancer loadBalancer = new ConsistentHashLoadBalancer(endpoints("a", "b", "c", "d", "e"), KEY, null);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (String selected : select(loadBalancer)) {
+            counts.merge(selected, 1, Integer::sum);
+        }
+
+        assertEquals(5, counts.size());
+        int expected = KEYS / 5;
+        counts.forEach((endpoint, count) ->
+                assertTrue(endpoint + " received " + count + " keys", count > expected * 0.8 && count < expected * 1.2));
+    }
+
+    @Test
+    public void shouldOnlyRemapKeysOfUnavailableEndpoint() {
+        List<Endpoint> definitions = definitions("a", "b", "c", "d", "e");
+        LoadBalancer loadBalancer = new ConsistentHashLoadBalancer(managed(definitions), KEY, null);
+
+        String[] before = select(loadBalancer);
+
+        // Endpoint is marked as down by the healthcheck
+        definitions.get(2).setStatus(Endpoint.Status.DOWN);
+        String[] down = select(loadBalancer);
+
+        for (int i = 0; i < KEYS; i++) {
+            if (before[i].equals("c")) {
+                assertNotEquals("c", down[i]);
+            } else {
+                assertEquals(before[i], down[i]);
+            }
+        }
+
+        // Keys are going back to the endpoint once it is up again
+        definitions.get(2).setStatus(Endpoint.Status.UP);
+        assertArrayEquals(before, select(loadBalancer));
+    }
+
+    @Test
+    public void shouldRemapFewKeysWhenAddingEndpoint() {
+        ObservableCollection<io.gravitee.gateway.api.endpoint.Endpoint> endpoints =
+                new ObservableCollection<>(new ArrayList<>(endpoints("a", "b", "c", "d", "e")));
+        LoadBalancer loadBalancer = new ConsistentHashLoadBalancer(endpoints, KEY, null);
+
+        String[] before = select(loadBalancer);
+        endpoints.add(new ManagedEndpoint(new HttpEndpoint("f", "http://f"), mock(Connector.class)));
+        String[] after = select(loadBalancer);
+
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            if (!before[i].equals(after[i])) {
+                // Keys can only move to the new endpoint
+                assertEquals("f", after[i]);
+                moved++;
+            }
+        }
+
+        // About one key out of six is expected to move
+        assertTrue("Moved keys: " + moved, moved > KEYS / 6 * 0.7 && moved < KEYS / 6 * 1.3);
+    }
+
+    @Test
+    public void shouldRoundRobin_withoutKey() {
+        LoadBalancer loadBalancer = new ConsistentHashLoadBalancer(endpoints("a", "b"), KEY, null);
+
+        assertEquals("a", loadBalancer.next(context(null)).name());
+        assertEquals("b", loadBalancer.next(context(null)).name());
+    }
+
+    @Test
+    public void shouldStickToEndpoint_withCookie() {
+        LoadBalancer loadBalancer = new ConsistentHashLoadBalancer(endpoints("a", "b", "c"), KEY, "GRAVITEE-LB");
+
+        // First request has no key: a random position on the ring is kept in the cookie
+        ExecutionContext first = context(null);
+        String selected = loadBalancer.next(first).name();
+
+        List<String> setCookies = first.response().headers().get(HttpHeaders.SET_COOKIE);
+        assertEquals(1, setCookies.size());
+        String cookie = setCookies.get(0).substring(0, setCookies.get(0).indexOf(';'));
+        assertTrue(cookie.startsWith("GRAVITEE-LB="));
+
+        for (int i = 0; i < 20; i++) {
+            ExecutionContext next = context("client-" + i);
+            next.request().headers().add(HttpHeaders.COOKIE, "other=value; " + cookie);
+
+            assertEquals(selected, loadBalancer.next(next).name());
+            assertNull(next.response().headers().get(HttpHeaders.SET_COOKIE));
+        }
+    }
+
+    @Test
+    public void shouldEvaluateKeyOncePerRequest() {
+        LoadBalancer loadBalancer = new ConsistentHashLoadBalancer(endpoints("a", "b", "c"), KEY, null);
+
+        KeyedContext context = context("client-1");
+        String selected = loadBalancer.next(context).name();
+        assertEquals(selected, loadBalancer.next(context).name());
+
+        assertEquals(1, context.evaluations);
+    }
+
+    private static String[] select(LoadBalancer loadBalancer) {
+        // The same context is reused for each key, so that nothing is mocked per request
+        KeyedContext context = new KeyedContext();
+
+        String[] selected = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            selected[i] = loadBalancer.next(context.withKey("client-" + i)).name();
+        }
+        return selected;
+    }
+
+    private static KeyedContext context(String key) {
+        return new KeyedContext().withKey(key);
+    }
+
+    /**
+     * An execution context whose key can be changed to simulate a new request.
+     */
+    private static class KeyedContext implements ExecutionContext {
+
+        private final Request request = mock(Request.class);
+        private final Response response = mock(Response.class);
+        private final Map<String, Object> attributes = new HashMap<>();
+        private HttpHeaders requestHeaders;
+        private HttpHeaders responseHeaders;
+        private String key;
+        private int evaluations;
+
+        private final TemplateEngine templateEngine = new TemplateEngine() {
+            @Override
+            public <T> T getValue(String expression, Class<T> clazz) {
+                assertEquals(KEY, expression);
+                evaluations++;
+                return clazz.cast(key);
+            }
+
+            @Override
+            public TemplateContext getTemplateContext() {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        KeyedContext() {
+            when(request.headers()).thenAnswer(invocation -> requestHeaders);
+            when(response.headers()).thenAnswer(invocation -> responseHeaders);
+        }
+
+        KeyedContext withKey(String key) {
+            this.key = key;
+            this.attributes.clear();
+            this.requestHeaders = new HttpHeaders();
+            this.responseHeaders = new HttpHeaders();
+            return this;
+        }
+
+        @Override
+        public Request request() {
+            return request;
+        }
+
+        @Override
+        public Response response() {
+            return response;
+        }
+
+        @Override
+        public <T> T getComponent(Class<T> componentClass) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setAttribute(String name, Object value) {
+            attributes.put(name, value);
+        }
+
+        @Override
+        public void removeAttribute(String name) {
+            attributes.remove(name);
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            return attributes.get(name);
+        }
+
+        @Override
+        public Enumeration<String> getAttributeNames() {
+            return Collections.enumeration(attributes.keySet());
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return attributes;
+        }
+
+        @Override
+        public TemplateEngine getTemplateEngine() {
+            return templateEngine;
+        }
+    }
+
+    private static List<Endpoint> definitions(String... names) {
+        List<Endpoint> definitions = new ArrayList<>();
+        for (String name : names) {
+            definitions.add(new HttpEndpoint(name, "http://" + name));
+        }
+        return definitions;
+    }
+
+    private static List<io.gravitee.gateway.api.endpoint.Endpoint> endpoints(String... names) {
+        return managed(definitions(names));
+    }
+
+    private static List<io.gravitee.gateway.api.endpoint.Endpoint> managed(List<Endpoint> definitions) {
+        List<io.gravitee.gateway.api.endpoint.Endpoint> managed = new ArrayList<>();
+        for (Endpoint definition : definitions) {
+            managed.add(new ManagedEndpoint(definition, mock(Connector.class)));
+        }
+        return managed;
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.core.loadbalancer;
+
+import io.gravitee.definition.model.endpoint.HttpEndpoint;
+import io.gravitee.gateway.api.Connector;
+import io.gravitee.gateway.api.endpoint.Endpoint;
+import io.gravitee.gateway.core.endpoint.ManagedEndpoint;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Selects endpoints from a single load-balancer shared by all the benchmark threads, the way the event-loops of the
+ * gateway share the load-balancer of an API.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2)
+public class LoadBalancerBenchmark {
+
+    public static void main(String[]args) throws RunnerException {
+        for (int threads : new int[] {1, 8, 32}) {
+            Options opt = new OptionsBuilder()
+                    .include(LoadBalancerBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .forks(1)
+                    .build();
+
+            new Runner(opt).run();
+        }
+    }
+
+    @Param({"ROUND_ROBIN", "RANDOM", "WEIGHTED_ROUND_ROBIN", "WEIGHTED_RANDOM"})
+    public String type;
+
+    private LoadBalancer loadBalancer;
+
+    @Setup
+    public void setup() {
+        List<Endpoint> endpoints = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            HttpEndpoint endpoint = new HttpEndpoint("endpoint-" + i, "http://localhost:808" + i);
+            endpoint.setWeight(i + 1);
+            endpoints.add(new ManagedEndpoint(endpoint, mock(Connector.class)));
+        }
+
+        switch (type) {
+            case "RANDOM":
+                loadBalancer = new RandomLoadBalancer(endpoints);
+                break;
+            case "WEIGHTED_ROUND_ROBIN":
+                loadBalancer = new WeightedRoundRobinLoadBalancer(endpoints);
+                break;
+            case "WEIGHTED_RANDOM":
+                loadBalancer = new WeightedRandomLoadBalancer(endpoints);
+                break;
+            default:
+                loadBalancer = new RoundRobinLoadBalancer(endpoints);
+        }
+    }
+
+    @Benchmark
+    public Endpoint next() {
+        return loadBalancer.next();
+    }
+}
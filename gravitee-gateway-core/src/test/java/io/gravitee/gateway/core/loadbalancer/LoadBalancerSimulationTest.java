@@ -0,0 +1,158 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.core.loadbalancer;
+
+import io.gravitee.definition.model.endpoint.HttpEndpoint;
+import io.gravitee.gateway.api.Connector;
+import io.gravitee.gateway.api.endpoint.Endpoint;
+import io.gravitee.gateway.core.endpoint.EndpointStats;
+import io.gravitee.gateway.core.endpoint.ManagedEndpoint;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Simulates, in virtual time, a constant flow of requests load-balanced to stub backends with different
+ * capacities: three fast backends and a slow one. Each backend processes a limited number of requests at a time and
+ * queues the others.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public class LoadBalancerSimulationTest {
+
+    private static final int REQUESTS = 20_000;
+
+    // One request each 1.25ms: 800 req/s, about 60% of the total capacity of the backends
+    private static final long ARRIVAL_INTERVAL_MICROS = 1_250;
+
+    @Test
+    public void shouldReduceTailLatency_leastConnections() {
+        long roundRobin = p99(RoundRobinLoadBalancer::new);
+        long leastConnections = p99(LeastConnectionsLoadBalancer::new);
+
+        assertTrue("p99 round-robin=" + roundRobin + "us least-connections=" + leastConnections + "us",
+                leastConnections * 10 < roundRobin);
+    }
+
+    @Test
+    public void shouldReduceTailLatency_powerOfTwoChoices() {
+        long roundRobin = p99(RoundRobinLoadBalancer::new);
+        long powerOfTwoChoices = p99(PowerOfTwoChoicesLoadBalancer::new);
+
+        assertTrue("p99 round-robin=" + roundRobin + "us power-of-two-choices=" + powerOfTwoChoices + "us",
+                powerOfTwoChoices * 10 < roundRobin);
+    }
+
+    private long p99(Function<Collection<Endpoint>, LoadBalancer> loadBalancerFactory) {
+        Map<Endpoint, Backend> backends = new LinkedHashMap<>();
+        backend(backends, "fast-1", 10_000);
+        backend(backends, "fast-2", 10_000);
+        backend(backends, "fast-3", 10_000);
+        backend(backends, "slow", 50_000);
+
+        LoadBalancer loadBalancer = loadBalancerFactory.apply(new ArrayList<>(backends.keySet()));
+
+        PriorityQueue<Request> completions = new PriorityQueue<>(Comparator.comparingLong(request -> request.end));
+        long[] latencies = new long[REQUESTS];
+
+        for (int i = 0; i < REQUESTS; i++) {
+            long now = i * ARRIVAL_INTERVAL_MICROS;
+
+            // Complete all the requests which ended before this one arrived
+            while (!completions.isEmpty() && completions.peek().end <= now) {
+                Request completed = completions.poll();
+                latencies[completed.id] = completed.end - completed.arrival;
+                completed.backend.complete(completed, completions);
+            }
+
+            Backend backend = backends.get(loadBalancer.next());
+            backend.submit(new Request(i, now, backend), completions);
+        }
+
+        while (!completions.isEmpty()) {
+            Request completed = completions.poll();
+            latencies[completed.id] = completed.end - completed.arrival;
+            completed.backend.complete(completed, completions);
+        }
+
+        Arrays.sort(latencies);
+        return latencies[(int) (REQUESTS * 0.99)];
+    }
+
+    private static void backend(Map<Endpoint, Backend> backends, String name, long serviceTimeMicros) {
+        EndpointStats stats = new EndpointStats();
+        Endpoint endpoint = new ManagedEndpoint(new HttpEndpoint(name, "http://" + name), mock(Connector.class), stats);
+        backends.put(endpoint, new Backend(stats, serviceTimeMicros));
+    }
+
+    private static final class Backend {
+
+        private static final int WORKERS = 4;
+
+        private final EndpointStats stats;
+        private final long serviceTime;
+        private final Deque<Request> queue = new ArrayDeque<>();
+        private int busy;
+
+        Backend(EndpointStats stats, long serviceTime) {
+            this.stats = stats;
+            this.serviceTime = serviceTime;
+        }
+
+        void submit(Request request, PriorityQueue<Request> completions) {
+            stats.requestStarted();
+
+            if (busy < WORKERS) {
+                busy++;
+                request.end = request.arrival + serviceTime;
+                completions.add(request);
+            } else {
+                queue.add(request);
+            }
+        }
+
+        void complete(Request request, PriorityQueue<Request> completions) {
+            stats.requestEnded();
+
+            Request next = queue.poll();
+            if (next != null) {
+                next.end = request.end + serviceTime;
+                completions.add(next);
+            } else {
+                busy--;
+            }
+        }
+    }
+
+    private static final class Request {
+
+        private final int id;
+        private final long arrival;
+        private final Backend backend;
+        private long end;
+
+        Request(int id, long arrival, Backend backend) {
+            this.id = id;
+            this.arrival = arrival;
+            this.backend = backend;
+        }
+    }
+}
@@ -0,0 +1,341 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.core.loadbalancer;
+
+import io.gravitee.common.util.ObservableCollection;
+import io.gravitee.definition.model.Endpoint;
+import io.gravitee.definition.model.endpoint.HttpEndpoint;
+import io.gravitee.gateway.api.Connector;
+import io.gravitee.gateway.core.endpoint.ManagedEndpoint;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public class LoadBalancerTest {
+
+    @Test
+    public void shouldRoundRobin() {
+        List<io.gravitee.gateway.api.endpoint.Endpoint> endpoints = endpoints(endpoint("a"), endpoint("b"));
+        LoadBalancer loadBalancer = new RoundRobinLoadBalancer(endpoints);
+
+        assertEquals("a", loadBalancer.next().name());
+        assertEquals("b", loadBalancer.next().name());
+        assertEquals("a", loadBalancer.next().name());
+    }
+
+    @Test
+    public void shouldSkipUnavailableEndpoint() {
+        Endpoint a = endpoint("a");
+        LoadBalancer loadBalancer = new RoundRobinLoadBalancer(endpoints(a, endpoint("b")));
+
+        a.setStatus(Endpoint.Status.DOWN);
+        for (int i = 0; i < 4; i++) {
+            assertEquals("b", loadBalancer.next().name());
+        }
+
+        a.setStatus(Endpoint.Status.UP);
+        assertEquals(2, loadBalancer.endpoints.size());
+    }
+
+    @Test
+    public void shouldSelectSecondaryEndpoints_whenPrimariesAreDown() {
+        Endpoint a = endpoint("a");
+        Endpoint backup = endpoint("backup");
+        backup.setBackup(true);
+        LoadBalancer loadBalancer = new RandomLoadBalancer(endpoints(a, backup));
+
+        assertEquals("a", loadBalancer.next().name());
+
+        a.setStatus(Endpoint.Status.DOWN);
+        assertEquals("backup", loadBalancer.next().name());
+    }
+
+    @Test
+    public void shouldReturnNull_withoutEndpoint() {
+        assertNull(new RoundRobinLoadBalancer(new ArrayList<>()).next());
+        assertNull(new RandomLoadBalancer(new ArrayList<>()).next());
+        assertNull(new WeightedRoundRobinLoadBalancer(new ArrayList<>()).next());
+        assertNull(new WeightedRandomLoadBalancer(new ArrayList<>()).next());
+    }
+
+    @Test
+    public void shouldFollowEndpointsCollection() {
+        ObservableCollection<io.gravitee.gateway.api.endpoint.Endpoint> endpoints =
+                new ObservableCollection<>(new ArrayList<>());
+        LoadBalancer loadBalancer = new WeightedRoundRobinLoadBalancer(endpoints);
+
+        io.gravitee.gateway.api.endpoint.Endpoint a = managed(endpoint("a"));
+        endpoints.add(a);
+        assertEquals("a", loadBalancer.next().name());
+
+        endpoints.remove(a);
+        assertNull(loadBalancer.next());
+    }
+
+    @Test
+    public void shouldInterleaveWeightedRoundRobin() {
+        LoadBalancer loadBalancer = new WeightedRoundRobinLoadBalancer(endpoints(endpoint("a", 3), endpoint("b", 7)));
+
+        StringBuilder sequence = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            sequence.append(loadBalancer.next().name());
+        }
+
+        assertEquals("ababab" + "bbbb" + "ababab" + "bbbb", sequence.toString());
+    }
+
+    @Test
+    public void shouldInterleaveWeightedRoundRobin_largeWeights() {
+        LoadBalancer loadBalancer = new WeightedRoundRobinLoadBalancer(
+                endpoints(endpoint("a", Integer.MAX_VALUE), endpoint("b", 0), endpoint("c", Integer.MAX_VALUE)));
+
+        StringBuilder sequence = new StringBuilder();
+        for (int i = 0; i < 6; i++) {
+            sequence.append(loadBalancer.next().name());
+        }
+
+        assertEquals("acacac", sequence.toString());
+    }
+
+    @Test
+    public void shouldDistributeWeightedRandom() {
+        LoadBalancer loadBalancer = new WeightedRandomLoadBalancer(
+                endpoints(endpoint("a", 1), endpoint("b", 0), endpoint("c", 3)));
+
+        int a = 0, c = 0;
+        for (int i = 0; i < 40_000; i++) {
+            String name = loadBalancer.next().name();
+            assertNotEquals("b", name);
+            if ("a".equals(name)) {
+                a++;
+            } else {
+                c++;
+            }
+        }
+
+        assertEquals(10_000, a, 500);
+        assertEquals(30_000, c, 500);
+    }
+
+    @Test
+    public void shouldSelectWhileAvailabilityChanges() throws Exception {
+        Endpoint a = endpoint("a");
+        Endpoint b = endpoint("b");
+        List<LoadBalancer> loadBalancers = Arrays.asList(
+                new RoundRobinLoadBalancer(endpoints(a, b, endpoint("c"))),
+                new RandomLoadBalancer(endpoints(a, b, endpoint("c"))),
+                new WeightedRoundRobinLoadBalancer(endpoints(a, b, endpoint("c"))),
+                new WeightedRandomLoadBalancer(endpoints(a, b, endpoint("c"))));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch started = new CountDownLatch(4);
+        List<Future<?>> selections = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < 4; i++) {
+                selections.add(executor.submit(() -> {
+                    started.countDown();
+                    while (running.get()) {
+                        for (LoadBalancer loadBalancer : loadBalancers) {
+                            // Endpoint c is always up
+                            assertNotNull(loadBalancer.next());
+                        }
+                    }
+                }));
+            }
+
+            started.await(5, TimeUnit.SECONDS);
+            for (int i = 0; i < 10_000; i++) {
+                a.setStatus((i % 2 == 0) ? Endpoint.Status.DOWN : Endpoint.Status.UP);
+                b.setStatus((i % 3 == 0) ? Endpoint.Status.DOWN : Endpoint.Status.UP);
+            }
+        } finally {
+            running.set(false);
+            executor.shutdown();
+        }
+
+        for (Future<?> selection : selections) {
+            selection.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void shouldSelectLeastConnections() {
+        List<io.gravitee.gateway.api.endpoint.Endpoint> endpoints = endpoints(endpoint("a"), endpoint("b"), endpoint("c"));
+        LoadBalancer loadBalancer = new LeastConnectionsLoadBalancer(endpoints);
+
+        inFlight(endpoints.get(0), 2);
+        inFlight(endpoints.get(1), 1);
+        inFlight(endpoints.get(2), 3);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("b", loadBalancer.next().name());
+        }
+    }
+
+    @Test
+    public void shouldShareIdleEndpoints_leastConnections() {
+        LoadBalancer loadBalancer = new LeastConnectionsLoadBalancer(endpoints(endpoint("a"), endpoint("b")));
+
+        assertEquals("a", loadBalancer.next().name());
+        assertEquals("b", loadBalancer.next().name());
+        assertEquals("a", loadBalancer.next().name());
+    }
+
+    @Test
+    public void shouldSelectLessLoadedChoice_powerOfTwoChoices() {
+        List<io.gravitee.gateway.api.endpoint.Endpoint> endpoints = endpoints(endpoint("a"), endpoint("b"));
+        LoadBalancer loadBalancer = new PowerOfTwoChoicesLoadBalancer(endpoints);
+
+        inFlight(endpoints.get(0), 5);
+
+        // With two endpoints, both are always part of the choices
+        for (int i = 0; i < 10; i++) {
+            assertEquals("b", loadBalancer.next().name());
+        }
+    }
+
+    @Test
+    public void shouldNeverSelectMostLoadedEndpoint_powerOfTwoChoices() {
+        List<io.gravitee.gateway.api.endpoint.Endpoint> endpoints = endpoints(endpoint("a"), endpoint("b"), endpoint("c"));
+        LoadBalancer loadBalancer = new PowerOfTwoChoicesLoadBalancer(endpoints);
+
+        inFlight(endpoints.get(1), 5);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertNotEquals("b", loadBalancer.next().name());
+        }
+    }
+
+    @Test
+    public void shouldSelectFastestEndpoint_ewma() {
+        List<io.gravitee.gateway.api.endpoint.Endpoint> endpoints = endpoints(endpoint("a"), endpoint("b"), endpoint("c"));
+        LoadBalancer loadBalancer = new EwmaLoadBalancer(endpoints, 0.5, 0);
+
+        responded(endpoints.get(0), 50, false);
+        responded(endpoints.get(1), 10, false);
+        responded(endpoints.get(2), 30, false);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("b", loadBalancer.next().name());
+        }
+    }
+
+    @Test
+    public void shouldAvoidFailingEndpoint_ewma() {
+        List<io.gravitee.gateway.api.endpoint.Endpoint> endpoints = endpoints(endpoint("a"), endpoint("b"));
+        LoadBalancer loadBalancer = new EwmaLoadBalancer(endpoints, 0.5, 0);
+
+        // Failing fast must not look better than responding slowly
+        responded(endpoints.get(0), 0, true);
+        responded(endpoints.get(1), 20, false);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("b", loadBalancer.next().name());
+        }
+    }
+
+    @Test
+    public void shouldShiftTrafficToFasterEndpoint_ewma() {
+        List<io.gravitee.gateway.api.endpoint.Endpoint> endpoints = endpoints(endpoint("a"), endpoint("b"));
+        LoadBalancer loadBalancer = new EwmaLoadBalancer(endpoints, 0.5, 0);
+
+        responded(endpoints.get(0), 10, false);
+        responded(endpoints.get(1), 20, false);
+
+        // a is slowing down: its latency average goes above the one of b after a bounded number of responses
+        int requests = 0;
+        io.gravitee.gateway.api.endpoint.Endpoint endpoint;
+        while ((endpoint = loadBalancer.next()).name().equals("a")) {
+            responded(endpoint, 100, false);
+            assertTrue(++requests <= 2);
+        }
+
+        assertEquals("b", endpoint.name());
+    }
+
+    @Test
+    public void shouldProbeSlowEndpoint_ewma() {
+        List<io.gravitee.gateway.api.endpoint.Endpoint> endpoints = endpoints(endpoint("a"), endpoint("b"));
+        LoadBalancer loadBalancer = new EwmaLoadBalancer(endpoints, 0.5, 0.2);
+
+        responded(endpoints.get(0), 100, false);
+        responded(endpoints.get(1), 10, false);
+
+        int probes = 0;
+        for (int i = 0; i < 1_000; i++) {
+            if (loadBalancer.next().name().equals("a")) {
+                probes++;
+            }
+        }
+
+        // Half of the probes are expected to land on the slow endpoint
+        assertTrue(probes > 50 && probes < 150);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectInvalidDecay_ewma() {
+        new EwmaLoadBalancer(endpoints(endpoint("a")), 0, 0.1);
+    }
+
+    private static void inFlight(io.gravitee.gateway.api.endpoint.Endpoint endpoint, int requests) {
+        for (int i = 0; i < requests; i++) {
+            ((ManagedEndpoint) endpoint).stats().requestStarted();
+        }
+    }
+
+    private static void responded(io.gravitee.gateway.api.endpoint.Endpoint endpoint, long latencyMs, boolean error) {
+        ((ManagedEndpoint) endpoint).stats().responded(TimeUnit.MILLISECONDS.toNanos(latencyMs), error);
+    }
+
+    private static Endpoint endpoint(String name) {
+        return endpoint(name, 1);
+    }
+
+    private static Endpoint endpoint(String name, int weight) {
+        Endpoint endpoint = new HttpEndpoint(name, "http://" + name);
+        endpoint.setWeight(weight);
+        return endpoint;
+    }
+
+    private static io.gravitee.gateway.api.endpoint.Endpoint managed(Endpoint endpoint) {
+        return new ManagedEndpoint(endpoint, mock(Connector.class));
+    }
+
+    private static List<io.gravitee.gateway.api.endpoint.Endpoint> endpoints(Endpoint... endpoints) {
+        List<io.gravitee.gateway.api.endpoint.Endpoint> managed = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            managed.add(managed(endpoint));
+        }
+        return managed;
+    }
+}
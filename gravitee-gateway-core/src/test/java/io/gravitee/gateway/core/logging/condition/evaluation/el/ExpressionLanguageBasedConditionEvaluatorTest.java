@@ -24,6 +24,7 @@ import org.mockito.runners.MockitoJUnitRunner;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertFalse;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
 public class ExpressionLanguageBasedConditionEvaluatorTest {
@@ -70,4 +71,16 @@ public class ExpressionLanguageBasedConditionEvaluatorTest {
 
         assertFalse(evaluate);
     }
+
+    @Test
+    public void shouldEvalWithVariables() {
+        ExpressionLanguageBasedConditionEvaluator evaluator = new ExpressionLanguageBasedConditionEvaluator(
+                "#context.plan == 'my-plan' && #request.method == null");
+        Request request = mock(Request.class);
+        ExecutionContext executionContext = mock(ExecutionContext.class);
+        when(executionContext.getAttribute(ExecutionContext.ATTR_PLAN)).thenReturn("my-plan", "other-plan");
+
+        assertTrue(evaluator.evaluate(request, executionContext));
+        assertFalse(evaluator.evaluate(request, executionContext));
+    }
 }
@@ -0,0 +1,131 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.core.processor;
+
+import io.gravitee.gateway.api.buffer.Buffer;
+import io.gravitee.gateway.core.processor.chain.StreamableProcessorChain;
+import io.gravitee.gateway.core.processor.provider.ProcessorProvider;
+import io.gravitee.gateway.core.processor.provider.StreamableProcessorProviderChain;
+import io.gravitee.gateway.core.processor.provider.StreamableProcessorSupplier;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public class StreamableProcessorProviderChainTest {
+
+    @Test
+    public void shouldRunProvidersInOrder() {
+        List<String> executed = new ArrayList<>();
+        AtomicBoolean completed = new AtomicBoolean();
+
+        chain("first", null, "second")
+                .handler(__ -> completed.set(true))
+                .handle(executed);
+
+        assertTrue(completed.get());
+        assertEquals(2, executed.size());
+        assertEquals("first", executed.get(0));
+        assertEquals("second", executed.get(1));
+    }
+
+    @Test
+    public void shouldStreamThroughProcessors() {
+        List<Buffer> chunks = new ArrayList<>();
+        AtomicBoolean ended = new AtomicBoolean();
+
+        StreamableProcessorChain<List<String>, Buffer, StreamableProcessor<List<String>, Buffer>> chain =
+                chain(null, "first", null);
+        chain.handler(__ -> {}).handle(new ArrayList<>());
+        chain.bodyHandler(chunks::add);
+        chain.endHandler(__ -> ended.set(true));
+
+        Buffer chunk = mock(Buffer.class);
+        chain.write(chunk);
+        chain.end();
+
+        assertEquals(1, chunks.size());
+        assertSame(chunk, chunks.get(0));
+        assertTrue(ended.get());
+    }
+
+    @Test
+    public void shouldStreamWithoutProcessor() {
+        List<Buffer> chunks = new ArrayList<>();
+        AtomicBoolean ended = new AtomicBoolean();
+        AtomicBoolean completed = new AtomicBoolean();
+
+        StreamableProcessorChain<List<String>, Buffer, StreamableProcessor<List<String>, Buffer>> chain =
+                chain(null, null);
+        chain.handler(__ -> completed.set(true)).handle(new ArrayList<>());
+        chain.bodyHandler(chunks::add);
+        chain.endHandler(__ -> ended.set(true));
+
+        Buffer chunk = mock(Buffer.class);
+        chain.write(chunk);
+        chain.end();
+
+        assertTrue(completed.get());
+        assertEquals(1, chunks.size());
+        assertTrue(ended.get());
+    }
+
+    @Test
+    public void shouldShareTemplateAcrossChains() {
+        ProcessorProvider<List<String>, StreamableProcessor<List<String>, Buffer>>[] template = template("first", null);
+
+        List<String> executed = new ArrayList<>();
+        new StreamableProcessorProviderChain<>(template).handler(__ -> {}).handle(executed);
+        new StreamableProcessorProviderChain<>(template).handler(__ -> {}).handle(executed);
+
+        assertEquals(2, executed.size());
+    }
+
+    private StreamableProcessorChain<List<String>, Buffer, StreamableProcessor<List<String>, Buffer>> chain(
+            String... names) {
+        return new StreamableProcessorProviderChain<>(template(names));
+    }
+
+    private ProcessorProvider<List<String>, StreamableProcessor<List<String>, Buffer>>[] template(String... names) {
+        ProcessorProvider<List<String>, StreamableProcessor<List<String>, Buffer>>[] providers = new ProcessorProvider[names.length];
+
+        for (int i = 0; i < names.length; i++) {
+            final String name = names[i];
+            if (name == null) {
+                // Nothing to do for this stage
+                providers[i] = data -> null;
+            } else {
+                providers[i] = new StreamableProcessorSupplier<>(() -> new AbstractProcessor<List<String>>() {
+                    @Override
+                    public void handle(List<String> data) {
+                        data.add(name);
+                        next.handle(data);
+                    }
+                });
+            }
+        }
+
+        return providers;
+    }
+}
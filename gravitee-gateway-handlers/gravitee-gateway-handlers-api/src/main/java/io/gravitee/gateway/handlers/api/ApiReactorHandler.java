@@ -15,13 +15,17 @@
  */
 package io.gravitee.gateway.handlers.api;
 
+import io.gravitee.common.http.HttpHeaders;
 import io.gravitee.common.http.HttpStatusCode;
 import io.gravitee.gateway.api.ExecutionContext;
 import io.gravitee.gateway.api.Invoker;
 import io.gravitee.gateway.api.Request;
 import io.gravitee.gateway.api.buffer.Buffer;
+import io.gravitee.gateway.api.endpoint.Endpoint;
 import io.gravitee.gateway.api.proxy.ProxyResponse;
 import io.gravitee.gateway.core.endpoint.lifecycle.GroupLifecyleManager;
+import io.gravitee.gateway.core.endpoint.ref.EndpointReference;
+import io.gravitee.gateway.core.endpoint.ref.ReferenceRegister;
 import io.gravitee.gateway.core.invoker.EndpointInvoker;
 import io.gravitee.gateway.core.processor.ProcessorFailure;
 import io.gravitee.gateway.core.processor.StreamableProcessor;
@@ -35,8 +39,10 @@ import io.gravitee.gateway.reactor.handler.AbstractReactorHandler;
 import io.gravitee.gateway.resource.ResourceLifecycleManager;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -161,7 +167,14 @@ public class ApiReactorHandler extends AbstractReactorHandler {
         context.response().reason(proxyResponse.reason());
 
         // Copy HTTP headers
-        proxyResponse.headers().forEach((headerName, headerValues) -> context.response().headers().put(headerName, headerValues));
+        proxyResponse.headers().forEach((headerName, headerValues) -> {
+            if (HttpHeaders.SET_COOKIE.equalsIgnoreCase(headerName)) {
+                // Keep the cookies already set by the gateway (ie. sticky load-balancing)
+                headerValues.forEach(headerValue -> context.response().headers().add(headerName, headerValue));
+            } else {
+                context.response().headers().put(headerName, headerValues);
+            }
+        });
 
         final StreamableProcessor<ExecutionContext, Buffer> chain = responseProcessorChain.create();
 
@@ -228,6 +241,17 @@ public class ApiReactorHandler extends AbstractReactorHandler {
         return api;
     }
 
+    /**
+     * Returns the endpoints currently registered for this API, across all its groups.
+     */
+    public Collection<Endpoint> endpoints() {
+        return applicationContext.getBean(ReferenceRegister.class)
+                .referencesByType(EndpointReference.class)
+                .stream()
+                .map(EndpointReference::endpoint)
+                .collect(Collectors.toList());
+    }
+
     @Override
     protected void doStart() throws Exception {
         logger.info("API handler is now starting, preparing API context...");
@@ -17,90 +17,65 @@ package io.gravitee.gateway.handlers.api.flow;
 
 import io.gravitee.definition.model.flow.Flow;
 import io.gravitee.gateway.api.ExecutionContext;
+import io.gravitee.gateway.handlers.api.flow.condition.ConditionalFlowResolver;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Pattern;
 
 /**
  * This flow provider is resolving only the {@link Flow} which best match according to the incoming request.
  *
+ * The flows resolved by the {@link ConditionalFlowResolver} are already matching the path of the request, the best
+ * ones being those with the highest number of path segments.
+ *
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
 public class BestMatchPolicyResolver implements FlowResolver {
 
-    private final Map<String, Pattern> cache = new ConcurrentHashMap<>();
+    private final Map<String, Integer> cache = new ConcurrentHashMap<>();
 
-    private final static char OPTIONAL_TRAILING_SEPARATOR = '?';
     private final static String PATH_SEPARATOR = "/";
-    private final static String PATH_PARAM_PREFIX = ":";
-    private final static String PATH_PARAM_REGEX = "[a-zA-Z0-9\\-._~%!$&'()* +,;=:@/]+";
 
-    private final FlowResolver flowResolver;
+    private final ConditionalFlowResolver flowResolver;
 
-    public BestMatchPolicyResolver(final FlowResolver flowResolver) {
+    public BestMatchPolicyResolver(final ConditionalFlowResolver flowResolver) {
         this.flowResolver = flowResolver;
     }
 
     @Override
     public List<Flow> resolve(ExecutionContext context) {
-        return filter(flowResolver.resolve(context), context);
+        return filter(flowResolver.resolve(context));
     }
 
-    private List<Flow> filter(List<Flow> flows, ExecutionContext context) {
+    private List<Flow> filter(List<Flow> flows) {
         // Do not process empty flows
         if (flows == null || flows.isEmpty()) {
             return null;
         }
 
-        // Compare against the incoming request path
-        final String path = context.request().pathInfo();
-
         int pieces = -1;
 
         List<Flow> filteredFlows = new ArrayList<>();
 
         for (Flow flow : flows) {
-            Pattern pattern = cache.computeIfAbsent(flow.getPath(), this::transform);
-            if (pattern.matcher(path).lookingAt()) {
-                int split = flow.getPath().split(PATH_SEPARATOR).length;
-                if (split >= pieces) {
-                    // If we found more matching, forget the previous one
-                    if (split > pieces) {
-                        filteredFlows.clear();
-                    }
-
-                    pieces = split;
-                    filteredFlows.add(flow);
+            int split = cache.computeIfAbsent(
+                    (flow.getPath() != null) ? flow.getPath() : PATH_SEPARATOR,
+                    path -> path.split(PATH_SEPARATOR).length);
+
+            if (split >= pieces) {
+                // If we found more matching, forget the previous one
+                if (split > pieces) {
+                    filteredFlows.clear();
                 }
-            }
-        }
 
-        return filteredFlows;
-    }
-
-    private Pattern transform(String path) {
-        String [] branches = path.split(PATH_SEPARATOR);
-        StringBuilder buffer = new StringBuilder(PATH_SEPARATOR);
-
-        for (final String branch : branches) {
-            if (!branch.isEmpty()) {
-                if (branch.startsWith(PATH_PARAM_PREFIX)) {
-                    buffer.append(PATH_PARAM_REGEX);
-                } else {
-                    buffer.append(branch);
-                }
-
-                buffer.append(PATH_SEPARATOR);
+                pieces = split;
+                filteredFlows.add(flow);
             }
         }
 
-        // Last path separator is not required to match
-        buffer.append(OPTIONAL_TRAILING_SEPARATOR);
-
-        return Pattern.compile(buffer.toString());
+        return filteredFlows;
     }
 }
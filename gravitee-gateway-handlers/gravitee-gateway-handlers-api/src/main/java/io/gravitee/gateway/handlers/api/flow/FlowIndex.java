@@ -0,0 +1,196 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.handlers.api.flow;
+
+import io.gravitee.common.http.HttpMethod;
+import io.gravitee.definition.model.flow.Flow;
+import io.gravitee.definition.model.flow.Operator;
+import io.gravitee.gateway.api.Request;
+import io.gravitee.gateway.handlers.api.path.impl.PathTrie;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An immutable index of the {@link Flow}s of an API or a plan, built once when the API is deployed, and used to
+ * select the flows matching the method and the path of an incoming request without evaluating a regular expression
+ * for each flow.
+ *
+ * Flows are indexed by HTTP method, each method being associated to a path segment trie. Only the flows whose path
+ * contains a regular expression are still matched using a {@link Pattern}. Conditions written with the expression
+ * language are not evaluated by the index.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public final class FlowIndex {
+
+    public final static FlowIndex EMPTY = new FlowIndex(null);
+
+    private final static char OPTIONAL_TRAILING_SEPARATOR = '?';
+    private final static String PATH_SEPARATOR = "/";
+    private final static String PATH_PARAM_PREFIX = ":";
+    private final static String PATH_PARAM_REGEX = "[a-zA-Z0-9\\-._~%!$&'()* +,;=:@/]+";
+
+    private final IndexedFlow[] flows;
+
+    private final Map<HttpMethod, PathTrie<IndexedFlow>> tries = new EnumMap<>(HttpMethod.class);
+
+    /**
+     * Flows which can not be compiled into a trie because their path contains a regular expression.
+     */
+    private final List<IndexedFlow> regexFlows = new ArrayList<>();
+
+    public FlowIndex(List<Flow> flows) {
+        List<IndexedFlow> indexedFlows = new ArrayList<>();
+
+        if (flows != null) {
+            for (Flow flow : flows) {
+                if (flow.isEnabled()) {
+                    indexedFlows.add(new IndexedFlow(flow, indexedFlows.size()));
+                }
+            }
+        }
+
+        this.flows = indexedFlows.toArray(new IndexedFlow[0]);
+
+        for (IndexedFlow flow : this.flows) {
+            boolean compiled = true;
+
+            for (HttpMethod method : HttpMethod.values()) {
+                if (flow.accept(method)) {
+                    compiled &= tries.computeIfAbsent(method, __ -> new PathTrie<>()).add(flow.path, flow);
+                }
+            }
+
+            if (!compiled) {
+                flow.pattern = transform(flow.path);
+                regexFlows.add(flow);
+            }
+        }
+    }
+
+    /**
+     * Returns the enabled flows matching the method and the path of the request, in their declaration order.
+     */
+    public List<Flow> resolve(Request request) {
+        if (flows.length == 0) {
+            return Collections.emptyList();
+        }
+
+        final String path = request.pathInfo();
+        final MatchingFlows matching = new MatchingFlows();
+
+        PathTrie<IndexedFlow> trie = tries.get(request.method());
+        if (trie != null) {
+            trie.match(path, matching);
+        }
+
+        for (IndexedFlow flow : regexFlows) {
+            if (flow.accept(request.method())) {
+                Matcher matcher = flow.pattern.matcher(path);
+                if (flow.exact ? matcher.matches() : matcher.lookingAt()) {
+                    matching.flows.set(flow.rank);
+                }
+            }
+        }
+
+        if (matching.flows.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Flow> resolved = new ArrayList<>(matching.flows.cardinality());
+        for (int i = matching.flows.nextSetBit(0); i >= 0; i = matching.flows.nextSetBit(i + 1)) {
+            resolved.add(flows[i].flow);
+        }
+
+        return resolved;
+    }
+
+    private static String path(Flow flow) {
+        return (flow.getPath() != null) ? flow.getPath() : PATH_SEPARATOR;
+    }
+
+    private static Pattern transform(String path) {
+        String [] branches = path.split(PATH_SEPARATOR);
+        StringBuilder buffer = new StringBuilder(PATH_SEPARATOR);
+
+        for (final String branch : branches) {
+            if (!branch.isEmpty()) {
+                if (branch.startsWith(PATH_PARAM_PREFIX)) {
+                    buffer.append(PATH_PARAM_REGEX);
+                } else {
+                    buffer.append(branch);
+                }
+
+                buffer.append(PATH_SEPARATOR);
+            }
+        }
+
+        // Last path separator is not required to match
+        buffer.append(OPTIONAL_TRAILING_SEPARATOR);
+
+        return Pattern.compile(buffer.toString());
+    }
+
+    private static class IndexedFlow {
+
+        private final Flow flow;
+
+        /**
+         * Declaration order of the flow.
+         */
+        private final int rank;
+
+        private final String path;
+
+        /**
+         * <code>true</code> if the whole request path must be matched.
+         */
+        private final boolean exact;
+
+        private Pattern pattern;
+
+        IndexedFlow(Flow flow, int rank) {
+            this.flow = flow;
+            this.rank = rank;
+            this.path = path(flow);
+            this.exact = flow.getOperator() == Operator.EQUALS;
+        }
+
+        boolean accept(HttpMethod method) {
+            return flow.getMethods() == null || flow.getMethods().isEmpty() || flow.getMethods().contains(method);
+        }
+    }
+
+    private static class MatchingFlows implements PathTrie.Visitor<IndexedFlow> {
+
+        private final BitSet flows = new BitSet();
+
+        @Override
+        public void visit(IndexedFlow flow, boolean exact) {
+            if (exact || !flow.exact) {
+                flows.set(flow.rank);
+            }
+        }
+    }
+}
@@ -18,7 +18,6 @@ package io.gravitee.gateway.handlers.api.flow;
 import io.gravitee.definition.model.flow.Flow;
 import io.gravitee.gateway.api.ExecutionContext;
 import io.gravitee.gateway.api.buffer.Buffer;
-import io.gravitee.gateway.core.processor.EmptyStreamableProcessor;
 import io.gravitee.gateway.core.processor.StreamableProcessor;
 import io.gravitee.gateway.core.processor.chain.DefaultStreamableProcessorChain;
 import io.gravitee.gateway.handlers.api.flow.policy.FlowResponsePolicyChain;
@@ -72,6 +71,7 @@ public class SimpleFlowProvider implements FlowProvider {
             return new DefaultStreamableProcessorChain<>(chain);
         }
 
-        return new EmptyStreamableProcessor<>();
+        // No flow to run, the stage is skipped by the processor chain
+        return null;
     }
 }
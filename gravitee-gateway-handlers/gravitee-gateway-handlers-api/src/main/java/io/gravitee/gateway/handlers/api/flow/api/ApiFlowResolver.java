@@ -15,30 +15,27 @@
  */
 package io.gravitee.gateway.handlers.api.flow.api;
 
-import io.gravitee.definition.model.flow.Flow;
 import io.gravitee.gateway.api.ExecutionContext;
 import io.gravitee.gateway.handlers.api.definition.Api;
+import io.gravitee.gateway.handlers.api.flow.FlowIndex;
 import io.gravitee.gateway.handlers.api.flow.condition.ConditionEvaluator;
 import io.gravitee.gateway.handlers.api.flow.condition.ConditionalFlowResolver;
 
-import java.util.Collections;
-import java.util.List;
-
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
 public class ApiFlowResolver extends ConditionalFlowResolver {
 
-    private final Api api;
+    private final FlowIndex index;
 
     public ApiFlowResolver(Api api, ConditionEvaluator evaluator) {
         super(evaluator);
-        this.api = api;
+        this.index = new FlowIndex(api.getFlows());
     }
 
     @Override
-    public List<Flow> resolve0(ExecutionContext context) {
-        return api.getFlows() != null ? api.getFlows() : Collections.emptyList();
+    public FlowIndex resolve0(ExecutionContext context) {
+        return index;
     }
 }
@@ -18,11 +18,15 @@ package io.gravitee.gateway.handlers.api.flow.condition;
 import io.gravitee.definition.model.flow.Flow;
 import io.gravitee.gateway.api.ExecutionContext;
 import io.gravitee.gateway.handlers.api.flow.AbstractFlowResolver;
+import io.gravitee.gateway.handlers.api.flow.FlowIndex;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
+ * Resolves the flows matching the method and the path of the incoming request using a {@link FlowIndex}, the
+ * {@link ConditionEvaluator} being only used for the flows declaring a condition.
+ *
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
@@ -36,11 +40,22 @@ public abstract class ConditionalFlowResolver extends AbstractFlowResolver {
 
     @Override
     public List<Flow> resolve(ExecutionContext context) {
-        return resolve0(context).stream()
-                .filter(Flow::isEnabled)
-                .filter(flow -> evaluator.evaluate(flow, context))
-                .collect(Collectors.toList());
+        final List<Flow> flows = resolve0(context).resolve(context.request());
+
+        if (flows.isEmpty()) {
+            return flows;
+        }
+
+        final List<Flow> resolved = new ArrayList<>(flows.size());
+
+        for (Flow flow : flows) {
+            if (flow.getCondition() == null || flow.getCondition().isEmpty() || evaluator.evaluate(flow, context)) {
+                resolved.add(flow);
+            }
+        }
+
+        return resolved;
     }
 
-    protected abstract List<Flow> resolve0(ExecutionContext context);
+    protected abstract FlowIndex resolve0(ExecutionContext context);
 }
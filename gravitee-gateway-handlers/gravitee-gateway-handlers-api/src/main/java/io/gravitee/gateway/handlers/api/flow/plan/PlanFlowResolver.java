@@ -16,13 +16,14 @@
 package io.gravitee.gateway.handlers.api.flow.plan;
 
 import io.gravitee.definition.model.Plan;
-import io.gravitee.definition.model.flow.Flow;
 import io.gravitee.gateway.api.ExecutionContext;
 import io.gravitee.gateway.handlers.api.definition.Api;
+import io.gravitee.gateway.handlers.api.flow.FlowIndex;
 import io.gravitee.gateway.handlers.api.flow.condition.ConditionEvaluator;
 import io.gravitee.gateway.handlers.api.flow.condition.ConditionalFlowResolver;
 
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -30,17 +31,23 @@ import java.util.List;
  */
 public class PlanFlowResolver extends ConditionalFlowResolver {
 
-    private final Api api;
+    private final Map<String, FlowIndex> indexes = new HashMap<>();
 
     public PlanFlowResolver(Api api, ConditionEvaluator evaluator) {
         super(evaluator);
-        this.api = api;
+
+        if (api.getPlans() != null) {
+            for (Plan plan : api.getPlans()) {
+                indexes.put(plan.getId(), new FlowIndex(plan.getFlows()));
+            }
+        }
     }
 
     @Override
-    public List<Flow> resolve0(ExecutionContext context) {
-        Plan plan = api.getPlan(context.request().metrics().getPlan());
+    public FlowIndex resolve0(ExecutionContext context) {
+        String plan = context.request().metrics().getPlan();
+        FlowIndex index = (plan != null) ? indexes.get(plan) : null;
 
-        return (plan != null) ? plan.getFlows() : null;
+        return (index != null) ? index : FlowIndex.EMPTY;
     }
 }
@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.handlers.api.manager.endpoint;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.gravitee.common.http.HttpHeaders;
+import io.gravitee.common.http.HttpMethod;
+import io.gravitee.common.http.HttpStatusCode;
+import io.gravitee.common.http.MediaType;
+import io.gravitee.gateway.api.endpoint.Endpoint;
+import io.gravitee.gateway.core.endpoint.ConnectionStats;
+import io.gravitee.gateway.core.endpoint.EndpointStats;
+import io.gravitee.gateway.core.endpoint.ManagedEndpoint;
+import io.gravitee.gateway.handlers.api.ApiReactorHandler;
+import io.gravitee.gateway.handlers.api.definition.Api;
+import io.gravitee.gateway.handlers.api.manager.endpoint.model.ConnectionStatsEntity;
+import io.gravitee.gateway.handlers.api.manager.endpoint.model.EndpointStatsEntity;
+import io.gravitee.gateway.reactor.handler.HandlerEntrypoint;
+import io.gravitee.gateway.reactor.handler.ReactorHandlerRegistry;
+import io.gravitee.node.management.http.endpoint.ManagementEndpoint;
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.Json;
+import io.vertx.ext.web.RoutingContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Exposes the load and connection pool statistics of the endpoints of a deployed API.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public class ApiEndpointsManagementEndpoint implements Handler<RoutingContext>, ManagementEndpoint {
+
+    private final Logger LOGGER = LoggerFactory.getLogger(ApiEndpointsManagementEndpoint.class);
+
+    @Autowired
+    private ReactorHandlerRegistry reactorHandlerRegistry;
+
+    @Override
+    public HttpMethod method() {
+        return HttpMethod.GET;
+    }
+
+    @Override
+    public String path() {
+        return "/apis/:apiId/endpoints";
+    }
+
+    @Override
+    public void handle(RoutingContext ctx) {
+        HttpServerResponse response = ctx.response();
+
+        try {
+            String sApi = ctx.request().getParam("apiId");
+            ApiReactorHandler handler = reactorHandlerRegistry.getEntrypoints()
+                    .stream()
+                    .map(HandlerEntrypoint::target)
+                    .filter(target -> target instanceof ApiReactorHandler)
+                    .map(target -> (ApiReactorHandler) target)
+                    .filter(target -> sApi.equals(((Api) target.reactable()).getId()))
+                    .findFirst()
+                    .orElse(null);
+
+            if (handler == null) {
+                response.setStatusCode(HttpStatusCode.NOT_FOUND_404);
+            } else {
+                List<EndpointStatsEntity> endpoints = handler.endpoints()
+                        .stream()
+                        .map(this::convert)
+                        .collect(Collectors.toList());
+
+                response.putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
+                response.setStatusCode(HttpStatusCode.OK_200);
+                response.setChunked(true);
+                response.write(Json.prettyMapper.writeValueAsString(endpoints));
+            }
+        } catch (JsonProcessingException jpe) {
+            response.setStatusCode(HttpStatusCode.INTERNAL_SERVER_ERROR_500);
+            LOGGER.error("Unable to transform data object to JSON", jpe);
+        }
+
+        response.end();
+    }
+
+    private EndpointStatsEntity convert(Endpoint endpoint) {
+        EndpointStatsEntity entity = new EndpointStatsEntity();
+        entity.setName(endpoint.name());
+        entity.setTarget(endpoint.target());
+
+        if (endpoint instanceof ManagedEndpoint) {
+            EndpointStats stats = ((ManagedEndpoint) endpoint).stats();
+            entity.setInFlight(stats.inFlight());
+            entity.setLatency(toMillis(stats.latency()));
+            entity.setErrorRate(stats.errorRate());
+
+            ConnectionStats connections = stats.connections();
+            ConnectionStatsEntity connectionsEntity = new ConnectionStatsEntity();
+            connectionsEntity.setOpen(connections.open());
+            connectionsEntity.setActive(connections.active());
+            connectionsEntity.setIdle(connections.idle());
+            connectionsEntity.setPending(connections.pending());
+            connectionsEntity.setAverageWaitTime(toMillis(connections.averageWaitTime()));
+            connectionsEntity.setAverageConnectTime(toMillis(connections.averageConnectTime()));
+            entity.setConnections(connectionsEntity);
+        }
+
+        return entity;
+    }
+
+    private static double toMillis(double nanos) {
+        return nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
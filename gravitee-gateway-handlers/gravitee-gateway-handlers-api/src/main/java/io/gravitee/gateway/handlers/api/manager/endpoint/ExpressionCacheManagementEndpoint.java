@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.handlers.api.manager.endpoint;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.cache.CacheStats;
+import io.gravitee.common.http.HttpHeaders;
+import io.gravitee.common.http.HttpMethod;
+import io.gravitee.common.http.HttpStatusCode;
+import io.gravitee.common.http.MediaType;
+import io.gravitee.gateway.core.el.ExpressionCache;
+import io.gravitee.gateway.handlers.api.manager.endpoint.model.CacheStatsEntity;
+import io.gravitee.node.management.http.endpoint.ManagementEndpoint;
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.Json;
+import io.vertx.ext.web.RoutingContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exposes the statistics of the caches of parsed expressions shared by all the APIs.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public class ExpressionCacheManagementEndpoint implements Handler<RoutingContext>, ManagementEndpoint {
+
+    private final Logger LOGGER = LoggerFactory.getLogger(ExpressionCacheManagementEndpoint.class);
+
+    @Override
+    public HttpMethod method() {
+        return HttpMethod.GET;
+    }
+
+    @Override
+    public String path() {
+        return "/el/cache";
+    }
+
+    @Override
+    public void handle(RoutingContext ctx) {
+        HttpServerResponse response = ctx.response();
+        response.setStatusCode(HttpStatusCode.OK_200);
+        response.putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
+        response.setChunked(true);
+
+        try {
+            Map<String, CacheStatsEntity> caches = new LinkedHashMap<>();
+            caches.put("templates", convert(ExpressionCache.templates()));
+            caches.put("expressions", convert(ExpressionCache.expressions()));
+
+            response.write(Json.prettyMapper.writeValueAsString(caches));
+        } catch (JsonProcessingException jpe) {
+            response.setStatusCode(HttpStatusCode.INTERNAL_SERVER_ERROR_500);
+            LOGGER.error("Unable to transform data object to JSON", jpe);
+        }
+
+        response.end();
+    }
+
+    private CacheStatsEntity convert(ExpressionCache cache) {
+        CacheStats stats = cache.stats();
+
+        CacheStatsEntity entity = new CacheStatsEntity();
+        entity.setSize(cache.size());
+        entity.setHitCount(stats.hitCount());
+        entity.setMissCount(stats.missCount());
+        entity.setEvictionCount(stats.evictionCount());
+        return entity;
+    }
+}
@@ -32,9 +32,15 @@ public class NodeApisEndpointInitializer implements InitializingBean {
     private ApisManagementEndpoint apisManagementEndpoint;
     @Autowired
     private ApiManagementEndpoint apiManagementEndpoint;
+    @Autowired
+    private ApiEndpointsManagementEndpoint apiEndpointsManagementEndpoint;
+    @Autowired
+    private ExpressionCacheManagementEndpoint expressionCacheManagementEndpoint;
 
     public void afterPropertiesSet() {
         managementEndpointManager.register(apisManagementEndpoint);
         managementEndpointManager.register(apiManagementEndpoint);
+        managementEndpointManager.register(apiEndpointsManagementEndpoint);
+        managementEndpointManager.register(expressionCacheManagementEndpoint);
     }
 }
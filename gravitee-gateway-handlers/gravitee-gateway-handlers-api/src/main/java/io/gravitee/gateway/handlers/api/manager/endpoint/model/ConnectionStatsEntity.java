@@ -0,0 +1,85 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.handlers.api.manager.endpoint.model;
+
+/**
+ * Durations are expressed in milliseconds.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public class ConnectionStatsEntity {
+
+    private int open;
+
+    private int active;
+
+    private int idle;
+
+    private int pending;
+
+    private double averageWaitTime;
+
+    private double averageConnectTime;
+
+    public int getOpen() {
+        return open;
+    }
+
+    public void setOpen(int open) {
+        this.open = open;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public void setActive(int active) {
+        this.active = active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public void setIdle(int idle) {
+        this.idle = idle;
+    }
+
+    public int getPending() {
+        return pending;
+    }
+
+    public void setPending(int pending) {
+        this.pending = pending;
+    }
+
+    public double getAverageWaitTime() {
+        return averageWaitTime;
+    }
+
+    public void setAverageWaitTime(double averageWaitTime) {
+        this.averageWaitTime = averageWaitTime;
+    }
+
+    public double getAverageConnectTime() {
+        return averageConnectTime;
+    }
+
+    public void setAverageConnectTime(double averageConnectTime) {
+        this.averageConnectTime = averageConnectTime;
+    }
+}
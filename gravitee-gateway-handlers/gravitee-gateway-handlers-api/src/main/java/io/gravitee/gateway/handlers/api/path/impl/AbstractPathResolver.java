@@ -42,6 +42,13 @@ public abstract class AbstractPathResolver implements PathResolver {
 
     private final List<Path> registeredPaths = new ArrayList<>();
 
+    private final PathTrie<Candidate> trie = new PathTrie<>();
+
+    /**
+     * Paths which can not be compiled into the trie because they contain a regular expression.
+     */
+    private final List<Candidate> regexPaths = new ArrayList<>();
+
     private final static Path UNKNOWN_PATH = new Path() {
         @Override
         public String getPath() {
@@ -67,21 +74,17 @@ public abstract class AbstractPathResolver implements PathResolver {
         } catch (IllegalArgumentException iae) {
         }
 
-        int pieces = -1;
-        Path bestPath = null;
+        final BestCandidate best = new BestCandidate();
 
-        // TODO PERF: We must navigate from the longest path to the shortest to avoid counting pieces.
-        for(Path registerPath : registeredPaths) {
-            if (registerPath.getPattern().matcher(path).lookingAt()) {
-                int split = registerPath.getPath().split(URL_PATH_SEPARATOR).length;
-                if (split > pieces) {
-                    pieces = split;
-                    bestPath = registerPath;
-                }
+        for (Candidate regexPath : regexPaths) {
+            if (regexPath.path.getPattern().matcher(path).lookingAt()) {
+                best.visit(regexPath, false);
             }
         }
 
-        return ( bestPath != null ) ? bestPath : UNKNOWN_PATH;
+        trie.match(path, best);
+
+        return ( best.candidate != null ) ? best.candidate.path : UNKNOWN_PATH;
     }
 
     protected void register(Path path) {
@@ -110,6 +113,51 @@ public abstract class AbstractPathResolver implements PathResolver {
         path.setPattern(Pattern.compile(buffer.toString()));
         path.setParameters(parameters);
 
+        Candidate candidate = new Candidate(path, registeredPaths.size(), branches.length);
+        if (!trie.add(path.getPath(), candidate)) {
+            regexPaths.add(candidate);
+        }
+
         registeredPaths.add(path);
     }
+
+    private static class Candidate {
+
+        private final Path path;
+
+        /**
+         * Registration order of the path, used to break ties.
+         */
+        private final int rank;
+
+        /**
+         * Number of segments of the path, the highest weight winning.
+         */
+        private final int weight;
+
+        Candidate(Path path, int rank, int weight) {
+            this.path = path;
+            this.rank = rank;
+            this.weight = weight;
+        }
+
+        boolean isBetterThan(Candidate other) {
+            return other == null || weight > other.weight || (weight == other.weight && rank < other.rank);
+        }
+    }
+
+    /**
+     * Keeps the path with the highest number of segments, the first registered one winning in case of equality.
+     */
+    private static class BestCandidate implements PathTrie.Visitor<Candidate> {
+
+        private Candidate candidate;
+
+        @Override
+        public void visit(Candidate value, boolean exact) {
+            if (value.isBetterThan(candidate)) {
+                candidate = value;
+            }
+        }
+    }
 }
@@ -0,0 +1,268 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.handlers.api.path.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A segment trie compiled from a set of paths, used to find the paths matching a request path in a single traversal,
+ * without evaluating a regular expression for each registered path.
+ *
+ * The trie matches exactly what the regular expression built for each path by {@link AbstractPathResolver} would
+ * have matched: the pattern is a prefix of the request path and a path parameter matches one or more allowed
+ * characters, including the path separator. The visitor is also told whether the whole request path is matched, as
+ * the regular expression would have done with {@link java.util.regex.Matcher#matches()}.
+ *
+ * Paths containing a regular expression in one of their segments can not be compiled and must be handled by the
+ * caller.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public class PathTrie<T> {
+
+    private final static char URL_PATH_SEPARATOR = '/';
+    private final static String PATH_PARAM_PREFIX = ":";
+    private final static String REGEX_METACHARACTERS = "\\^$.|?*+()[]{}";
+
+    /**
+     * Characters allowed in a path parameter, must be kept consistent with {@link AbstractPathResolver}.
+     */
+    private final static boolean[] PATH_PARAM_CHARS = new boolean[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            PATH_PARAM_CHARS[c] = true;
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            PATH_PARAM_CHARS[c] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            PATH_PARAM_CHARS[c] = true;
+        }
+        for (char c : "-._~%!$&'()* +,;=:@/".toCharArray()) {
+            PATH_PARAM_CHARS[c] = true;
+        }
+    }
+
+    private final Node<T> root = new Node<>();
+
+    /**
+     * Registers the path into the trie.
+     *
+     * @param path The path to register.
+     * @param value The value to visit when the path is matched.
+     * @return <code>false</code> if the path can not be compiled.
+     */
+    public boolean add(String path, T value) {
+        String[] branches = path.split(String.valueOf(URL_PATH_SEPARATOR));
+
+        for (String branch : branches) {
+            if (!branch.startsWith(PATH_PARAM_PREFIX) && isRegex(branch)) {
+                return false;
+            }
+        }
+
+        Node<T> node = root;
+        for (String branch : branches) {
+            if (!branch.isEmpty()) {
+                node = (branch.startsWith(PATH_PARAM_PREFIX)) ? node.param() : node.literal(branch);
+            }
+        }
+
+        node.values.add(value);
+        return true;
+    }
+
+    /**
+     * Visits the values of all the registered paths matching the given request path. A value may be visited more
+     * than once when the path parameters can split the request path in different ways.
+     */
+    public void match(String path, Visitor<T> visitor) {
+        new Matcher<>(path, visitor).match(root);
+    }
+
+    private static boolean isRegex(String branch) {
+        for (int i = 0; i < branch.length(); i++) {
+            if (REGEX_METACHARACTERS.indexOf(branch.charAt(i)) != -1) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isPathParamChar(char c) {
+        return c < PATH_PARAM_CHARS.length && PATH_PARAM_CHARS[c];
+    }
+
+    @FunctionalInterface
+    public interface Visitor<T> {
+
+        /**
+         * @param value The value of the matching path.
+         * @param exact <code>true</code> if the path is matching the whole request path.
+         */
+        void visit(T value, boolean exact);
+    }
+
+    private static class Matcher<T> {
+
+        private final String path;
+
+        private final Visitor<T> visitor;
+
+        Matcher(String path, Visitor<T> visitor) {
+            this.path = path;
+            this.visitor = visitor;
+        }
+
+        void match(Node<T> root) {
+            // The root path is matching any request path.
+            accept(root, path.isEmpty() || (path.length() == 1 && path.charAt(0) == URL_PATH_SEPARATOR));
+            matchChildren(root, 0);
+        }
+
+        /**
+         * The path has been matched up to <code>pos</code> by the node: try to go further, a separator being
+         * expected before each segment.
+         */
+        private void matchChildren(Node<T> node, int pos) {
+            if (pos >= path.length() || path.charAt(pos) != URL_PATH_SEPARATOR) {
+                return;
+            }
+
+            int start = pos + 1;
+
+            // Literal segments: as the pattern is not anchored at the end, a literal may only be a prefix of the
+            // request segment.
+            LiteralNode<T> literal = node.literals;
+            for (int i = start; literal != null && i < path.length(); i++) {
+                literal = literal.child(path.charAt(i));
+                if (literal != null && literal.target != null) {
+                    accept(literal.target, isEnd(i + 1));
+                    matchChildren(literal.target, i + 1);
+                }
+            }
+
+            // Path parameter: matches one or more allowed characters, including the separator.
+            Node<T> param = node.param;
+            if (param != null && start < path.length() && isPathParamChar(path.charAt(start))) {
+                int end = start + 1;
+                while (end < path.length() && isPathParamChar(path.charAt(end))) {
+                    if (path.charAt(end) == URL_PATH_SEPARATOR && param.hasChildren()) {
+                        matchChildren(param, end);
+                    }
+                    end++;
+                }
+
+                // The parameter is matching the whole request path when it can consume all the remaining characters.
+                accept(param, end == path.length());
+            }
+        }
+
+        /**
+         * The request path is fully matched when nothing remains after <code>pos</code>, except the optional
+         * trailing separator.
+         */
+        private boolean isEnd(int pos) {
+            return pos == path.length() || (pos == path.length() - 1 && path.charAt(pos) == URL_PATH_SEPARATOR);
+        }
+
+        private void accept(Node<T> node, boolean exact) {
+            for (T value : node.values) {
+                visitor.visit(value, exact);
+            }
+        }
+    }
+
+    private static class Node<T> {
+
+        private final List<T> values = new ArrayList<>(1);
+
+        private LiteralNode<T> literals;
+
+        private Node<T> param;
+
+        Node<T> literal(String branch) {
+            if (literals == null) {
+                literals = new LiteralNode<>();
+            }
+
+            LiteralNode<T> literal = literals;
+            for (int i = 0; i < branch.length(); i++) {
+                literal = literal.getOrCreateChild(branch.charAt(i));
+            }
+
+            if (literal.target == null) {
+                literal.target = new Node<>();
+            }
+
+            return literal.target;
+        }
+
+        Node<T> param() {
+            if (param == null) {
+                param = new Node<>();
+            }
+
+            return param;
+        }
+
+        boolean hasChildren() {
+            return literals != null || param != null;
+        }
+    }
+
+    /**
+     * Char-level trie over the literal segments following a node.
+     */
+    private static class LiteralNode<T> {
+
+        private char[] keys = new char[0];
+
+        @SuppressWarnings("unchecked")
+        private LiteralNode<T>[] children = new LiteralNode[0];
+
+        private Node<T> target;
+
+        LiteralNode<T> child(char c) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    return children[i];
+                }
+            }
+
+            return null;
+        }
+
+        LiteralNode<T> getOrCreateChild(char c) {
+            LiteralNode<T> child = child(c);
+
+            if (child == null) {
+                child = new LiteralNode<>();
+                keys = Arrays.copyOf(keys, keys.length + 1);
+                keys[keys.length - 1] = c;
+                children = Arrays.copyOf(children, children.length + 1);
+                children[children.length - 1] = child;
+            }
+
+            return child;
+        }
+    }
+}
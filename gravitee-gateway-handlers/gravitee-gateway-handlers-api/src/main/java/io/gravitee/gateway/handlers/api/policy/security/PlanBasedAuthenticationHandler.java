@@ -17,6 +17,7 @@ package io.gravitee.gateway.handlers.api.policy.security;
 
 import io.gravitee.definition.model.Plan;
 import io.gravitee.gateway.api.ExecutionContext;
+import io.gravitee.gateway.api.handler.Handler;
 import io.gravitee.gateway.security.core.AuthenticationContext;
 import io.gravitee.gateway.security.core.AuthenticationHandler;
 import io.gravitee.gateway.security.core.AuthenticationPolicy;
@@ -45,6 +46,11 @@ public class PlanBasedAuthenticationHandler implements AuthenticationHandler {
         return handler.canHandle(authenticationContext);
     }
 
+    @Override
+    public void canHandle(AuthenticationContext authenticationContext, Handler<Boolean> resultHandler) {
+        handler.canHandle(authenticationContext, resultHandler);
+    }
+
     @Override
     public String name() {
         return handler.name();
@@ -22,6 +22,7 @@ import io.gravitee.gateway.security.core.AuthenticationHandler;
 import io.gravitee.gateway.security.core.AuthenticationHandlerEnhancer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.expression.ParseException;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -63,7 +64,13 @@ public class PlanBasedAuthenticationHandlerEnhancer implements AuthenticationHan
                 }
 
                 if (plan.getSelectionRule() != null && ! plan.getSelectionRule().isEmpty()) {
-                    providers.add(new SelectionRulePlanBasedAuthenticationHandler(provider, plan));
+                    try {
+                        providers.add(new SelectionRulePlanBasedAuthenticationHandler(provider, plan,
+                                SelectionRulePlanBasedAuthenticationHandler.parse(plan.getSelectionRule())));
+                    } catch (ParseException pe) {
+                        logger.error("Selection rule [{}] of the plan [{}] can not be parsed, the plan will never be selected",
+                                plan.getSelectionRule(), plan.getName(), pe);
+                    }
                 } else {
                     providers.add(new PlanBasedAuthenticationHandler(provider, plan));
                 }
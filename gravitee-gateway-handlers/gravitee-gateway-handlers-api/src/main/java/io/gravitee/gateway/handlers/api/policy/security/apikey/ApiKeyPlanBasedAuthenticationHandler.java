@@ -17,6 +17,7 @@ package io.gravitee.gateway.handlers.api.policy.security.apikey;
 
 import io.gravitee.definition.model.Plan;
 import io.gravitee.gateway.api.ExecutionContext;
+import io.gravitee.gateway.api.handler.Handler;
 import io.gravitee.gateway.security.core.AuthenticationContext;
 import io.gravitee.gateway.security.core.AuthenticationHandler;
 import io.gravitee.gateway.security.core.AuthenticationPolicy;
@@ -49,6 +50,15 @@ public class ApiKeyPlanBasedAuthenticationHandler implements AuthenticationHandl
             return false;
         }
 
+        return matchPlan(context);
+    }
+
+    @Override
+    public void canHandle(AuthenticationContext context, Handler<Boolean> resultHandler) {
+        handler.canHandle(context, handle -> resultHandler.handle(handle && matchPlan(context)));
+    }
+
+    private boolean matchPlan(AuthenticationContext context) {
         // Check that the plan associated to the api-key matches the current plan
         Optional<ApiKey> optApikey = (Optional<ApiKey>) context.get(APIKEY_CONTEXT_ATTRIBUTE);
         if (optApikey != null && !optApikey.isPresent()) {
@@ -17,12 +17,15 @@ package io.gravitee.gateway.handlers.api.policy.security.rule;
 
 import io.gravitee.definition.model.Plan;
 import io.gravitee.gateway.api.el.EvaluableRequest;
+import io.gravitee.gateway.api.handler.Handler;
 import io.gravitee.gateway.handlers.api.policy.security.PlanBasedAuthenticationHandler;
 import io.gravitee.gateway.security.core.AuthenticationContext;
 import io.gravitee.gateway.security.core.AuthenticationHandler;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ParseException;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 
@@ -35,8 +38,31 @@ public class SelectionRulePlanBasedAuthenticationHandler extends PlanBasedAuthen
     private static final String EXPRESSION_REGEX = "\\{([^#|T|(])";
     private static final String EXPRESSION_REGEX_SUBSTITUTE = "{'{'}$1";
 
-    public SelectionRulePlanBasedAuthenticationHandler(final AuthenticationHandler handler, final Plan plan) {
+    /**
+     * Selection rules are compiled once they have been interpreted enough times, the interpreter being used again
+     * for the expressions which can not be compiled.
+     */
+    private static final SpelExpressionParser EXPRESSION_PARSER = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED,
+                    SelectionRulePlanBasedAuthenticationHandler.class.getClassLoader()));
+
+    private final Expression selectionRule;
+
+    public SelectionRulePlanBasedAuthenticationHandler(final AuthenticationHandler handler, final Plan plan,
+                                                      final Expression selectionRule) {
         super(handler, plan);
+        this.selectionRule = selectionRule;
+    }
+
+    /**
+     * Parses the selection rule of a plan, so that it is parsed only once when the API is deployed.
+     *
+     * @param selectionRule The selection rule of the plan.
+     * @return The parsed selection rule.
+     * @throws ParseException if the selection rule is not a valid expression.
+     */
+    public static Expression parse(final String selectionRule) throws ParseException {
+        return EXPRESSION_PARSER.parseExpression(selectionRule.replaceAll(EXPRESSION_REGEX, EXPRESSION_REGEX_SUBSTITUTE));
     }
 
     @Override
@@ -47,16 +73,22 @@ public class SelectionRulePlanBasedAuthenticationHandler extends PlanBasedAuthen
             return false;
         }
 
-        try {
-            Expression expression = new SpelExpressionParser().parseExpression(
-                    plan.getSelectionRule().replaceAll(EXPRESSION_REGEX, EXPRESSION_REGEX_SUBSTITUTE));
+        return evaluate(context);
+    }
 
+    @Override
+    public void canHandle(AuthenticationContext context, Handler<Boolean> resultHandler) {
+        handler.canHandle(context, handle -> resultHandler.handle(handle && evaluate(context)));
+    }
+
+    private boolean evaluate(AuthenticationContext context) {
+        try {
             StandardEvaluationContext evaluation = new StandardEvaluationContext();
             evaluation.setVariable("request", new EvaluableRequest(context.request()));
             evaluation.setVariable("context", new EvaluableAuthenticationContext(context));
 
-            return expression.getValue(evaluation, Boolean.class);
-        } catch (ParseException | EvaluationException ex) {
+            return selectionRule.getValue(evaluation, Boolean.class);
+        } catch (EvaluationException ex) {
             return false;
         }
     }
@@ -15,6 +15,7 @@
  */
 package io.gravitee.gateway.handlers.api.processor;
 
+import io.gravitee.definition.model.flow.Flow;
 import io.gravitee.gateway.api.ExecutionContext;
 import io.gravitee.gateway.api.buffer.Buffer;
 import io.gravitee.gateway.core.processor.Processor;
@@ -54,6 +55,11 @@ public abstract class ApiProcessorChainFactory implements
 
     private final List<ProcessorProvider<ExecutionContext, StreamableProcessor<ExecutionContext, Buffer>>> providers = new ArrayList<>();
 
+    /**
+     * Providers compiled once the API is deployed, shared by all the chains created by the factory.
+     */
+    private volatile ProcessorProvider<ExecutionContext, StreamableProcessor<ExecutionContext, Buffer>>[] template;
+
     ApplicationContext applicationContext;
 
     @Override
@@ -69,8 +75,21 @@ public abstract class ApiProcessorChainFactory implements
         add(new StreamableProcessorSupplier<>(supplier));
     }
 
+    /**
+     * Flows are only part of the chain if at least one of them is enabled.
+     */
+    protected static boolean hasFlows(List<Flow> flows) {
+        return flows != null && flows.stream().anyMatch(Flow::isEnabled);
+    }
+
     @Override
     public StreamableProcessorChain<ExecutionContext, Buffer, StreamableProcessor<ExecutionContext, Buffer>> create() {
-        return new StreamableProcessorProviderChain<>(providers);
+        ProcessorProvider<ExecutionContext, StreamableProcessor<ExecutionContext, Buffer>>[] template = this.template;
+        if (template == null) {
+            template = providers.toArray(new ProcessorProvider[0]);
+            this.template = template;
+        }
+
+        return new StreamableProcessorProviderChain<>(template);
     }
 }
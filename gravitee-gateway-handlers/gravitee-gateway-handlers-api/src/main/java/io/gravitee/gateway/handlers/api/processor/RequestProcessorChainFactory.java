@@ -25,13 +25,11 @@ import io.gravitee.gateway.handlers.api.flow.BestMatchPolicyResolver;
 import io.gravitee.gateway.handlers.api.flow.SimpleFlowPolicyChainProvider;
 import io.gravitee.gateway.handlers.api.flow.SimpleFlowProvider;
 import io.gravitee.gateway.handlers.api.flow.api.ApiFlowResolver;
-import io.gravitee.gateway.handlers.api.flow.condition.CompositeConditionEvaluator;
 import io.gravitee.gateway.handlers.api.flow.condition.ConditionEvaluator;
-import io.gravitee.gateway.handlers.api.flow.condition.evaluation.HttpMethodConditionEvaluator;
-import io.gravitee.gateway.handlers.api.flow.condition.evaluation.PathBasedConditionEvaluator;
 import io.gravitee.gateway.handlers.api.flow.condition.evaluation.el.ExpressionLanguageBasedConditionEvaluator;
 import io.gravitee.gateway.handlers.api.flow.plan.PlanFlowPolicyChainProvider;
 import io.gravitee.gateway.handlers.api.flow.plan.PlanFlowResolver;
+import io.gravitee.gateway.handlers.api.path.PathResolver;
 import io.gravitee.gateway.handlers.api.path.impl.ApiPathResolverImpl;
 import io.gravitee.gateway.handlers.api.policy.api.ApiPolicyChainProvider;
 import io.gravitee.gateway.handlers.api.policy.api.ApiPolicyResolver;
@@ -98,23 +96,30 @@ public class RequestProcessorChainFactory extends ApiProcessorChainFactory {
         }
 
         if (api.getDefinitionVersion() == DefinitionVersion.V1) {
-            add(() -> new PathParametersIndexProcessor(new ApiPathResolverImpl(api)));
+            // Paths are compiled once, the resolver is shared by all the requests
+            final PathResolver pathResolver = new ApiPathResolverImpl(api);
+            add(() -> new PathParametersIndexProcessor(pathResolver));
             add(new PlanPolicyChainProvider(StreamType.ON_REQUEST, new PlanPolicyResolver(api), chainFactory));
             add(new ApiPolicyChainProvider(StreamType.ON_REQUEST, new ApiPolicyResolver(), chainFactory));
         } else if (api.getDefinitionVersion() == DefinitionVersion.V2) {
-            final ConditionEvaluator evaluator = new CompositeConditionEvaluator(
-                    new HttpMethodConditionEvaluator(),
-                    new PathBasedConditionEvaluator(),
-                    new ExpressionLanguageBasedConditionEvaluator());
+            // Method and path are matched by the flow index, only the conditions are left to the evaluator
+            final ConditionEvaluator evaluator = new ExpressionLanguageBasedConditionEvaluator();
+
+            // API flows stage is not part of the chain at all when there is no flow to run
+            final boolean apiFlows = hasFlows(api.getFlows());
 
             if (api.getFlowMode() == null || api.getFlowMode() == FlowMode.DEFAULT) {
                 add(new PlanFlowPolicyChainProvider(new SimpleFlowProvider(StreamType.ON_REQUEST, new PlanFlowResolver(api, evaluator), chainFactory)));
-                add(new SimpleFlowPolicyChainProvider(new SimpleFlowProvider(StreamType.ON_REQUEST, new ApiFlowResolver(api, evaluator), chainFactory)));
+                if (apiFlows) {
+                    add(new SimpleFlowPolicyChainProvider(new SimpleFlowProvider(StreamType.ON_REQUEST, new ApiFlowResolver(api, evaluator), chainFactory)));
+                }
             } else {
                 add(new PlanFlowPolicyChainProvider(new SimpleFlowProvider(StreamType.ON_REQUEST,
                         new BestMatchPolicyResolver(new PlanFlowResolver(api, evaluator)), chainFactory)));
-                add(new SimpleFlowPolicyChainProvider(new SimpleFlowProvider(StreamType.ON_REQUEST,
-                        new BestMatchPolicyResolver(new ApiFlowResolver(api, evaluator)), chainFactory)));
+                if (apiFlows) {
+                    add(new SimpleFlowPolicyChainProvider(new SimpleFlowProvider(StreamType.ON_REQUEST,
+                            new BestMatchPolicyResolver(new ApiFlowResolver(api, evaluator)), chainFactory)));
+                }
             }
         }
     }
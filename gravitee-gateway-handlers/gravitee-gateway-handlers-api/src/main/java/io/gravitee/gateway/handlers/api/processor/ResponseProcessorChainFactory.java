@@ -21,10 +21,7 @@ import io.gravitee.gateway.handlers.api.flow.BestMatchPolicyResolver;
 import io.gravitee.gateway.handlers.api.flow.SimpleFlowPolicyChainProvider;
 import io.gravitee.gateway.handlers.api.flow.SimpleFlowProvider;
 import io.gravitee.gateway.handlers.api.flow.api.ApiFlowResolver;
-import io.gravitee.gateway.handlers.api.flow.condition.CompositeConditionEvaluator;
 import io.gravitee.gateway.handlers.api.flow.condition.ConditionEvaluator;
-import io.gravitee.gateway.handlers.api.flow.condition.evaluation.HttpMethodConditionEvaluator;
-import io.gravitee.gateway.handlers.api.flow.condition.evaluation.PathBasedConditionEvaluator;
 import io.gravitee.gateway.handlers.api.flow.condition.evaluation.el.ExpressionLanguageBasedConditionEvaluator;
 import io.gravitee.gateway.handlers.api.flow.plan.PlanFlowPolicyChainProvider;
 import io.gravitee.gateway.handlers.api.flow.plan.PlanFlowResolver;
@@ -48,17 +45,22 @@ public class ResponseProcessorChainFactory extends ApiProcessorChainFactory {
             add(new ApiPolicyChainProvider(StreamType.ON_RESPONSE, new ApiPolicyResolver(), chainFactory));
             add(new PlanPolicyChainProvider(StreamType.ON_RESPONSE, new PlanPolicyResolver(api), chainFactory));
         } else if (api.getDefinitionVersion() == DefinitionVersion.V2) {
-            final ConditionEvaluator evaluator = new CompositeConditionEvaluator(
-                    new HttpMethodConditionEvaluator(),
-                    new PathBasedConditionEvaluator(),
-                    new ExpressionLanguageBasedConditionEvaluator());
+            // Method and path are matched by the flow index, only the conditions are left to the evaluator
+            final ConditionEvaluator evaluator = new ExpressionLanguageBasedConditionEvaluator();
+
+            // API flows stage is not part of the chain at all when there is no flow to run
+            final boolean apiFlows = hasFlows(api.getFlows());
 
             if (api.getFlowMode() == null || api.getFlowMode() == FlowMode.DEFAULT) {
-                add(new SimpleFlowPolicyChainProvider(new SimpleFlowProvider(StreamType.ON_RESPONSE, new ApiFlowResolver(api, evaluator), chainFactory)));
+                if (apiFlows) {
+                    add(new SimpleFlowPolicyChainProvider(new SimpleFlowProvider(StreamType.ON_RESPONSE, new ApiFlowResolver(api, evaluator), chainFactory)));
+                }
                 add(new PlanFlowPolicyChainProvider(new SimpleFlowProvider(StreamType.ON_RESPONSE, new PlanFlowResolver(api, evaluator), chainFactory)));
             } else {
-                add(new SimpleFlowPolicyChainProvider(new SimpleFlowProvider(StreamType.ON_RESPONSE,
-                        new BestMatchPolicyResolver(new ApiFlowResolver(api, evaluator)), chainFactory)));
+                if (apiFlows) {
+                    add(new SimpleFlowPolicyChainProvider(new SimpleFlowProvider(StreamType.ON_RESPONSE,
+                            new BestMatchPolicyResolver(new ApiFlowResolver(api, evaluator)), chainFactory)));
+                }
                 add(new PlanFlowPolicyChainProvider(new SimpleFlowProvider(StreamType.ON_RESPONSE,
                         new BestMatchPolicyResolver(new PlanFlowResolver(api, evaluator)), chainFactory)));
             }
@@ -16,12 +16,15 @@
 package io.gravitee.gateway.handlers.api.spring;
 
 import io.gravitee.gateway.handlers.api.manager.ApiManager;
+import io.gravitee.gateway.handlers.api.manager.endpoint.ApiEndpointsManagementEndpoint;
 import io.gravitee.gateway.handlers.api.manager.endpoint.ApiManagementEndpoint;
 import io.gravitee.gateway.handlers.api.manager.endpoint.ApisManagementEndpoint;
+import io.gravitee.gateway.handlers.api.manager.endpoint.ExpressionCacheManagementEndpoint;
 import io.gravitee.gateway.handlers.api.manager.endpoint.NodeApisEndpointInitializer;
 import io.gravitee.gateway.handlers.api.manager.impl.ApiManagerImpl;
 import io.gravitee.gateway.policy.PolicyFactory;
 import io.gravitee.gateway.policy.impl.PolicyFactoryImpl;
+import io.gravitee.gateway.security.core.LookupExecutor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -47,6 +50,16 @@ public class ApiHandlerConfiguration {
         return new ApiManagementEndpoint();
     }
 
+    @Bean
+    public ApiEndpointsManagementEndpoint apiEndpointsManagementEndpoint() {
+        return new ApiEndpointsManagementEndpoint();
+    }
+
+    @Bean
+    public ExpressionCacheManagementEndpoint expressionCacheManagementEndpoint() {
+        return new ExpressionCacheManagementEndpoint();
+    }
+
     @Bean
     public NodeApisEndpointInitializer nodeApisEndpointInitializer() {
         return new NodeApisEndpointInitializer();
@@ -56,4 +69,9 @@ public class ApiHandlerConfiguration {
     public PolicyFactory policyFactory() {
         return new PolicyFactoryImpl();
     }
+
+    @Bean
+    public LookupExecutor lookupExecutor() {
+        return new LookupExecutor();
+    }
 }
@@ -0,0 +1,190 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.handlers.api.flow;
+
+import io.gravitee.common.http.HttpMethod;
+import io.gravitee.definition.model.flow.Flow;
+import io.gravitee.definition.model.flow.Operator;
+import io.gravitee.gateway.api.ExecutionContext;
+import io.gravitee.gateway.api.Request;
+import io.gravitee.gateway.handlers.api.flow.condition.CompositeConditionEvaluator;
+import io.gravitee.gateway.handlers.api.flow.condition.ConditionEvaluator;
+import io.gravitee.gateway.handlers.api.flow.condition.evaluation.HttpMethodConditionEvaluator;
+import io.gravitee.gateway.handlers.api.flow.condition.evaluation.PathBasedConditionEvaluator;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class FlowIndexTest {
+
+    @Mock
+    private ExecutionContext context;
+
+    @Mock
+    private Request request;
+
+    @Before
+    public void setUp() {
+        when(context.request()).thenReturn(request);
+        when(request.method()).thenReturn(HttpMethod.GET);
+    }
+
+    @Test
+    public void shouldResolveFlows_inDeclarationOrder() {
+        Flow flow1 = flow("/products", Operator.STARTS_WITH);
+        Flow flow2 = flow("/", Operator.STARTS_WITH);
+        Flow flow3 = flow("/products/:id", Operator.STARTS_WITH);
+        Flow flow4 = flow("/orders", Operator.STARTS_WITH);
+
+        when(request.pathInfo()).thenReturn("/products/1");
+
+        Assert.assertEquals(Arrays.asList(flow1, flow2, flow3),
+                new FlowIndex(Arrays.asList(flow1, flow2, flow3, flow4)).resolve(request));
+    }
+
+    @Test
+    public void shouldResolveFlows_byMethod() {
+        Flow flow1 = flow("/products", Operator.STARTS_WITH, HttpMethod.POST);
+        Flow flow2 = flow("/products", Operator.STARTS_WITH, HttpMethod.GET, HttpMethod.PUT);
+        Flow flow3 = flow("/products", Operator.STARTS_WITH);
+
+        when(request.pathInfo()).thenReturn("/products");
+
+        Assert.assertEquals(Arrays.asList(flow2, flow3),
+                new FlowIndex(Arrays.asList(flow1, flow2, flow3)).resolve(request));
+    }
+
+    @Test
+    public void shouldResolveFlows_equalsOperator() {
+        Flow flow1 = flow("/products", Operator.EQUALS);
+        Flow flow2 = flow("/products/:id", Operator.EQUALS);
+        FlowIndex index = new FlowIndex(Arrays.asList(flow1, flow2));
+
+        when(request.pathInfo()).thenReturn("/products/");
+        Assert.assertEquals(Collections.singletonList(flow1), index.resolve(request));
+
+        when(request.pathInfo()).thenReturn("/products/1/items");
+        Assert.assertEquals(Collections.singletonList(flow2), index.resolve(request));
+
+        when(request.pathInfo()).thenReturn("/products2");
+        Assert.assertTrue(index.resolve(request).isEmpty());
+    }
+
+    @Test
+    public void shouldResolveFlows_regexPath() {
+        Flow flow1 = flow("/products/[0-9]+", Operator.EQUALS);
+        Flow flow2 = flow("/products", Operator.STARTS_WITH);
+        FlowIndex index = new FlowIndex(Arrays.asList(flow1, flow2));
+
+        when(request.pathInfo()).thenReturn("/products/12");
+        Assert.assertEquals(Arrays.asList(flow1, flow2), index.resolve(request));
+
+        when(request.pathInfo()).thenReturn("/products/ab");
+        Assert.assertEquals(Collections.singletonList(flow2), index.resolve(request));
+    }
+
+    @Test
+    public void shouldNotResolveDisabledFlows() {
+        Flow flow1 = flow("/products", Operator.STARTS_WITH);
+        flow1.setEnabled(false);
+        Flow flow2 = flow("/", Operator.STARTS_WITH);
+
+        when(request.pathInfo()).thenReturn("/products");
+
+        Assert.assertEquals(Collections.singletonList(flow2),
+                new FlowIndex(Arrays.asList(flow1, flow2)).resolve(request));
+    }
+
+    @Test
+    public void resolve_sameAsConditionEvaluators() {
+        ConditionEvaluator evaluator = new CompositeConditionEvaluator(
+                new HttpMethodConditionEvaluator(),
+                new PathBasedConditionEvaluator());
+
+        Random random = new Random(42);
+        String[] segments = {"stores", "store", "Stores", "order", "v1", ":storeId", ":orderId", "[0-9,;]+", "a.b"};
+        String[] requestSegments = {"stores", "store", "storesX", "Stores", "order", "v1", "99", "2124;2125",
+                "a.b", "axb", "file%20sqs", "file;&,.=sqs", "<invalid>", ""};
+        HttpMethod[] methods = {HttpMethod.GET, HttpMethod.POST, HttpMethod.DELETE};
+
+        for (int i = 0; i < 50; i++) {
+            List<Flow> flows = new ArrayList<>();
+            int count = 1 + random.nextInt(20);
+            for (int j = 0; j < count; j++) {
+                Flow flow = flow(randomPath(random, segments, 4),
+                        random.nextBoolean() ? Operator.EQUALS : Operator.STARTS_WITH);
+                if (random.nextBoolean()) {
+                    flow.setMethods(EnumSet.of(methods[random.nextInt(methods.length)]));
+                }
+                flow.setEnabled(random.nextInt(10) != 0);
+                flows.add(flow);
+            }
+
+            FlowIndex index = new FlowIndex(flows);
+
+            for (int j = 0; j < 20; j++) {
+                String requestPath = randomPath(random, requestSegments, 5);
+                when(request.pathInfo()).thenReturn(requestPath);
+                when(request.method()).thenReturn(methods[random.nextInt(methods.length)]);
+
+                List<Flow> expected = flows.stream()
+                        .filter(Flow::isEnabled)
+                        .filter(flow -> evaluator.evaluate(flow, context))
+                        .collect(Collectors.toList());
+
+                Assert.assertEquals(requestPath, expected, index.resolve(request));
+            }
+        }
+    }
+
+    private Flow flow(String path, Operator operator, HttpMethod... methods) {
+        Flow flow = new Flow();
+        flow.setPath(path);
+        flow.setOperator(operator);
+        flow.setEnabled(true);
+        if (methods.length > 0) {
+            flow.setMethods(EnumSet.copyOf(Arrays.asList(methods)));
+        }
+        return flow;
+    }
+
+    private String randomPath(Random random, String[] segments, int maxDepth) {
+        StringBuilder path = new StringBuilder();
+        int depth = random.nextInt(maxDepth + 1);
+        for (int i = 0; i < depth; i++) {
+            path.append('/').append(segments[random.nextInt(segments.length)]);
+        }
+        return (path.length() == 0 || random.nextInt(4) == 0) ? path.append('/').toString() : path.toString();
+    }
+}
@@ -0,0 +1,368 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.handlers.api.flow;
+
+import io.gravitee.common.http.HttpHeaders;
+import io.gravitee.common.http.HttpMethod;
+import io.gravitee.common.http.HttpVersion;
+import io.gravitee.common.util.MultiValueMap;
+import io.gravitee.definition.model.flow.Flow;
+import io.gravitee.definition.model.flow.Operator;
+import io.gravitee.gateway.api.ExecutionContext;
+import io.gravitee.gateway.api.Request;
+import io.gravitee.gateway.api.buffer.Buffer;
+import io.gravitee.gateway.api.context.SimpleExecutionContext;
+import io.gravitee.gateway.api.handler.Handler;
+import io.gravitee.gateway.api.http2.HttpFrame;
+import io.gravitee.gateway.api.stream.ReadStream;
+import io.gravitee.gateway.api.ws.WebSocket;
+import io.gravitee.gateway.handlers.api.definition.Api;
+import io.gravitee.gateway.handlers.api.flow.api.ApiFlowResolver;
+import io.gravitee.gateway.handlers.api.flow.condition.CompositeConditionEvaluator;
+import io.gravitee.gateway.handlers.api.flow.condition.ConditionEvaluator;
+import io.gravitee.gateway.handlers.api.flow.condition.evaluation.HttpMethodConditionEvaluator;
+import io.gravitee.gateway.handlers.api.flow.condition.evaluation.PathBasedConditionEvaluator;
+import io.gravitee.gateway.handlers.api.flow.condition.evaluation.el.ExpressionLanguageBasedConditionEvaluator;
+import io.gravitee.reporter.api.http.Metrics;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.net.ssl.SSLSession;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2)
+public class FlowResolverBenchmark {
+
+    public static void main(String[]args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(FlowResolverBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    /**
+     * Number of flows declared by the API.
+     */
+    @Param({"50", "500"})
+    private int flows;
+
+    private FlowResolver indexedResolver;
+    private FlowResolver indexedBestMatchResolver;
+    private FlowResolver regexResolver;
+    private FlowResolver regexBestMatchResolver;
+    private ExecutionContext[] contexts;
+    private int next;
+
+    @Setup
+    public void setup() {
+        List<Flow> definitions = new ArrayList<>(flows);
+        definitions.add(flow("/", Operator.STARTS_WITH, null));
+        for (int i = 1; i < flows; i++) {
+            switch (i % 3) {
+                case 0:
+                    definitions.add(flow("/store" + i, Operator.STARTS_WITH, null));
+                    break;
+                case 1:
+                    definitions.add(flow("/store" + i + "/:storeId", Operator.STARTS_WITH, HttpMethod.GET));
+                    break;
+                default:
+                    definitions.add(flow("/store" + i + "/:storeId/order/:orderId", Operator.EQUALS, null));
+            }
+        }
+
+        Api api = new Api();
+        api.setFlows(definitions);
+
+        indexedResolver = new ApiFlowResolver(api, new ExpressionLanguageBasedConditionEvaluator());
+        indexedBestMatchResolver = new BestMatchPolicyResolver(
+                new ApiFlowResolver(api, new ExpressionLanguageBasedConditionEvaluator()));
+        regexResolver = new RegexFlowResolver(definitions);
+        regexBestMatchResolver = new RegexBestMatchResolver(new RegexFlowResolver(definitions));
+
+        contexts = new ExecutionContext[64];
+        for (int i = 0; i < contexts.length; i++) {
+            contexts[i] = new SimpleExecutionContext(
+                    new SimpleRequest("/store" + ((i * 7919) % flows) + "/myStore/order/190783", HttpMethod.GET), null);
+        }
+    }
+
+    @Benchmark
+    public List<Flow> bench_resolve_indexed() {
+        return indexedResolver.resolve(nextContext());
+    }
+
+    @Benchmark
+    public List<Flow> bench_resolve_regex() {
+        return regexResolver.resolve(nextContext());
+    }
+
+    @Benchmark
+    public List<Flow> bench_resolveBestMatch_indexed() {
+        return indexedBestMatchResolver.resolve(nextContext());
+    }
+
+    @Benchmark
+    public List<Flow> bench_resolveBestMatch_regex() {
+        return regexBestMatchResolver.resolve(nextContext());
+    }
+
+    private ExecutionContext nextContext() {
+        return contexts[next++ & (contexts.length - 1)];
+    }
+
+    private static Flow flow(String path, Operator operator, HttpMethod method) {
+        Flow flow = new Flow();
+        flow.setPath(path);
+        flow.setOperator(operator);
+        flow.setEnabled(true);
+        if (method != null) {
+            flow.setMethods(Collections.singleton(method));
+        }
+        return flow;
+    }
+
+    /**
+     * Resolution as it was done before flows were indexed: the conditions of each flow are evaluated.
+     */
+    static class RegexFlowResolver implements FlowResolver {
+
+        private final ConditionEvaluator evaluator = new CompositeConditionEvaluator(
+                new HttpMethodConditionEvaluator(),
+                new PathBasedConditionEvaluator(),
+                new ExpressionLanguageBasedConditionEvaluator());
+
+        private final List<Flow> flows;
+
+        RegexFlowResolver(List<Flow> flows) {
+            this.flows = flows;
+        }
+
+        @Override
+        public List<Flow> resolve(ExecutionContext context) {
+            return flows.stream()
+                    .filter(Flow::isEnabled)
+                    .filter(flow -> evaluator.evaluate(flow, context))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Best match as it was done before flows were indexed: the pattern of each resolved flow is evaluated again.
+     */
+    static class RegexBestMatchResolver implements FlowResolver {
+
+        private final Map<String, Pattern> cache = new ConcurrentHashMap<>();
+
+        private final FlowResolver flowResolver;
+
+        RegexBestMatchResolver(FlowResolver flowResolver) {
+            this.flowResolver = flowResolver;
+        }
+
+        @Override
+        public List<Flow> resolve(ExecutionContext context) {
+            List<Flow> flows = flowResolver.resolve(context);
+            List<Flow> filteredFlows = new ArrayList<>();
+            int pieces = -1;
+
+            for (Flow flow : flows) {
+                Pattern pattern = cache.computeIfAbsent(flow.getPath(), this::transform);
+                if (pattern.matcher(context.request().pathInfo()).lookingAt()) {
+                    int split = flow.getPath().split("/").length;
+                    if (split >= pieces) {
+                        if (split > pieces) {
+                            filteredFlows.clear();
+                        }
+
+                        pieces = split;
+                        filteredFlows.add(flow);
+                    }
+                }
+            }
+
+            return filteredFlows;
+        }
+
+        private Pattern transform(String path) {
+            StringBuilder buffer = new StringBuilder("/");
+            for (String branch : path.split("/")) {
+                if (!branch.isEmpty()) {
+                    buffer.append(branch.startsWith(":") ? "[a-zA-Z0-9\\-._~%!$&'()* +,;=:@/]+" : branch).append('/');
+                }
+            }
+            buffer.append('?');
+
+            return Pattern.compile(buffer.toString());
+        }
+    }
+
+    static class SimpleRequest implements Request {
+
+        private final String path;
+        private final HttpMethod method;
+
+        SimpleRequest(String path, HttpMethod method) {
+            this.path = path;
+            this.method = method;
+        }
+
+        @Override
+        public String id() {
+            return null;
+        }
+
+        @Override
+        public String transactionId() {
+            return null;
+        }
+
+        @Override
+        public String uri() {
+            return null;
+        }
+
+        @Override
+        public String path() {
+            return null;
+        }
+
+        @Override
+        public String pathInfo() {
+            return this.path;
+        }
+
+        @Override
+        public String contextPath() {
+            return null;
+        }
+
+        @Override
+        public MultiValueMap<String, String> parameters() {
+            return null;
+        }
+
+        @Override
+        public MultiValueMap<String, String> pathParameters() {
+            return null;
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return null;
+        }
+
+        @Override
+        public HttpMethod method() {
+            return method;
+        }
+
+        @Override
+        public String scheme() {
+            return null;
+        }
+
+        @Override
+        public String rawMethod() {
+            return null;
+        }
+
+        @Override
+        public HttpVersion version() {
+            return null;
+        }
+
+        @Override
+        public long timestamp() {
+            return 0;
+        }
+
+        @Override
+        public String remoteAddress() {
+            return null;
+        }
+
+        @Override
+        public String localAddress() {
+            return null;
+        }
+
+        @Override
+        public SSLSession sslSession() {
+            return null;
+        }
+
+        @Override
+        public Metrics metrics() {
+            return null;
+        }
+
+        @Override
+        public boolean ended() {
+            return false;
+        }
+
+        @Override
+        public Request timeoutHandler(Handler<Long> timeoutHandler) {
+            return null;
+        }
+
+        @Override
+        public Handler<Long> timeoutHandler() {
+            return null;
+        }
+
+        @Override
+        public boolean isWebSocket() {
+            return false;
+        }
+
+        @Override
+        public WebSocket websocket() {
+            return null;
+        }
+
+        @Override
+        public Request customFrameHandler(Handler<HttpFrame> frameHandler) {
+            return null;
+        }
+
+        @Override
+        public ReadStream<Buffer> bodyHandler(Handler<Buffer> bodyHandler) {
+            return null;
+        }
+
+        @Override
+        public ReadStream<Buffer> endHandler(Handler<Void> endHandler) {
+            return null;
+        }
+    }
+
+}
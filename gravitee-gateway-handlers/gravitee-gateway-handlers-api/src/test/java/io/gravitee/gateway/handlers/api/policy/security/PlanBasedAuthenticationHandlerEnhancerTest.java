@@ -16,7 +16,10 @@
 package io.gravitee.gateway.handlers.api.policy.security;
 
 import io.gravitee.definition.model.Plan;
+import io.gravitee.gateway.api.Request;
 import io.gravitee.gateway.handlers.api.definition.Api;
+import io.gravitee.gateway.handlers.api.policy.security.rule.SelectionRulePlanBasedAuthenticationHandler;
+import io.gravitee.gateway.security.core.AuthenticationContext;
 import io.gravitee.gateway.security.core.AuthenticationHandler;
 import org.junit.Before;
 import org.junit.Test;
@@ -24,9 +27,12 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -95,4 +101,51 @@ public class PlanBasedAuthenticationHandlerEnhancerTest {
         assertFalse(SecurityProviders.isEmpty());
         assertEquals("keyless", SecurityProviders.iterator().next().name());
     }
+
+    @Test
+    public void shouldResolveSelectionRulePolicy() {
+        AuthenticationHandler authenticationHandler = mock(AuthenticationHandler.class);
+        when(authenticationHandler.name()).thenReturn("jwt");
+        when(authenticationHandler.canHandle(any())).thenReturn(true);
+
+        Plan plan1 = new Plan();
+        plan1.setSecurity("jwt");
+        plan1.setSelectionRule("#context.attributes['client_id'] == 'my-client'");
+        when(api.getPlans()).thenReturn(Collections.singletonList(plan1));
+
+        List<AuthenticationHandler> SecurityProviders =
+                authenticationHandlerEnhancer.filter(Collections.singletonList(authenticationHandler));
+
+        assertEquals(1, SecurityProviders.size());
+        AuthenticationHandler handler = SecurityProviders.get(0);
+        assertTrue(handler instanceof SelectionRulePlanBasedAuthenticationHandler);
+
+        Map<String, Object> attributes = new HashMap<>();
+        AuthenticationContext context = mock(AuthenticationContext.class);
+        when(context.request()).thenReturn(mock(Request.class));
+        when(context.attributes()).thenReturn(attributes);
+
+        // The selection rule is parsed once and evaluated for each request, compiled or not
+        for (int i = 0; i < 500; i++) {
+            attributes.put("client_id", (i % 2 == 0) ? "my-client" : "other-client");
+            assertEquals(i % 2 == 0, handler.canHandle(context));
+        }
+    }
+
+    @Test
+    public void shouldNotResolveSelectionRulePolicy_invalidSelectionRule() {
+        AuthenticationHandler authenticationHandler = mock(AuthenticationHandler.class);
+        when(authenticationHandler.name()).thenReturn("jwt");
+
+        Plan plan1 = new Plan();
+        plan1.setSecurity("jwt");
+        plan1.setSelectionRule("#context.attributes['client_id'] ==");
+        when(api.getPlans()).thenReturn(Collections.singletonList(plan1));
+
+        List<AuthenticationHandler> SecurityProviders =
+                authenticationHandlerEnhancer.filter(Collections.singletonList(authenticationHandler));
+
+        assertNotNull(SecurityProviders);
+        assertTrue(SecurityProviders.isEmpty());
+    }
 }
@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.handlers.api.processor;
+
+import io.gravitee.gateway.api.ExecutionContext;
+import io.gravitee.gateway.api.buffer.Buffer;
+import io.gravitee.gateway.core.processor.AbstractProcessor;
+import io.gravitee.gateway.core.processor.StreamableProcessor;
+import io.gravitee.gateway.core.processor.provider.ProcessorProvider;
+import io.gravitee.gateway.core.processor.provider.StreamableProcessorProviderChain;
+import io.gravitee.gateway.core.processor.provider.StreamableProcessorSupplier;
+import io.gravitee.gateway.handlers.api.flow.SimpleFlowPolicyChainProvider;
+import io.gravitee.gateway.handlers.api.flow.SimpleFlowProvider;
+import io.gravitee.gateway.policy.StreamType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Creates and runs a request processor chain the way it is done for each request by the API handler, for an API
+ * without any flow: two processors around the plan flows stage.
+ *
+ * Run it with <code>-prof gc</code> to get the allocation rate per request.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2)
+public class ProcessorChainBenchmark {
+
+    public static void main(String[]args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ProcessorChainBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    private ProcessorProvider<ExecutionContext, StreamableProcessor<ExecutionContext, Buffer>>[] template;
+
+    private ExecutionContext context;
+
+    @Setup
+    public void setup() {
+        context = mock(ExecutionContext.class);
+
+        template = new ProcessorProvider[] {
+                new StreamableProcessorSupplier<>(PassThroughProcessor::new),
+                new SimpleFlowPolicyChainProvider(new SimpleFlowProvider(StreamType.ON_REQUEST, ctx -> Collections.emptyList(), null)),
+                new StreamableProcessorSupplier<>(PassThroughProcessor::new)
+        };
+    }
+
+    @Benchmark
+    public ExecutionContext chain() {
+        final StreamableProcessorProviderChain<ExecutionContext, Buffer> chain = new StreamableProcessorProviderChain<>(template);
+        final ExecutionContext[] result = new ExecutionContext[1];
+
+        chain
+                .handler(ctx -> result[0] = ctx)
+                .streamErrorHandler(failure -> {})
+                .errorHandler(failure -> {})
+                .exitHandler(__ -> {})
+                .handle(context);
+
+        return result[0];
+    }
+
+    private static class PassThroughProcessor extends AbstractProcessor<ExecutionContext> {
+
+        @Override
+        public void handle(ExecutionContext context) {
+            next.handle(context);
+        }
+    }
+}
@@ -31,6 +31,7 @@ import io.gravitee.gateway.api.ws.WebSocket;
 import io.gravitee.gateway.handlers.api.path.Path;
 import io.gravitee.gateway.handlers.api.path.impl.AbstractPathResolver;
 import io.gravitee.reporter.api.http.Metrics;
+import io.netty.handler.codec.http.QueryStringDecoder;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
@@ -38,6 +39,9 @@ import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import javax.net.ssl.SSLSession;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 @BenchmarkMode(Mode.Throughput)
@@ -59,6 +63,17 @@ public class PathParametersProcessorBenchmark {
     private PathParametersIndexProcessor processorIndex;
     private PathResolver resolver = new PathResolver(PATH);
 
+    /**
+     * Number of paths declared by the API.
+     */
+    @Param({"10", "100", "1000"})
+    private int paths;
+
+    private PathResolver compiledResolver;
+    private RegexPathResolver regexResolver;
+    private String[] requestPaths;
+    private int next;
+
     @Setup
     public void setup() {
         processorIndex = new PathParametersIndexProcessor(resolver);
@@ -68,6 +83,29 @@ public class PathParametersProcessorBenchmark {
                 // Do nothing
             }
         });
+
+        String[] definitions = new String[paths];
+        definitions[0] = "/";
+        for (int i = 1; i < paths; i++) {
+            switch (i % 3) {
+                case 0:
+                    definitions[i] = "/store" + i;
+                    break;
+                case 1:
+                    definitions[i] = "/store" + i + "/:storeId";
+                    break;
+                default:
+                    definitions[i] = "/store" + i + "/:storeId/order/:orderId";
+            }
+        }
+
+        compiledResolver = new PathResolver(definitions);
+        regexResolver = new RegexPathResolver(definitions);
+
+        requestPaths = new String[64];
+        for (int i = 0; i < requestPaths.length; i++) {
+            requestPaths[i] = "/store" + ((i * 7919) % paths) + "/myStore/order/190783";
+        }
     }
 
     @Benchmark
@@ -76,12 +114,64 @@ public class PathParametersProcessorBenchmark {
         processorIndex.handle(context);
     }
 
+    @Benchmark
+    public Path bench_resolve_compiled() {
+        return compiledResolver.resolve(new SimpleRequest(nextRequestPath()));
+    }
+
+    @Benchmark
+    public Path bench_resolve_regex() {
+        return regexResolver.resolve(new SimpleRequest(nextRequestPath()));
+    }
+
+    private String nextRequestPath() {
+        return requestPaths[next++ & (requestPaths.length - 1)];
+    }
+
     static class PathResolver extends AbstractPathResolver {
 
-        PathResolver(String sPath) {
-            Path path = new Path();
-            path.setPath(sPath);
-            register(path);
+        PathResolver(String... sPaths) {
+            for (String sPath : sPaths) {
+                Path path = new Path();
+                path.setPath(sPath);
+                register(path);
+            }
+        }
+    }
+
+    /**
+     * Resolution as it was done before paths were compiled into a trie: the pattern of each path is evaluated.
+     */
+    static class RegexPathResolver extends AbstractPathResolver {
+
+        private final List<Path> registeredPaths = new ArrayList<>();
+
+        RegexPathResolver(String... sPaths) {
+            for (String sPath : sPaths) {
+                Path path = new Path();
+                path.setPath(sPath);
+                register(path);
+                registeredPaths.add(path);
+            }
+        }
+
+        @Override
+        public Path resolve(Request request) {
+            String path = QueryStringDecoder.decodeComponent(request.pathInfo(), Charset.defaultCharset());
+            int pieces = -1;
+            Path bestPath = null;
+
+            for (Path registerPath : registeredPaths) {
+                if (registerPath.getPattern().matcher(path).lookingAt()) {
+                    int split = registerPath.getPath().split("/").length;
+                    if (split > pieces) {
+                        pieces = split;
+                        bestPath = registerPath;
+                    }
+                }
+            }
+
+            return bestPath;
         }
     }
 
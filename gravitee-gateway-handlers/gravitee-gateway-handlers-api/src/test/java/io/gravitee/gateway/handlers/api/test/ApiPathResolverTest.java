@@ -21,6 +21,7 @@ import io.gravitee.gateway.api.Request;
 import io.gravitee.gateway.handlers.api.path.PathParam;
 import io.gravitee.gateway.handlers.api.path.PathResolver;
 import io.gravitee.gateway.handlers.api.path.impl.ApiPathResolverImpl;
+import io.netty.handler.codec.http.QueryStringDecoder;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -29,7 +30,9 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.nio.charset.Charset;
 import java.util.*;
+import java.util.regex.Pattern;
 
 import static org.mockito.Mockito.when;
 
@@ -274,6 +277,78 @@ public class ApiPathResolverTest {
         validatePathParams(path.getParameters(), Arrays.asList(new PathParam("storeId", 2), new PathParam("orderId", 4)));
     }
 
+    @Test
+    public void resolve_sameAsRegexResolution() {
+        Random random = new Random(42);
+        String[] segments = {"stores", "store", "Stores", "order", "v1", ":storeId", ":orderId", "[0-9,;]+", "a.b"};
+        String[] requestSegments = {"stores", "store", "storesX", "Stores", "order", "v1", "99", "2124;2125",
+                "a.b", "axb", "file%20sqs", "file;&,.=sqs", "<invalid>", ""};
+
+        for (int i = 0; i < 50; i++) {
+            Map<String, Path> paths = new LinkedHashMap<>();
+            int count = 1 + random.nextInt(10);
+            for (int j = 0; j < count; j++) {
+                Path path = new Path();
+                path.setPath(randomPath(random, segments, 4));
+                paths.put(path.getPath(), path);
+            }
+
+            Api randomApi = new Api();
+            randomApi.setPaths(paths);
+            ApiPathResolverImpl resolver = new ApiPathResolverImpl(randomApi);
+
+            for (int j = 0; j < 20; j++) {
+                String requestPath = randomPath(random, requestSegments, 5);
+                when(request.pathInfo()).thenReturn(requestPath);
+
+                Assert.assertEquals(paths.keySet() + " - " + requestPath,
+                        resolveWithRegex(paths, requestPath), resolver.resolve(request).getPath());
+            }
+        }
+    }
+
+    /**
+     * Resolution as it was done before paths were compiled into a trie.
+     */
+    private String resolveWithRegex(Map<String, Path> paths, String requestPath) {
+        if (paths.size() == 1) {
+            return paths.keySet().iterator().next();
+        }
+
+        String path = QueryStringDecoder.decodeComponent(requestPath, Charset.defaultCharset());
+        int pieces = -1;
+        String bestPath = null;
+
+        for (String registeredPath : paths.keySet()) {
+            StringBuilder buffer = new StringBuilder("/");
+            for (String branch : registeredPath.split("/")) {
+                if (!branch.isEmpty()) {
+                    buffer.append(branch.startsWith(":") ? "[a-zA-Z0-9\\-._~%!$&'()* +,;=:@/]+" : branch).append('/');
+                }
+            }
+            buffer.append('?');
+
+            if (Pattern.compile(buffer.toString()).matcher(path).lookingAt()) {
+                int split = registeredPath.split("/").length;
+                if (split > pieces) {
+                    pieces = split;
+                    bestPath = registeredPath;
+                }
+            }
+        }
+
+        return bestPath;
+    }
+
+    private String randomPath(Random random, String[] segments, int maxDepth) {
+        StringBuilder path = new StringBuilder();
+        int depth = random.nextInt(maxDepth + 1);
+        for (int i = 0; i < depth; i++) {
+            path.append('/').append(segments[random.nextInt(segments.length)]);
+        }
+        return (path.length() == 0 || random.nextInt(4) == 0) ? path.append('/').toString() : path.toString();
+    }
+
     private void validatePathParams(List<PathParam> pathParameters, List<PathParam> expectedPathsParams) {
         Assert.assertNotNull(pathParameters);
         Assert.assertEquals(expectedPathsParams.size(), pathParameters.size());
@@ -31,8 +31,10 @@ import io.gravitee.gateway.api.Connector;
 import io.gravitee.gateway.api.proxy.ProxyConnection;
 import io.gravitee.gateway.api.proxy.ProxyRequest;
 import io.gravitee.gateway.core.endpoint.EndpointException;
+import io.gravitee.gateway.core.endpoint.EndpointStats;
 import io.vertx.core.Context;
 import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.http.HttpVersion;
@@ -48,7 +50,6 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 /**
@@ -72,6 +73,8 @@ public abstract class AbstractConnector<T extends HttpEndpoint> extends Abstract
 
     private HttpClientOptions options;
 
+    private Origin targetOrigin;
+
     /**
      * Dummy {@link URLStreamHandler} implementation to avoid unknown protocol issue with default implementation
      * (which knows how to handle only http and https protocol).
@@ -90,7 +93,12 @@ public abstract class AbstractConnector<T extends HttpEndpoint> extends Abstract
 
     private final Map<Context, HttpClient> httpClients = new ConcurrentHashMap<>();
 
-    private final AtomicInteger requestTracker = new AtomicInteger(0);
+    /**
+     * The HTTP client used by all the contexts, when they share the same connection pool.
+     */
+    private HttpClient sharedHttpClient;
+
+    private final EndpointStats stats = new EndpointStats();
 
     @Override
     public ProxyConnection request(ProxyRequest proxyRequest) {
@@ -100,17 +108,20 @@ public abstract class AbstractConnector<T extends HttpEndpoint> extends Abstract
         proxyRequest.metrics().setEndpoint(uri);
 
         try {
-            final URL url = new URL(null, uri, URL_HANDLER);
-
-            final String protocol = url.getProtocol();
-
-            final int port = url.getPort() != -1 ? url.getPort() :
-                    protocol.charAt(protocol.length() - 1) == 's' ? SECURE_PORT : UNSECURE_PORT;
+            final Origin origin;
+            final String requestUri;
 
-            final String host = (port == UNSECURE_PORT || port == SECURE_PORT) ?
-                    url.getHost() : url.getHost() + ':' + port;
+            if (targetOrigin != null && targetOrigin.matches(uri)) {
+                // Most of the time, the request is targeting the endpoint itself: no need to parse the URI again
+                origin = targetOrigin;
+                requestUri = targetOrigin.pathAndQuery(uri);
+            } else {
+                final URL url = new URL(null, uri, URL_HANDLER);
+                origin = new Origin(null, url);
+                requestUri = (url.getQuery() == null) ? url.getPath() : url.getPath() + '?' + url.getQuery();
+            }
 
-            proxyRequest.headers().set(HttpHeaders.HOST, host);
+            proxyRequest.headers().set(HttpHeaders.HOST, origin.hostHeader);
 
             // Enhance proxy request with endpoint configuration
             if (endpoint.getHeaders() != null && !endpoint.getHeaders().isEmpty()) {
@@ -121,13 +132,11 @@ public abstract class AbstractConnector<T extends HttpEndpoint> extends Abstract
             final AbstractHttpProxyConnection connection = create(proxyRequest);
 
             // Grab an instance of the HTTP client
-            final HttpClient client = httpClients.computeIfAbsent(Vertx.currentContext(), createHttpClient());
-
-            requestTracker.incrementAndGet();
+            final HttpClient client = (sharedHttpClient != null) ?
+                    sharedHttpClient : httpClients.computeIfAbsent(Vertx.currentContext(), createHttpClient());
 
             // Connect to the upstream
-            return connection.connect(client, port, url.getHost(),
-                    (url.getQuery() == null) ? url.getPath() : url.getPath() + '?' + url.getQuery(), result -> requestTracker.decrementAndGet());
+            return connection.connect(client, origin.port, origin.host, requestUri, new RequestTracker(stats));
         } catch (MalformedURLException ex) {
             throw new IllegalArgumentException();
         }
@@ -138,9 +147,44 @@ public abstract class AbstractConnector<T extends HttpEndpoint> extends Abstract
     @Override
     protected void doStart() throws Exception {
         this.options = this.getOptions();
+        this.targetOrigin = Origin.of(endpoint.getTarget(), URL_HANDLER);
+
+        // By default, each context gets its own client, with a pool of maxConcurrentConnections
+        if (isPoolShared()) {
+            // Connections are shared by all the contexts: a connection is used from the event-loop which opened it
+            sharedHttpClient = createHttpClient().apply(null);
+        } else if (isPoolSplit()) {
+            // Each context gets its own client: the connection budget of the endpoint is split between them
+            int poolSize = poolSize(endpoint.getHttpClientOptions().getMaxConcurrentConnections(), getContexts());
+            options.setMaxPoolSize(poolSize);
+            if (options.getProtocolVersion() == HttpVersion.HTTP_2) {
+                options.setHttp2MaxPoolSize(poolSize);
+            }
+        }
+
         printHttpClientConfiguration();
     }
 
+    private boolean isPoolShared() {
+        return environment != null && environment.getProperty("http.client.pool.shared", Boolean.class, false);
+    }
+
+    private boolean isPoolSplit() {
+        return environment != null && environment.getProperty("http.client.pool.split", Boolean.class, false);
+    }
+
+    /**
+     * The number of contexts the HTTP clients are created for: one per instance of the gateway verticle.
+     */
+    private int getContexts() {
+        int instances = (environment != null) ? environment.getProperty("http.instances", Integer.class, 0) : 0;
+        return (instances < 1) ? VertxOptions.DEFAULT_EVENT_LOOP_POOL_SIZE : instances;
+    }
+
+    static int poolSize(int maxConcurrentConnections, int contexts) {
+        return Math.max(1, (maxConcurrentConnections + contexts - 1) / contexts);
+    }
+
     protected HttpClientOptions getOptions() throws EndpointException {
         HttpClientOptions options = new HttpClientOptions();
 
@@ -292,15 +336,19 @@ public abstract class AbstractConnector<T extends HttpEndpoint> extends Abstract
 
     @Override
     protected void doStop() throws Exception {
-        LOGGER.info("Graceful shutdown of HTTP Client for endpoint[{}] target[{}] requests[{}]", endpoint.getName(), endpoint.getTarget(), requestTracker.get());
+        LOGGER.info("Graceful shutdown of HTTP Client for endpoint[{}] target[{}] requests[{}]", endpoint.getName(), endpoint.getTarget(), stats.inFlight());
         long shouldEndAt = System.currentTimeMillis() + endpoint.getHttpClientOptions().getReadTimeout();
 
-        while (requestTracker.get() != 0 && System.currentTimeMillis() <= shouldEndAt) {
+        while (stats.inFlight() != 0 && System.currentTimeMillis() <= shouldEndAt) {
             TimeUnit.MILLISECONDS.sleep(100);
         }
 
-        if (requestTracker.get() > 0) {
-            LOGGER.warn("Cancel requests[{}] for endpoint[{}] target[{}]", requestTracker.get(), endpoint.getName(), endpoint.getTarget());
+        if (stats.inFlight() > 0) {
+            LOGGER.warn("Cancel requests[{}] for endpoint[{}] target[{}]", stats.inFlight(), endpoint.getName(), endpoint.getTarget());
+        }
+
+        if (sharedHttpClient != null) {
+            sharedHttpClient.close();
         }
 
         httpClients.values().forEach(httpClient -> {
@@ -313,7 +361,11 @@ public abstract class AbstractConnector<T extends HttpEndpoint> extends Abstract
     }
 
     private Function<Context, HttpClient> createHttpClient() {
-        return context -> vertx.createHttpClient(options);
+        return context -> vertx.createHttpClient(options)
+                .connectionHandler(connection -> {
+                    stats.connections().opened();
+                    connection.closeHandler(event -> stats.connections().closed());
+                });
     }
 
     private void printHttpClientConfiguration() {
@@ -324,6 +376,7 @@ public abstract class AbstractConnector<T extends HttpEndpoint> extends Abstract
                 ", IdleTimeout='" + options.getIdleTimeout() + '\'' +
                 ", MaxChunkSize='" + options.getMaxChunkSize() + '\'' +
                 ", MaxPoolSize='" + options.getMaxPoolSize() + '\'' +
+                ", SharedPool='" + (sharedHttpClient != null) + '\'' +
                 ", MaxWaitQueueSize='" + options.getMaxWaitQueueSize() + '\'' +
                 ", Pipelining='" + options.isPipelining() + '\'' +
                 ", PipeliningLimit='" + options.getPipeliningLimit() + '\'' +
@@ -380,4 +433,71 @@ public abstract class AbstractConnector<T extends HttpEndpoint> extends Abstract
             return null;
         }
     }
+
+    public EndpointStats stats() {
+        return stats;
+    }
+
+    /**
+     * The scheme and authority of an URL, along with the host and port to connect to.
+     */
+    static final class Origin {
+
+        /**
+         * <code>scheme://authority</code> as written in the URL, <code>null</code> if it can not be matched.
+         */
+        private final String prefix;
+        private final int port;
+        private final String host;
+        private final String hostHeader;
+
+        private Origin(String prefix, URL url) {
+            final String protocol = url.getProtocol();
+
+            this.prefix = prefix;
+            this.port = url.getPort() != -1 ? url.getPort() :
+                    protocol.charAt(protocol.length() - 1) == 's' ? SECURE_PORT : UNSECURE_PORT;
+            this.host = url.getHost();
+            this.hostHeader = (port == UNSECURE_PORT || port == SECURE_PORT) ? host : host + ':' + port;
+        }
+
+        /**
+         * Pre-parses the origin of an endpoint target, returns <code>null</code> if the target is not a valid URL.
+         */
+        static Origin of(String target, URLStreamHandler handler) {
+            try {
+                URL url = new URL(null, target, handler);
+
+                int authorityIdx = target.indexOf("://");
+                if (authorityIdx == -1) {
+                    return null;
+                }
+
+                int end = authorityIdx + 3;
+                while (end < target.length() && !isAuthorityEnd(target.charAt(end))) {
+                    end++;
+                }
+
+                return new Origin(target.substring(0, end), url);
+            } catch (MalformedURLException ex) {
+                return null;
+            }
+        }
+
+        boolean matches(String uri) {
+            return uri.startsWith(prefix) && (uri.length() == prefix.length() || isAuthorityEnd(uri.charAt(prefix.length())));
+        }
+
+        /**
+         * Same as the path and query of the parsed URI: everything following the authority, without fragment.
+         */
+        String pathAndQuery(String uri) {
+            int fragmentIdx = uri.indexOf('#', prefix.length());
+            return uri.substring(prefix.length(), (fragmentIdx == -1) ? uri.length() : fragmentIdx);
+        }
+
+        private static boolean isAuthorityEnd(char c) {
+            return c == '/' || c == '?' || c == '#';
+        }
+    }
 }
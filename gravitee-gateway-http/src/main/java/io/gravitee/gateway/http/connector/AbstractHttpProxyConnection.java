@@ -36,7 +36,7 @@ public abstract class AbstractHttpProxyConnection implements ProxyConnection {
     }
 
     public abstract ProxyConnection connect(
-            HttpClient httpClient, int port, String host, String uri, Handler<Void> tracker);
+            HttpClient httpClient, int port, String host, String uri, RequestTracker tracker);
 
     protected void sendToClient(ProxyResponse proxyResponse) {
         this.responseHandler.handle(proxyResponse);
@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.http.connector;
+
+import io.gravitee.gateway.api.handler.Handler;
+import io.gravitee.gateway.core.endpoint.EndpointStats;
+
+/**
+ * Keeps the statistics of an endpoint up-to-date while one of its requests is processed. The outcome of the request
+ * and its end are each reported only once, whatever the number of handlers notifying them.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public class RequestTracker implements Handler<Void> {
+
+    private final EndpointStats stats;
+    private final long startedAt;
+
+    private long connectionRequestedAt;
+
+    private boolean connectionRequested;
+    private boolean connectionAcquired;
+    private boolean responded;
+    private boolean ended;
+
+    RequestTracker(EndpointStats stats) {
+        this.stats = stats;
+        this.startedAt = System.nanoTime();
+
+        stats.requestStarted();
+    }
+
+    /**
+     * The request is now waiting for a connection to the endpoint.
+     */
+    public synchronized void connectionRequested() {
+        if (!connectionRequested && !ended) {
+            connectionRequested = true;
+            connectionRequestedAt = System.nanoTime();
+            stats.connections().requested();
+        }
+    }
+
+    /**
+     * A new connection has been established to serve the request.
+     */
+    public synchronized void connectionEstablished() {
+        if (connectionRequested) {
+            stats.connections().established(System.nanoTime() - connectionRequestedAt);
+        }
+    }
+
+    /**
+     * The request got a connection, a new one or one from the pool.
+     */
+    public synchronized void connectionAcquired() {
+        if (connectionRequested && !connectionAcquired && !ended) {
+            connectionAcquired = true;
+            stats.connections().acquired(System.nanoTime() - connectionRequestedAt);
+        }
+    }
+
+    /**
+     * The endpoint has responded: server errors are counted as failures.
+     */
+    public synchronized void responseReceived(int status) {
+        if (connectionRequested && !connectionAcquired && !ended) {
+            // The request has been sent without being notified of the connection it got
+            connectionAcquired = true;
+            stats.connections().acquired();
+        }
+
+        responded(status >= 500);
+    }
+
+    /**
+     * The endpoint has failed to respond (connection refused, timeout, ...).
+     */
+    public synchronized void failed() {
+        responded(true);
+    }
+
+    private void responded(boolean error) {
+        if (!responded) {
+            responded = true;
+            stats.responded(System.nanoTime() - startedAt, error);
+        }
+    }
+
+    /**
+     * The request is over, successfully or not.
+     */
+    @Override
+    public synchronized void handle(Void result) {
+        if (!ended) {
+            ended = true;
+            if (connectionAcquired) {
+                stats.connections().released();
+            } else if (connectionRequested) {
+                stats.connections().abandoned();
+            }
+            stats.requestEnded();
+        }
+    }
+}
@@ -26,10 +26,14 @@ import io.gravitee.gateway.api.proxy.ProxyConnection;
 import io.gravitee.gateway.api.proxy.ProxyRequest;
 import io.gravitee.gateway.api.proxy.ProxyResponse;
 import io.gravitee.gateway.api.stream.WriteStream;
+import io.gravitee.gateway.core.buffer.NativeBuffers;
 import io.gravitee.gateway.core.proxy.EmptyProxyResponse;
 import io.gravitee.gateway.http.connector.AbstractHttpProxyConnection;
+import io.gravitee.gateway.http.connector.RequestTracker;
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.ConnectTimeoutException;
 import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.util.ReferenceCounted;
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpClientRequest;
 import io.vertx.core.http.HttpClientResponse;
@@ -75,6 +79,7 @@ public class HttpProxyConnection<T extends HttpProxyResponse> extends AbstractHt
     private final ProxyRequest proxyRequest;
     private T proxyResponse;
     private Handler<Throwable> timeoutHandler;
+    private RequestTracker tracker;
     private boolean canceled = false;
     private boolean transmitted = false;
     private boolean headersWritten = false;
@@ -87,7 +92,7 @@ public class HttpProxyConnection<T extends HttpProxyResponse> extends AbstractHt
     }
 
     @Override
-    public ProxyConnection connect(HttpClient httpClient, int port, String host, String uri, Handler<Void> tracker) {
+    public ProxyConnection connect(HttpClient httpClient, int port, String host, String uri, RequestTracker tracker) {
         // Remove HOP-by-HOP headers
         for (CharSequence header : HOP_HEADERS) {
             proxyRequest.headers().remove(header.toString());
@@ -95,9 +100,12 @@ public class HttpProxyConnection<T extends HttpProxyResponse> extends AbstractHt
 
         httpClientRequest = prepareUpstreamRequest(httpClient, port, host, uri);
 
+        this.tracker = tracker;
         cancelHandler(tracker);
 
         httpClientRequest.handler(event -> {
+            tracker.responseReceived(event.statusCode());
+
             // Prepare upstream response
             handleUpstreamResponse(event, tracker);
 
@@ -105,7 +113,10 @@ public class HttpProxyConnection<T extends HttpProxyResponse> extends AbstractHt
             sendToClient(proxyResponse);
         });
 
+        // Only called when a new connection has been established for this request
         httpClientRequest.connectionHandler(connection -> {
+            tracker.connectionEstablished();
+            tracker.connectionAcquired();
             connection.exceptionHandler(ex -> {
                 // I don't want to fill my logs with error
             });
@@ -114,6 +125,7 @@ public class HttpProxyConnection<T extends HttpProxyResponse> extends AbstractHt
         httpClientRequest.exceptionHandler(event -> {
             if (!isCanceled() && !isTransmitted()) {
                 proxyRequest.metrics().setMessage(event.getMessage());
+                tracker.failed();
 
                 if (this.timeoutHandler() != null
                         && (event instanceof ConnectException ||
@@ -121,6 +133,7 @@ public class HttpProxyConnection<T extends HttpProxyResponse> extends AbstractHt
                         event instanceof NoRouteToHostException ||
                         event instanceof UnknownHostException)) {
                     handleConnectTimeout(event);
+                    tracker.handle(null);
                 } else {
                     ProxyResponse clientResponse = new EmptyProxyResponse(
                             ((event instanceof ConnectTimeoutException) || (event instanceof TimeoutException)) ?
@@ -155,7 +168,7 @@ public class HttpProxyConnection<T extends HttpProxyResponse> extends AbstractHt
         return (T) new HttpProxyResponse(clientResponse);
     }
 
-    protected T handleUpstreamResponse(final HttpClientResponse clientResponse, Handler<Void> tracker) {
+    protected T handleUpstreamResponse(final HttpClientResponse clientResponse, RequestTracker tracker) {
         this.proxyResponse = createProxyResponse(clientResponse);
 
         // Copy HTTP headers
@@ -166,8 +179,8 @@ public class HttpProxyConnection<T extends HttpProxyResponse> extends AbstractHt
 
         proxyResponse.cancelHandler(tracker);
 
-        // Copy body content
-        clientResponse.handler(event -> proxyResponse.bodyHandler().handle(Buffer.buffer(event.getBytes())));
+        // Forward body content, Vert.x gives its own copy of the received content so it is shared without any copy
+        clientResponse.handler(event -> proxyResponse.bodyHandler().handle(NativeBuffers.wrap(event.getByteBuf())));
 
         // Signal end of the response
         clientResponse.endHandler(event -> {
@@ -248,11 +261,27 @@ public class HttpProxyConnection<T extends HttpProxyResponse> extends AbstractHt
             this.writeHeaders();
         }
 
-        httpClientRequest.write(io.vertx.core.buffer.Buffer.buffer(chunk.getBytes()));
+        if (NativeBuffers.isPooled(chunk)) {
+            // Pooled memory is given back once the chunk has been written
+            httpClientRequest.write(toVertxBuffer(chunk), result -> ((ReferenceCounted) chunk).release());
+        } else {
+            httpClientRequest.write(toVertxBuffer(chunk));
+        }
 
         return this;
     }
 
+    private static io.vertx.core.buffer.Buffer toVertxBuffer(Buffer chunk) {
+        Object nativeBuffer = chunk.getNativeBuffer();
+
+        // Content is forwarded as-is, without copying it, when it is backed by a Netty buffer
+        if (nativeBuffer instanceof ByteBuf) {
+            return io.vertx.core.buffer.Buffer.buffer((ByteBuf) nativeBuffer);
+        }
+
+        return io.vertx.core.buffer.Buffer.buffer(chunk.getBytes());
+    }
+
     @Override
     public WriteStream<Buffer> drainHandler(Handler<Void> drainHandler) {
         httpClientRequest.drainHandler(aVoid -> drainHandler.handle(null));
@@ -268,6 +297,16 @@ public class HttpProxyConnection<T extends HttpProxyResponse> extends AbstractHt
         writeUpstreamHeaders();
 
         headersWritten = true;
+
+        if (! canceled) {
+            tracker.connectionRequested();
+
+            // Without content, the head is sent along with the end of the request, in a single write
+            if (content) {
+                // Sending the head explicitly is the only way to be notified once the request got a pooled connection
+                httpClientRequest.sendHead(version -> tracker.connectionAcquired());
+            }
+        }
     }
 
     protected void writeUpstreamHeaders() {
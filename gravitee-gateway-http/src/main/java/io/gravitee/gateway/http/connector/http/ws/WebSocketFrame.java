@@ -16,6 +16,7 @@
 package io.gravitee.gateway.http.connector.http.ws;
 
 import io.gravitee.gateway.api.buffer.Buffer;
+import io.gravitee.gateway.core.buffer.NativeBuffers;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -24,6 +25,7 @@ import io.gravitee.gateway.api.buffer.Buffer;
 public class WebSocketFrame implements io.gravitee.gateway.api.ws.WebSocketFrame {
 
     private final io.vertx.core.http.WebSocketFrame frame;
+    private Buffer data;
 
     WebSocketFrame(io.vertx.core.http.WebSocketFrame frame) {
         this.frame = frame;
@@ -40,7 +42,12 @@ public class WebSocketFrame implements io.gravitee.gateway.api.ws.WebSocketFrame
 
     @Override
     public Buffer data() {
-        return Buffer.buffer(frame.binaryData().getBytes());
+        if (data == null) {
+            // Payload is shared as-is, without copying it nor decoding text
+            data = NativeBuffers.wrap(frame.binaryData().getByteBuf());
+        }
+
+        return data;
     }
 
     @Override
@@ -18,14 +18,15 @@ package io.gravitee.gateway.http.connector.http.ws;
 import io.gravitee.common.http.HttpStatusCode;
 import io.gravitee.definition.model.endpoint.HttpEndpoint;
 import io.gravitee.gateway.api.buffer.Buffer;
-import io.gravitee.gateway.api.handler.Handler;
 import io.gravitee.gateway.api.proxy.ProxyConnection;
 import io.gravitee.gateway.api.proxy.ProxyRequest;
 import io.gravitee.gateway.api.proxy.ws.WebSocketProxyRequest;
 import io.gravitee.gateway.api.stream.WriteStream;
 import io.gravitee.gateway.core.proxy.EmptyProxyResponse;
 import io.gravitee.gateway.core.proxy.ws.SwitchProtocolProxyResponse;
+import io.gravitee.gateway.core.proxy.ws.WebSocketFrames;
 import io.gravitee.gateway.http.connector.AbstractHttpProxyConnection;
+import io.gravitee.gateway.http.connector.RequestTracker;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpConnection;
@@ -66,7 +67,7 @@ public class WebSocketProxyConnection extends AbstractHttpProxyConnection {
     }
 
     @Override
-    public ProxyConnection connect(HttpClient httpClient, int port, String host, String uri, Handler<Void> tracker) {
+    public ProxyConnection connect(HttpClient httpClient, int port, String host, String uri, RequestTracker tracker) {
         // Remove hop-by-hop headers.
         for (CharSequence header : WS_HOP_HEADERS) {
             wsProxyRequest.headers().remove(header);
@@ -82,29 +83,24 @@ public class WebSocketProxyConnection extends AbstractHttpProxyConnection {
         httpClient.websocket(port, host, uri, new io.vertx.core.Handler<WebSocket>() {
             @Override
             public void handle(WebSocket event) {
+                tracker.responseReceived(HttpStatusCode.SWITCHING_PROTOCOLS_101);
+
                 // The client -> gateway connection must be upgraded now that the one between gateway -> upstream
                 // has been accepted
                 wsProxyRequest.upgrade();
 
-                // From server to client
+                // From client to server
+                // Frames are relayed as they are: fragmented messages are not re-assembled and text is not decoded
                 wsProxyRequest.frameHandler(frame -> {
-                    if (frame.type() == io.gravitee.gateway.api.ws.WebSocketFrame.Type.BINARY) {
-                        event.writeFrame(io.vertx.core.http.WebSocketFrame.binaryFrame(
-                                io.vertx.core.buffer.Buffer.buffer(frame.data().getBytes()), frame.isFinal()));
-                    } else if (frame.type() == io.gravitee.gateway.api.ws.WebSocketFrame.Type.TEXT) {
-                        event.writeFrame(io.vertx.core.http.WebSocketFrame.textFrame(
-                                frame.data().toString(), frame.isFinal()));
-                    } else if (frame.type() == io.gravitee.gateway.api.ws.WebSocketFrame.Type.CONTINUATION) {
-                        event.writeFrame(io.vertx.core.http.WebSocketFrame.continuationFrame(
-                                io.vertx.core.buffer.Buffer.buffer(frame.data().toString()),
-                                frame.isFinal()
-                        ));
+                    io.vertx.core.http.WebSocketFrame vertxFrame = WebSocketFrames.toVertx(frame);
+                    if (vertxFrame != null) {
+                        event.writeFrame(vertxFrame);
                     }
                 });
 
                 wsProxyRequest.closeHandler(result -> event.close());
 
-                // From client to server
+                // From server to client
                 event.frameHandler(frame -> wsProxyRequest.write(new WebSocketFrame(frame)));
 
                 event.closeHandler(event1 -> {
@@ -126,9 +122,11 @@ public class WebSocketProxyConnection extends AbstractHttpProxyConnection {
             }
         }, throwable -> {
             if (throwable instanceof UpgradeRejectedException) {
+                tracker.responseReceived(((UpgradeRejectedException) throwable).getStatus());
                 wsProxyRequest.reject(((UpgradeRejectedException) throwable).getStatus());
                 sendToClient(new EmptyProxyResponse(((UpgradeRejectedException) throwable).getStatus()));
             } else {
+                tracker.failed();
                 wsProxyRequest.reject(HttpStatusCode.BAD_GATEWAY_502);
                 sendToClient(new EmptyProxyResponse(HttpStatusCode.BAD_GATEWAY_502));
             }
@@ -19,6 +19,7 @@ import io.gravitee.definition.model.endpoint.HttpEndpoint;
 import io.gravitee.gateway.api.Connector;
 import io.gravitee.gateway.core.endpoint.ManagedEndpoint;
 import io.gravitee.gateway.core.endpoint.factory.template.TemplateAwareEndpointFactory;
+import io.gravitee.gateway.http.connector.AbstractConnector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeansException;
@@ -87,7 +88,9 @@ public abstract class AbstractEndpointFactory extends TemplateAwareEndpointFacto
 
         applicationContext.getAutowireCapableBeanFactory().autowireBean(connector);
 
-        return new ManagedEndpoint(endpoint, connector);
+        return (connector instanceof AbstractConnector) ?
+                new ManagedEndpoint(endpoint, connector, ((AbstractConnector<?>) connector).stats()) :
+                new ManagedEndpoint(endpoint, connector);
     }
 
     protected abstract Connector create(io.gravitee.definition.model.Endpoint endpoint);
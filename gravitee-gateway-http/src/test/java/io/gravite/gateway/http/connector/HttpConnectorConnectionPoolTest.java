@@ -0,0 +1,259 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravite.gateway.http.connector;
+
+import io.gravitee.common.http.HttpHeaders;
+import io.gravitee.common.http.HttpMethod;
+import io.gravitee.definition.model.HttpClientOptions;
+import io.gravitee.definition.model.endpoint.HttpEndpoint;
+import io.gravitee.gateway.api.Request;
+import io.gravitee.gateway.api.proxy.ProxyConnection;
+import io.gravitee.gateway.api.proxy.ProxyRequest;
+import io.gravitee.gateway.api.proxy.builder.ProxyRequestBuilder;
+import io.gravitee.gateway.core.endpoint.ConnectionStats;
+import io.gravitee.gateway.http.connector.http.HttpConnector;
+import io.gravitee.reporter.api.http.Metrics;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the HTTP connector against a local backend counting the sockets it accepts, and holding its responses until
+ * the test releases them.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public class HttpConnectorConnectionPoolTest {
+
+    private static final int MAX_CONCURRENT_CONNECTIONS = 4;
+    private static final int CONTEXTS = 2;
+    private static final int REQUESTS_PER_CONTEXT = 10;
+
+    private Vertx vertx;
+    private HttpServer backend;
+
+    private final AtomicInteger acceptedSockets = new AtomicInteger();
+    private final List<HttpServerRequest> heldRequests = new CopyOnWriteArrayList<>();
+    private volatile boolean released;
+
+    private HttpConnector<HttpEndpoint> connector;
+
+    @Before
+    public void setUp() throws Exception {
+        vertx = Vertx.vertx();
+
+        CompletableFuture<HttpServer> listening = new CompletableFuture<>();
+        vertx.createHttpServer()
+                .connectionHandler(connection -> acceptedSockets.incrementAndGet())
+                .requestHandler(request -> {
+                    if (released) {
+                        request.response().end();
+                    } else {
+                        heldRequests.add(request);
+                    }
+                })
+                .listen(0, "localhost", result -> {
+                    if (result.succeeded()) {
+                        listening.complete(result.result());
+                    } else {
+                        listening.completeExceptionally(result.cause());
+                    }
+                });
+        backend = listening.get(10, TimeUnit.SECONDS);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (connector != null) {
+            connector.stop();
+        }
+        vertx.close();
+    }
+
+    @Test
+    public void shouldKeepConnectionBudgetPerContext() throws Exception {
+        connector = startConnector(new MockEnvironment()
+                .withProperty("http.instances", Integer.toString(CONTEXTS)));
+
+        CountDownLatch responses = sendRequests();
+
+        // Each context may open up to the maximum of connections, the other requests are waiting for one of them
+        int maxConnections = CONTEXTS * MAX_CONCURRENT_CONNECTIONS;
+        ConnectionStats connections = connector.stats().connections();
+        await(() -> heldRequests.size() == maxConnections
+                && connections.pending() == CONTEXTS * REQUESTS_PER_CONTEXT - maxConnections);
+        assertEquals(maxConnections, connections.open());
+        assertEquals(maxConnections, connections.active());
+        assertEquals(0, connections.idle());
+
+        release();
+        assertTrue(responses.await(10, TimeUnit.SECONDS));
+
+        assertEquals(maxConnections, acceptedSockets.get());
+        assertConnectionsReleased(connections, maxConnections);
+    }
+
+    @Test
+    public void shouldSplitConnectionBudgetBetweenContexts() throws Exception {
+        connector = startConnector(new MockEnvironment()
+                .withProperty("http.instances", Integer.toString(CONTEXTS))
+                .withProperty("http.client.pool.split", "true"));
+
+        CountDownLatch responses = sendRequests();
+
+        // Each context may only open its share of the connections, the other requests are waiting for one of them
+        ConnectionStats connections = connector.stats().connections();
+        await(() -> heldRequests.size() == MAX_CONCURRENT_CONNECTIONS
+                && connections.pending() == CONTEXTS * REQUESTS_PER_CONTEXT - MAX_CONCURRENT_CONNECTIONS);
+        assertEquals(MAX_CONCURRENT_CONNECTIONS, connections.open());
+        assertEquals(MAX_CONCURRENT_CONNECTIONS, connections.active());
+        assertEquals(0, connections.idle());
+
+        release();
+        assertTrue(responses.await(10, TimeUnit.SECONDS));
+
+        assertEquals(MAX_CONCURRENT_CONNECTIONS, acceptedSockets.get());
+        assertConnectionsReleased(connections, MAX_CONCURRENT_CONNECTIONS);
+    }
+
+    @Test
+    public void shouldRoundUpConnectionBudgetOfContexts() throws Exception {
+        connector = startConnector(new MockEnvironment()
+                .withProperty("http.instances", "3")
+                .withProperty("http.client.pool.split", "true"));
+
+        CountDownLatch responses = sendRequests();
+
+        // Only two contexts are used, each one with ceil(4 / 3) connections
+        await(() -> heldRequests.size() == CONTEXTS * 2);
+
+        release();
+        assertTrue(responses.await(10, TimeUnit.SECONDS));
+
+        assertEquals(CONTEXTS * 2, acceptedSockets.get());
+    }
+
+    @Test
+    public void shouldShareConnectionPoolBetweenContexts() throws Exception {
+        connector = startConnector(new MockEnvironment()
+                .withProperty("http.instances", Integer.toString(CONTEXTS))
+                .withProperty("http.client.pool.shared", "true"));
+
+        CountDownLatch responses = sendRequests();
+
+        ConnectionStats connections = connector.stats().connections();
+        await(() -> heldRequests.size() == MAX_CONCURRENT_CONNECTIONS
+                && connections.pending() == CONTEXTS * REQUESTS_PER_CONTEXT - MAX_CONCURRENT_CONNECTIONS);
+        assertEquals(MAX_CONCURRENT_CONNECTIONS, connections.active());
+
+        release();
+        assertTrue(responses.await(10, TimeUnit.SECONDS));
+
+        assertEquals(MAX_CONCURRENT_CONNECTIONS, acceptedSockets.get());
+        assertConnectionsReleased(connections, MAX_CONCURRENT_CONNECTIONS);
+    }
+
+    private HttpConnector<HttpEndpoint> startConnector(MockEnvironment environment) throws Exception {
+        HttpClientOptions httpClientOptions = new HttpClientOptions();
+        httpClientOptions.setMaxConcurrentConnections(MAX_CONCURRENT_CONNECTIONS);
+
+        HttpEndpoint endpoint = new HttpEndpoint("backend", "http://localhost:" + backend.actualPort() + "/");
+        endpoint.setHttpClientOptions(httpClientOptions);
+
+        HttpConnector<HttpEndpoint> connector = new HttpConnector<>(endpoint);
+        ReflectionTestUtils.setField(connector, "vertx", vertx);
+        ReflectionTestUtils.setField(connector, "environment", environment);
+        connector.start();
+
+        return connector;
+    }
+
+    private CountDownLatch sendRequests() {
+        CountDownLatch responses = new CountDownLatch(CONTEXTS * REQUESTS_PER_CONTEXT);
+
+        for (int i = 0; i < CONTEXTS; i++) {
+            // Each call from a non Vert.x thread creates a new event-loop context
+            Context context = vertx.getOrCreateContext();
+            context.runOnContext(event -> {
+                for (int j = 0; j < REQUESTS_PER_CONTEXT; j++) {
+                    ProxyConnection connection = connector.request(proxyRequest());
+                    connection.responseHandler(response -> {
+                        response.bodyHandler(chunk -> {});
+                        response.endHandler(end -> responses.countDown());
+                        response.resume();
+                    });
+                    connection.end();
+                }
+            });
+        }
+
+        return responses;
+    }
+
+    private ProxyRequest proxyRequest() {
+        Request request = mock(Request.class);
+        when(request.metrics()).thenReturn(Metrics.on(System.currentTimeMillis()).build());
+
+        return ProxyRequestBuilder.from(request)
+                .method(HttpMethod.GET)
+                .uri("http://localhost:" + backend.actualPort() + "/")
+                .headers(new HttpHeaders())
+                .build();
+    }
+
+    private void release() {
+        released = true;
+        heldRequests.forEach(request -> request.response().end());
+    }
+
+    private void assertConnectionsReleased(ConnectionStats connections, int open) throws InterruptedException {
+        await(() -> connections.active() == 0);
+        assertEquals(0, connections.pending());
+        assertEquals(open, connections.open());
+        assertEquals(open, connections.idle());
+        assertTrue(connections.averageConnectTime() > 0);
+        assertTrue(connections.averageWaitTime() > 0);
+        assertEquals(0, connector.stats().inFlight());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long timeout = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue("Condition not met in time", System.currentTimeMillis() < timeout);
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+}
@@ -161,6 +161,68 @@ public class VertxHttpClientTest {
         assertEquals("http://gravitee.io/test?foo&bar", request.metrics().getEndpoint());
     }
 
+    @Test
+    public void testRequestToEndpointTarget() throws Exception {
+        HttpClientOptions httpOptions = new HttpClientOptions();
+        when(endpoint.getHttpClientOptions()).thenReturn(httpOptions);
+        when(endpoint.getTarget()).thenReturn("http://gravitee.io:8080/api");
+        when(httpClient.request(eq(io.vertx.core.http.HttpMethod.GET), eq(8080), anyString(), anyString())).thenReturn(new MockedHttpClientRequest());
+        ReflectionTestUtils.invokeMethod(vertxHttpClient, "doStart");
+
+        HttpHeaders headers = new HttpHeaders();
+        ProxyRequest proxyRequest = ProxyRequestBuilder.from(request)
+                .method(HttpMethod.GET)
+                .uri("http://gravitee.io:8080/api/test?foo=bar#fragment")
+                .headers(headers)
+                .build();
+
+        vertxHttpClient.request(proxyRequest);
+
+        verify(httpClient).request(io.vertx.core.http.HttpMethod.GET, 8080, "gravitee.io", "/api/test?foo=bar");
+        assertEquals("gravitee.io:8080", headers.getFirst(HttpHeaders.HOST));
+    }
+
+    @Test
+    public void testRequestToAnotherTarget() throws Exception {
+        HttpClientOptions httpOptions = new HttpClientOptions();
+        when(endpoint.getHttpClientOptions()).thenReturn(httpOptions);
+        when(endpoint.getTarget()).thenReturn("http://gravitee.io/api");
+        ReflectionTestUtils.invokeMethod(vertxHttpClient, "doStart");
+
+        HttpHeaders headers = new HttpHeaders();
+        ProxyRequest proxyRequest = ProxyRequestBuilder.from(request)
+                .method(HttpMethod.GET)
+                .uri("http://gravitee.io.local/test?foo=bar")
+                .headers(headers)
+                .build();
+
+        vertxHttpClient.request(proxyRequest);
+
+        verify(httpClient).request(io.vertx.core.http.HttpMethod.GET, 80, "gravitee.io.local", "/test?foo=bar");
+        assertEquals("gravitee.io.local", headers.getFirst(HttpHeaders.HOST));
+    }
+
+    @Test
+    public void testRequestWithoutContentIsSentInSingleWrite() throws Exception {
+        HttpClientOptions httpOptions = new HttpClientOptions();
+        when(endpoint.getHttpClientOptions()).thenReturn(httpOptions);
+        when(endpoint.getTarget()).thenReturn("http://gravitee.io/api");
+        MockedHttpClientRequest httpClientRequest = spy(new MockedHttpClientRequest());
+        when(httpClient.request(eq(io.vertx.core.http.HttpMethod.GET), eq(80), anyString(), anyString())).thenReturn(httpClientRequest);
+        ReflectionTestUtils.invokeMethod(vertxHttpClient, "doStart");
+
+        ProxyRequest proxyRequest = ProxyRequestBuilder.from(request)
+                .method(HttpMethod.GET)
+                .uri("http://gravitee.io/api/test")
+                .headers(new HttpHeaders())
+                .build();
+
+        vertxHttpClient.request(proxyRequest).end();
+
+        verify(httpClientRequest, never()).sendHead(any());
+        verify(httpClientRequest).end();
+    }
+
     class MockedHttpClientRequest implements HttpClientRequest{
         @Override
         public HttpClientRequest exceptionHandler(Handler<Throwable> handler) {
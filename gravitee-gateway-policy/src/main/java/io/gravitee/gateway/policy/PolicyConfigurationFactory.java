@@ -23,4 +23,10 @@ import io.gravitee.policy.api.PolicyConfiguration;
 public interface PolicyConfigurationFactory {
 
     <T extends PolicyConfiguration> T create(Class<T> policyConfigurationClass, String configuration);
+
+    /**
+     * Releases any configuration of the given class kept by the factory.
+     */
+    default void evict(Class<? extends PolicyConfiguration> policyConfigurationClass) {
+    }
 }
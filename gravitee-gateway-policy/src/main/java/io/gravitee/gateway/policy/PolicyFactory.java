@@ -24,4 +24,11 @@ import io.gravitee.policy.api.PolicyConfiguration;
 public interface PolicyFactory {
 
     Object create(PolicyMetadata policyMetadata, PolicyConfiguration policyConfiguration);
+
+    /**
+     * Prepares the factory to create instances of the given policy, so that nothing has to be resolved when the
+     * first request goes through it.
+     */
+    default void prepare(PolicyMetadata policyMetadata) {
+    }
 }
@@ -0,0 +1,183 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.policy;
+
+import io.gravitee.gateway.api.ExecutionContext;
+import io.gravitee.gateway.api.Request;
+import io.gravitee.gateway.api.Response;
+import io.gravitee.policy.api.PolicyChain;
+import io.gravitee.policy.api.annotations.OnRequest;
+import io.gravitee.policy.api.annotations.OnRequestContent;
+import io.gravitee.policy.api.annotations.OnResponse;
+import io.gravitee.policy.api.annotations.OnResponseContent;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Invokes a policy method (<code>@OnRequest</code>, <code>@OnResponse</code>, ...) without going through
+ * {@link Method#invoke(Object, Object...)} on each call.
+ *
+ * The method is unreflected once into a {@link MethodHandle} adapted to <code>(Object, Object[])Object</code>. When the
+ * type of the method is known, the policy chains always give the same arguments in the same order: each method
+ * parameter is then bound once, from its declared type, to the position of its argument. Parameters which can not be
+ * bound this way, and the parameters of an invoker built without type, are looked up among the arguments on each call.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public final class PolicyInvoker {
+
+    /**
+     * Arguments given by the policy chains to the <code>@OnRequest</code> and <code>@OnResponse</code> methods.
+     */
+    private static final Class<?>[] EXECUTION_ARGUMENTS = {
+            PolicyChain.class, Request.class, Response.class, ExecutionContext.class
+    };
+
+    /**
+     * Arguments given by the policy chains to the <code>@OnRequestContent</code> and <code>@OnResponseContent</code>
+     * methods.
+     */
+    private static final Class<?>[] STREAM_ARGUMENTS = {
+            Request.class, Response.class, PolicyChain.class, ExecutionContext.class
+    };
+
+    private static final int UNBOUND = -1;
+
+    private final Method method;
+
+    private final Class<?>[] parameterTypes;
+
+    private final MethodHandle handle;
+
+    private final int argumentCount;
+
+    private final int[] slots;
+
+    public PolicyInvoker(Method method) {
+        this(method, null);
+    }
+
+    /**
+     * @param method the policy method.
+     * @param type the annotation of the method, giving the arguments the policy chains invoke it with.
+     */
+    public PolicyInvoker(Method method, Class<? extends Annotation> type) {
+        this.method = method;
+        this.parameterTypes = method.getParameterTypes();
+        this.handle = unreflect(method);
+
+        Class<?>[] argumentTypes = arguments(type);
+        this.argumentCount = (argumentTypes != null) ? argumentTypes.length : UNBOUND;
+        this.slots = new int[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            slots[i] = (argumentTypes != null) ? slot(parameterTypes[i], argumentTypes) : UNBOUND;
+        }
+    }
+
+    public Method method() {
+        return method;
+    }
+
+    public Object invoke(Object target, Object... args) throws PolicyException {
+        final Object[] parameters = parameters(args);
+
+        try {
+            return (Object) handle.invokeExact(target, parameters);
+        } catch (Throwable t) {
+            throw new PolicyException(t);
+        }
+    }
+
+    Object[] parameters(Object... args) {
+        final boolean bound = (args.length == argumentCount);
+        final Object[] parameters = new Object[parameterTypes.length];
+
+        for (int i = 0; i < parameters.length; i++) {
+            final int slot = bound ? slots[i] : UNBOUND;
+            parameters[i] = (slot != UNBOUND) ? args[slot] : assignable(parameterTypes[i], args);
+        }
+
+        return parameters;
+    }
+
+    private static Class<?>[] arguments(Class<? extends Annotation> type) {
+        if (type == OnRequest.class || type == OnResponse.class) {
+            return EXECUTION_ARGUMENTS;
+        } else if (type == OnRequestContent.class || type == OnResponseContent.class) {
+            return STREAM_ARGUMENTS;
+        }
+
+        return null;
+    }
+
+    /**
+     * Position of the first argument type assignable to the parameter type.
+     */
+    private static int slot(Class<?> parameterType, Class<?>[] argumentTypes) {
+        for (int i = 0; i < argumentTypes.length; i++) {
+            if (parameterType.isAssignableFrom(argumentTypes[i])) {
+                return i;
+            }
+        }
+
+        return UNBOUND;
+    }
+
+    /**
+     * First argument assignable to the parameter type.
+     */
+    private static Object assignable(Class<?> parameterType, Object[] args) {
+        for (Object arg : args) {
+            if (arg != null && parameterType.isAssignableFrom(arg.getClass())) {
+                return arg;
+            }
+        }
+
+        return null;
+    }
+
+    private static MethodHandle unreflect(Method method) {
+        MethodHandle handle;
+
+        try {
+            handle = MethodHandles.publicLookup().unreflect(method);
+        } catch (IllegalAccessException iae) {
+            // Policy class or method is not public, fallback to a suppressed access check
+            try {
+                method.setAccessible(true);
+                handle = MethodHandles.lookup().unreflect(method);
+            } catch (IllegalAccessException | SecurityException ex) {
+                throw new IllegalStateException("Unable to access policy method " + method, ex);
+            }
+        }
+
+        if (Modifier.isStatic(method.getModifiers())) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+
+        final int parameterCount = method.getParameterCount();
+
+        return handle
+                .asType(MethodType.genericMethodType(parameterCount + 1))
+                .asSpreader(Object[].class, parameterCount);
+    }
+}
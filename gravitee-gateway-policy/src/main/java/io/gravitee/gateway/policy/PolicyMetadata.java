@@ -39,5 +39,22 @@ public interface PolicyMetadata {
 
     Method method(Class<? extends Annotation> type);
 
+    /**
+     * Returns the invoker of the policy method annotated with the given type, if any. Implementations are expected
+     * to build invokers once, when the policy is loaded.
+     */
+    default PolicyInvoker invoker(Class<? extends Annotation> type) {
+        Method method = method(type);
+        return (method != null) ? new PolicyInvoker(method, type) : null;
+    }
+
     boolean accept(StreamType stream);
+
+    /**
+     * A stateless policy does not keep any per-request state, so a single instance can be shared by all the
+     * requests going through the same policy configuration.
+     */
+    default boolean stateless() {
+        return false;
+    }
 }
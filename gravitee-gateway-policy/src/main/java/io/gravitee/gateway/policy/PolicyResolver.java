@@ -16,6 +16,7 @@
 package io.gravitee.gateway.policy;
 
 import io.gravitee.gateway.api.ExecutionContext;
+import io.gravitee.gateway.api.handler.Handler;
 
 import java.util.List;
 
@@ -35,4 +36,17 @@ public interface PolicyResolver {
      * @return
      */
     List<Policy> resolve(StreamType streamType, ExecutionContext context);
+
+    /**
+     * Get asynchronously the list of {@link Policy} to execute according the current request context.
+     * Resolvers relying on potentially blocking operations must override this method so that these operations are
+     * not done on the event-loop.
+     *
+     * @param streamType
+     * @param context
+     * @param handler The handler called with the list of policies, on the context of the caller.
+     */
+    default void resolve(StreamType streamType, ExecutionContext context, Handler<List<Policy>> handler) {
+        handler.handle(resolve(streamType, context));
+    }
 }
@@ -15,19 +15,34 @@
  */
 package io.gravitee.gateway.policy.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.gravitee.policy.api.PolicyConfiguration;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.Objects;
 
 /**
+ * Caches policy configurations by configuration class and configuration content. The cache is bounded and the least
+ * recently used configurations are evicted first.
+ *
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
 public class CachedPolicyConfigurationFactory extends PolicyConfigurationFactoryImpl {
 
-    private final ConcurrentMap<Integer, PolicyConfiguration> cachedPolicyConfiguration =
-            new ConcurrentHashMap<>();
+    private static final long DEFAULT_MAXIMUM_SIZE = 1_000;
+
+    private final Cache<ConfigurationKey, PolicyConfiguration> cachedPolicyConfiguration;
+
+    public CachedPolicyConfigurationFactory() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public CachedPolicyConfigurationFactory(long maximumSize) {
+        this.cachedPolicyConfiguration = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+    }
 
     @Override
     public <T extends PolicyConfiguration> T create(Class<T> policyConfigurationClass, String configuration) {
@@ -35,15 +50,52 @@ public class CachedPolicyConfigurationFactory extends PolicyConfigurationFactory
             return null;
         }
 
-        Integer hash = configuration.hashCode();
-        PolicyConfiguration config = cachedPolicyConfiguration.get(hash);
+        ConfigurationKey key = new ConfigurationKey(policyConfigurationClass, configuration);
+        PolicyConfiguration config = cachedPolicyConfiguration.getIfPresent(key);
         if (config == null) {
             config = super.create(policyConfigurationClass, configuration);
             if (config != null) {
-                cachedPolicyConfiguration.put(hash, config);
+                cachedPolicyConfiguration.put(key, config);
             }
         }
 
         return (T) config;
     }
+
+    @Override
+    public void evict(Class<? extends PolicyConfiguration> policyConfigurationClass) {
+        cachedPolicyConfiguration.asMap().keySet().removeIf(key -> key.type == policyConfigurationClass);
+    }
+
+    public long size() {
+        return cachedPolicyConfiguration.size();
+    }
+
+    private static final class ConfigurationKey {
+
+        private final Class<?> type;
+
+        private final String configuration;
+
+        private final int hashCode;
+
+        private ConfigurationKey(Class<?> type, String configuration) {
+            this.type = type;
+            this.configuration = configuration;
+            this.hashCode = Objects.hash(type, configuration);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ConfigurationKey that = (ConfigurationKey) o;
+            return type == that.type && configuration.equals(that.configuration);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
 }
@@ -41,7 +41,9 @@ import java.io.IOException;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 /**
@@ -61,8 +63,18 @@ public class DefaultPolicyManager extends AbstractLifecycleComponent<PolicyManag
     @Autowired
     private PolicyConfigurationFactory policyConfigurationFactory;
 
+    /**
+     * Manifest property used by a policy plugin to declare itself as stateless.
+     */
+    static final String STATELESS_PROPERTY = "stateless";
+
     private final Map<String, PolicyMetadata> policies = new HashMap<>();
 
+    /**
+     * Instances of stateless policies, shared by all the requests for a given policy configuration.
+     */
+    private final Map<SharedPolicyKey, io.gravitee.gateway.policy.Policy> sharedPolicies = new ConcurrentHashMap<>();
+
     public DefaultPolicyManager(PolicyFactory policyFactory) {
         this.policyFactory = policyFactory;
     }
@@ -117,7 +129,14 @@ public class DefaultPolicyManager extends AbstractLifecycleComponent<PolicyManag
             }
         });
 
+        // Release configurations, they are bound to the policy classloaders
+        policies.values()
+                .stream()
+                .filter(registeredPolicy -> registeredPolicy.configuration() != null)
+                .forEach(registeredPolicy -> policyConfigurationFactory.evict(registeredPolicy.configuration()));
+
         // Be sure to remove all references to policies
+        sharedPolicies.clear();
         policies.clear();
     }
 
@@ -171,7 +190,8 @@ public class DefaultPolicyManager extends AbstractLifecycleComponent<PolicyManag
                 builder
                         .setPolicy(policyClass)
                         .setClassLoader(policyClassLoader)
-                        .setMethods(new PolicyMethodResolver().resolve(policyClass));
+                        .setMethods(new PolicyMethodResolver().resolve(policyClass))
+                        .setStateless(isStateless(policyPlugin));
 
                 if (policyPlugin.configuration() != null) {
                     builder.setConfiguration((Class<? extends PolicyConfiguration>) ClassUtils.forName(policyPlugin.configuration().getName(), policyClassLoader));
@@ -190,7 +210,16 @@ public class DefaultPolicyManager extends AbstractLifecycleComponent<PolicyManag
                     builder.setContext(context);
                 }
 
-                policies.put(policy.getName(), builder.build());
+                PolicyMetadata metadata = builder.build();
+                policyFactory.prepare(metadata);
+
+                // Stateless policies are instantiated once, when the API is starting
+                if (metadata.stateless()) {
+                    sharedPolicy(metadata, policy.getName(), policy.getConfiguration());
+                }
+
+                // Register the policy only once it has been successfully loaded
+                policies.put(policy.getName(), metadata);
             } catch (Exception ex) {
                 logger.error("Unable to load policy metadata", ex);
 
@@ -220,15 +249,77 @@ public class DefaultPolicyManager extends AbstractLifecycleComponent<PolicyManag
         PolicyMetadata metadata = policies.get(policy);
 
         if (metadata != null && metadata.accept(streamType)) {
-            PolicyConfiguration policyConfiguration = policyConfigurationFactory.create(
-                    metadata.configuration(), configuration);
-
-            Object policyInst = policyFactory.create(metadata, policyConfiguration);
+            if (metadata.stateless()) {
+                return sharedPolicy(metadata, policy, configuration);
+            }
 
-            logger.debug("Policy {} has been added to the policy chain", metadata.id());
-            return PolicyImpl.target(policyInst).definition(metadata).build();
+            return createPolicy(metadata, configuration);
         }
 
         return null;
     }
+
+    private io.gravitee.gateway.policy.Policy sharedPolicy(PolicyMetadata metadata, String policy, String configuration) {
+        final SharedPolicyKey key = new SharedPolicyKey(policy, configuration);
+        io.gravitee.gateway.policy.Policy sharedPolicy = sharedPolicies.get(key);
+
+        if (sharedPolicy == null) {
+            Object policyInst = createPolicyInstance(metadata, configuration);
+            sharedPolicy = PolicyImpl.target(policyInst).definition(metadata).build();
+
+            // Do not share a policy which can not be instantiated
+            if (policyInst != null) {
+                io.gravitee.gateway.policy.Policy previous = sharedPolicies.putIfAbsent(key, sharedPolicy);
+                if (previous != null) {
+                    sharedPolicy = previous;
+                }
+            }
+        }
+
+        return sharedPolicy;
+    }
+
+    private io.gravitee.gateway.policy.Policy createPolicy(PolicyMetadata metadata, String configuration) {
+        Object policyInst = createPolicyInstance(metadata, configuration);
+
+        logger.debug("Policy {} has been added to the policy chain", metadata.id());
+        return PolicyImpl.target(policyInst).definition(metadata).build();
+    }
+
+    private Object createPolicyInstance(PolicyMetadata metadata, String configuration) {
+        PolicyConfiguration policyConfiguration = policyConfigurationFactory.create(
+                metadata.configuration(), configuration);
+
+        return policyFactory.create(metadata, policyConfiguration);
+    }
+
+    private static boolean isStateless(PolicyPlugin policyPlugin) {
+        return policyPlugin.manifest() != null && policyPlugin.manifest().properties() != null &&
+                Boolean.parseBoolean(policyPlugin.manifest().properties().get(STATELESS_PROPERTY));
+    }
+
+    private static final class SharedPolicyKey {
+
+        private final String policy;
+
+        private final String configuration;
+
+        private SharedPolicyKey(String policy, String configuration) {
+            this.policy = policy;
+            this.configuration = configuration;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            SharedPolicyKey that = (SharedPolicyKey) o;
+            return policy.equals(that.policy) && Objects.equals(configuration, that.configuration);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(policy, configuration);
+        }
+    }
 }
@@ -24,9 +24,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.*;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static org.reflections.ReflectionUtils.withModifier;
 import static org.reflections.ReflectionUtils.withParametersCount;
@@ -42,7 +43,7 @@ public class PolicyFactoryImpl implements PolicyFactory {
     /**
      * Cache of constructor by policy
      */
-    private Map<Class<?>, Constructor<?>> constructors = new HashMap<>();
+    private final ConcurrentMap<Class<?>, Optional<Constructor<?>>> constructors = new ConcurrentHashMap<>();
 
     @Override
     public Object create(PolicyMetadata policyMetadata, PolicyConfiguration policyConfiguration) {
@@ -52,6 +53,11 @@ public class PolicyFactoryImpl implements PolicyFactory {
         return createPolicy(policyMetadata, policyConfiguration);
     }
 
+    @Override
+    public void prepare(PolicyMetadata policyMetadata) {
+        lookingForConstructor(policyMetadata.policy());
+    }
+
     private Object createPolicy(PolicyMetadata policyMetadata, PolicyConfiguration policyConfiguration) {
         Object policyInst = null;
 
@@ -73,34 +79,34 @@ public class PolicyFactoryImpl implements PolicyFactory {
     }
 
     private Constructor<?> lookingForConstructor(Class<?> policyClass) {
-        Constructor constructor = constructors.get(policyClass);
-        if (constructor == null) {
-            LOGGER.debug("Looking for a constructor to inject policy configuration");
-
-            Set<Constructor> policyConstructors =
-                    ReflectionUtils.getConstructors(policyClass,
-                            withModifier(Modifier.PUBLIC),
-                            withParametersAssignableFrom(PolicyConfiguration.class),
-                            withParametersCount(1));
-
-            if (policyConstructors.isEmpty()) {
-                LOGGER.debug("No configuration can be injected for {} because there is no valid constructor. " +
-                        "Using default empty constructor.", policyClass.getName());
-                try {
-                    constructor = policyClass.getConstructor();
-                } catch (NoSuchMethodException nsme) {
-                    LOGGER.error("Unable to find default empty constructor for {}", policyClass.getName(), nsme);
-                }
-            } else if (policyConstructors.size() == 1) {
-                constructor = policyConstructors.iterator().next();
-            } else {
-                LOGGER.info("Too much constructors to instantiate policy {}", policyClass.getName());
-            }
+        return constructors.computeIfAbsent(policyClass, this::resolveConstructor).orElse(null);
+    }
+
+    private Optional<Constructor<?>> resolveConstructor(Class<?> policyClass) {
+        LOGGER.debug("Looking for a constructor to inject policy configuration");
+        Constructor<?> constructor = null;
+
+        Set<Constructor> policyConstructors =
+                ReflectionUtils.getConstructors(policyClass,
+                        withModifier(Modifier.PUBLIC),
+                        withParametersAssignableFrom(PolicyConfiguration.class),
+                        withParametersCount(1));
 
-            constructors.put(policyClass, constructor);
+        if (policyConstructors.isEmpty()) {
+            LOGGER.debug("No configuration can be injected for {} because there is no valid constructor. " +
+                    "Using default empty constructor.", policyClass.getName());
+            try {
+                constructor = policyClass.getConstructor();
+            } catch (NoSuchMethodException nsme) {
+                LOGGER.error("Unable to find default empty constructor for {}", policyClass.getName(), nsme);
+            }
+        } else if (policyConstructors.size() == 1) {
+            constructor = policyConstructors.iterator().next();
+        } else {
+            LOGGER.info("Too much constructors to instantiate policy {}", policyClass.getName());
         }
 
-        return constructor;
+        return Optional.ofNullable(constructor);
     }
 
     private static Predicate<Member> withParametersAssignableFrom(final Class... types) {
@@ -19,13 +19,14 @@ import io.gravitee.gateway.api.buffer.Buffer;
 import io.gravitee.gateway.api.stream.ReadWriteStream;
 import io.gravitee.gateway.policy.AbstractPolicy;
 import io.gravitee.gateway.policy.PolicyException;
+import io.gravitee.gateway.policy.PolicyInvoker;
 import io.gravitee.gateway.policy.PolicyMetadata;
 import io.gravitee.policy.api.annotations.OnRequest;
 import io.gravitee.policy.api.annotations.OnRequestContent;
 import io.gravitee.policy.api.annotations.OnResponse;
 import io.gravitee.policy.api.annotations.OnResponseContent;
 
-import java.lang.reflect.Method;
+import java.lang.annotation.Annotation;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -36,6 +37,11 @@ public class PolicyImpl extends AbstractPolicy {
     private final Object policyInst;
     private PolicyMetadata policyMetadata;
 
+    private PolicyInvoker onRequestInvoker;
+    private PolicyInvoker onResponseInvoker;
+    private PolicyInvoker onRequestContentInvoker;
+    private PolicyInvoker onResponseContentInvoker;
+
     private PolicyImpl(Object policyInst) {
         this.policyInst = policyInst;
     }
@@ -47,55 +53,39 @@ public class PolicyImpl extends AbstractPolicy {
 
     @Override
     public void onRequest(Object ... args) throws PolicyException {
-        invoke(policyMetadata.method(OnRequest.class), args);
+        invoke(onRequestInvoker, args);
     }
 
     @Override
     public void onResponse(Object ... args) throws PolicyException {
-        invoke(policyMetadata.method(OnResponse.class), args);
+        invoke(onResponseInvoker, args);
     }
 
     @Override
     public ReadWriteStream<Buffer> onResponseContent(Object ... args) throws PolicyException {
-        Object stream = invoke(policyMetadata.method(OnResponseContent.class), args);
+        Object stream = invoke(onResponseContentInvoker, args);
         return (stream != null) ? (ReadWriteStream<Buffer>) stream : null;
     }
 
     @Override
     public boolean isStreamable() {
-        return (policyMetadata.method(OnRequestContent.class) != null ||
-                policyMetadata.method(OnResponseContent.class) != null);
+        return (onRequestContentInvoker != null || onResponseContentInvoker != null);
     }
 
     @Override
     public boolean isRunnable() {
-        return (policyMetadata.method(OnRequest.class) != null ||
-                policyMetadata.method(OnResponse.class) != null);
+        return (onRequestInvoker != null || onResponseInvoker != null);
     }
 
     @Override
     public ReadWriteStream<Buffer> onRequestContent(Object ... args) throws PolicyException {
-        Object stream = invoke(policyMetadata.method(OnRequestContent.class), args);
+        Object stream = invoke(onRequestContentInvoker, args);
         return (stream != null) ? (ReadWriteStream<Buffer>) stream : null;
     }
 
-    private Object invoke(Method invokedMethod, Object ... args) throws PolicyException {
-        if (invokedMethod != null) {
-            Class<?>[] parametersType = invokedMethod.getParameterTypes();
-            Object[] parameters = new Object[parametersType.length];
-
-            int idx = 0;
-
-            // Map parameters according to parameter's type
-            for (Class<?> paramType : parametersType) {
-                parameters[idx++] = getParameterAssignableTo(paramType, args);
-            }
-
-            try {
-                return invokedMethod.invoke(policyInst, parameters);
-            } catch (Exception ex) {
-                throw new PolicyException(ex);
-            }
+    private Object invoke(PolicyInvoker invoker, Object ... args) throws PolicyException {
+        if (invoker != null) {
+            return invoker.invoke(policyInst, args);
         }
 
         return null;
@@ -107,9 +97,23 @@ public class PolicyImpl extends AbstractPolicy {
 
     private PolicyImpl definition(PolicyMetadata policyMetadata) {
         this.policyMetadata = policyMetadata;
+        this.onRequestInvoker = invoker(policyMetadata, OnRequest.class);
+        this.onResponseInvoker = invoker(policyMetadata, OnResponse.class);
+        this.onRequestContentInvoker = invoker(policyMetadata, OnRequestContent.class);
+        this.onResponseContentInvoker = invoker(policyMetadata, OnResponseContent.class);
         return this;
     }
 
+    private static PolicyInvoker invoker(PolicyMetadata policyMetadata, Class<? extends Annotation> type) {
+        PolicyInvoker invoker = policyMetadata.invoker(type);
+
+        if (invoker == null && policyMetadata.method(type) != null) {
+            invoker = new PolicyInvoker(policyMetadata.method(type), type);
+        }
+
+        return invoker;
+    }
+
     public static class Builder {
 
         private final Object policyInstance;
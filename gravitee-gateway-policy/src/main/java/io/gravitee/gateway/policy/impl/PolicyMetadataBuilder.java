@@ -15,6 +15,7 @@
  */
 package io.gravitee.gateway.policy.impl;
 
+import io.gravitee.gateway.policy.PolicyInvoker;
 import io.gravitee.gateway.policy.PolicyMetadata;
 import io.gravitee.gateway.policy.StreamType;
 import io.gravitee.policy.api.PolicyConfiguration;
@@ -26,6 +27,7 @@ import io.gravitee.policy.api.annotations.OnResponseContent;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -46,6 +48,8 @@ public class PolicyMetadataBuilder {
 
     private ClassLoader classLoader;
 
+    private boolean stateless;
+
     public PolicyMetadataBuilder setId(String id) {
         this.id = id;
         return this;
@@ -76,7 +80,18 @@ public class PolicyMetadataBuilder {
         return this;
     }
 
+    public PolicyMetadataBuilder setStateless(boolean stateless) {
+        this.stateless = stateless;
+        return this;
+    }
+
     public PolicyMetadata build() {
+        // Policy methods are unreflected once, when the policy is loaded, and shared by all its instances
+        final Map<Class<? extends Annotation>, PolicyInvoker> invokers = new HashMap<>();
+        if (methods != null) {
+            methods.forEach((type, method) -> invokers.put(type, new PolicyInvoker(method, type)));
+        }
+
         return new PolicyMetadata() {
             @Override
             public String id() {
@@ -108,6 +123,16 @@ public class PolicyMetadataBuilder {
                 return methods.get(type);
             }
 
+            @Override
+            public PolicyInvoker invoker(Class<? extends Annotation> type) {
+                return invokers.get(type);
+            }
+
+            @Override
+            public boolean stateless() {
+                return stateless;
+            }
+
             @Override
             public boolean accept(StreamType stream) {
                 return (stream == StreamType.ON_REQUEST &&
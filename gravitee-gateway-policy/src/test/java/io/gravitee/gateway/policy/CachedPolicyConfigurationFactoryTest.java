@@ -72,4 +72,65 @@ public class CachedPolicyConfigurationFactoryTest {
         PolicyConfiguration policyConfiguration1 = policyConfigurationFactory.create(null, null);
         Assert.assertNull(policyConfiguration1);
     }
+
+    @Test
+    public void createPolicyConfigurationWithCollidingHashCodes() {
+        String configuration = "{\"name\": \"Aa\"}";
+        String collidingConfiguration = "{\"name\": \"BB\"}";
+        Assert.assertEquals(configuration.hashCode(), collidingConfiguration.hashCode());
+
+        NamedPolicyConfiguration policyConfiguration = policyConfigurationFactory.create(NamedPolicyConfiguration.class, configuration);
+        NamedPolicyConfiguration policyConfiguration2 = policyConfigurationFactory.create(NamedPolicyConfiguration.class, collidingConfiguration);
+
+        Assert.assertEquals("Aa", policyConfiguration.getName());
+        Assert.assertEquals("BB", policyConfiguration2.getName());
+    }
+
+    @Test
+    public void createPolicyConfigurationBySameContentAndDifferentClass() {
+        String configuration = "{\"name\": \"Aa\", \"value\": 1}";
+
+        NamedPolicyConfiguration policyConfiguration = policyConfigurationFactory.create(NamedPolicyConfiguration.class, configuration);
+        DummyPolicyConfiguration policyConfiguration2 = policyConfigurationFactory.create(DummyPolicyConfiguration.class, configuration);
+
+        Assert.assertEquals("Aa", policyConfiguration.getName());
+        Assert.assertEquals(1, policyConfiguration2.getValue());
+    }
+
+    @Test
+    public void createPolicyConfigurationWithBoundedCache() {
+        CachedPolicyConfigurationFactory factory = new CachedPolicyConfigurationFactory(10);
+
+        for (int i = 0; i < 100; i++) {
+            factory.create(DummyPolicyConfiguration.class, "{\"value\": " + i + "}");
+        }
+
+        Assert.assertTrue(factory.size() <= 10);
+    }
+
+    @Test
+    public void evictPolicyConfigurationByClass() {
+        String configuration = "{\"name\": \"Aa\", \"value\": 1}";
+
+        NamedPolicyConfiguration policyConfiguration = policyConfigurationFactory.create(NamedPolicyConfiguration.class, configuration);
+        DummyPolicyConfiguration policyConfiguration2 = policyConfigurationFactory.create(DummyPolicyConfiguration.class, configuration);
+
+        policyConfigurationFactory.evict(NamedPolicyConfiguration.class);
+
+        Assert.assertNotSame(policyConfiguration, policyConfigurationFactory.create(NamedPolicyConfiguration.class, configuration));
+        Assert.assertSame(policyConfiguration2, policyConfigurationFactory.create(DummyPolicyConfiguration.class, configuration));
+    }
+
+    public static class NamedPolicyConfiguration implements PolicyConfiguration {
+
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
 }
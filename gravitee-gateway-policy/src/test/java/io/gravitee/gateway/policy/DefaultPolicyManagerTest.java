@@ -0,0 +1,199 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.policy;
+
+import io.gravitee.gateway.policy.impl.DefaultPolicyManager;
+import io.gravitee.gateway.policy.impl.PolicyFactoryImpl;
+import io.gravitee.gateway.reactor.Reactable;
+import io.gravitee.gateway.reactor.handler.ReactorHandler;
+import io.gravitee.gateway.resource.ResourceLifecycleManager;
+import io.gravitee.plugin.core.api.ConfigurablePluginManager;
+import io.gravitee.plugin.core.api.PluginClassLoader;
+import io.gravitee.plugin.core.api.PluginManifest;
+import io.gravitee.plugin.policy.PolicyClassLoaderFactory;
+import io.gravitee.plugin.policy.PolicyPlugin;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.ResolvableType;
+
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public class DefaultPolicyManagerTest {
+
+    private PolicyFactory policyFactory;
+
+    private PolicyPlugin policyPlugin;
+
+    private PolicyConfigurationFactory policyConfigurationFactory;
+
+    private DefaultPolicyManager policyManager;
+
+    @Before
+    public void setUp() throws Exception {
+        policyFactory = spy(new PolicyFactoryImpl());
+        policyManager = new DefaultPolicyManager(policyFactory);
+
+        policyPlugin = mock(PolicyPlugin.class);
+        when(policyPlugin.id()).thenReturn("dummy");
+        doReturn(DummyPolicy.class).when(policyPlugin).policy();
+
+        ConfigurablePluginManager<PolicyPlugin> ppm = mock(ConfigurablePluginManager.class);
+        when(ppm.get("dummy")).thenReturn(policyPlugin);
+
+        ApplicationContext parentContext = mock(ApplicationContext.class);
+        when(parentContext.getBeanNamesForType(any(ResolvableType.class))).thenReturn(new String[] {"policyPluginManager"});
+        when(parentContext.getBean("policyPluginManager")).thenReturn(ppm);
+
+        PolicyClassLoaderFactory pclf = mock(PolicyClassLoaderFactory.class);
+        when(pclf.getOrCreateClassLoader(any(PolicyPlugin.class), any(ClassLoader.class))).thenAnswer(
+                invocation -> new PluginClassLoader(new URLClassLoader(new URL[0], DummyPolicy.class.getClassLoader())));
+
+        ResourceLifecycleManager resourceManager = mock(ResourceLifecycleManager.class);
+        when(resourceManager.getResources()).thenReturn(Collections.emptyList());
+
+        Reactable reactable = mock(Reactable.class);
+        when(reactable.dependencies(io.gravitee.definition.model.Policy.class)).thenReturn(policies("{\"value\": 1}"));
+
+        ApplicationContext applicationContext = mock(ApplicationContext.class);
+        when(applicationContext.getParent()).thenReturn(parentContext);
+        when(applicationContext.getBean(PolicyClassLoaderFactory.class)).thenReturn(pclf);
+        when(applicationContext.getBean(ReactorHandler.class)).thenReturn(mock(ReactorHandler.class));
+        when(applicationContext.getBean(ResourceLifecycleManager.class)).thenReturn(resourceManager);
+        when(applicationContext.getBean(Reactable.class)).thenReturn(reactable);
+
+        inject("applicationContext", applicationContext);
+        policyConfigurationFactory = mock(PolicyConfigurationFactory.class);
+        inject("policyConfigurationFactory", policyConfigurationFactory);
+    }
+
+    @Test
+    public void shouldShareStatelessPolicyInstance() throws Exception {
+        stateless(true);
+        policyManager.start();
+
+        // Instantiated once, when starting
+        verify(policyFactory, times(1)).create(any(PolicyMetadata.class), any());
+
+        Policy policy = policyManager.create(StreamType.ON_REQUEST, "dummy", "{\"value\": 1}");
+        Policy policy2 = policyManager.create(StreamType.ON_REQUEST, "dummy", "{\"value\": 1}");
+
+        assertNotNull(policy);
+        assertSame(policy, policy2);
+        verify(policyFactory, times(1)).create(any(PolicyMetadata.class), any());
+    }
+
+    @Test
+    public void shouldNotRegisterStatelessPolicyWhichCanNotBeInstantiated() throws Exception {
+        stateless(true);
+        doThrow(new IllegalStateException("Unable to create policy")).when(policyFactory).create(any(PolicyMetadata.class), any());
+
+        policyManager.start();
+
+        assertNull(policyManager.create(StreamType.ON_REQUEST, "dummy", "{\"value\": 1}"));
+    }
+
+    @Test
+    public void shouldShareStatelessPolicyInstanceByConfiguration() throws Exception {
+        stateless(true);
+        policyManager.start();
+
+        Policy policy = policyManager.create(StreamType.ON_REQUEST, "dummy", "{\"value\": 1}");
+        Policy policy2 = policyManager.create(StreamType.ON_REQUEST, "dummy", "{\"value\": 2}");
+        Policy policy3 = policyManager.create(StreamType.ON_RESPONSE, "dummy", "{\"value\": 2}");
+
+        assertNotSame(policy, policy2);
+        assertSame(policy2, policy3);
+        verify(policyFactory, times(2)).create(any(PolicyMetadata.class), any());
+    }
+
+    @Test
+    public void shouldCreateStatefulPolicyInstanceByRequest() throws Exception {
+        stateless(false);
+        policyManager.start();
+
+        verify(policyFactory, never()).create(any(PolicyMetadata.class), any());
+
+        Policy policy = policyManager.create(StreamType.ON_REQUEST, "dummy", "{\"value\": 1}");
+        Policy policy2 = policyManager.create(StreamType.ON_REQUEST, "dummy", "{\"value\": 1}");
+
+        assertNotSame(policy, policy2);
+        verify(policyFactory, times(2)).create(any(PolicyMetadata.class), any());
+    }
+
+    @Test
+    public void shouldPrepareFactoryWhenStarting() throws Exception {
+        stateless(false);
+        policyManager.start();
+
+        verify(policyFactory).prepare(argThat(metadata -> metadata.policy() == DummyPolicy.class));
+    }
+
+    @Test
+    public void shouldReleaseSharedInstancesWhenStopping() throws Exception {
+        stateless(true);
+        policyManager.start();
+        policyManager.stop();
+
+        assertNull(policyManager.create(StreamType.ON_REQUEST, "dummy", "{\"value\": 1}"));
+    }
+
+    @Test
+    public void shouldEvictConfigurationsWhenStopping() throws Exception {
+        stateless(false);
+        doReturn(DummyPolicyConfiguration.class).when(policyPlugin).configuration();
+
+        policyManager.start();
+        policyManager.stop();
+
+        verify(policyConfigurationFactory).evict(DummyPolicyConfiguration.class);
+    }
+
+    private void stateless(boolean stateless) {
+        PluginManifest manifest = mock(PluginManifest.class);
+        when(manifest.properties()).thenReturn(Collections.singletonMap("stateless", Boolean.toString(stateless)));
+        when(policyPlugin.manifest()).thenReturn(manifest);
+    }
+
+    private Set<io.gravitee.definition.model.Policy> policies(String configuration) {
+        io.gravitee.definition.model.Policy policy = new io.gravitee.definition.model.Policy();
+        policy.setName("dummy");
+        policy.setConfiguration(configuration);
+
+        Set<io.gravitee.definition.model.Policy> policies = new HashSet<>();
+        policies.add(policy);
+        return policies;
+    }
+
+    private void inject(String name, Object value) throws Exception {
+        Field field = DefaultPolicyManager.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(policyManager, value);
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.policy;
+
+import io.gravitee.gateway.api.ExecutionContext;
+import io.gravitee.gateway.api.Request;
+import io.gravitee.gateway.api.Response;
+import io.gravitee.policy.api.PolicyChain;
+import io.gravitee.policy.api.annotations.OnRequest;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Compares the reflective dispatch previously used by policies with the {@link PolicyInvoker} dispatch, for a chain
+ * of 10 policies.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2)
+public class PolicyInvocationBenchmark {
+
+    public static void main(String[]args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(PolicyInvocationBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    private static final int CHAIN_SIZE = 10;
+
+    private final Object[] policies = new Object[CHAIN_SIZE];
+    private final Method[] methods = new Method[CHAIN_SIZE];
+    private final PolicyInvoker[] invokers = new PolicyInvoker[CHAIN_SIZE];
+
+    private Object[] args;
+
+    @Setup
+    public void setup() throws Exception {
+        for (int i = 0; i < CHAIN_SIZE; i++) {
+            policies[i] = new DummyPolicy();
+            methods[i] = DummyPolicy.class.getMethod("onRequest", PolicyChain.class, Request.class, Response.class);
+            invokers[i] = new PolicyInvoker(methods[i], OnRequest.class);
+        }
+
+        args = new Object[] {
+                mock(PolicyChain.class), mock(Request.class), mock(Response.class), mock(ExecutionContext.class)
+        };
+    }
+
+    @Benchmark
+    public int reflective() throws Exception {
+        for (int i = 0; i < CHAIN_SIZE; i++) {
+            Class<?>[] parametersType = methods[i].getParameterTypes();
+            Object[] parameters = new Object[parametersType.length];
+
+            int idx = 0;
+            for (Class<?> paramType : parametersType) {
+                parameters[idx++] = getParameterAssignableTo(paramType, args);
+            }
+
+            methods[i].invoke(policies[i], parameters);
+        }
+
+        return CHAIN_SIZE;
+    }
+
+    @Benchmark
+    public int invoker() throws Exception {
+        for (int i = 0; i < CHAIN_SIZE; i++) {
+            invokers[i].invoke(policies[i], args);
+        }
+
+        return CHAIN_SIZE;
+    }
+
+    private static Object getParameterAssignableTo(Class<?> paramType, Object ... args) {
+        for (Object arg : args) {
+            if (paramType.isAssignableFrom(arg.getClass())) {
+                return arg;
+            }
+        }
+
+        return null;
+    }
+}
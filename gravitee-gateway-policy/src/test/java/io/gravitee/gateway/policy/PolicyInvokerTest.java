@@ -0,0 +1,192 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.policy;
+
+import io.gravitee.gateway.api.ExecutionContext;
+import io.gravitee.gateway.api.Request;
+import io.gravitee.gateway.api.Response;
+import io.gravitee.policy.api.PolicyChain;
+import io.gravitee.policy.api.annotations.OnRequest;
+import io.gravitee.policy.api.annotations.OnRequestContent;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public class PolicyInvokerTest {
+
+    @Test
+    public void shouldMapArgumentsByType() throws Exception {
+        RecordingPolicy policy = new RecordingPolicy();
+        PolicyInvoker invoker = new PolicyInvoker(RecordingPolicy.class.getMethod("onRequest", Request.class, Response.class, PolicyChain.class));
+
+        Request request = mock(Request.class);
+        Response response = mock(Response.class);
+        PolicyChain chain = mock(PolicyChain.class);
+
+        invoker.invoke(policy, chain, request, response, mock(ExecutionContext.class));
+
+        assertSame(request, policy.request);
+        assertSame(response, policy.response);
+        assertSame(chain, policy.chain);
+    }
+
+    @Test
+    public void shouldBindArgumentsOfChain() throws Exception {
+        RecordingPolicy policy = new RecordingPolicy();
+        PolicyInvoker invoker = new PolicyInvoker(RecordingPolicy.class.getMethod("onRequest", Request.class, Response.class, PolicyChain.class), OnRequest.class);
+
+        Request request = mock(Request.class);
+        Response response = mock(Response.class);
+        PolicyChain chain = mock(PolicyChain.class);
+
+        invoker.invoke(policy, chain, request, response, mock(ExecutionContext.class));
+
+        assertSame(request, policy.request);
+        assertSame(response, policy.response);
+        assertSame(chain, policy.chain);
+
+        invoker.invoke(policy, chain, null, null, mock(ExecutionContext.class));
+
+        assertNull(policy.request);
+        assertNull(policy.response);
+        assertSame(chain, policy.chain);
+    }
+
+    @Test
+    public void shouldBindArgumentsOfStreamingChain() throws Exception {
+        PolicyInvoker invoker = new PolicyInvoker(RecordingPolicy.class.getMethod("onRequestContent", Request.class), OnRequestContent.class);
+
+        Request request = mock(Request.class);
+
+        assertSame(request, invoker.invoke(new RecordingPolicy(), request, mock(Response.class), mock(PolicyChain.class), mock(ExecutionContext.class)));
+    }
+
+    @Test
+    public void shouldMapArgumentsByTypeWhenNotGivenByChain() throws Exception {
+        RecordingPolicy policy = new RecordingPolicy();
+        PolicyInvoker invoker = new PolicyInvoker(RecordingPolicy.class.getMethod("onRequest", Request.class, Response.class, PolicyChain.class), OnRequest.class);
+
+        Request request = mock(Request.class);
+        Response response = mock(Response.class);
+
+        invoker.invoke(policy, response, request);
+
+        assertSame(request, policy.request);
+        assertSame(response, policy.response);
+        assertNull(policy.chain);
+    }
+
+    @Test
+    public void shouldRemapArgumentsWhenLayoutChanges() throws Exception {
+        RecordingPolicy policy = new RecordingPolicy();
+        PolicyInvoker invoker = new PolicyInvoker(RecordingPolicy.class.getMethod("onRequest", Request.class, Response.class, PolicyChain.class));
+
+        Request request = mock(Request.class);
+        Response response = mock(Response.class);
+        PolicyChain chain = mock(PolicyChain.class);
+
+        invoker.invoke(policy, chain, request, response);
+        invoker.invoke(policy, response, request);
+
+        assertSame(request, policy.request);
+        assertSame(response, policy.response);
+        assertNull(policy.chain);
+
+        invoker.invoke(policy, request, chain);
+
+        assertSame(request, policy.request);
+        assertNull(policy.response);
+        assertSame(chain, policy.chain);
+    }
+
+    @Test
+    public void shouldInvokeWithoutArguments() throws Exception {
+        RecordingPolicy policy = new RecordingPolicy();
+        PolicyInvoker invoker = new PolicyInvoker(RecordingPolicy.class.getMethod("onRequest", Request.class, Response.class, PolicyChain.class));
+
+        invoker.invoke(policy);
+
+        assertTrue(policy.invoked);
+        assertNull(policy.request);
+    }
+
+    @Test
+    public void shouldReturnMethodResult() throws Exception {
+        PolicyInvoker invoker = new PolicyInvoker(RecordingPolicy.class.getMethod("onRequestContent", Request.class));
+
+        Request request = mock(Request.class);
+
+        assertSame(request, invoker.invoke(new RecordingPolicy(), request));
+    }
+
+    @Test
+    public void shouldWrapPolicyFailure() throws Exception {
+        PolicyInvoker invoker = new PolicyInvoker(RecordingPolicy.class.getMethod("onResponse"));
+
+        try {
+            invoker.invoke(new RecordingPolicy());
+            fail("Policy failure should have been propagated");
+        } catch (PolicyException pe) {
+            assertTrue(pe.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void shouldInvokeNonPublicMethod() throws Exception {
+        Method method = RecordingPolicy.class.getDeclaredMethod("hidden", Request.class);
+        PolicyInvoker invoker = new PolicyInvoker(method);
+
+        RecordingPolicy policy = new RecordingPolicy();
+        Request request = mock(Request.class);
+        invoker.invoke(policy, request);
+
+        assertSame(request, policy.request);
+    }
+
+    public static class RecordingPolicy {
+
+        private boolean invoked;
+        private Request request;
+        private Response response;
+        private PolicyChain chain;
+
+        public void onRequest(Request request, Response response, PolicyChain chain) {
+            this.invoked = true;
+            this.request = request;
+            this.response = response;
+            this.chain = chain;
+        }
+
+        public Object onRequestContent(Request request) {
+            return request;
+        }
+
+        public void onResponse() {
+            throw new IllegalStateException("failure");
+        }
+
+        void hidden(Request request) {
+            this.request = request;
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package io.gravitee.gateway.reactor.handler;
 
+import io.gravitee.gateway.api.Request;
 import io.gravitee.gateway.reactor.Reactable;
 
 import java.util.List;
@@ -33,10 +34,36 @@ public interface ReactorHandlerRegistry {
 
     void clear();
 
+    /**
+     * Run the given changes as a single batch: the changes made while the batch is running, from any thread, are only
+     * published once it is over.
+     *
+     * @param changes the changes to apply.
+     */
+    default void batch(Runnable changes) {
+        changes.run();
+    }
+
     /**
      * An ordered collection of registered entrypoints.
      *
      * @return
      */
     List<HandlerEntrypoint> getEntrypoints();
+
+    /**
+     * The entrypoint handling the request: the first of the ordered entrypoints which accepts it.
+     *
+     * @param request the incoming request.
+     * @return the entrypoint handling the request, or <code>null</code> if none accepts it.
+     */
+    default HandlerEntrypoint resolve(Request request) {
+        for (HandlerEntrypoint entrypoint : getEntrypoints()) {
+            if (entrypoint.accept(request)) {
+                return entrypoint;
+            }
+        }
+
+        return null;
+    }
 }
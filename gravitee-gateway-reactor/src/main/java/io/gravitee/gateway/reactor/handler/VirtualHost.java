@@ -74,6 +74,24 @@ public class VirtualHost implements Entrypoint {
         return path;
     }
 
+    /**
+     * The host this entrypoint is listening to, or <code>null</code> if the entrypoint accepts any host.
+     *
+     * @return
+     */
+    public String host() {
+        return host;
+    }
+
+    /**
+     * The path as it has been declared, before being sanitized, which is also accepted as an exact match.
+     *
+     * @return
+     */
+    public String pathWithoutTrailingSlash() {
+        return pathWithoutTrailingSlash;
+    }
+
     @Override
     public int priority() {
         return weight;
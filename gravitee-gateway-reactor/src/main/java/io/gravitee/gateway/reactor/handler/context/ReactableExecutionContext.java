@@ -24,6 +24,7 @@ import io.gravitee.gateway.api.Response;
 import io.gravitee.gateway.api.context.MutableExecutionContext;
 import io.gravitee.gateway.api.el.EvaluableRequest;
 import io.gravitee.gateway.api.el.EvaluableResponse;
+import io.gravitee.gateway.core.el.CachedTemplateEngine;
 import org.springframework.context.ApplicationContext;
 
 import java.util.Collection;
@@ -111,7 +112,8 @@ public class ReactableExecutionContext implements MutableExecutionContext {
     @Override
     public TemplateEngine getTemplateEngine() {
         if (templateEngine == null) {
-            templateEngine = TemplateEngine.templateEngine();
+            // Templates are parsed once and shared by all the requests
+            templateEngine = new CachedTemplateEngine();
 
 
             TemplateContext templateContext = templateEngine.getTemplateContext();
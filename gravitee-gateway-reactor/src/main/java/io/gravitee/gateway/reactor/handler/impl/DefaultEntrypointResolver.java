@@ -34,14 +34,12 @@ public class DefaultEntrypointResolver implements EntrypointResolver {
 
     @Override
     public HandlerEntrypoint resolve(ExecutionContext context) {
-        for (HandlerEntrypoint entrypoint : handlerRegistry.getEntrypoints()) {
-            if (entrypoint.accept(context.request())) {
-                context.setAttribute(ATTR_ENTRYPOINT, entrypoint);
+        HandlerEntrypoint entrypoint = handlerRegistry.resolve(context.request());
 
-                return entrypoint;
-            }
+        if (entrypoint != null) {
+            context.setAttribute(ATTR_ENTRYPOINT, entrypoint);
         }
 
-        return null;
+        return entrypoint;
     }
 }
@@ -0,0 +1,63 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.reactor.handler.impl;
+
+import io.gravitee.gateway.api.Request;
+import io.gravitee.gateway.reactor.handler.Entrypoint;
+import io.gravitee.gateway.reactor.handler.HandlerEntrypoint;
+import io.gravitee.gateway.reactor.handler.ReactorHandler;
+
+/**
+ * Links an {@link Entrypoint} declared by a reactable to the {@link ReactorHandler} serving it.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+class DefaultHandlerEntrypoint implements HandlerEntrypoint {
+
+    private final ReactorHandler handler;
+
+    private final Entrypoint entrypoint;
+
+    DefaultHandlerEntrypoint(ReactorHandler handler, Entrypoint entrypoint) {
+        this.handler = handler;
+        this.entrypoint = entrypoint;
+    }
+
+    @Override
+    public ReactorHandler target() {
+        return handler;
+    }
+
+    @Override
+    public String path() {
+        return entrypoint.path();
+    }
+
+    @Override
+    public int priority() {
+        return entrypoint.priority();
+    }
+
+    @Override
+    public boolean accept(Request request) {
+        return entrypoint.accept(request);
+    }
+
+    Entrypoint entrypoint() {
+        return entrypoint;
+    }
+}
@@ -23,10 +23,19 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.*;
-import java.util.function.Function;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
+ * The registry state is held by an immutable {@link Snapshot} published through a single volatile reference, so that
+ * event-loop threads resolving entrypoints never lock nor copy anything.
+ *
+ * Changes are queued as mutations and applied by the first writer which is able to acquire the write lock: all the
+ * mutations which are pending at this time are applied as a single batch, the snapshot (its ordered list of
+ * entrypoints and the {@link EntrypointRadixTree} indexing them) being rebuilt only once per batch. While a
+ * {@link #batch(Runnable)} is running, mutations are only queued and are all applied once it is over.
+ *
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
@@ -37,10 +46,13 @@ public class DefaultReactorHandlerRegistry implements ReactorHandlerRegistry {
     @Autowired
     private ReactorHandlerFactoryManager handlerFactoryManager;
 
-    private final Map<Reactable, ReactorHandler> handlers = new HashMap<>();
-    private final Map<Reactable, List<HandlerEntrypoint>> entrypointByReactable = new HashMap<>();
+    private final Queue<Mutation> mutations = new ConcurrentLinkedQueue<>();
+
+    private final Object writeLock = new Object();
 
-    private final List<HandlerEntrypoint> registeredEntrypoints = new ArrayList<>();
+    private final AtomicInteger batches = new AtomicInteger();
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
 
     @Override
     public void create(Reactable reactable) {
@@ -48,48 +60,10 @@ public class DefaultReactorHandlerRegistry implements ReactorHandlerRegistry {
 
         ReactorHandler handler = prepare(reactable);
         if (handler != null) {
-            register(handler);
+            commit(state -> state.register(handler));
         }
     }
 
-    private void register(ReactorHandler handler) {
-        logger.info("Registering a new handler: {}", handler);
-        handlers.put(handler.reactable(), handler);
-
-        // Associate the handler to the entrypoints
-        List<HandlerEntrypoint> reactableEntrypoints = handler.reactable()
-                .entrypoints().stream().map(new Function<Entrypoint, HandlerEntrypoint>() {
-                    @Override
-                    public HandlerEntrypoint apply(Entrypoint entrypoint) {
-                        return new HandlerEntrypoint() {
-                            @Override
-                            public ReactorHandler target() {
-                                return handler;
-                            }
-
-                            @Override
-                            public String path() {
-                                return entrypoint.path();
-                            }
-
-                            @Override
-                            public int priority() {
-                                return entrypoint.priority();
-                            }
-
-                            @Override
-                            public boolean accept(Request request) {
-                                return entrypoint.accept(request);
-                            }
-                        };
-                    }
-                }).collect(Collectors.toList());
-
-        entrypointByReactable.put(handler.reactable(), reactableEntrypoints);
-        registeredEntrypoints.addAll(reactableEntrypoints);
-        registeredEntrypoints.sort(Comparator.comparingInt(Entrypoint::priority).reversed());
-    }
-
     private ReactorHandler prepare(Reactable reactable) {
         logger.debug("Preparing a new handler for: {}", reactable);
         ReactorHandler handler = handlerFactoryManager.create(reactable);
@@ -109,69 +83,204 @@ public class DefaultReactorHandlerRegistry implements ReactorHandlerRegistry {
     public void update(Reactable reactable) {
         logger.info("Updating handler for: {}", reactable);
 
-        ReactorHandler currentHandler = handlers.get(reactable);
+        ReactorHandler newHandler = prepare(reactable);
 
-        if (currentHandler != null) {
-            logger.info("Handler is already deployed: {}", currentHandler);
+        // Do not update handler if the new is not correctly initialized
+        if (newHandler != null) {
+            // The current handler is only known once the previous mutations have been applied
+            commit(state -> {
+                state.unregister(reactable);
+                state.register(newHandler);
+            });
+        }
+    }
 
-            ReactorHandler newHandler = prepare(reactable);
+    @Override
+    public void remove(Reactable reactable) {
+        commit(state -> state.unregister(reactable));
+    }
 
-            // Do not update handler if the new is not correctly initialized
-            if (newHandler != null) {
-                ReactorHandler previousHandler = handlers.remove(reactable);
-                List<HandlerEntrypoint> previousEntrypoints = entrypointByReactable.remove(previousHandler.reactable());
-                registeredEntrypoints.removeAll(previousEntrypoints);
+    @Override
+    public void clear() {
+        commit(State::clear);
+    }
 
-                register(newHandler);
+    @Override
+    public void batch(Runnable changes) {
+        batches.incrementAndGet();
+        try {
+            changes.run();
+        } finally {
+            if (batches.decrementAndGet() == 0) {
+                publish();
+            }
+        }
+    }
 
-                try {
-                    logger.info("Stopping previous handler for: {}", reactable);
-                    previousHandler.stop();
-                } catch (Exception ex) {
-                    logger.error("Unable to stop handler", ex);
-                }
+    /**
+     * Queue the mutation and publish a new snapshot, unless a batch is running: the mutation is then published at the
+     * end of the batch.
+     */
+    private void commit(Mutation mutation) {
+        mutations.add(mutation);
+
+        if (batches.get() == 0) {
+            publish();
+        }
+    }
+
+    /**
+     * Apply the pending mutations, unless they have already been applied by a concurrent writer as part of its own
+     * batch.
+     */
+    private void publish() {
+        List<ReactorHandler> unregisteredHandlers;
+
+        synchronized (writeLock) {
+            if (mutations.isEmpty()) {
+                return;
             }
-        } else {
-            create(reactable);
+
+            State state = new State(snapshot);
+            int batchSize = 0;
+
+            Mutation pending;
+            while ((pending = mutations.poll()) != null) {
+                pending.apply(state);
+                batchSize++;
+            }
+
+            snapshot = state.build();
+            unregisteredHandlers = state.unregisteredHandlers;
+
+            logger.debug("{} handler change(s) applied, {} entrypoint(s) registered", batchSize,
+                    snapshot.entrypoints.size());
         }
+
+        // Stop the handlers only once they are no more reachable
+        unregisteredHandlers.forEach(this::stop);
     }
 
-    @Override
-    public void remove(Reactable reactable) {
-        ReactorHandler handler = handlers.get(reactable);
+    private void stop(ReactorHandler handler) {
+        try {
+            logger.info("Stopping previous handler: {}", handler);
+            handler.stop();
+            logger.info("Handler has been unregistered from the proxy");
+        } catch (Exception ex) {
+            logger.error("Unable to un-register handler", ex);
+        }
+    }
 
-        remove(reactable, handler, true);
+    @Override
+    public List<HandlerEntrypoint> getEntrypoints() {
+        return snapshot.entrypoints;
     }
 
     @Override
-    public void clear() {
-        Iterator<Map.Entry<Reactable, ReactorHandler>> reactableIte = handlers.entrySet().iterator();
-        while(reactableIte.hasNext()) {
-            remove(reactableIte.next().getKey(), reactableIte.next().getValue(), false);
-            reactableIte.remove();
-        }
+    public HandlerEntrypoint resolve(Request request) {
+        return snapshot.tree.resolve(request);
     }
 
-    private void remove(Reactable reactable, ReactorHandler handler, boolean remove) {
-        if (handler != null) {
-            try {
-                handler.stop();
-                List<HandlerEntrypoint> previousEntrypoints = entrypointByReactable.remove(handler.reactable());
-                registeredEntrypoints.removeAll(previousEntrypoints);
-                registeredEntrypoints.sort(Comparator.comparingInt(Entrypoint::priority).reversed());
+    @FunctionalInterface
+    private interface Mutation {
+
+        void apply(State state);
+    }
+
+    /**
+     * Mutable state, created from the current snapshot by a writer holding the write lock.
+     */
+    private class State {
+
+        private final Map<Reactable, ReactorHandler> handlers;
+
+        private final Map<Reactable, List<HandlerEntrypoint>> entrypointByReactable;
+
+        private final List<HandlerEntrypoint> entrypoints;
+
+        private final Set<HandlerEntrypoint> removedEntrypoints = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        private final List<ReactorHandler> unregisteredHandlers = new ArrayList<>();
+
+        State(Snapshot snapshot) {
+            this.handlers = new HashMap<>(snapshot.handlers);
+            this.entrypointByReactable = new HashMap<>(snapshot.entrypointByReactable);
+            this.entrypoints = new ArrayList<>(snapshot.entrypoints);
+        }
+
+        void register(ReactorHandler handler) {
+            logger.info("Registering a new handler: {}", handler);
+            handlers.remove(handler.reactable());
+            handlers.put(handler.reactable(), handler);
+
+            // Associate the handler to the entrypoints
+            List<HandlerEntrypoint> reactableEntrypoints = handler.reactable()
+                    .entrypoints().stream()
+                    .map(entrypoint -> new DefaultHandlerEntrypoint(handler, entrypoint))
+                    .collect(Collectors.toList());
+
+            entrypointByReactable.put(handler.reactable(), reactableEntrypoints);
+            entrypoints.addAll(reactableEntrypoints);
+        }
+
+        void unregister(Reactable reactable) {
+            ReactorHandler handler = handlers.remove(reactable);
 
-                if (remove) {
-                    handlers.remove(reactable);
+            if (handler != null) {
+                List<HandlerEntrypoint> previousEntrypoints = entrypointByReactable.remove(handler.reactable());
+                if (previousEntrypoints != null) {
+                    removedEntrypoints.addAll(previousEntrypoints);
                 }
-                logger.info("Handler has been unregistered from the proxy");
-            } catch (Exception e) {
-                logger.error("Unable to un-register handler", e);
+
+                unregisteredHandlers.add(handler);
             }
         }
+
+        void clear() {
+            unregisteredHandlers.addAll(handlers.values());
+            removedEntrypoints.addAll(entrypoints);
+            handlers.clear();
+            entrypointByReactable.clear();
+        }
+
+        Snapshot build() {
+            if (!removedEntrypoints.isEmpty()) {
+                entrypoints.removeIf(removedEntrypoints::contains);
+            }
+
+            // Sort is stable: entrypoints with the same priority are kept in their registration order
+            entrypoints.sort(Comparator.comparingInt(Entrypoint::priority).reversed());
+
+            return new Snapshot(handlers, entrypointByReactable, entrypoints);
+        }
     }
 
-    @Override
-    public List<HandlerEntrypoint> getEntrypoints() {
-        return registeredEntrypoints;
+    private static class Snapshot {
+
+        private static final Snapshot EMPTY = new Snapshot(
+                Collections.emptyMap(), Collections.emptyMap(), Collections.emptyList());
+
+        private final Map<Reactable, ReactorHandler> handlers;
+
+        private final Map<Reactable, List<HandlerEntrypoint>> entrypointByReactable;
+
+        /**
+         * Registered entrypoints, ordered by priority.
+         */
+        private final List<HandlerEntrypoint> entrypoints;
+
+        /**
+         * Index of the entrypoints, built by the writer so that requests are resolved without building anything.
+         */
+        private final EntrypointRadixTree tree;
+
+        Snapshot(Map<Reactable, ReactorHandler> handlers,
+                 Map<Reactable, List<HandlerEntrypoint>> entrypointByReactable,
+                 List<HandlerEntrypoint> entrypoints) {
+            this.handlers = Collections.unmodifiableMap(handlers);
+            this.entrypointByReactable = Collections.unmodifiableMap(entrypointByReactable);
+            this.entrypoints = Collections.unmodifiableList(entrypoints);
+            this.tree = new EntrypointRadixTree(this.entrypoints);
+        }
     }
 }
@@ -0,0 +1,228 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.reactor.handler.impl;
+
+import io.gravitee.common.http.HttpHeaders;
+import io.gravitee.gateway.api.Request;
+import io.gravitee.gateway.reactor.handler.Entrypoint;
+import io.gravitee.gateway.reactor.handler.HandlerEntrypoint;
+import io.gravitee.gateway.reactor.handler.VirtualHost;
+
+import java.util.*;
+
+/**
+ * An immutable index of the registered entrypoints, used to resolve the entrypoint of an incoming request without
+ * testing each of them.
+ *
+ * Entrypoints are partitioned by host (lower-cased), entrypoints without host being part of a wildcard bucket. Each
+ * bucket is a radix tree over the context paths, so that a lookup is done in O(path length).
+ *
+ * The tree is built from the entrypoints, ordered by priority, as provided by the registry: the rank of an entrypoint
+ * in this list is kept so that the selected entrypoint is always the one a sequential scan of the list would have
+ * selected. Entrypoints which are not {@link VirtualHost} can not be indexed and are still tested sequentially.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+class EntrypointRadixTree {
+
+    private final Map<String, Node> hosts = new HashMap<>();
+
+    private final Node wildcard = new Node("");
+
+    private final List<Match> unindexed = new ArrayList<>();
+
+    EntrypointRadixTree(List<HandlerEntrypoint> entrypoints) {
+        int rank = 0;
+        for (HandlerEntrypoint entrypoint : entrypoints) {
+            Match match = new Match(entrypoint, rank++);
+            Entrypoint delegate = (entrypoint instanceof DefaultHandlerEntrypoint) ?
+                    ((DefaultHandlerEntrypoint) entrypoint).entrypoint() : null;
+
+            if (delegate instanceof VirtualHost) {
+                VirtualHost virtualHost = (VirtualHost) delegate;
+                Node root = (virtualHost.host() == null) ? wildcard :
+                        hosts.computeIfAbsent(virtualHost.host().toLowerCase(Locale.ROOT), host -> new Node(""));
+
+                root.insert(virtualHost.path(), match, true);
+                root.insert(virtualHost.pathWithoutTrailingSlash(), match, false);
+            } else {
+                unindexed.add(match);
+            }
+        }
+    }
+
+    HandlerEntrypoint resolve(Request request) {
+        String path = request.path();
+        Match best = null;
+
+        if (!hosts.isEmpty()) {
+            String host = request.headers().getFirst(HttpHeaders.HOST);
+            if (host != null) {
+                Node root = hosts.get(host.toLowerCase(Locale.ROOT));
+                if (root != null) {
+                    best = root.lookup(path, null);
+                }
+            }
+        }
+
+        best = wildcard.lookup(path, best);
+
+        // Entrypoints which have not been indexed are only considered if they are ranked before the current match
+        for (Match match : unindexed) {
+            if (best != null && match.rank > best.rank) {
+                break;
+            }
+
+            if (match.entrypoint.accept(request)) {
+                best = match;
+                break;
+            }
+        }
+
+        return (best != null) ? best.entrypoint : null;
+    }
+
+    private static class Match {
+
+        private final HandlerEntrypoint entrypoint;
+
+        private final int rank;
+
+        Match(HandlerEntrypoint entrypoint, int rank) {
+            this.entrypoint = entrypoint;
+            this.rank = rank;
+        }
+    }
+
+    private static class Node {
+
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private String label;
+
+        private Node[] children = NO_CHILDREN;
+
+        /**
+         * Best ranked entrypoint accepting any path starting with the key of this node.
+         */
+        private Match prefix;
+
+        /**
+         * Best ranked entrypoint accepting a path strictly equals to the key of this node.
+         */
+        private Match exact;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        void insert(String key, Match match, boolean prefixMatch) {
+            Node node = this;
+            int pos = 0;
+
+            while (pos < key.length()) {
+                Node child = node.child(key.charAt(pos));
+
+                if (child == null) {
+                    child = new Node(key.substring(pos));
+                    node.addChild(child);
+                    pos = key.length();
+                } else {
+                    int common = commonPrefixLength(child.label, key, pos);
+                    if (common < child.label.length()) {
+                        child = node.split(child, common);
+                    }
+                    pos += common;
+                }
+
+                node = child;
+            }
+
+            // Entrypoints are inserted by rank: keep the first one
+            if (prefixMatch) {
+                if (node.prefix == null) {
+                    node.prefix = match;
+                }
+            } else if (node.exact == null) {
+                node.exact = match;
+            }
+        }
+
+        Match lookup(String path, Match best) {
+            Node node = this;
+            int pos = 0;
+
+            while (true) {
+                best = best(best, node.prefix);
+
+                if (pos == path.length()) {
+                    return best(best, node.exact);
+                }
+
+                Node child = node.child(path.charAt(pos));
+                if (child == null || !path.regionMatches(pos, child.label, 0, child.label.length())) {
+                    return best;
+                }
+
+                pos += child.label.length();
+                node = child;
+            }
+        }
+
+        private Node child(char c) {
+            for (Node child : children) {
+                if (child.label.charAt(0) == c) {
+                    return child;
+                }
+            }
+
+            return null;
+        }
+
+        private void addChild(Node child) {
+            children = Arrays.copyOf(children, children.length + 1);
+            children[children.length - 1] = child;
+        }
+
+        private Node split(Node child, int length) {
+            Node intermediate = new Node(child.label.substring(0, length));
+            child.label = child.label.substring(length);
+            intermediate.children = new Node[]{child};
+
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] == child) {
+                    children[i] = intermediate;
+                }
+            }
+
+            return intermediate;
+        }
+
+        private static int commonPrefixLength(String label, String key, int offset) {
+            int max = Math.min(label.length(), key.length() - offset);
+            int i = 0;
+            while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+                i++;
+            }
+            return i;
+        }
+
+        private static Match best(Match current, Match candidate) {
+            return (candidate != null && (current == null || candidate.rank < current.rank)) ? candidate : current;
+        }
+    }
+}
@@ -22,6 +22,7 @@ import io.gravitee.gateway.reactor.handler.impl.DefaultEntrypointResolver;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.Answers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -39,7 +40,7 @@ import static org.mockito.Mockito.*;
  */
 public class EntrypointResolverTest {
 
-    @Mock
+    @Mock(answer = Answers.CALLS_REAL_METHODS)
     private ReactorHandlerRegistry reactorHandlerRegistry;
 
     @InjectMocks
@@ -15,7 +15,11 @@
  */
 package io.gravitee.gateway.reactor.handler;
 
+import io.gravitee.common.http.HttpHeaders;
+import io.gravitee.gateway.api.ExecutionContext;
+import io.gravitee.gateway.api.Request;
 import io.gravitee.gateway.reactor.Reactable;
+import io.gravitee.gateway.reactor.handler.impl.DefaultEntrypointResolver;
 import io.gravitee.gateway.reactor.handler.impl.DefaultReactorHandlerRegistry;
 import org.junit.Assert;
 import org.junit.Before;
@@ -24,12 +28,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.Set;
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 public class ReactorHandlerRegistryTest {
 
@@ -175,6 +182,124 @@ public class ReactorHandlerRegistryTest {
         Assert.assertEquals(0, reactorHandlerRegistry.getEntrypoints().size());
     }
 
+    @Test
+    public void shouldPublishEntrypoints_endOfBatch() {
+        Reactable reactable = createReactable("reactable1", "/products");
+        ReactorHandler handler = createReactorHandler(reactable);
+        when(reactorHandlerFactoryManager.create(reactable)).thenReturn(handler);
+
+        Reactable reactable2 = createReactable("reactable2", "/stores");
+        ReactorHandler handler2 = createReactorHandler(reactable2);
+        when(reactorHandlerFactoryManager.create(reactable2)).thenReturn(handler2);
+
+        reactorHandlerRegistry.batch(() -> {
+            reactorHandlerRegistry.create(reactable);
+            reactorHandlerRegistry.batch(() -> reactorHandlerRegistry.create(reactable2));
+
+            Assert.assertTrue(reactorHandlerRegistry.getEntrypoints().isEmpty());
+        });
+
+        Assert.assertEquals(2, reactorHandlerRegistry.getEntrypoints().size());
+    }
+
+    @Test
+    public void shouldResolveEntrypoints_concurrentDeployments() throws Exception {
+        final int writers = 4;
+        final int readers = 4;
+        final int reactablesByWriter = 50;
+
+        // A catch-all entrypoint ensures that every request must always be resolved
+        Reactable root = createReactable("root", "/");
+        ReactorHandler rootHandler = createReactorHandler(root);
+        when(reactorHandlerFactoryManager.create(root)).thenReturn(rootHandler);
+        reactorHandlerRegistry.create(root);
+
+        List<List<Reactable>> reactablesByWriters = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            List<Reactable> reactables = new ArrayList<>();
+            for (int i = 0; i < reactablesByWriter; i++) {
+                Reactable reactable = createReactable("reactable-" + w + "-" + i, "/api-" + w + "-" + i);
+                ReactorHandler handler = createReactorHandler(reactable);
+                ReactorHandler updatedHandler = createReactorHandler(reactable);
+                when(reactorHandlerFactoryManager.create(reactable)).thenReturn(handler, updatedHandler);
+                reactables.add(reactable);
+            }
+            reactablesByWriters.add(reactables);
+        }
+
+        DefaultEntrypointResolver resolver = new DefaultEntrypointResolver();
+        Field registryField = DefaultEntrypointResolver.class.getDeclaredField("handlerRegistry");
+        registryField.setAccessible(true);
+        registryField.set(resolver, reactorHandlerRegistry);
+
+        ExecutorService executor = Executors.newFixedThreadPool(writers + readers);
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean deploying = new AtomicBoolean(true);
+        AtomicLong resolutions = new AtomicLong();
+
+        List<Future<?>> deployments = new ArrayList<>();
+        for (List<Reactable> reactables : reactablesByWriters) {
+            deployments.add(executor.submit(() -> {
+                start.await();
+                reactables.forEach(reactorHandlerRegistry::create);
+                reactables.forEach(reactorHandlerRegistry::update);
+                reactables.subList(0, reactablesByWriter / 2).forEach(reactorHandlerRegistry::remove);
+                return null;
+            }));
+        }
+
+        List<Future<?>> eventLoops = new ArrayList<>();
+        for (int r = 0; r < readers; r++) {
+            final int reader = r;
+            eventLoops.add(executor.submit(() -> {
+                // Stub-only mocks: invocations are not recorded
+                String[] path = new String[1];
+                Request request = mock(Request.class, withSettings().stubOnly());
+                when(request.headers()).thenReturn(new HttpHeaders());
+                when(request.path()).thenAnswer(invocation -> path[0]);
+                ExecutionContext context = mock(ExecutionContext.class, withSettings().stubOnly());
+                when(context.request()).thenReturn(request);
+
+                Random random = new Random(reader);
+                start.await();
+                while (deploying.get()) {
+                    try {
+                        path[0] = "/api-" + random.nextInt(writers) + "-" + random.nextInt(reactablesByWriter) + "/items";
+                        Assert.assertNotNull(resolver.resolve(context));
+
+                        int previousPriority = Integer.MAX_VALUE;
+                        for (HandlerEntrypoint entrypoint : reactorHandlerRegistry.getEntrypoints()) {
+                            Assert.assertTrue(entrypoint.priority() <= previousPriority);
+                            previousPriority = entrypoint.priority();
+                        }
+
+                        resolutions.incrementAndGet();
+                    } catch (Throwable t) {
+                        errors.add(t);
+                        return null;
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> deployment : deployments) {
+            deployment.get(1, TimeUnit.MINUTES);
+        }
+        deploying.set(false);
+        for (Future<?> eventLoop : eventLoops) {
+            eventLoop.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        Assert.assertTrue(errors.toString(), errors.isEmpty());
+        Assert.assertTrue(resolutions.get() > 0);
+        Assert.assertEquals(1 + writers * (reactablesByWriter - reactablesByWriter / 2),
+                reactorHandlerRegistry.getEntrypoints().size());
+    }
+
     private DummyReactable createReactable(String id, VirtualHost ... virtualHosts) {
         return new DummyReactable(id, Arrays.asList(virtualHosts));
     }
@@ -0,0 +1,196 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.reactor.handler.impl;
+
+import io.gravitee.common.http.HttpHeaders;
+import io.gravitee.gateway.api.Request;
+import io.gravitee.gateway.reactor.handler.Entrypoint;
+import io.gravitee.gateway.reactor.handler.HandlerEntrypoint;
+import io.gravitee.gateway.reactor.handler.ReactorHandler;
+import io.gravitee.gateway.reactor.handler.VirtualHost;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public class EntrypointRadixTreeTest {
+
+    private Request request;
+
+    private HttpHeaders httpHeaders;
+
+    private String path;
+
+    @Before
+    public void setUp() {
+        // Requests are resolved a large amount of times: do not record invocations
+        request = mock(Request.class, withSettings().stubOnly());
+        httpHeaders = new HttpHeaders();
+        when(request.headers()).thenReturn(httpHeaders);
+        when(request.path()).thenAnswer(invocation -> path);
+    }
+
+    @Test
+    public void shouldResolveLongestContextPath() {
+        List<HandlerEntrypoint> entrypoints = sort(
+                entrypoint(null, "/"),
+                entrypoint(null, "/products"),
+                entrypoint(null, "/products/v1"));
+
+        EntrypointRadixTree tree = new EntrypointRadixTree(entrypoints);
+
+        Assert.assertEquals("/products/v1/", resolve(tree, null, "/products/v1/items").path());
+        Assert.assertEquals("/products/v1/", resolve(tree, null, "/products/v1").path());
+        Assert.assertEquals("/products/", resolve(tree, null, "/products/v2").path());
+        Assert.assertEquals("/", resolve(tree, null, "/productss").path());
+    }
+
+    @Test
+    public void shouldNotResolve_unknownContextPath() {
+        EntrypointRadixTree tree = new EntrypointRadixTree(sort(
+                entrypoint(null, "/teams"),
+                entrypoint(null, "/teams2")));
+
+        Assert.assertNull(resolve(tree, null, "/team"));
+        Assert.assertNull(resolve(tree, null, "/teamss/"));
+        Assert.assertNull(resolve(tree, null, ""));
+    }
+
+    @Test
+    public void shouldPreferVirtualHost() {
+        HandlerEntrypoint withoutHost = entrypoint(null, "/products/v1");
+        HandlerEntrypoint withHost = entrypoint("api.gravitee.io", "/");
+
+        EntrypointRadixTree tree = new EntrypointRadixTree(sort(withoutHost, withHost));
+
+        Assert.assertSame(withHost, resolve(tree, "API.Gravitee.io", "/products/v1"));
+        Assert.assertSame(withoutHost, resolve(tree, "other.gravitee.io", "/products/v1"));
+        Assert.assertSame(withoutHost, resolve(tree, null, "/products/v1"));
+        Assert.assertNull(resolve(tree, null, "/products"));
+    }
+
+    @Test
+    public void shouldKeepRegistrationOrder_duplicateContextPath() {
+        HandlerEntrypoint first = entrypoint(null, "/products");
+        HandlerEntrypoint second = entrypoint(null, "/products");
+
+        EntrypointRadixTree tree = new EntrypointRadixTree(sort(first, second));
+
+        Assert.assertSame(first, resolve(tree, null, "/products/v1"));
+    }
+
+    @Test
+    public void shouldResolveNotIndexedEntrypoint() {
+        HandlerEntrypoint indexed = entrypoint(null, "/products");
+        HandlerEntrypoint custom = new DefaultHandlerEntrypoint(mock(ReactorHandler.class), new Entrypoint() {
+            @Override
+            public String path() {
+                return "/";
+            }
+
+            @Override
+            public int priority() {
+                return 100;
+            }
+
+            @Override
+            public boolean accept(Request request) {
+                return request.path().endsWith("/custom");
+            }
+        });
+
+        EntrypointRadixTree tree = new EntrypointRadixTree(sort(indexed, custom));
+
+        Assert.assertSame(custom, resolve(tree, null, "/products/custom"));
+        Assert.assertSame(indexed, resolve(tree, null, "/products/items"));
+    }
+
+    @Test
+    public void shouldResolveAsSequentialScan() {
+        Random random = new Random(42);
+        String[] hosts = {null, null, "api.gravitee.io", "API.company.com", "company.com"};
+        String[] segments = {"products", "product", "v1", "v2", "items", "teams", "a", ""};
+
+        List<HandlerEntrypoint> entrypoints = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            entrypoints.add(entrypoint(hosts[random.nextInt(hosts.length)], randomPath(random, segments)));
+        }
+        entrypoints = sort(entrypoints.toArray(new HandlerEntrypoint[0]));
+
+        EntrypointRadixTree tree = new EntrypointRadixTree(entrypoints);
+
+        for (int i = 0; i < 1000; i++) {
+            String host = hosts[random.nextInt(hosts.length)];
+            String path = randomPath(random, segments);
+
+            if (host != null && random.nextBoolean()) {
+                host = host.toUpperCase();
+            }
+
+            HandlerEntrypoint expected = null;
+            setRequest(host, path);
+            for (HandlerEntrypoint entrypoint : entrypoints) {
+                if (entrypoint.accept(request)) {
+                    expected = entrypoint;
+                    break;
+                }
+            }
+
+            Assert.assertSame("host[" + host + "] - path[" + path + "]", expected, tree.resolve(request));
+        }
+    }
+
+    private String randomPath(Random random, String[] segments) {
+        StringBuilder path = new StringBuilder();
+        int depth = random.nextInt(4);
+        for (int j = 0; j <= depth; j++) {
+            path.append('/').append(segments[random.nextInt(segments.length)]);
+        }
+        return path.toString();
+    }
+
+    private HandlerEntrypoint resolve(EntrypointRadixTree tree, String host, String path) {
+        setRequest(host, path);
+        return tree.resolve(request);
+    }
+
+    private void setRequest(String host, String path) {
+        httpHeaders.clear();
+        if (host != null) {
+            httpHeaders.set(HttpHeaders.HOST, host);
+        }
+        this.path = path;
+    }
+
+    private static HandlerEntrypoint entrypoint(String host, String path) {
+        return new DefaultHandlerEntrypoint(null, new VirtualHost(host, path));
+    }
+
+    private static List<HandlerEntrypoint> sort(HandlerEntrypoint... entrypoints) {
+        List<HandlerEntrypoint> sorted = new ArrayList<>(Arrays.asList(entrypoints));
+        sorted.sort(Comparator.comparingInt(Entrypoint::priority).reversed());
+        return sorted;
+    }
+}
@@ -18,9 +18,11 @@ package io.gravitee.gateway.security.apikey;
 import io.gravitee.common.http.GraviteeHttpHeader;
 import io.gravitee.gateway.api.ExecutionContext;
 import io.gravitee.gateway.api.Request;
+import io.gravitee.gateway.api.handler.Handler;
 import io.gravitee.gateway.security.core.AuthenticationContext;
 import io.gravitee.gateway.security.core.AuthenticationHandler;
 import io.gravitee.gateway.security.core.AuthenticationPolicy;
+import io.gravitee.gateway.security.core.LookupExecutor;
 import io.gravitee.gateway.security.core.PluginAuthenticationPolicy;
 import io.gravitee.reporter.api.http.SecurityType;
 import io.gravitee.repository.exceptions.TechnicalException;
@@ -65,6 +67,9 @@ public class ApiKeyAuthenticationHandler implements AuthenticationHandler, Initi
     @Autowired
     private ApplicationContext applicationContext;
 
+    @Autowired(required = false)
+    private LookupExecutor lookupExecutor;
+
     private ApiKeyRepository apiKeyRepository;
 
     @Override
@@ -85,12 +90,7 @@ public class ApiKeyAuthenticationHandler implements AuthenticationHandler, Initi
             // Get the api-key from the repository if not present in the context
             if (context.get(APIKEY_CONTEXT_ATTRIBUTE) == null) {
                 try {
-                    final Optional<ApiKey> optApiKey = apiKeyRepository.findById(apiKey);
-                    if (optApiKey.isPresent()) {
-                        context.request().metrics().setSecurityType(API_KEY);
-                        context.request().metrics().setSecurityToken(apiKey);
-                    }
-                    context.set(APIKEY_CONTEXT_ATTRIBUTE, optApiKey);
+                    onApiKey(context, apiKey, apiKeyRepository.findById(apiKey));
                 } catch (TechnicalException e) {
                     // Any API key plan can be selected, the request will be rejected by the API Key policy whatsoever
                 }
@@ -100,6 +100,35 @@ public class ApiKeyAuthenticationHandler implements AuthenticationHandler, Initi
         return true;
     }
 
+    @Override
+    public void canHandle(AuthenticationContext context, Handler<Boolean> handler) {
+        final String apiKey = readApiKey(context.request());
+
+        if (apiKey == null) {
+            handler.handle(false);
+        } else if (apiKeyRepository == null || context.get(APIKEY_CONTEXT_ATTRIBUTE) != null) {
+            handler.handle(true);
+        } else {
+            // When the api-key is not in cache, the repository is called out of the event-loop
+            LookupExecutor.execute(lookupExecutor, apiKeyRepository, apiKey, () -> apiKeyRepository.findById(apiKey), result -> {
+                if (result.succeeded()) {
+                    onApiKey(context, apiKey, result.result());
+                }
+
+                // On failure, any API key plan can be selected, the request will be rejected by the API Key policy whatsoever
+                handler.handle(true);
+            });
+        }
+    }
+
+    private void onApiKey(AuthenticationContext context, String apiKey, Optional<ApiKey> optApiKey) {
+        if (optApiKey.isPresent()) {
+            context.request().metrics().setSecurityType(API_KEY);
+            context.request().metrics().setSecurityToken(apiKey);
+        }
+        context.set(APIKEY_CONTEXT_ATTRIBUTE, optApiKey);
+    }
+
     @Override
     public String name() {
         return "api_key";
@@ -0,0 +1,190 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.security.apikey;
+
+import io.gravitee.common.http.HttpHeaders;
+import io.gravitee.gateway.api.Request;
+import io.gravitee.gateway.security.core.AuthenticationContext;
+import io.gravitee.gateway.security.core.CachedLookup;
+import io.gravitee.gateway.security.core.LookupExecutor;
+import io.gravitee.gateway.security.core.SimpleAuthenticationContext;
+import io.gravitee.reporter.api.http.Metrics;
+import io.gravitee.repository.management.api.ApiKeyRepository;
+import io.gravitee.repository.management.model.ApiKey;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks that a slow api-key repository does not delay the other requests handled by the same event-loop, and that the
+ * api-keys in cache are served right away.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ApiKeyAuthenticationHandlerLookupTest {
+
+    private static final long LOOKUP_DELAY = 500;
+    private static final String API_KEY = "my-api-key";
+
+    private final Vertx vertx = Vertx.vertx();
+
+    @Spy
+    private LookupExecutor lookupExecutor = new LookupExecutor(vertx, 2);
+
+    @Mock(extraInterfaces = CachedLookup.class)
+    private ApiKeyRepository apiKeyRepository;
+
+    @Mock
+    private Request request;
+
+    @InjectMocks
+    private ApiKeyAuthenticationHandler authenticationHandler = new ApiKeyAuthenticationHandler();
+
+    @Before
+    public void init() throws Exception {
+        lookupExecutor.afterPropertiesSet();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Gravitee-Api-Key", API_KEY);
+        when(request.headers()).thenReturn(headers);
+        when(request.metrics()).thenReturn(Metrics.on(System.currentTimeMillis()).build());
+
+        // A deliberately slow repository, as a cache miss falling through to a remote database
+        lenient().when(apiKeyRepository.findById(API_KEY)).thenAnswer(invocation -> {
+            Thread.sleep(LOOKUP_DELAY);
+            ApiKey apiKey = new ApiKey();
+            apiKey.setKey(API_KEY);
+            return Optional.of(apiKey);
+        });
+    }
+
+    @After
+    public void close() throws Exception {
+        lookupExecutor.destroy();
+        vertx.close();
+    }
+
+    @Test
+    public void shouldNotDelayOtherRequests() throws InterruptedException {
+        final Context context = vertx.getOrCreateContext();
+        final AuthenticationContext authenticationContext = new SimpleAuthenticationContext(request);
+
+        final AtomicReference<Thread> eventLoop = new AtomicReference<>();
+        final AtomicReference<Thread> callbackThread = new AtomicReference<>();
+        final AtomicBoolean canHandle = new AtomicBoolean();
+        final AtomicLong otherRequestDelay = new AtomicLong(-1);
+        final CountDownLatch latch = new CountDownLatch(2);
+
+        context.runOnContext(v -> {
+            eventLoop.set(Thread.currentThread());
+
+            authenticationHandler.canHandle(authenticationContext, handle -> {
+                callbackThread.set(Thread.currentThread());
+                canHandle.set(handle);
+                latch.countDown();
+            });
+
+            // Another request, handled by the same event-loop while the api-key is looked up
+            final long submitted = System.nanoTime();
+            context.runOnContext(v2 -> {
+                otherRequestDelay.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - submitted));
+                latch.countDown();
+            });
+        });
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(canHandle.get());
+        assertTrue(((Optional<ApiKey>) authenticationContext.get("apikey")).isPresent());
+
+        // The lookup result is given back on the event-loop
+        assertSame(eventLoop.get(), callbackThread.get());
+
+        // The other request has not waited for the lookup
+        assertTrue("Other request delayed by " + otherRequestDelay.get() + "ms",
+                otherRequestDelay.get() < LOOKUP_DELAY / 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldHandleCachedApiKeyOnEventLoop() throws Exception {
+        ApiKey apiKey = new ApiKey();
+        apiKey.setKey(API_KEY);
+        when(((CachedLookup<String, Optional<ApiKey>>) apiKeyRepository).getIfCached(API_KEY))
+                .thenReturn(Optional.of(Optional.of(apiKey)));
+
+        final Context context = vertx.getOrCreateContext();
+        final AuthenticationContext authenticationContext = new SimpleAuthenticationContext(request);
+        final AtomicBoolean handledSynchronously = new AtomicBoolean();
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        context.runOnContext(v -> {
+            final AtomicBoolean handled = new AtomicBoolean();
+            authenticationHandler.canHandle(authenticationContext, handle -> handled.set(handle));
+
+            // The handler has already been called, on the event-loop, without any worker thread involved
+            handledSynchronously.set(handled.get());
+            latch.countDown();
+        });
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(handledSynchronously.get());
+        assertSame(apiKey, ((Optional<ApiKey>) authenticationContext.get("apikey")).get());
+        verify(lookupExecutor, never()).execute(any(), any());
+        verify(apiKeyRepository, never()).findById(any());
+    }
+
+    @Test
+    public void shouldDelayOtherRequests_withoutLookupExecutor() throws Exception {
+        lookupExecutor.destroy();
+
+        final Context context = vertx.getOrCreateContext();
+        final AtomicLong otherRequestDelay = new AtomicLong(-1);
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        context.runOnContext(v -> {
+            final long submitted = System.nanoTime();
+            authenticationHandler.canHandle(new SimpleAuthenticationContext(request), handle -> {});
+
+            context.runOnContext(v2 -> {
+                otherRequestDelay.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - submitted));
+                latch.countDown();
+            });
+        });
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(otherRequestDelay.get() >= LOOKUP_DELAY);
+    }
+}
@@ -16,6 +16,7 @@
 package io.gravitee.gateway.security.core;
 
 import io.gravitee.gateway.api.ExecutionContext;
+import io.gravitee.gateway.api.handler.Handler;
 
 import java.util.List;
 
@@ -47,6 +48,21 @@ public interface AuthenticationHandler {
      */
     boolean canHandle(AuthenticationContext context);
 
+    /**
+     * Asynchronous variant of {@link #canHandle(AuthenticationContext)}, used when selecting the authentication
+     * handler of an incoming HTTP request.
+     *
+     * Handlers relying on a potentially blocking lookup must override this method so that the lookup is not done on
+     * the event-loop (see {@link LookupExecutor}). The handler must be called back on the context of the caller.
+     *
+     * @param context context data upon which incoming HTTP request can be handled.
+     * @param handler The handler called with the flag indicating that the current context can be handled by the
+     *                authentication system.
+     */
+    default void canHandle(AuthenticationContext context, Handler<Boolean> handler) {
+        handler.handle(canHandle(context));
+    }
+
     /**
      * Policies which will be run for each request after authentication method selection
      * The "Security policy chain" may be composed of
@@ -16,6 +16,7 @@
 package io.gravitee.gateway.security.core;
 
 import io.gravitee.gateway.api.Request;
+import io.gravitee.gateway.api.handler.Handler;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -30,4 +31,14 @@ public interface AuthenticationHandlerSelector {
      * @return The authentication handler to apply to the incoming request.
      */
     AuthenticationHandler select(Request request);
+
+    /**
+     * Get asynchronously an {@link AuthenticationHandler} from the incoming HTTP request.
+     * @param request Incoming HTTP request.
+     * @param handler The handler called with the authentication handler to apply to the incoming request, or
+     *                <code>null</code> if none can handle it.
+     */
+    default void select(Request request, Handler<AuthenticationHandler> handler) {
+        handler.handle(select(request));
+    }
 }
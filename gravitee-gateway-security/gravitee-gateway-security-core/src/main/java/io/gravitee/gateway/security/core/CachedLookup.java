@@ -0,0 +1,38 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.security.core;
+
+import java.util.Optional;
+
+/**
+ * Implemented by the repositories keeping some of their lookups in memory: these lookups are answered right away,
+ * without going through the {@link LookupExecutor}.
+ *
+ * @param <K> The type of the lookup key.
+ * @param <V> The type of the lookup result.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public interface CachedLookup<K, V> {
+
+    /**
+     * Looks up the given key in memory only, without ever blocking.
+     *
+     * @return The result of the lookup, or an empty optional if the lookup has to be done by the repository itself.
+     */
+    Optional<V> getIfCached(K key);
+}
@@ -16,8 +16,11 @@
 package io.gravitee.gateway.security.core;
 
 import io.gravitee.gateway.api.Request;
+import io.gravitee.gateway.api.handler.Handler;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.Iterator;
+
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
@@ -41,6 +44,32 @@ public class DefaultAuthenticationHandlerSelector implements AuthenticationHandl
         return null;
     }
 
+    @Override
+    public void select(Request request, Handler<AuthenticationHandler> handler) {
+        // Prepare the authentication context
+        final SimpleAuthenticationContext context = new SimpleAuthenticationContext(request);
+
+        select(context, providerManager.getAuthenticationHandlers().iterator(), handler);
+    }
+
+    private void select(AuthenticationContext context, Iterator<AuthenticationHandler> securityProviders,
+                        Handler<AuthenticationHandler> handler) {
+        if (!securityProviders.hasNext()) {
+            handler.handle(null);
+            return;
+        }
+
+        // Handlers are evaluated one after the other, in order, the first one able to handle the request is selected
+        final AuthenticationHandler securityProvider = securityProviders.next();
+        securityProvider.canHandle(context, canHandle -> {
+            if (canHandle) {
+                handler.handle(securityProvider);
+            } else {
+                select(context, securityProviders, handler);
+            }
+        });
+    }
+
     public void setProviderManager(AuthenticationHandlerManager providerManager) {
         this.providerManager = providerManager;
     }
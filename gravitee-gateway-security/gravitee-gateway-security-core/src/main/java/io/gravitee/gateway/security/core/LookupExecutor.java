@@ -0,0 +1,152 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.security.core;
+
+import io.gravitee.gateway.api.handler.Handler;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+/**
+ * Runs the potentially blocking lookups done while securing a request (api-keys, subscriptions, ...) on a dedicated
+ * and bounded pool of worker threads, so that a slow repository never stalls the event-loop.
+ *
+ * The result handler is called back on the Vert.x context of the caller. When the caller is not running on a Vert.x
+ * context, or when the executor is disabled, the lookup is done in the calling thread. Lookups answered from memory by
+ * a {@link CachedLookup} repository never go through the worker threads.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public class LookupExecutor implements InitializingBean, DisposableBean {
+
+    private final Logger logger = LoggerFactory.getLogger(LookupExecutor.class);
+
+    static final String WORKER_POOL_NAME = "gio-security-lookup";
+
+    @Autowired(required = false)
+    private Vertx vertx;
+
+    @Value("${handlers.security.lookup.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${handlers.security.lookup.workers:20}")
+    private int workers = 20;
+
+    private WorkerExecutor workerExecutor;
+
+    public LookupExecutor() {
+    }
+
+    public LookupExecutor(Vertx vertx, int workers) {
+        this.vertx = vertx;
+        this.workers = workers;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (enabled && vertx != null) {
+            logger.debug("Security lookups are done by a pool of {} worker threads", workers);
+            workerExecutor = vertx.createSharedWorkerExecutor(WORKER_POOL_NAME, workers);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (workerExecutor != null) {
+            workerExecutor.close();
+            workerExecutor = null;
+        }
+    }
+
+    /**
+     * Runs the given lookup and gives its result to the handler.
+     *
+     * @param lookup The lookup, which may block.
+     * @param resultHandler The handler called, on the context of the caller, once the lookup is done.
+     * @param <T> The type of the looked up value.
+     */
+    public <T> void execute(Callable<T> lookup, Handler<AsyncResult<T>> resultHandler) {
+        final WorkerExecutor executor = workerExecutor;
+
+        if (executor == null || Vertx.currentContext() == null) {
+            resultHandler.handle(call(lookup));
+            return;
+        }
+
+        executor.<T>executeBlocking(
+                promise -> {
+                    AsyncResult<T> result = call(lookup);
+                    if (result.succeeded()) {
+                        promise.complete(result.result());
+                    } else {
+                        promise.fail(result.cause());
+                    }
+                },
+                false,
+                resultHandler::handle);
+    }
+
+    /**
+     * Runs the lookup with the given executor, or in the calling thread if there is no executor.
+     */
+    public static <T> void execute(LookupExecutor executor, Callable<T> lookup, Handler<AsyncResult<T>> resultHandler) {
+        if (executor != null) {
+            executor.execute(lookup, resultHandler);
+        } else {
+            resultHandler.handle(call(lookup));
+        }
+    }
+
+    /**
+     * Gives the result to the handler right away if the repository has it in memory, otherwise runs the lookup with the
+     * given executor.
+     *
+     * @param repository The repository, which may implement {@link CachedLookup}.
+     * @param key The key to look up in memory.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, T> void execute(LookupExecutor executor, Object repository, K key, Callable<T> lookup,
+                                      Handler<AsyncResult<T>> resultHandler) {
+        if (repository instanceof CachedLookup) {
+            Optional<T> cached = ((CachedLookup<K, T>) repository).getIfCached(key);
+            if (cached.isPresent()) {
+                resultHandler.handle(Future.succeededFuture(cached.get()));
+                return;
+            }
+        }
+
+        execute(executor, lookup, resultHandler);
+    }
+
+    private static <T> AsyncResult<T> call(Callable<T> lookup) {
+        try {
+            return Future.succeededFuture(lookup.call());
+        } catch (Exception ex) {
+            return Future.failedFuture(ex);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.security.core;
+
+import io.gravitee.common.http.HttpStatusCode;
+import io.gravitee.gateway.api.ExecutionContext;
+import io.gravitee.gateway.api.buffer.Buffer;
+import io.gravitee.gateway.api.handler.Handler;
+import io.gravitee.gateway.api.stream.ReadStream;
+import io.gravitee.gateway.api.stream.WriteStream;
+import io.gravitee.gateway.core.processor.AbstractStreamableProcessor;
+import io.gravitee.gateway.core.processor.ProcessorFailure;
+import io.gravitee.gateway.core.processor.RuntimeProcessorFailure;
+import io.gravitee.gateway.core.processor.StreamableProcessor;
+import io.gravitee.gateway.policy.DirectPolicyChain;
+import io.gravitee.gateway.policy.PolicyResolver;
+import io.gravitee.gateway.policy.StreamType;
+import io.gravitee.gateway.policy.impl.RequestPolicyChain;
+import io.gravitee.policy.api.PolicyResult;
+
+/**
+ * The security policy chain, whose policies are resolved when the chain is handled. As the resolution of the
+ * authentication handler may not be immediate, the chain is resumed once it has been resolved.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+class SecurityPolicyChain extends AbstractStreamableProcessor<ExecutionContext, Buffer> {
+
+    private final PolicyResolver policyResolver;
+
+    private StreamableProcessor<ExecutionContext, Buffer> chain;
+    private Handler<ProcessorFailure> streamErrorHandler;
+    private Handler<Buffer> bodyHandler;
+    private Handler<Void> endHandler;
+
+    SecurityPolicyChain(final PolicyResolver policyResolver) {
+        this.policyResolver = policyResolver;
+    }
+
+    @Override
+    public void handle(ExecutionContext context) {
+        policyResolver.resolve(StreamType.ON_REQUEST, context, policies -> {
+            try {
+                if (policies == null) {
+                    chain = new DirectPolicyChain(
+                            PolicyResult.failure(
+                                    SecurityPolicyChainProvider.PLAN_UNRESOLVABLE,
+                                    HttpStatusCode.UNAUTHORIZED_401,
+                                    "Unauthorized"), context);
+                } else {
+                    chain = RequestPolicyChain.create(policies, context);
+                }
+
+                chain
+                        .handler(next)
+                        .errorHandler(errorHandler)
+                        .exitHandler(exitHandler)
+                        .streamErrorHandler(failure -> streamErrorHandler.handle(failure));
+                chain.bodyHandler(chunk -> bodyHandler.handle(chunk));
+                chain.endHandler(result -> endHandler.handle(result));
+
+                chain.handle(context);
+            } catch (Exception ex) {
+                errorHandler.handle(new RuntimeProcessorFailure(ex.getMessage()));
+            }
+        });
+    }
+
+    StreamableProcessor<ExecutionContext, Buffer> chain() {
+        return chain;
+    }
+
+    @Override
+    public StreamableProcessor<ExecutionContext, Buffer> streamErrorHandler(Handler<ProcessorFailure> handler) {
+        this.streamErrorHandler = handler;
+        return this;
+    }
+
+    @Override
+    public ReadStream<Buffer> bodyHandler(Handler<Buffer> handler) {
+        this.bodyHandler = handler;
+        return this;
+    }
+
+    @Override
+    public ReadStream<Buffer> endHandler(Handler<Void> handler) {
+        this.endHandler = handler;
+        return this;
+    }
+
+    @Override
+    public WriteStream<Buffer> write(Buffer chunk) {
+        // The request content is only streamed once the whole request chain, including this one, has been processed
+        chain.write(chunk);
+        return this;
+    }
+
+    @Override
+    public void end() {
+        chain.end();
+    }
+}
@@ -15,15 +15,10 @@
  */
 package io.gravitee.gateway.security.core;
 
-import io.gravitee.common.http.HttpStatusCode;
 import io.gravitee.gateway.api.ExecutionContext;
 import io.gravitee.gateway.api.buffer.Buffer;
 import io.gravitee.gateway.core.processor.StreamableProcessor;
 import io.gravitee.gateway.policy.*;
-import io.gravitee.gateway.policy.impl.RequestPolicyChain;
-import io.gravitee.policy.api.PolicyResult;
-
-import java.util.List;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -42,18 +37,8 @@ public class SecurityPolicyChainProvider extends AbstractPolicyChainProvider {
     @Override
     public StreamableProcessor<ExecutionContext, Buffer> provide(ExecutionContext context) {
         if (context.getAttribute("skip-security-chain") == null) {
-            // Calculate the list of policies to apply under this policy chain
-            List<Policy> policies = policyResolver.resolve(StreamType.ON_REQUEST, context);
-
-            if (policies == null) {
-                return new DirectPolicyChain(
-                        PolicyResult.failure(
-                                PLAN_UNRESOLVABLE,
-                                HttpStatusCode.UNAUTHORIZED_401,
-                                "Unauthorized"), context);
-            }
-
-            return RequestPolicyChain.create(policies, context);
+            // The policies to apply under this policy chain are resolved once the chain is handled
+            return new SecurityPolicyChain(policyResolver);
         }
 
         return new NoOpPolicyChain(context);
@@ -16,6 +16,7 @@
 package io.gravitee.gateway.security.core;
 
 import io.gravitee.gateway.api.ExecutionContext;
+import io.gravitee.gateway.api.handler.Handler;
 import io.gravitee.gateway.policy.AbstractPolicyResolver;
 import io.gravitee.gateway.policy.Policy;
 import io.gravitee.gateway.policy.StreamType;
@@ -32,8 +33,16 @@ public class SecurityPolicyResolver extends AbstractPolicyResolver {
 
     @Override
     public List<Policy> resolve(StreamType streamType, ExecutionContext context) {
-        final AuthenticationHandler authenticationHandler = handlerSelector.select(context.request());
+        return resolve(context, handlerSelector.select(context.request()));
+    }
+
+    @Override
+    public void resolve(StreamType streamType, ExecutionContext context, Handler<List<Policy>> handler) {
+        handlerSelector.select(context.request(),
+                authenticationHandler -> handler.handle(resolve(context, authenticationHandler)));
+    }
 
+    private List<Policy> resolve(ExecutionContext context, AuthenticationHandler authenticationHandler) {
         if (authenticationHandler == null) {
             // No authentication method selected, must send a 401
             logger.debug("No authentication handler has been selected to process request {}. Returning an unauthorized status (401)",
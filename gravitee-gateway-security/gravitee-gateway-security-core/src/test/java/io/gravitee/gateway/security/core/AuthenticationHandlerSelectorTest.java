@@ -16,6 +16,7 @@
 package io.gravitee.gateway.security.core;
 
 import io.gravitee.gateway.api.Request;
+import io.gravitee.gateway.api.handler.Handler;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -23,12 +24,12 @@ import org.mockito.MockitoAnnotations;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -100,4 +101,41 @@ public class AuthenticationHandlerSelectorTest {
         AuthenticationHandler securityProvider = authenticationHandlerSelector.select(request);
         assertEquals(securityProvider2, securityProvider);
     }
+
+    @Test
+    public void shouldResolveSecurityPolicyAsynchronously() {
+        AuthenticationHandler securityProvider1 = mock(AuthenticationHandler.class);
+        doAnswer(invocation -> {
+            ((Handler<Boolean>) invocation.getArgument(1)).handle(false);
+            return null;
+        }).when(securityProvider1).canHandle(any(AuthenticationContext.class), any(Handler.class));
+
+        AuthenticationHandler securityProvider2 = mock(AuthenticationHandler.class);
+        doAnswer(invocation -> {
+            ((Handler<Boolean>) invocation.getArgument(1)).handle(true);
+            return null;
+        }).when(securityProvider2).canHandle(any(AuthenticationContext.class), any(Handler.class));
+
+        AuthenticationHandler securityProvider3 = mock(AuthenticationHandler.class);
+
+        when(authenticationHandlerManager.getAuthenticationHandlers()).thenReturn(
+                Arrays.asList(securityProvider1, securityProvider2, securityProvider3));
+
+        AtomicReference<AuthenticationHandler> selected = new AtomicReference<>();
+        authenticationHandlerSelector.select(request, selected::set);
+
+        assertEquals(securityProvider2, selected.get());
+        verify(securityProvider3, never()).canHandle(any(AuthenticationContext.class), any(Handler.class));
+    }
+
+    @Test
+    public void shouldNotResolveSecurityPolicyAsynchronously() {
+        when(authenticationHandlerManager.getAuthenticationHandlers()).thenReturn(
+                Collections.emptyList());
+
+        AtomicReference<AuthenticationHandler> selected = new AtomicReference<>(mock(AuthenticationHandler.class));
+        authenticationHandlerSelector.select(request, selected::set);
+
+        assertNull(selected.get());
+    }
 }
@@ -17,6 +17,8 @@ package io.gravitee.gateway.security.core;
 
 import io.gravitee.gateway.api.ExecutionContext;
 import io.gravitee.gateway.api.buffer.Buffer;
+import io.gravitee.gateway.api.handler.Handler;
+import io.gravitee.gateway.core.processor.ProcessorFailure;
 import io.gravitee.gateway.core.processor.StreamableProcessor;
 import io.gravitee.gateway.policy.DirectPolicyChain;
 import io.gravitee.gateway.policy.Policy;
@@ -31,6 +33,7 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
 import java.util.Collections;
+import java.util.List;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -54,20 +57,50 @@ public class SecurityPolicyChainProviderTest {
 
     @Test
     public void shouldReturnRequestPolicyChain() {
-        Mockito.when(policyResolver.resolve(StreamType.ON_REQUEST, executionContext)).thenReturn(Collections.singletonList(Mockito.mock(Policy.class)));
+        mockResolvedPolicies(Collections.singletonList(Mockito.mock(Policy.class)));
         StreamableProcessor<ExecutionContext, Buffer> processor = securityPolicyChainResolver.provide(executionContext);
 
-        Assert.assertEquals(RequestPolicyChain.class, processor.getClass());
+        Handler<ExecutionContext> next = Mockito.mock(Handler.class);
+        processor.handler(next).handle(executionContext);
+
+        Assert.assertEquals(RequestPolicyChain.class, ((SecurityPolicyChain) processor).chain().getClass());
+        Mockito.verify(next).handle(executionContext);
     }
 
     @Test
     public void shouldReturnUnauthorizedPolicyChain_onRequest() {
-        Mockito.when(policyResolver.resolve(StreamType.ON_REQUEST, executionContext)).thenReturn(null);
+        mockResolvedPolicies(null);
 
         StreamableProcessor<ExecutionContext, Buffer> processor = securityPolicyChainResolver.provide(executionContext);
 
-        Assert.assertEquals(DirectPolicyChain.class, processor.getClass());
-        Assert.assertNotNull(((DirectPolicyChain) processor).policyResult());
-        Assert.assertEquals(SecurityPolicyChainProvider.PLAN_UNRESOLVABLE, ((DirectPolicyChain) processor).policyResult().key());
+        Handler<ProcessorFailure> errorHandler = Mockito.mock(Handler.class);
+        processor.errorHandler(errorHandler).handle(executionContext);
+
+        StreamableProcessor<ExecutionContext, Buffer> chain = ((SecurityPolicyChain) processor).chain();
+        Assert.assertEquals(DirectPolicyChain.class, chain.getClass());
+        Assert.assertNotNull(((DirectPolicyChain) chain).policyResult());
+        Assert.assertEquals(SecurityPolicyChainProvider.PLAN_UNRESOLVABLE, ((DirectPolicyChain) chain).policyResult().key());
+        Mockito.verify(errorHandler).handle(Mockito.any(ProcessorFailure.class));
+    }
+
+    @Test
+    public void shouldResolvePolicies_onHandle() {
+        StreamableProcessor<ExecutionContext, Buffer> processor = securityPolicyChainResolver.provide(executionContext);
+
+        Mockito.verify(policyResolver, Mockito.never()).resolve(
+                Mockito.eq(StreamType.ON_REQUEST), Mockito.eq(executionContext), Mockito.any(Handler.class));
+
+        mockResolvedPolicies(Collections.emptyList());
+        processor.handler(Mockito.mock(Handler.class)).handle(executionContext);
+
+        Mockito.verify(policyResolver).resolve(
+                Mockito.eq(StreamType.ON_REQUEST), Mockito.eq(executionContext), Mockito.any(Handler.class));
+    }
+
+    private void mockResolvedPolicies(List<Policy> policies) {
+        Mockito.doAnswer(invocation -> {
+            ((Handler<List<Policy>>) invocation.getArgument(2)).handle(policies);
+            return null;
+        }).when(policyResolver).resolve(Mockito.eq(StreamType.ON_REQUEST), Mockito.eq(executionContext), Mockito.any(Handler.class));
     }
 }
@@ -21,9 +21,9 @@ import io.gravitee.gateway.api.Request;
 import io.gravitee.gateway.api.Response;
 import io.gravitee.gateway.policy.AbstractPolicy;
 import io.gravitee.gateway.policy.PolicyException;
+import io.gravitee.gateway.security.core.LookupExecutor;
 import io.gravitee.policy.api.PolicyChain;
 import io.gravitee.policy.api.PolicyResult;
-import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.SubscriptionRepository;
 import io.gravitee.repository.management.api.search.SubscriptionCriteria;
 import io.gravitee.repository.management.model.Subscription;
@@ -59,36 +59,42 @@ public class CheckSubscriptionPolicy extends AbstractPolicy {
 
         request.metrics().setSecurityType(JWT);
         request.metrics().setSecurityToken(clientId);
-        try {
-            List<Subscription> subscriptions = subscriptionRepository.search(
-                    new SubscriptionCriteria.Builder()
-                            .apis(Collections.singleton(api))
-                    .clientId(clientId)
-                    .status(Subscription.Status.ACCEPTED)
-                            .build());
-
-            if (subscriptions != null && !subscriptions.isEmpty()) {
-                Subscription subscription = subscriptions.get(0);
-                if (subscription.getClientId().equals(clientId) &&
-                        (
-                                subscription.getEndingAt() == null ||
-                                        subscription.getEndingAt().after(new Date(request.timestamp())))) {
-
-                    executionContext.setAttribute(ExecutionContext.ATTR_APPLICATION, subscription.getApplication());
-                    executionContext.setAttribute(ExecutionContext.ATTR_SUBSCRIPTION_ID, subscription.getId());
-                    executionContext.setAttribute(ExecutionContext.ATTR_PLAN, subscription.getPlan());
-
-                    policyChain.doNext(request, response);
-                    return;
-                }
-            }
-
-            // As per https://tools.ietf.org/html/rfc6749#section-4.1.2.1
-            sendUnauthorized(GATEWAY_OAUTH2_ACCESS_DENIED_KEY, policyChain, OAUTH2_ERROR_ACCESS_DENIED);
-        } catch (TechnicalException te) {
-            // As per https://tools.ietf.org/html/rfc6749#section-4.1.2.1
-            sendUnauthorized(GATEWAY_OAUTH2_SERVER_ERROR_KEY, policyChain, OAUTH2_ERROR_SERVER_ERROR);
-        }
+        final SubscriptionCriteria criteria = new SubscriptionCriteria.Builder()
+                .apis(Collections.singleton(api))
+                .clientId(clientId)
+                .status(Subscription.Status.ACCEPTED)
+                .build();
+
+        // When the subscription is not in cache, the repository is called out of the event-loop
+        LookupExecutor.execute(executionContext.getComponent(LookupExecutor.class), subscriptionRepository, criteria,
+                () -> subscriptionRepository.search(criteria),
+                result -> {
+                    if (result.failed()) {
+                        // As per https://tools.ietf.org/html/rfc6749#section-4.1.2.1
+                        sendUnauthorized(GATEWAY_OAUTH2_SERVER_ERROR_KEY, policyChain, OAUTH2_ERROR_SERVER_ERROR);
+                        return;
+                    }
+
+                    List<Subscription> subscriptions = result.result();
+                    if (subscriptions != null && !subscriptions.isEmpty()) {
+                        Subscription subscription = subscriptions.get(0);
+                        if (subscription.getClientId().equals(clientId) &&
+                                (
+                                        subscription.getEndingAt() == null ||
+                                                subscription.getEndingAt().after(new Date(request.timestamp())))) {
+
+                            executionContext.setAttribute(ExecutionContext.ATTR_APPLICATION, subscription.getApplication());
+                            executionContext.setAttribute(ExecutionContext.ATTR_SUBSCRIPTION_ID, subscription.getId());
+                            executionContext.setAttribute(ExecutionContext.ATTR_PLAN, subscription.getPlan());
+
+                            policyChain.doNext(request, response);
+                            return;
+                        }
+                    }
+
+                    // As per https://tools.ietf.org/html/rfc6749#section-4.1.2.1
+                    sendUnauthorized(GATEWAY_OAUTH2_ACCESS_DENIED_KEY, policyChain, OAUTH2_ERROR_ACCESS_DENIED);
+                });
     }
 
     private void sendUnauthorized(String key, PolicyChain policyChain, String description) {
@@ -38,6 +38,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -57,7 +58,7 @@ public class EndpointDiscoveryVerticle extends AbstractVerticle implements
     @Autowired
     private ServiceDiscoveryFactory serviceDiscoveryFactory;
 
-    private final Map<Api, List<ServiceDiscovery>> apiServiceDiscoveries = new HashMap<>();
+    private final Map<Api, List<ServiceDiscovery>> apiServiceDiscoveries = new ConcurrentHashMap<>();
 
     @Override
     public void start(final Future<Void> startedResult) {
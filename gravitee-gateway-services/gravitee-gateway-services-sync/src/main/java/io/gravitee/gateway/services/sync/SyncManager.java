@@ -24,6 +24,7 @@ import io.gravitee.gateway.dictionary.DictionaryManager;
 import io.gravitee.gateway.dictionary.model.Dictionary;
 import io.gravitee.gateway.handlers.api.definition.Api;
 import io.gravitee.gateway.handlers.api.manager.ApiManager;
+import io.gravitee.gateway.reactor.handler.ReactorHandlerRegistry;
 import io.gravitee.node.api.cluster.ClusterManager;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ApiRepository;
@@ -44,6 +45,11 @@ import org.springframework.beans.factory.annotation.Value;
 import java.io.IOException;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BinaryOperator;
 import java.util.stream.Collectors;
@@ -63,6 +69,15 @@ public class SyncManager {
     private static final int TIMEFRAME_BEFORE_DELAY = 10 * 60 * 1000;
     private static final int TIMEFRAME_AFTER_DELAY = 1 * 60 * 1000;
 
+    static final int DEFAULT_BATCH_SIZE = 100;
+
+    /**
+     * During the initial synchronization, the events are scanned from the newest to the oldest until the last event of
+     * each API is found. The scan is bounded to this number of events by API, the last event of the APIs which have
+     * not been found by then is searched one by one.
+     */
+    static final int MAX_SCANNED_EVENTS_BY_ITEM = 3;
+
     @Autowired
     private ApiRepository apiRepository;
 
@@ -81,6 +96,9 @@ public class SyncManager {
     @Autowired
     private DictionaryManager dictionaryManager;
 
+    @Autowired
+    private ReactorHandlerRegistry reactorHandlerRegistry;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -90,6 +108,18 @@ public class SyncManager {
     @Value("${services.sync.distributed:false}")
     private boolean distributed;
 
+    /**
+     * Number of events fetched by query during the initial synchronization.
+     */
+    @Value("${services.sync.batchSize:" + DEFAULT_BATCH_SIZE + "}")
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * Number of APIs deployed concurrently during the initial synchronization (0 for the number of processors).
+     */
+    @Value("${services.sync.threads:0}")
+    private int threads;
+
     private final AtomicLong counter = new AtomicLong(0);
 
     private long lastRefreshAt = -1;
@@ -143,6 +173,7 @@ public class SyncManager {
 
     private void synchronizeApis(long nextLastRefreshAt) {
         Map<String, Event> apiEvents;
+        int deployThreads = 1;
 
         // Initial synchronization
         if (lastRefreshAt == -1) {
@@ -153,16 +184,13 @@ public class SyncManager {
                             .excludePicture().build());
 
             // Get last event by API
-            apiEvents = apis
-                    .stream()
-                    .map(api -> getLastApiEvent(api.getId()))
-                    .filter(Objects::nonNull)
-                    .collect(
-                            toMap(
-                                    event -> event.getProperties().get(Event.EventProperties.API_ID.getValue()),
-                                    event -> event
-                            )
-                    );
+            apiEvents = getLastEvents(
+                    apis.stream().map(io.gravitee.repository.management.model.Api::getId).collect(Collectors.toSet()),
+                    Event.EventProperties.API_ID,
+                    EventType.PUBLISH_API, EventType.UNPUBLISH_API, EventType.START_API, EventType.STOP_API);
+
+            // APIs are deployed concurrently during the initial synchronization
+            deployThreads = threads();
         } else {
             // Get latest API events
             List<Event> events = getLatestApiEvents(nextLastRefreshAt);
@@ -177,8 +205,9 @@ public class SyncManager {
                                     BinaryOperator.maxBy(comparing(Event::getCreatedAt))));
         }
 
-        // Then, compute events
-        computeApiEvents(apiEvents);
+        // Then, compute events: the entrypoints of the deployed APIs are published once all of them are computed
+        final int computeThreads = deployThreads;
+        reactorHandlerRegistry.batch(() -> computeApiEvents(apiEvents, computeThreads));
     }
 
     private void synchronizeDictionaries(long nextLastRefreshAt) throws Exception {
@@ -189,16 +218,10 @@ public class SyncManager {
             Set<io.gravitee.repository.management.model.Dictionary> dictionaries = dictionaryRepository.findAll();
 
             // Get last event by dictionary
-            dictionaryEvents = dictionaries
-                    .stream()
-                    .map(api -> getLastDictionaryEvent(api.getId()))
-                    .filter(Objects::nonNull)
-                    .collect(
-                            toMap(
-                                    event -> event.getProperties().get(Event.EventProperties.DICTIONARY_ID.getValue()),
-                                    event -> event
-                            )
-                    );
+            dictionaryEvents = getLastEvents(
+                    dictionaries.stream().map(io.gravitee.repository.management.model.Dictionary::getId).collect(Collectors.toSet()),
+                    Event.EventProperties.DICTIONARY_ID,
+                    EventType.PUBLISH_DICTIONARY, EventType.UNPUBLISH_DICTIONARY);
         } else {
             // Get latest dictionary events
             List<Event> events = getLatestDictionaryEvents(nextLastRefreshAt);
@@ -236,50 +259,134 @@ public class SyncManager {
         });
     }
 
-    private void computeApiEvents(Map<String, Event> apiEvents) {
-        apiEvents.forEach((apiId, apiEvent) -> {
-            try {
-                switch (apiEvent.getType()) {
-                    case UNPUBLISH_API:
-                    case STOP_API:
-                        apiManager.unregister(apiId);
-                        break;
-                    case START_API:
-                    case PUBLISH_API:
-                        try {
-                            // Read API definition from event
-                            io.gravitee.repository.management.model.Api eventPayload =
-                                    objectMapper.readValue(apiEvent.getPayload(), io.gravitee.repository.management.model.Api.class);
-
-                            io.gravitee.definition.model.Api eventApiDefinition =
-                                    objectMapper.readValue(eventPayload.getDefinition(), io.gravitee.definition.model.Api.class);
-
-                            // Update definition with required information for deployment phase
-                            final Api api = new Api(eventApiDefinition);
-                            api.setEnabled(eventPayload.getLifecycleState() == LifecycleState.STARTED);
-                            api.setDeployedAt(eventPayload.getDeployedAt());
-
-                            enhanceWithData(api);
-
-                            apiManager.register(api);
-                        } catch (Exception e) {
-                            logger.error("Error while determining deployed APIs store into events payload", e);
-                        }
-                        break;
+    private void computeApiEvents(Map<String, Event> apiEvents, int threads) {
+        if (threads <= 1 || apiEvents.size() <= 1) {
+            apiEvents.forEach(this::computeApiEvent);
+            return;
+        }
+
+        logger.debug("Computing events of {} APIs with {} threads", apiEvents.size(), threads);
+        final ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(threads, apiEvents.size()), new ThreadFactory() {
+                    private final AtomicInteger counter = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        return new Thread(r, "gio.sync-deploy-" + counter.incrementAndGet());
+                    }
+                });
+
+        try {
+            CompletableFuture.allOf(apiEvents.entrySet()
+                    .stream()
+                    .map(entry -> CompletableFuture.runAsync(() -> computeApiEvent(entry.getKey(), entry.getValue()), executor))
+                    .toArray(CompletableFuture[]::new))
+                    .join();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void computeApiEvent(String apiId, Event apiEvent) {
+        try {
+            switch (apiEvent.getType()) {
+                case UNPUBLISH_API:
+                case STOP_API:
+                    apiManager.unregister(apiId);
+                    break;
+                case START_API:
+                case PUBLISH_API:
+                    try {
+                        // Read API definition from event
+                        io.gravitee.repository.management.model.Api eventPayload =
+                                objectMapper.readValue(apiEvent.getPayload(), io.gravitee.repository.management.model.Api.class);
+
+                        io.gravitee.definition.model.Api eventApiDefinition =
+                                objectMapper.readValue(eventPayload.getDefinition(), io.gravitee.definition.model.Api.class);
+
+                        // Update definition with required information for deployment phase
+                        final Api api = new Api(eventApiDefinition);
+                        api.setEnabled(eventPayload.getLifecycleState() == LifecycleState.STARTED);
+                        api.setDeployedAt(eventPayload.getDeployedAt());
+
+                        enhanceWithData(api);
+
+                        apiManager.register(api);
+                    } catch (Exception e) {
+                        logger.error("Error while determining deployed APIs store into events payload", e);
+                    }
+                    break;
+            }
+        } catch (Throwable t) {
+            logger.error("An unexpected error occurs while managing the deployment of API id[{}]", apiId, t);
+        }
+    }
+
+    /**
+     * Get the last event of each item (API, dictionary, ...), by scanning the events from the newest to the oldest
+     * with paged queries instead of querying the events of each item one by one.
+     *
+     * @param ids The identifiers of the items.
+     * @param property The event property holding the identifier of the item.
+     * @param types The types of the events to look for.
+     * @return The last event of each item having one, by item identifier.
+     */
+    private Map<String, Event> getLastEvents(Set<String> ids, Event.EventProperties property, EventType... types) {
+        final Map<String, Event> lastEvents = new HashMap<>();
+
+        if (ids.isEmpty()) {
+            return lastEvents;
+        }
+
+        final EventCriteria criteria = new EventCriteria.Builder().types(types).build();
+        final long maxScannedEvents = (long) ids.size() * MAX_SCANNED_EVENTS_BY_ITEM;
+
+        long scannedEvents = 0;
+        int pageNumber = 0;
+        boolean hasNext = true;
+
+        while (hasNext && lastEvents.size() < ids.size() && scannedEvents < maxScannedEvents) {
+            List<Event> events = eventRepository.search(criteria,
+                    new PageableBuilder().pageNumber(pageNumber++).pageSize(batchSize).build()).getContent();
+
+            for (Event event : events) {
+                String id = (event.getProperties() != null) ? event.getProperties().get(property.getValue()) : null;
+                if (id != null && ids.contains(id)) {
+                    // Events are sorted from the newest to the oldest, the first one found for an item is the last one
+                    lastEvents.merge(id, event, (current, other) ->
+                            other.getCreatedAt().after(current.getCreatedAt()) ? other : current);
                 }
-            } catch (Throwable t) {
-                logger.error("An unexpected error occurs while managing the deployment of API id[{}]", apiId, t);
             }
-        });
+
+            scannedEvents += events.size();
+            hasNext = events.size() == batchSize;
+        }
+
+        // The scan has been stopped before the end, the remaining items are searched one by one
+        if (hasNext && lastEvents.size() < ids.size()) {
+            logger.debug("Last event of {} item(s) not found after scanning {} events, searching them one by one",
+                    ids.size() - lastEvents.size(), scannedEvents);
+
+            ids.stream()
+                    .filter(id -> !lastEvents.containsKey(id))
+                    .map(id -> getLastEvent(id, property, types))
+                    .filter(Objects::nonNull)
+                    .forEach(event -> lastEvents.put(event.getProperties().get(property.getValue()), event));
+        }
+
+        return lastEvents;
+    }
+
+    private int threads() {
+        return (threads > 0) ? threads : Runtime.getRuntime().availableProcessors();
     }
 
-    private Event getLastDictionaryEvent(final String dictionary) {
+    private Event getLastEvent(final String id, Event.EventProperties property, EventType... types) {
         final EventCriteria.Builder eventCriteriaBuilder =
                 new EventCriteria.Builder()
-                        .property(Event.EventProperties.DICTIONARY_ID.getValue(), dictionary);
+                        .property(property.getValue(), id);
 
-        List<Event> events = eventRepository.search(eventCriteriaBuilder
-                        .types(EventType.PUBLISH_DICTIONARY, EventType.UNPUBLISH_DICTIONARY).build(),
+        List<Event> events = eventRepository.search(eventCriteriaBuilder.types(types).build(),
                 new PageableBuilder().pageNumber(0).pageSize(1).build()).getContent();
 
         return (!events.isEmpty()) ? events.get(0) : null;
@@ -305,18 +412,6 @@ public class SyncManager {
         return eventRepository.search(builder.build());
     }
 
-    private Event getLastApiEvent(final String api) {
-        final EventCriteria.Builder eventCriteriaBuilder =
-                new EventCriteria.Builder()
-                        .property(Event.EventProperties.API_ID.getValue(), api);
-
-        List<Event> events = eventRepository.search(eventCriteriaBuilder
-                .types(EventType.PUBLISH_API, EventType.UNPUBLISH_API, EventType.START_API, EventType.STOP_API).build(),
-                new PageableBuilder().pageNumber(0).pageSize(1).build()).getContent();
-
-        return (!events.isEmpty()) ? events.get(0) : null;
-    }
-
     private void enhanceWithData(Api definition) {
         try {
             // for v2, plans are already part of the api definition
@@ -388,6 +483,38 @@ public class SyncManager {
         this.distributed = distributed;
     }
 
+    public void setPlanRepository(PlanRepository planRepository) {
+        this.planRepository = planRepository;
+    }
+
+    public void setDictionaryRepository(DictionaryRepository dictionaryRepository) {
+        this.dictionaryRepository = dictionaryRepository;
+    }
+
+    public void setDictionaryManager(DictionaryManager dictionaryManager) {
+        this.dictionaryManager = dictionaryManager;
+    }
+
+    public void setReactorHandlerRegistry(ReactorHandlerRegistry reactorHandlerRegistry) {
+        this.reactorHandlerRegistry = reactorHandlerRegistry;
+    }
+
+    public void setObjectMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public void setClusterManager(ClusterManager clusterManager) {
+        this.clusterManager = clusterManager;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
     public long getLastRefreshAt() {
         return lastRefreshAt;
     }
@@ -28,8 +28,10 @@ import io.gravitee.gateway.services.sync.apikeys.handler.ApiKeysServiceHandler;
 import io.gravitee.gateway.services.sync.apikeys.repository.ApiKeyRepositoryWrapper;
 import io.gravitee.gateway.services.sync.apikeys.task.ApiKeyRefresher;
 import io.gravitee.gateway.services.sync.cache.CacheManager;
+import io.gravitee.gateway.services.sync.cache.NearCachedMap;
 import io.gravitee.node.api.cluster.ClusterManager;
 import io.gravitee.repository.management.api.ApiKeyRepository;
+import io.gravitee.repository.management.model.ApiKey;
 import io.vertx.ext.web.Router;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,9 +40,10 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.context.ConfigurableApplicationContext;
 
-import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.*;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -61,12 +64,24 @@ public class ApiKeysCacheService extends AbstractService implements EventListene
     @Value("${services.apikeyscache.unit:MILLISECONDS}")
     private TimeUnit unit;
 
-    @Value("${services.apikeyscache.threads:3}")
-    private int threads;
+    @Value("${services.apikeyscache.batchSize:" + ApiKeyRefresher.DEFAULT_BATCH_SIZE + "}")
+    private int batchSize;
 
     @Value("${services.sync.distributed:false}")
     private boolean distributed;
 
+    @Value("${services.apikeyscache.nearcache.enabled:true}")
+    private boolean nearCacheEnabled;
+
+    @Value("${services.apikeyscache.nearcache.size:100000}")
+    private long nearCacheSize;
+
+    @Value("${services.apikeyscache.nearcache.ttl:60000}")
+    private long nearCacheTtl;
+
+    @Value("${services.apikeyscache.nearcache.missTtl:5000}")
+    private long nearCacheMissTtl;
+
     private final static String PATH = "/apikeys";
 
     @Autowired
@@ -77,9 +92,13 @@ public class ApiKeysCacheService extends AbstractService implements EventListene
 
     private ApiKeyRepository apiKeyRepository;
 
-    private ExecutorService executorService;
+    private Map<String, ApiKey> cache;
+
+    private ScheduledThreadPoolExecutor executorService;
+
+    private ApiKeyRefresher refresher;
 
-    private final Map<Api, ScheduledFuture> scheduledTasks = new HashMap<>();
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
 
     @Autowired
     private Router router;
@@ -87,8 +106,6 @@ public class ApiKeysCacheService extends AbstractService implements EventListene
     @Autowired
     private ClusterManager clusterManager;
 
-    private ApiKeyHandler apiKeyHandler;
-
     @Override
     protected void doStart() throws Exception {
         if (enabled) {
@@ -105,32 +122,42 @@ public class ApiKeysCacheService extends AbstractService implements EventListene
 
             beanFactory.destroySingleton(oldBeanName);
 
+            cache = cacheManager.getCache(API_KEY_CACHE_NAME);
+            if (nearCacheEnabled) {
+                // Keep a local copy of the api-keys in front of the distributed cache, which remains the source of truth
+                LOGGER.info("Enable api-keys near-cache [size: {}] [ttl: {}ms] [missTtl: {}ms]", nearCacheSize, nearCacheTtl, nearCacheMissTtl);
+                cache = new NearCachedMap<>(cache, nearCacheSize, nearCacheTtl, nearCacheMissTtl, TimeUnit.MILLISECONDS);
+            }
+
             LOGGER.debug("Register API key repository implementation {}", ApiKeyRepositoryWrapper.class.getName());
             beanFactory.registerSingleton(ApiKeyRepository.class.getName(),
-                    new ApiKeyRepositoryWrapper(this.apiKeyRepository, cacheManager.getCache(API_KEY_CACHE_NAME)));
+                    new ApiKeyRepositoryWrapper(this.apiKeyRepository, cache));
+
+            refresher = new ApiKeyRefresher();
+            refresher.setCache(cache);
+            refresher.setApiKeyRepository(apiKeyRepository);
+            refresher.setClusterManager(clusterManager);
+            refresher.setDistributed(distributed);
+            refresher.setBatchSize(batchSize);
 
             eventManager.subscribeForEvents(this, ReactorEvent.class);
 
-            executorService = Executors.newScheduledThreadPool(threads, new ThreadFactory() {
-                        private int counter = 0;
-                        private String prefix = "gio.sync-apikeys";
+            executorService = new ScheduledThreadPoolExecutor(1, r -> new Thread(r, "gio.sync-apikeys"));
 
-                        @Override
-                        public Thread newThread(Runnable r) {
-                            return new Thread(r, prefix + '-' + counter++);
-                        }
-                    });
+            // A single task refreshes the api-keys of all the deployed APIs
+            LOGGER.info("Add a task to refresh api-keys each {} {}", delay, unit.name());
+            executorService.scheduleWithFixedDelay(refresher, 0, delay, unit);
 
             LOGGER.info("Associate a new HTTP handler on {}", PATH);
 
             // Create handlers
             // Set API-keys handler
-            ApiKeysServiceHandler apiKeysHandler = new ApiKeysServiceHandler((ScheduledThreadPoolExecutor) executorService);
+            ApiKeysServiceHandler apiKeysHandler = new ApiKeysServiceHandler(executorService);
             applicationContext.getAutowireCapableBeanFactory().autowireBean(apiKeysHandler);
             router.get(PATH).produces(MediaType.APPLICATION_JSON).handler(apiKeysHandler);
 
             // Set API handler
-            apiKeyHandler = new ApiKeyHandler();
+            ApiKeyHandler apiKeyHandler = new ApiKeyHandler(refresher);
             applicationContext.getAutowireCapableBeanFactory().autowireBean(apiKeyHandler);
             router.get(PATH + "/:apiId").produces(MediaType.APPLICATION_JSON).handler(apiKeyHandler);
         }
@@ -144,6 +171,10 @@ public class ApiKeysCacheService extends AbstractService implements EventListene
             if (executorService != null) {
                 executorService.shutdown();
             }
+
+            if (cache instanceof NearCachedMap) {
+                ((NearCachedMap<String, ApiKey>) cache).close();
+            }
         }
     }
 
@@ -175,33 +206,21 @@ public class ApiKeysCacheService extends AbstractService implements EventListene
 
     private void startRefresher(Api api) {
         if (api.isEnabled()) {
-            ApiKeyRefresher refresher = new ApiKeyRefresher(api);
-            refresher.setCache(cacheManager.getCache(API_KEY_CACHE_NAME));
-            refresher.setApiKeyRepository(apiKeyRepository);
-            refresher.setClusterManager(clusterManager);
-            refresher.setDistributed(distributed);
-            refresher.initialize();
-
-            LOGGER.info("Add a task to refresh api-keys each {} {} for API name[{}] id[{}]", delay, unit.name(), api.getName(), api.getId());
-            ScheduledFuture scheduledFuture = ((ScheduledExecutorService) executorService).scheduleWithFixedDelay(
-                    refresher, 0, delay, unit);
-
-            apiKeyHandler.addRefresher(refresher);
-            scheduledTasks.put(api, scheduledFuture);
+            LOGGER.debug("Refresh api-keys for API name[{}] id[{}]", api.getName(), api.getId());
+            refresher.register(api);
+
+            // Do not wait for the next scheduled refresh to load the api-keys of the new plans
+            if (refreshPending.compareAndSet(false, true)) {
+                executorService.execute(() -> {
+                    refreshPending.set(false);
+                    refresher.run();
+                });
+            }
         }
     }
 
     private void stopRefresher(Api api) {
-        ScheduledFuture scheduledFuture = scheduledTasks.remove(api);
-        if (scheduledFuture != null) {
-            apiKeyHandler.removeRefresher(api.getId());
-
-            if (! scheduledFuture.isCancelled()) {
-                LOGGER.info("Stop api-keys refresher");
-                scheduledFuture.cancel(true);
-            } else {
-                LOGGER.info("API-key refresher already shutdown");
-            }
-        }
+        LOGGER.debug("Stop refreshing api-keys for API name[{}] id[{}]", api.getName(), api.getId());
+        refresher.unregister(api.getId());
     }
 }
@@ -28,9 +28,6 @@ import io.vertx.ext.web.RoutingContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
@@ -39,7 +36,11 @@ public class ApiKeyHandler implements Handler<RoutingContext> {
 
     private final Logger LOGGER = LoggerFactory.getLogger(ApiKeyHandler.class);
 
-    private final Map<String, ApiKeyRefresher> apiKeyRefreshers = new HashMap<>();
+    private final ApiKeyRefresher apiKeyRefresher;
+
+    public ApiKeyHandler(ApiKeyRefresher apiKeyRefresher) {
+        this.apiKeyRefresher = apiKeyRefresher;
+    }
 
     @Override
     public void handle(RoutingContext ctx) {
@@ -47,9 +48,9 @@ public class ApiKeyHandler implements Handler<RoutingContext> {
 
         try {
             String sApi = ctx.request().getParam("apiId");
-            ApiKeyRefresher apiKeyRefresher = apiKeyRefreshers.get(sApi);
 
-            if (apiKeyRefresher == null) {
+            // The api-keys of all the APIs are refreshed together: the same statistics are returned for each of them
+            if (! apiKeyRefresher.isRegistered(sApi)) {
                 response.setStatusCode(HttpStatusCode.NOT_FOUND_404);
             } else {
                 response.putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
@@ -67,14 +68,6 @@ public class ApiKeyHandler implements Handler<RoutingContext> {
         response.end();
     }
 
-    public void addRefresher(ApiKeyRefresher apiKeyRefresher) {
-        apiKeyRefreshers.put(apiKeyRefresher.getApi().getId(), apiKeyRefresher);
-    }
-
-    public void removeRefresher(String api) {
-        apiKeyRefreshers.remove(api);
-    }
-
     private class RefresherStatistics {
         private final ApiKeyRefresher refresher;
 
@@ -15,6 +15,9 @@
  */
 package io.gravitee.gateway.services.sync.apikeys.repository;
 
+import com.hazelcast.core.IMap;
+import io.gravitee.gateway.security.core.CachedLookup;
+import io.gravitee.gateway.services.sync.cache.NearCachedMap;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ApiKeyRepository;
 import io.gravitee.repository.management.api.search.ApiKeyCriteria;
@@ -29,7 +32,7 @@ import java.util.Set;
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
-public class ApiKeyRepositoryWrapper implements ApiKeyRepository {
+public class ApiKeyRepositoryWrapper implements ApiKeyRepository, CachedLookup<String, Optional<ApiKey>> {
 
     private final ApiKeyRepository wrapped;
     private final Map<String, ApiKey> cache;
@@ -44,6 +47,19 @@ public class ApiKeyRepositoryWrapper implements ApiKeyRepository {
         return Optional.ofNullable(cache.get(apiKey));
     }
 
+    /**
+     * Api-keys are read from memory when they are in the near-cache, or when the cache is not distributed.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<Optional<ApiKey>> getIfCached(String apiKey) {
+        if (cache instanceof NearCachedMap) {
+            return ((NearCachedMap<String, ApiKey>) cache).getIfCached(apiKey);
+        }
+
+        return (cache instanceof IMap) ? Optional.empty() : Optional.of(Optional.ofNullable(cache.get(apiKey)));
+    }
+
     @Override
     public io.gravitee.repository.management.model.ApiKey create(io.gravitee.repository.management.model.ApiKey apiKey) throws TechnicalException {
         throw new IllegalStateException();
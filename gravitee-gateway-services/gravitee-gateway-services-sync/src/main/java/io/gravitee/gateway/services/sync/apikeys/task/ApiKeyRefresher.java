@@ -18,17 +18,24 @@ package io.gravitee.gateway.services.sync.apikeys.task;
 import io.gravitee.definition.model.Plan;
 import io.gravitee.gateway.handlers.api.definition.Api;
 import io.gravitee.node.api.cluster.ClusterManager;
+import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ApiKeyRepository;
 import io.gravitee.repository.management.api.search.ApiKeyCriteria;
 import io.gravitee.repository.management.model.ApiKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Collection;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
+ * Refreshes the api-keys of all the deployed APIs at once.
+ *
+ * The api-keys of a plan are fully loaded the first time the plan is seen. Then, only the api-keys updated since the
+ * last successful refresh are retrieved. In both cases, plans are queried by batches to limit the number of requests
+ * sent to the repository. When the repository fails, the next refreshes are skipped with an exponential backoff.
+ *
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
@@ -39,18 +46,28 @@ public class ApiKeyRefresher implements Runnable {
     private static final int TIMEFRAME_BEFORE_DELAY = 10 * 60 * 1000;
     private static final int TIMEFRAME_AFTER_DELAY = 1 * 60 * 1000;
 
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    static final int MAX_SKIPPED_RUNS = 30;
+
     private ApiKeyRepository apiKeyRepository;
 
     private ClusterManager clusterManager;
 
     private Map<String, ApiKey> cache;
 
-    private final Api api;
+    private final Map<String, Collection<String>> plansByApi = new ConcurrentHashMap<>();
+
+    private final Set<String> refreshedPlans = new HashSet<>();
 
-    private Collection<String> plans;
+    private int batchSize = DEFAULT_BATCH_SIZE;
 
     private long lastRefreshAt = -1;
 
+    private int consecutiveErrors;
+
+    private int runsToSkip;
+
     private long minTime;
 
     private long maxTime;
@@ -67,49 +84,78 @@ public class ApiKeyRefresher implements Runnable {
 
     private boolean distributed;
 
-    public ApiKeyRefresher(final Api api) {
-        this.api = api;
-    }
-
-    public void initialize() {
-        this.plans = api.getPlans()
+    /**
+     * Starts refreshing the api-keys of the plans of the given API, or stops it if the API has no more api-key plan.
+     */
+    public void register(Api api) {
+        List<String> plans = api.getPlans()
                 .stream()
                 .filter(plan -> io.gravitee.repository.management.model.Plan.PlanSecurityType.API_KEY.name()
                         .equalsIgnoreCase(plan.getSecurity()))
                 .map(Plan::getId)
                 .collect(Collectors.toList());
+
+        if (plans.isEmpty()) {
+            plansByApi.remove(api.getId());
+        } else {
+            plansByApi.put(api.getId(), plans);
+        }
+    }
+
+    public void unregister(String api) {
+        plansByApi.remove(api);
+    }
+
+    public boolean isRegistered(String api) {
+        return plansByApi.containsKey(api);
     }
 
     @Override
     public void run() {
-        if (!plans.isEmpty() && (clusterManager.isMasterNode() || (!clusterManager.isMasterNode() && !distributed))) {
-            long start = System.currentTimeMillis();
-            long nextLastRefreshAt = System.currentTimeMillis();
-            logger.debug("Refresh api-keys for API [name: {}] [id: {}]", api.getName(), api.getId());
+        if (clusterManager.isMasterNode() || (!clusterManager.isMasterNode() && !distributed)) {
+            if (runsToSkip > 0) {
+                runsToSkip--;
+                return;
+            }
 
-            final ApiKeyCriteria.Builder criteriaBuilder;
+            Set<String> plans = new HashSet<>();
+            plansByApi.values().forEach(plans::addAll);
+            refreshedPlans.retainAll(plans);
 
-            if (lastRefreshAt == -1) {
-                criteriaBuilder = new ApiKeyCriteria.Builder()
-                        .includeRevoked(false)
-                        .plans(plans);
-            } else {
-                criteriaBuilder = new ApiKeyCriteria.Builder()
-                        .plans(plans)
-                        .includeRevoked(true)
-                        .from(lastRefreshAt - TIMEFRAME_BEFORE_DELAY)
-                        .to(nextLastRefreshAt + TIMEFRAME_AFTER_DELAY);
+            if (plans.isEmpty()) {
+                return;
             }
 
+            long start = System.currentTimeMillis();
+            long nextLastRefreshAt = System.currentTimeMillis();
+
             try {
-                apiKeyRepository
-                        .findByCriteria(criteriaBuilder.build())
-                        .forEach(this::saveOrUpdate);
+                if (lastRefreshAt == -1) {
+                    logger.debug("Load api-keys for {} plans", plans.size());
+                    refresh(plans, new ApiKeyCriteria.Builder()
+                            .includeRevoked(false));
+                } else {
+                    logger.debug("Refresh api-keys for {} plans", refreshedPlans.size());
+                    refresh(refreshedPlans, new ApiKeyCriteria.Builder()
+                            .includeRevoked(true)
+                            .from(lastRefreshAt - TIMEFRAME_BEFORE_DELAY)
+                            .to(nextLastRefreshAt + TIMEFRAME_AFTER_DELAY));
+
+                    // Plans deployed since the last refresh must be loaded entirely
+                    Set<String> newPlans = new HashSet<>(plans);
+                    newPlans.removeAll(refreshedPlans);
+                    refresh(newPlans, new ApiKeyCriteria.Builder()
+                            .includeRevoked(false));
+                }
 
+                refreshedPlans.addAll(plans);
                 lastRefreshAt = nextLastRefreshAt;
+                consecutiveErrors = 0;
             } catch (Exception ex) {
                 errorsCount++;
-                logger.error("Unexpected error while refreshing api-keys", ex);
+                consecutiveErrors++;
+                runsToSkip = Math.min((1 << Math.min(consecutiveErrors - 1, 5)) - 1, MAX_SKIPPED_RUNS);
+                logger.error("Unexpected error while refreshing api-keys, skipping the next {} refreshes", runsToSkip, ex);
                 lastException = ex;
             }
 
@@ -136,6 +182,18 @@ public class ApiKeyRefresher implements Runnable {
         }
     }
 
+    private void refresh(Collection<String> plans, ApiKeyCriteria.Builder criteriaBuilder) throws TechnicalException {
+        List<String> remainingPlans = new ArrayList<>(plans);
+
+        for (int i = 0; i < remainingPlans.size(); i += batchSize) {
+            List<String> batch = new ArrayList<>(remainingPlans.subList(i, Math.min(i + batchSize, remainingPlans.size())));
+
+            apiKeyRepository
+                    .findByCriteria(criteriaBuilder.plans(batch).build())
+                    .forEach(this::saveOrUpdate);
+        }
+    }
+
     private void saveOrUpdate(ApiKey apiKey) {
         if (apiKey.isRevoked() || apiKey.isPaused()) {
             logger.debug("Remove a paused / revoked api-key from cache [key: {}] [plan: {}] [app: {}]", apiKey.getKey(), apiKey.getPlan(), apiKey.getApplication());
@@ -146,10 +204,6 @@ public class ApiKeyRefresher implements Runnable {
         }
     }
 
-    public Api getApi() {
-        return api;
-    }
-
     public long getLastRefreshAt() {
         return lastRefreshAt;
     }
@@ -197,4 +251,8 @@ public class ApiKeyRefresher implements Runnable {
     public void setDistributed(boolean distributed) {
         this.distributed = distributed;
     }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
 }
@@ -0,0 +1,223 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.services.sync.cache;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ForwardingMap;
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.MapEvent;
+import com.hazelcast.map.listener.EntryAddedListener;
+import com.hazelcast.map.listener.EntryEvictedListener;
+import com.hazelcast.map.listener.EntryRemovedListener;
+import com.hazelcast.map.listener.EntryUpdatedListener;
+import com.hazelcast.map.listener.MapClearedListener;
+import com.hazelcast.map.listener.MapEvictedListener;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A map keeping an in-process copy of the entries read from another map, typically a distributed one, which remains
+ * the source of truth.
+ *
+ * Keys which are not found are remembered too (for a shorter time), so that repeatedly looking up unknown keys does
+ * not hit the source map each time. Local entries are invalidated when written through this map and, when the source
+ * is a Hazelcast map, when it is updated by any member of the cluster.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public class NearCachedMap<K, V> extends ForwardingMap<K, V> {
+
+    private final Map<K, V> source;
+
+    private final Cache<Object, V> entries;
+
+    private final Cache<Object, Boolean> misses;
+
+    /**
+     * Incremented on each invalidation: a value read from the source map is not cached if an invalidation happened
+     * meanwhile, since it may already be stale.
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private String listenerId;
+
+    public NearCachedMap(Map<K, V> source, long maximumSize, long timeToLive, long missTimeToLive, TimeUnit unit) {
+        this(source, maximumSize, timeToLive, missTimeToLive, unit, Ticker.systemTicker());
+    }
+
+    NearCachedMap(Map<K, V> source, long maximumSize, long timeToLive, long missTimeToLive, TimeUnit unit, Ticker ticker) {
+        this.source = source;
+        this.entries = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive, unit)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        this.misses = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(missTimeToLive, unit)
+                .ticker(ticker)
+                .build();
+
+        if (source instanceof IMap) {
+            listenerId = ((IMap<K, V>) source).addEntryListener(new InvalidationListener(), false);
+        }
+    }
+
+    @Override
+    protected Map<K, V> delegate() {
+        return source;
+    }
+
+    @Override
+    public V get(Object key) {
+        V value = entries.getIfPresent(key);
+
+        if (value == null && misses.getIfPresent(key) == null) {
+            long version = invalidations.get();
+            value = source.get(key);
+
+            if (version == invalidations.get()) {
+                if (value == null) {
+                    misses.put(key, Boolean.TRUE);
+                } else {
+                    entries.put(key, value);
+                }
+            }
+        }
+
+        return value;
+    }
+
+    /**
+     * Reads the given key from the in-process copy only, the source map is never read.
+     *
+     * @return An empty optional if the source map has to be read, otherwise an optional of the value, which is itself
+     * empty if the key is known not to be in the source map.
+     */
+    public Optional<Optional<V>> getIfCached(Object key) {
+        V value = entries.getIfPresent(key);
+        if (value != null) {
+            return Optional.of(Optional.of(value));
+        }
+
+        return (misses.getIfPresent(key) != null) ? Optional.of(Optional.empty()) : Optional.empty();
+    }
+
+    @Override
+    public V put(K key, V value) {
+        try {
+            return source.put(key, value);
+        } finally {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public V remove(Object key) {
+        try {
+            return source.remove(key);
+        } finally {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        standardPutAll(map);
+    }
+
+    @Override
+    public void clear() {
+        try {
+            source.clear();
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    public void invalidate(Object key) {
+        invalidations.incrementAndGet();
+        entries.invalidate(key);
+        misses.invalidate(key);
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        entries.invalidateAll();
+        misses.invalidateAll();
+    }
+
+    public long localSize() {
+        return entries.size();
+    }
+
+    public CacheStats stats() {
+        return entries.stats();
+    }
+
+    /**
+     * Stops listening to the updates of the source map.
+     */
+    public void close() {
+        if (listenerId != null) {
+            ((IMap<K, V>) source).removeEntryListener(listenerId);
+            listenerId = null;
+        }
+    }
+
+    private class InvalidationListener implements EntryAddedListener<K, V>, EntryUpdatedListener<K, V>,
+            EntryRemovedListener<K, V>, EntryEvictedListener<K, V>, MapClearedListener, MapEvictedListener {
+
+        @Override
+        public void entryAdded(EntryEvent<K, V> event) {
+            invalidate(event.getKey());
+        }
+
+        @Override
+        public void entryUpdated(EntryEvent<K, V> event) {
+            invalidate(event.getKey());
+        }
+
+        @Override
+        public void entryRemoved(EntryEvent<K, V> event) {
+            invalidate(event.getKey());
+        }
+
+        @Override
+        public void entryEvicted(EntryEvent<K, V> event) {
+            invalidate(event.getKey());
+        }
+
+        @Override
+        public void mapCleared(MapEvent event) {
+            invalidateAll();
+        }
+
+        @Override
+        public void mapEvicted(MapEvent event) {
+            invalidateAll();
+        }
+    }
+}
@@ -24,6 +24,7 @@ import io.gravitee.gateway.handlers.api.definition.Api;
 import io.gravitee.gateway.reactor.Reactable;
 import io.gravitee.gateway.reactor.ReactorEvent;
 import io.gravitee.gateway.services.sync.cache.CacheManager;
+import io.gravitee.gateway.services.sync.subscriptions.cache.SubscriptionIndex;
 import io.gravitee.gateway.services.sync.subscriptions.handler.ApiSubscriptionsHandler;
 import io.gravitee.gateway.services.sync.subscriptions.handler.SubscriptionsServiceHandler;
 import io.gravitee.gateway.services.sync.subscriptions.repository.SubscriptionRepositoryWrapper;
@@ -38,9 +39,9 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.context.ConfigurableApplicationContext;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.*;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -50,7 +51,9 @@ public class SubscriptionsCacheService extends AbstractService implements EventL
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SubscriptionsCacheService.class);
 
-    private static final String CACHE_NAME = "subscriptions";
+    // Entries are keyed by subscription id: the map is not the one of the previous api-clientId layout, so both
+    // versions of the gateway can share the same cluster
+    private static final String CACHE_NAME = "subscriptions-v2";
 
     @Value("${services.subscriptions.enabled:true}")
     private boolean enabled;
@@ -61,8 +64,8 @@ public class SubscriptionsCacheService extends AbstractService implements EventL
     @Value("${services.subscriptions.unit:MILLISECONDS}")
     private TimeUnit unit;
 
-    @Value("${services.subscriptions.threads:3}")
-    private int threads;
+    @Value("${services.subscriptions.batchSize:" + SubscriptionRefresher.DEFAULT_BATCH_SIZE + "}")
+    private int batchSize;
 
     @Value("${services.sync.distributed:false}")
     private boolean distributed;
@@ -77,9 +80,11 @@ public class SubscriptionsCacheService extends AbstractService implements EventL
 
     private SubscriptionRepository subscriptionRepository;
 
-    private ExecutorService executorService;
+    private ScheduledThreadPoolExecutor executorService;
 
-    private final Map<Api, ScheduledFuture> scheduledTasks = new HashMap<>();
+    private SubscriptionRefresher refresher;
+
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
 
     @Autowired
     private Router router;
@@ -87,8 +92,6 @@ public class SubscriptionsCacheService extends AbstractService implements EventL
     @Autowired
     private ClusterManager clusterManager;
 
-    private ApiSubscriptionsHandler apiSubscriptionsHandler;
-
     @Override
     protected void doStart() throws Exception {
         if (enabled) {
@@ -105,32 +108,41 @@ public class SubscriptionsCacheService extends AbstractService implements EventL
 
             beanFactory.destroySingleton(oldBeanName);
 
+            // Requests are served from an in-process index, the distributed cache is only used to share subscriptions
+            // between the nodes of the cluster
+            SubscriptionIndex index = new SubscriptionIndex();
+
             LOGGER.debug("Register subscription repository implementation {}", SubscriptionRepositoryWrapper.class.getName());
             beanFactory.registerSingleton(SubscriptionRepository.class.getName(),
-                    new SubscriptionRepositoryWrapper(cacheManager.getCache(CACHE_NAME)));
+                    new SubscriptionRepositoryWrapper(index));
+
+            refresher = new SubscriptionRefresher();
+            refresher.setCache(cacheManager.getCache(CACHE_NAME));
+            refresher.setIndex(index);
+            refresher.setSubscriptionRepository(subscriptionRepository);
+            refresher.setClusterManager(clusterManager);
+            refresher.setDistributed(distributed);
+            refresher.setBatchSize(batchSize);
+            refresher.initialize();
 
             eventManager.subscribeForEvents(this, ReactorEvent.class);
 
-            executorService = Executors.newScheduledThreadPool(threads, new ThreadFactory() {
-                        private int counter = 0;
-                        private String prefix = "gio.sync-apikeys";
+            executorService = new ScheduledThreadPoolExecutor(1, r -> new Thread(r, "gio.sync-subscriptions"));
 
-                        @Override
-                        public Thread newThread(Runnable r) {
-                            return new Thread(r, prefix + '-' + counter++);
-                        }
-                    });
+            // A single task refreshes the subscriptions of all the deployed APIs
+            LOGGER.info("Add a task to refresh subscriptions each {} {}", delay, unit.name());
+            executorService.scheduleWithFixedDelay(refresher, 0, delay, unit);
 
             LOGGER.info("Associate a new HTTP handler on {}", PATH);
 
             // Create handlers
             // Set subscriptions handler
-            SubscriptionsServiceHandler subscriptionsServiceHandler = new SubscriptionsServiceHandler((ScheduledThreadPoolExecutor) executorService);
+            SubscriptionsServiceHandler subscriptionsServiceHandler = new SubscriptionsServiceHandler(executorService);
             applicationContext.getAutowireCapableBeanFactory().autowireBean(subscriptionsServiceHandler);
             router.get(PATH).produces(MediaType.APPLICATION_JSON).handler(subscriptionsServiceHandler);
 
             // Set API subscriptions handler
-            apiSubscriptionsHandler = new ApiSubscriptionsHandler();
+            ApiSubscriptionsHandler apiSubscriptionsHandler = new ApiSubscriptionsHandler(refresher);
             applicationContext.getAutowireCapableBeanFactory().autowireBean(apiSubscriptionsHandler);
             router.get(PATH + "/:apiId").produces(MediaType.APPLICATION_JSON).handler(apiSubscriptionsHandler);
         }
@@ -144,6 +156,10 @@ public class SubscriptionsCacheService extends AbstractService implements EventL
             if (executorService != null) {
                 executorService.shutdown();
             }
+
+            if (refresher != null) {
+                refresher.close();
+            }
         }
     }
 
@@ -175,33 +191,21 @@ public class SubscriptionsCacheService extends AbstractService implements EventL
 
     private void startRefresher(Api api) {
         if (api.isEnabled()) {
-            SubscriptionRefresher refresher = new SubscriptionRefresher(api);
-            refresher.setCache(cacheManager.getCache(CACHE_NAME));
-            refresher.setSubscriptionRepository(subscriptionRepository);
-            refresher.setClusterManager(clusterManager);
-            refresher.setDistributed(distributed);
-            refresher.initialize();
-
-            LOGGER.info("Add a task to refresh subscriptions each {} {} for API id[{}] name[{}]", delay, unit.name(), api.getName(), api.getId());
-            ScheduledFuture scheduledFuture = ((ScheduledExecutorService) executorService).scheduleWithFixedDelay(
-                    refresher, 0, delay, unit);
-
-            apiSubscriptionsHandler.addRefresher(refresher);
-            scheduledTasks.put(api, scheduledFuture);
+            LOGGER.debug("Refresh subscriptions for API id[{}] name[{}]", api.getId(), api.getName());
+            refresher.register(api);
+
+            // Do not wait for the next scheduled refresh to load the subscriptions of the new plans
+            if (refreshPending.compareAndSet(false, true)) {
+                executorService.execute(() -> {
+                    refreshPending.set(false);
+                    refresher.run();
+                });
+            }
         }
     }
 
     private void stopRefresher(Api api) {
-        ScheduledFuture scheduledFuture = scheduledTasks.remove(api);
-        if (scheduledFuture != null) {
-            apiSubscriptionsHandler.removeRefresher(api.getId());
-
-            if (! scheduledFuture.isCancelled()) {
-                LOGGER.info("Stop subscriptions refresher");
-                scheduledFuture.cancel(true);
-            } else {
-                LOGGER.info("Subscriptions refresher already shutdown");
-            }
-        }
+        LOGGER.debug("Stop refreshing subscriptions for API id[{}] name[{}]", api.getId(), api.getName());
+        refresher.unregister(api.getId());
     }
 }
@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.services.sync.subscriptions.cache;
+
+import io.gravitee.repository.management.model.Subscription;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.gravitee.repository.management.model.Subscription.Status.ACCEPTED;
+
+/**
+ * An in-process index of the accepted subscriptions, by API and client id.
+ *
+ * The index is never modified: each update builds a new one which is then swapped atomically, so that the lookups
+ * done while serving requests are lock-free single hash lookups. Updates are serialized.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public class SubscriptionIndex {
+
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyMap(), Collections.emptyMap());
+
+    public Subscription find(String api, String clientId) {
+        return snapshot.subscriptions.get(key(api, clientId));
+    }
+
+    public int size() {
+        return snapshot.subscriptions.size();
+    }
+
+    /**
+     * Replaces the content of the index with the given subscriptions.
+     */
+    public synchronized void reset(Collection<Subscription> subscriptions) {
+        Snapshot next = new Snapshot(new HashMap<>(), new HashMap<>());
+        subscriptions.forEach(next::update);
+        snapshot = next;
+    }
+
+    /**
+     * Applies the changes of some subscriptions, given by subscription id. Subscriptions which are no longer accepted,
+     * or whose value is <code>null</code>, are removed from the index.
+     */
+    public synchronized void update(Map<String, Subscription> changes) {
+        if (!changes.isEmpty()) {
+            Snapshot next = new Snapshot(new HashMap<>(snapshot.subscriptions), new HashMap<>(snapshot.keys));
+            changes.forEach((id, subscription) -> {
+                if (subscription == null) {
+                    next.remove(id);
+                } else {
+                    next.update(subscription);
+                }
+            });
+            snapshot = next;
+        }
+    }
+
+    private static String key(String api, String clientId) {
+        return api + '-' + clientId;
+    }
+
+    private static class Snapshot {
+
+        private final Map<String, Subscription> subscriptions;
+
+        /**
+         * Index keys by subscription id, to remove a subscription whose client id has changed.
+         */
+        private final Map<String, String> keys;
+
+        Snapshot(Map<String, Subscription> subscriptions, Map<String, String> keys) {
+            this.subscriptions = subscriptions;
+            this.keys = keys;
+        }
+
+        void update(Subscription subscription) {
+            remove(subscription.getId());
+
+            if (ACCEPTED.equals(subscription.getStatus())) {
+                String key = key(subscription.getApi(), subscription.getClientId());
+                subscriptions.put(key, subscription);
+                keys.put(subscription.getId(), key);
+            }
+        }
+
+        void remove(String id) {
+            String key = keys.remove(id);
+            if (key != null) {
+                Subscription subscription = subscriptions.get(key);
+                if (subscription != null && subscription.getId().equals(id)) {
+                    subscriptions.remove(key);
+                }
+            }
+        }
+    }
+}
@@ -28,9 +28,6 @@ import io.vertx.ext.web.RoutingContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
@@ -39,7 +36,11 @@ public class ApiSubscriptionsHandler implements Handler<RoutingContext> {
 
     private final Logger LOGGER = LoggerFactory.getLogger(ApiSubscriptionsHandler.class);
 
-    private final Map<String, SubscriptionRefresher> subscriptionRefreshers = new HashMap<>();
+    private final SubscriptionRefresher subscriptionRefresher;
+
+    public ApiSubscriptionsHandler(SubscriptionRefresher subscriptionRefresher) {
+        this.subscriptionRefresher = subscriptionRefresher;
+    }
 
     @Override
     public void handle(RoutingContext ctx) {
@@ -47,9 +48,9 @@ public class ApiSubscriptionsHandler implements Handler<RoutingContext> {
 
         try {
             String sApi = ctx.request().getParam("apiId");
-            SubscriptionRefresher apiKeyRefresher = subscriptionRefreshers.get(sApi);
 
-            if (apiKeyRefresher == null) {
+            // The subscriptions of all the APIs are refreshed together: the same statistics are returned for each of them
+            if (! subscriptionRefresher.isRegistered(sApi)) {
                 response.setStatusCode(HttpStatusCode.NOT_FOUND_404);
             } else {
                 response.putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
@@ -57,7 +58,7 @@ public class ApiSubscriptionsHandler implements Handler<RoutingContext> {
                 response.setChunked(true);
 
                 Json.prettyMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-                response.write(Json.prettyMapper.writeValueAsString(new RefresherStatistics(apiKeyRefresher)));
+                response.write(Json.prettyMapper.writeValueAsString(new RefresherStatistics(subscriptionRefresher)));
             }
         } catch (JsonProcessingException jpe) {
             response.setStatusCode(HttpStatusCode.INTERNAL_SERVER_ERROR_500);
@@ -67,14 +68,6 @@ public class ApiSubscriptionsHandler implements Handler<RoutingContext> {
         response.end();
     }
 
-    public void addRefresher(SubscriptionRefresher apiKeyRefresher) {
-        subscriptionRefreshers.put(apiKeyRefresher.getApi().getId(), apiKeyRefresher);
-    }
-
-    public void removeRefresher(String api) {
-        subscriptionRefreshers.remove(api);
-    }
-
     private class RefresherStatistics {
         private final SubscriptionRefresher refresher;
 
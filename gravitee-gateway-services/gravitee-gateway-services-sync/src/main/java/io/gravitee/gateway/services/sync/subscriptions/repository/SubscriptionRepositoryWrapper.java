@@ -16,6 +16,8 @@
 package io.gravitee.gateway.services.sync.subscriptions.repository;
 
 import io.gravitee.common.data.domain.Page;
+import io.gravitee.gateway.security.core.CachedLookup;
+import io.gravitee.gateway.services.sync.subscriptions.cache.SubscriptionIndex;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.SubscriptionRepository;
 import io.gravitee.repository.management.api.search.Pageable;
@@ -24,19 +26,18 @@ import io.gravitee.repository.management.model.Subscription;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
-public class SubscriptionRepositoryWrapper implements SubscriptionRepository {
+public class SubscriptionRepositoryWrapper implements SubscriptionRepository, CachedLookup<SubscriptionCriteria, List<Subscription>> {
 
-    private final Map<String, Subscription> cache;
+    private final SubscriptionIndex index;
 
-    public SubscriptionRepositoryWrapper(Map<String, Subscription> cache) {
-        this.cache = cache;
+    public SubscriptionRepositoryWrapper(SubscriptionIndex index) {
+        this.index = index;
     }
 
     @Override
@@ -66,8 +67,16 @@ public class SubscriptionRepositoryWrapper implements SubscriptionRepository {
 
     @Override
     public List<Subscription> search(SubscriptionCriteria criteria) throws TechnicalException {
-        String key = criteria.getApis().iterator().next() + '-' + criteria.getClientId();
-        Subscription subscription = this.cache.get(key);
+        Subscription subscription = index.find(criteria.getApis().iterator().next(), criteria.getClientId());
         return (subscription != null) ? Collections.singletonList(subscription) : null;
     }
+
+    /**
+     * All the accepted subscriptions are in the in-process index: any search is answered from memory.
+     */
+    @Override
+    public Optional<List<Subscription>> getIfCached(SubscriptionCriteria criteria) {
+        Subscription subscription = index.find(criteria.getApis().iterator().next(), criteria.getClientId());
+        return Optional.of((subscription != null) ? Collections.singletonList(subscription) : Collections.emptyList());
+    }
 }
@@ -15,24 +15,43 @@
  */
 package io.gravitee.gateway.services.sync.subscriptions.task;
 
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.listener.EntryAddedListener;
+import com.hazelcast.map.listener.EntryEvictedListener;
+import com.hazelcast.map.listener.EntryRemovedListener;
+import com.hazelcast.map.listener.EntryUpdatedListener;
 import io.gravitee.definition.model.Plan;
 import io.gravitee.gateway.handlers.api.definition.Api;
+import io.gravitee.gateway.services.sync.subscriptions.cache.SubscriptionIndex;
 import io.gravitee.node.api.cluster.ClusterManager;
+import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.SubscriptionRepository;
 import io.gravitee.repository.management.api.search.SubscriptionCriteria;
 import io.gravitee.repository.management.model.Subscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.stream.Collectors;
 
 import static io.gravitee.repository.management.model.Subscription.Status.*;
 
 /**
+ * Refreshes the subscriptions of all the deployed APIs at once, and keeps the {@link SubscriptionIndex} used to
+ * serve the requests up-to-date.
+ *
+ * The subscriptions of a plan are fully loaded the first time the plan is seen. Then, only the subscriptions updated
+ * since the last successful refresh are retrieved. Plans are queried by batches and, when the repository fails, the
+ * next refreshes are skipped with an exponential backoff.
+ *
+ * The subscriptions are also stored, by id, in the distributed cache. When the synchronization is distributed, only
+ * the master node queries the repository: the other nodes build their index from the distributed cache, apply its
+ * changes as soon as they are notified of them, and periodically rebuild their index from its whole content in case
+ * some changes have been missed.
+ *
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author Nicolas GERAUD (nicolas.geraud at graviteesource.com)
  * @author GraviteeSource Team
@@ -44,18 +63,50 @@ public class SubscriptionRefresher implements Runnable {
     private static final int TIMEFRAME_BEFORE_DELAY = 10 * 60 * 1000;
     private static final int TIMEFRAME_AFTER_DELAY = 1 * 60 * 1000;
 
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    static final int MAX_SKIPPED_RUNS = 30;
+
+    /**
+     * Number of runs after which a node which is not the master rebuilds its index from the distributed cache.
+     */
+    static final int RESYNC_RUNS = 60;
+
+    private static final List<Subscription.Status> REFRESH_STATUS = Arrays.asList(
+            Subscription.Status.ACCEPTED, CLOSED, PAUSED);
+
     private ClusterManager clusterManager;
 
     private SubscriptionRepository subscriptionRepository;
 
-    private Map<String, Object> cache;
+    private Map<String, Subscription> cache;
+
+    private SubscriptionIndex index;
 
-    private final Api api;
+    private final Map<String, Collection<String>> plansByApi = new ConcurrentHashMap<>();
 
-    private Collection<String> plans;
+    private final Set<String> refreshedPlans = new HashSet<>();
+
+    /**
+     * Changes of the distributed cache done by the master node, waiting to be applied to the index. Also used as the
+     * lock ordering the changes applied to the index by the listener threads and the resynchronizations.
+     */
+    private final Queue<Map.Entry<String, Subscription>> cacheChanges = new ConcurrentLinkedQueue<>();
+
+    private String listenerId;
+
+    private volatile Boolean master;
+
+    private int runsSinceResync;
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
 
     private long lastRefreshAt = -1;
 
+    private int consecutiveErrors;
+
+    private int runsToSkip;
+
     private long minTime;
 
     private long maxTime;
@@ -72,15 +123,25 @@ public class SubscriptionRefresher implements Runnable {
 
     private boolean distributed;
 
-    private static final List<Subscription.Status> REFRESH_STATUS = Arrays.asList(
-            Subscription.Status.ACCEPTED, CLOSED, PAUSED);
+    public void initialize() {
+        if (distributed && cache instanceof IMap) {
+            listenerId = ((IMap<String, Subscription>) cache).addEntryListener(new CacheListener(), true);
+        }
+    }
 
-    public SubscriptionRefresher(final Api api) {
-        this.api = api;
+    public void close() {
+        if (listenerId != null) {
+            ((IMap<String, Subscription>) cache).removeEntryListener(listenerId);
+            listenerId = null;
+        }
     }
 
-    public void initialize() {
-        this.plans = api.getPlans()
+    /**
+     * Starts refreshing the subscriptions of the plans of the given API, or stops it if the API has no more OAuth2 or
+     * JWT plan.
+     */
+    public void register(Api api) {
+        List<String> plans = api.getPlans()
                 .stream()
                 .filter(plan -> io.gravitee.repository.management.model.Plan.PlanSecurityType.OAUTH2.name()
                         .equalsIgnoreCase(plan.getSecurity()) ||
@@ -88,99 +149,183 @@ public class SubscriptionRefresher implements Runnable {
                                         .equalsIgnoreCase(plan.getSecurity()))
                 .map(Plan::getId)
                 .collect(Collectors.toList());
+
+        if (plans.isEmpty()) {
+            plansByApi.remove(api.getId());
+        } else {
+            plansByApi.put(api.getId(), plans);
+        }
+    }
+
+    public void unregister(String api) {
+        plansByApi.remove(api);
+    }
+
+    public boolean isRegistered(String api) {
+        return plansByApi.containsKey(api);
     }
 
     @Override
     public void run() {
-        if (!plans.isEmpty() && (clusterManager.isMasterNode() || (!clusterManager.isMasterNode() && !distributed))) {
-            long start = System.currentTimeMillis();
-            long nextLastRefreshAt = System.currentTimeMillis();
-            LOGGER.debug("Refresh subscriptions for API id[{}] name[{}]", api.getId(), api.getName());
+        boolean wasMaster = Boolean.TRUE.equals(master);
+        boolean wasFollower = Boolean.FALSE.equals(master);
+        master = clusterManager.isMasterNode() || (!clusterManager.isMasterNode() && !distributed);
+
+        if (master) {
+            if (!wasMaster) {
+                lastRefreshAt = -1;
+                runsToSkip = 0;
+            }
+
+            refresh();
+        } else {
+            follow(wasFollower);
+        }
+    }
+
+    private void refresh() {
+        if (runsToSkip > 0) {
+            runsToSkip--;
+            return;
+        }
+
+        Set<String> plans = new HashSet<>();
+        plansByApi.values().forEach(plans::addAll);
+        refreshedPlans.retainAll(plans);
+
+        if (plans.isEmpty()) {
+            return;
+        }
 
-            final SubscriptionCriteria.Builder criteriaBuilder = new SubscriptionCriteria.Builder()
-                    .plans(plans);
+        long start = System.currentTimeMillis();
+        long nextLastRefreshAt = System.currentTimeMillis();
+        Map<String, Subscription> changes = new LinkedHashMap<>();
 
+        try {
             if (lastRefreshAt == -1) {
-                criteriaBuilder.status(Subscription.Status.ACCEPTED);
+                LOGGER.debug("Load subscriptions for {} plans", plans.size());
+                refreshedPlans.clear();
+                search(plans, new SubscriptionCriteria.Builder()
+                        .status(Subscription.Status.ACCEPTED), changes);
             } else {
-                criteriaBuilder
+                LOGGER.debug("Refresh subscriptions for {} plans", refreshedPlans.size());
+                search(refreshedPlans, new SubscriptionCriteria.Builder()
                         .statuses(REFRESH_STATUS)
                         .from(lastRefreshAt - TIMEFRAME_BEFORE_DELAY)
-                        .to(nextLastRefreshAt + TIMEFRAME_AFTER_DELAY);
+                        .to(nextLastRefreshAt + TIMEFRAME_AFTER_DELAY), changes);
+
+                // Plans deployed since the last refresh must be loaded entirely
+                Set<String> newPlans = new HashSet<>(plans);
+                newPlans.removeAll(refreshedPlans);
+                search(newPlans, new SubscriptionCriteria.Builder()
+                        .status(Subscription.Status.ACCEPTED), changes);
             }
 
-            try {
-                subscriptionRepository
-                        .search(criteriaBuilder.build())
-                        .forEach(this::saveOrUpdate);
+            saveOrUpdate(changes);
 
-                lastRefreshAt = nextLastRefreshAt;
-            } catch (Exception ex) {
-                errorsCount++;
-                LOGGER.error("Unexpected error while refreshing subscriptions", ex);
-                lastException = ex;
+            if (lastRefreshAt == -1) {
+                index.reset(changes.values());
+            } else {
+                index.update(changes);
             }
 
-            count++;
+            refreshedPlans.addAll(plans);
+            lastRefreshAt = nextLastRefreshAt;
+            consecutiveErrors = 0;
+        } catch (Exception ex) {
+            errorsCount++;
+            consecutiveErrors++;
+            runsToSkip = Math.min((1 << Math.min(consecutiveErrors - 1, 5)) - 1, MAX_SKIPPED_RUNS);
+            LOGGER.error("Unexpected error while refreshing subscriptions, skipping the next {} refreshes", runsToSkip, ex);
+            lastException = ex;
+        }
 
-            long end = System.currentTimeMillis();
+        count++;
 
-            long diff = end - start;
-            totalTime += diff;
+        long end = System.currentTimeMillis();
 
-            if (count == 1) {
-                minTime = diff;
-            } else {
-                if (diff > maxTime) {
-                    maxTime = diff;
-                }
+        long diff = end - start;
+        totalTime += diff;
 
-                if (diff < minTime) {
-                    minTime = diff;
-                }
+        if (count == 1) {
+            minTime = diff;
+        } else {
+            if (diff > maxTime) {
+                maxTime = diff;
             }
 
-            avgTime = totalTime / count;
+            if (diff < minTime) {
+                minTime = diff;
+            }
         }
+
+        avgTime = totalTime / count;
     }
 
-    private void saveOrUpdate(Subscription subscription) {
-        String key = subscription.getApi() + '-' + subscription.getClientId();
+    private void follow(boolean wasFollower) {
+        // Changes of the distributed cache are applied as they are received, except when the node was not following it
+        if (!wasFollower || ++runsSinceResync >= RESYNC_RUNS) {
+            synchronized (cacheChanges) {
+                // Changes received before are included in the content of the distributed cache
+                cacheChanges.clear();
+                index.reset(new ArrayList<>(cache.values()));
+                runsSinceResync = 0;
+            }
+        }
+    }
 
-        Object element = cache.get(subscription.getId());
+    private void onCacheChange(String id, Subscription subscription) {
+        cacheChanges.add(new AbstractMap.SimpleImmutableEntry<>(id, subscription));
 
-        if ((CLOSED.equals(subscription.getStatus()) || PAUSED.equals(subscription.getStatus()))
-                && element != null) {
-            cache.remove(subscription.getId());
-            String oldKey = (String) element;
-            Subscription eltSubscription = (Subscription) cache.get(oldKey);
-            if (eltSubscription != null && eltSubscription.getId().equals(subscription.getId())) {
-                cache.remove(oldKey);
+        synchronized (cacheChanges) {
+            // Changes received by other listener threads in the meantime are applied at once
+            Map<String, Subscription> changes = new LinkedHashMap<>();
+            Map.Entry<String, Subscription> change;
+            while ((change = cacheChanges.poll()) != null) {
+                changes.put(change.getKey(), change.getValue());
             }
-        } else if (ACCEPTED.equals(subscription.getStatus())){
-            LOGGER.debug("Cache a subscription: plan[{}] application[{}] client_id[{}]", subscription.getPlan(), subscription.getApplication(), subscription.getClientId());
-            cache.put(subscription.getId(), key);
-
-            // Delete useless information to preserve memory
-            subscription.setGeneralConditionsContentPageId(null);
-            subscription.setRequest(null);
-            subscription.setReason(null);
-            subscription.setSubscribedBy(null);
-            subscription.setProcessedBy(null);
-
-            cache.put(key, subscription);
-
-            if (element != null) {
-                final String oldKey = (String) element;
-                if (!oldKey.equals(key)) {
-                    cache.remove(oldKey);
-                }
+
+            // Changes of the distributed cache done by the master node are already in its index
+            if (Boolean.FALSE.equals(master)) {
+                index.update(changes);
             }
         }
     }
 
-    public Api getApi() {
-        return api;
+    private void search(Collection<String> plans, SubscriptionCriteria.Builder criteriaBuilder,
+                        Map<String, Subscription> changes) throws TechnicalException {
+        List<String> remainingPlans = new ArrayList<>(plans);
+
+        for (int i = 0; i < remainingPlans.size(); i += batchSize) {
+            List<String> batch = new ArrayList<>(remainingPlans.subList(i, Math.min(i + batchSize, remainingPlans.size())));
+
+            subscriptionRepository
+                    .search(criteriaBuilder.plans(batch).build())
+                    .forEach(subscription -> changes.put(subscription.getId(), subscription));
+        }
+    }
+
+    private void saveOrUpdate(Map<String, Subscription> changes) {
+        Map<String, Subscription> accepted = new HashMap<>();
+
+        changes.values().forEach(subscription -> {
+            if (ACCEPTED.equals(subscription.getStatus())) {
+                LOGGER.debug("Cache a subscription: plan[{}] application[{}] client_id[{}]", subscription.getPlan(), subscription.getApplication(), subscription.getClientId());
+
+                // Delete useless information to preserve memory
+                subscription.setGeneralConditionsContentPageId(null);
+                subscription.setRequest(null);
+                subscription.setReason(null);
+                subscription.setSubscribedBy(null);
+                subscription.setProcessedBy(null);
+
+                accepted.put(subscription.getId(), subscription);
+            } else {
+                cache.remove(subscription.getId());
+            }
+        });
+
+        cache.putAll(accepted);
     }
 
     public long getLastRefreshAt() {
@@ -219,10 +364,14 @@ public class SubscriptionRefresher implements Runnable {
         this.subscriptionRepository = subscriptionRepository;
     }
 
-    public void setCache(Map<String, Object> cache) {
+    public void setCache(Map<String, Subscription> cache) {
         this.cache = cache;
     }
 
+    public void setIndex(SubscriptionIndex index) {
+        this.index = index;
+    }
+
     public void setClusterManager(ClusterManager clusterManager) {
         this.clusterManager = clusterManager;
     }
@@ -230,4 +379,33 @@ public class SubscriptionRefresher implements Runnable {
     public void setDistributed(boolean distributed) {
         this.distributed = distributed;
     }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    private class CacheListener implements EntryAddedListener<String, Subscription>,
+            EntryUpdatedListener<String, Subscription>, EntryRemovedListener<String, Subscription>,
+            EntryEvictedListener<String, Subscription> {
+
+        @Override
+        public void entryAdded(EntryEvent<String, Subscription> event) {
+            onCacheChange(event.getKey(), event.getValue());
+        }
+
+        @Override
+        public void entryUpdated(EntryEvent<String, Subscription> event) {
+            onCacheChange(event.getKey(), event.getValue());
+        }
+
+        @Override
+        public void entryRemoved(EntryEvent<String, Subscription> event) {
+            onCacheChange(event.getKey(), null);
+        }
+
+        @Override
+        public void entryEvicted(EntryEvent<String, Subscription> event) {
+            onCacheChange(event.getKey(), null);
+        }
+    }
 }
@@ -0,0 +1,221 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.services.sync;
+
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.definition.jackson.datatype.GraviteeMapper;
+import io.gravitee.gateway.handlers.api.manager.ApiManager;
+import io.gravitee.gateway.reactor.handler.ReactorHandlerRegistry;
+import io.gravitee.node.api.cluster.ClusterManager;
+import io.gravitee.repository.management.api.ApiRepository;
+import io.gravitee.repository.management.api.DictionaryRepository;
+import io.gravitee.repository.management.api.EventRepository;
+import io.gravitee.repository.management.api.PlanRepository;
+import io.gravitee.repository.management.api.search.ApiFieldExclusionFilter;
+import io.gravitee.repository.management.api.search.EventCriteria;
+import io.gravitee.repository.management.api.search.Pageable;
+import io.gravitee.repository.management.model.Api;
+import io.gravitee.repository.management.model.Event;
+import io.gravitee.repository.management.model.EventType;
+import io.gravitee.repository.management.model.LifecycleState;
+import io.gravitee.repository.management.model.Plan;
+import org.mockito.Answers;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Cold start of a gateway: initial synchronization of all the APIs against repositories answering after a fixed
+ * latency, to account for the round trips to the database.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1)
+public class SyncManagerBenchmark {
+
+    public static void main(String[]args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(SyncManagerBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    /**
+     * Number of deployed APIs.
+     */
+    @Param({"10000"})
+    private int apis;
+
+    /**
+     * Latency of each call to a repository, in milliseconds.
+     */
+    @Param({"1"})
+    private int latency;
+
+    /**
+     * Number of threads deploying the APIs.
+     */
+    @Param({"1", "8"})
+    private int threads;
+
+    private final AtomicLong roundTrips = new AtomicLong();
+    private final AtomicInteger registered = new AtomicInteger();
+
+    private ApiRepository apiRepository;
+    private EventRepository eventRepository;
+    private PlanRepository planRepository;
+    private DictionaryRepository dictionaryRepository;
+    private ApiManager apiManager;
+    private ReactorHandlerRegistry reactorHandlerRegistry;
+    private ClusterManager clusterManager;
+    private GraviteeMapper objectMapper;
+    private SyncManager syncManager;
+
+    @Setup
+    public void setup() throws Exception {
+        objectMapper = new GraviteeMapper();
+
+        List<Api> repositoryApis = new ArrayList<>(apis);
+        List<Event> events = new ArrayList<>(apis);
+        Map<String, Event> eventsByApi = new HashMap<>(apis);
+        long now = System.currentTimeMillis();
+
+        for (int i = 0; i < apis; i++) {
+            Api api = new Api();
+            api.setId("api-" + i);
+            api.setName("api-" + i);
+            api.setLifecycleState(LifecycleState.STARTED);
+            api.setDeployedAt(new Date(now));
+            api.setDefinition("{\"id\":\"api-" + i + "\",\"name\":\"api-" + i + "\",\"version\":\"1\"," +
+                    "\"proxy\":{\"context_path\":\"/api-" + i + "\"," +
+                    "\"endpoints\":[{\"name\":\"default\",\"target\":\"http://localhost:8080/api-" + i + "\"}]}}");
+            repositoryApis.add(api);
+
+            Event event = new Event();
+            event.setId("event-" + i);
+            event.setType(EventType.PUBLISH_API);
+            // Events are returned from the newest to the oldest
+            event.setCreatedAt(new Date(now - i));
+            event.setProperties(Collections.singletonMap(Event.EventProperties.API_ID.getValue(), api.getId()));
+            event.setPayload(objectMapper.writeValueAsString(api));
+            events.add(event);
+            eventsByApi.put(api.getId(), event);
+        }
+
+        Plan plan = new Plan();
+        plan.setId("plan");
+        plan.setName("plan");
+        plan.setSecurity(Plan.PlanSecurityType.KEY_LESS);
+        plan.setStatus(Plan.Status.PUBLISHED);
+
+        apiRepository = mock(ApiRepository.class, withSettings().stubOnly());
+        when(apiRepository.search(eq(null), any(ApiFieldExclusionFilter.class))).thenAnswer(invocation -> {
+            roundTrip();
+            return repositoryApis;
+        });
+
+        eventRepository = mock(EventRepository.class, withSettings().stubOnly());
+        when(eventRepository.search(any(EventCriteria.class), any(Pageable.class))).thenAnswer(invocation -> {
+            roundTrip();
+            EventCriteria criteria = invocation.getArgument(0);
+            Pageable pageable = invocation.getArgument(1);
+
+            if (criteria.getProperties() != null && !criteria.getProperties().isEmpty()) {
+                Event event = eventsByApi.get((String) criteria.getProperties().get(Event.EventProperties.API_ID.getValue()));
+                List<Event> content = (event != null) ? Collections.singletonList(event) : Collections.emptyList();
+                return new Page<>(content, 0, content.size(), content.size());
+            }
+
+            int from = Math.min(pageable.pageNumber() * pageable.pageSize(), events.size());
+            int to = Math.min(from + pageable.pageSize(), events.size());
+            return new Page<>(events.subList(from, to), pageable.pageNumber(), to - from, events.size());
+        });
+
+        planRepository = mock(PlanRepository.class, withSettings().stubOnly());
+        when(planRepository.findByApi(anyString())).thenAnswer(invocation -> {
+            roundTrip();
+            return Collections.singleton(plan);
+        });
+
+        dictionaryRepository = mock(DictionaryRepository.class, withSettings().stubOnly());
+        when(dictionaryRepository.findAll()).thenAnswer(invocation -> {
+            roundTrip();
+            return Collections.emptySet();
+        });
+
+        apiManager = mock(ApiManager.class, withSettings().stubOnly());
+        when(apiManager.register(any())).thenAnswer(invocation -> registered.incrementAndGet() > 0);
+
+        reactorHandlerRegistry = mock(ReactorHandlerRegistry.class,
+                withSettings().stubOnly().defaultAnswer(Answers.CALLS_REAL_METHODS));
+
+        clusterManager = mock(ClusterManager.class, withSettings().stubOnly());
+        when(clusterManager.isMasterNode()).thenReturn(true);
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        roundTrips.set(0);
+        registered.set(0);
+
+        // A new instance, so that each invocation is an initial synchronization
+        syncManager = new SyncManager();
+        syncManager.setApiRepository(apiRepository);
+        syncManager.setEventRepository(eventRepository);
+        syncManager.setPlanRepository(planRepository);
+        syncManager.setDictionaryRepository(dictionaryRepository);
+        syncManager.setApiManager(apiManager);
+        syncManager.setReactorHandlerRegistry(reactorHandlerRegistry);
+        syncManager.setClusterManager(clusterManager);
+        syncManager.setObjectMapper(objectMapper);
+        syncManager.setThreads(threads);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDownInvocation() {
+        if (registered.get() != apis) {
+            throw new IllegalStateException("Only " + registered.get() + " APIs have been deployed on " + apis);
+        }
+
+        System.out.println("\nRepository round trips: " + roundTrips.get());
+    }
+
+    @Benchmark
+    public void bench_initialSync() {
+        syncManager.refresh();
+    }
+
+    private void roundTrip() throws InterruptedException {
+        roundTrips.incrementAndGet();
+        Thread.sleep(latency);
+    }
+}
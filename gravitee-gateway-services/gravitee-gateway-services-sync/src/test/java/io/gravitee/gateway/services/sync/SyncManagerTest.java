@@ -19,6 +19,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.gravitee.common.data.domain.Page;
 import io.gravitee.gateway.handlers.api.definition.Api;
 import io.gravitee.gateway.handlers.api.manager.ApiManager;
+import io.gravitee.gateway.reactor.handler.ReactorHandlerRegistry;
 import io.gravitee.gateway.services.sync.builder.RepositoryApiBuilder;
 import io.gravitee.node.api.cluster.ClusterManager;
 import io.gravitee.repository.exceptions.TechnicalException;
@@ -36,6 +37,7 @@ import io.gravitee.repository.management.model.LifecycleState;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.Answers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
@@ -43,9 +45,11 @@ import org.mockito.junit.MockitoJUnitRunner;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -81,6 +85,9 @@ public class SyncManagerTest {
     @Mock
     private ObjectMapper objectMapper;
 
+    @Mock(answer = Answers.CALLS_REAL_METHODS)
+    private ReactorHandlerRegistry reactorHandlerRegistry;
+
     @Before
     public void setUp() {
         when(clusterManager.isMasterNode()).thenReturn(true);
@@ -139,6 +146,39 @@ public class SyncManagerTest {
         verify(apiManager, never()).unregister(any(String.class));
     }
 
+    @Test
+    public void shouldDeployApisInBatch() throws Exception {
+        io.gravitee.repository.management.model.Api api =
+                new RepositoryApiBuilder().id("api-test").updatedAt(new Date()).definition("test").build();
+
+        final io.gravitee.definition.model.Api mockApi = mockApi(api);
+
+        final Event mockEvent = mockEvent(api, EventType.PUBLISH_API);
+        when(eventRepository.search(
+                any(EventCriteria.class),
+                any(Pageable.class)
+        )).thenReturn(new Page<>(singletonList(mockEvent), 0, 0, 1));
+
+        when(apiRepository.search(null, new ApiFieldExclusionFilter.Builder().excludeDefinition().excludePicture().build())).thenReturn(singletonList(api));
+
+        AtomicBoolean batching = new AtomicBoolean();
+        doAnswer(invocation -> {
+            batching.set(true);
+            try {
+                return invocation.callRealMethod();
+            } finally {
+                batching.set(false);
+            }
+        }).when(reactorHandlerRegistry).batch(any(Runnable.class));
+        List<Boolean> registeredInBatch = new ArrayList<>();
+        when(apiManager.register(any(Api.class))).thenAnswer(invocation -> registeredInBatch.add(batching.get()));
+
+        syncManager.refresh();
+
+        verify(apiManager).register(new Api(mockApi));
+        assertEquals(singletonList(true), registeredInBatch);
+    }
+
     @Test
     public void test_twiceWithSameApi() throws Exception {
         io.gravitee.repository.management.model.Api api =
@@ -350,9 +390,7 @@ public class SyncManagerTest {
         when(eventRepository.search(
                 any(EventCriteria.class),
                 any(Pageable.class)
-        )).thenReturn(
-                new Page<>(Collections.emptyList(), 0, 0, 0),
-                new Page<>(singletonList(mockEvent), 0, 0, 1));
+        )).thenReturn(new Page<>(singletonList(mockEvent), 0, 0, 1));
 
         when(apiRepository.search(null, new ApiFieldExclusionFilter.Builder().excludeDefinition().excludePicture().build())).thenReturn(apis);
 
@@ -362,6 +400,65 @@ public class SyncManagerTest {
         verify(apiManager, never()).unregister(any(String.class));
     }
 
+    @Test
+    public void test_initialSync_lastEventsOfAllApisInOneQuery() throws Exception {
+        io.gravitee.repository.management.model.Api api = new RepositoryApiBuilder().id("api-test").updatedAt(new Date()).definition("test").build();
+        io.gravitee.repository.management.model.Api api2 = new RepositoryApiBuilder().id("api-test-2").updatedAt(new Date()).definition("test2").build();
+
+        final io.gravitee.definition.model.Api mockApi = mockApi(api);
+
+        final Event mockEvent = mockEvent(api, EventType.PUBLISH_API);
+        final Event mockEvent2 = new Event();
+        mockEvent2.setType(EventType.STOP_API);
+        mockEvent2.setCreatedAt(new Date(mockEvent.getCreatedAt().getTime() + 1000));
+        mockEvent2.setProperties(Collections.singletonMap(Event.EventProperties.API_ID.getValue(), api2.getId()));
+
+        when(eventRepository.search(
+                any(EventCriteria.class),
+                any(Pageable.class)
+        )).thenReturn(new Page<>(Arrays.asList(mockEvent2, mockEvent), 0, 0, 2));
+
+        when(apiRepository.search(null, new ApiFieldExclusionFilter.Builder().excludeDefinition().excludePicture().build())).thenReturn(Arrays.asList(api, api2));
+
+        syncManager.refresh();
+
+        verify(eventRepository, times(1)).search(any(EventCriteria.class), any(Pageable.class));
+        verify(apiManager).register(argThat(api1 -> api1.getId().equals(mockApi.getId())));
+        verify(apiManager).unregister(api2.getId());
+    }
+
+    @Test
+    public void test_initialSync_lastEventNotFoundInScannedEvents() throws Exception {
+        io.gravitee.repository.management.model.Api api = new RepositoryApiBuilder().id("api-test").updatedAt(new Date()).definition("test").build();
+
+        final io.gravitee.definition.model.Api mockApi = mockApi(api);
+
+        final Event mockEvent = mockEvent(api, EventType.PUBLISH_API);
+
+        // Events of an API which is not synchronized
+        final Event otherEvent = new Event();
+        otherEvent.setType(EventType.PUBLISH_API);
+        otherEvent.setCreatedAt(new Date());
+        otherEvent.setProperties(Collections.singletonMap(Event.EventProperties.API_ID.getValue(), "api-other"));
+
+        final Page<Event> otherEvents = new Page<>(singletonList(otherEvent), 0, 1, 10);
+
+        when(eventRepository.search(
+                any(EventCriteria.class),
+                any(Pageable.class)
+        )).thenReturn(otherEvents, otherEvents, otherEvents, new Page<>(singletonList(mockEvent), 0, 0, 1));
+
+        when(apiRepository.search(null, new ApiFieldExclusionFilter.Builder().excludeDefinition().excludePicture().build())).thenReturn(singletonList(api));
+
+        syncManager.setBatchSize(1);
+        syncManager.refresh();
+
+        // Scan is stopped after 3 events, then the last event of the API is searched by its id
+        verify(eventRepository, times(4)).search(any(EventCriteria.class), any(Pageable.class));
+        verify(apiManager).register(argThat(api1 -> api1.getId().equals(mockApi.getId())));
+        verify(apiManager, never()).unregister(any(String.class));
+    }
+
     @Test
     public void test_shouldUndeployIfLastEventIsUnpublishAPI() throws Exception {
         io.gravitee.repository.management.model.Api api = new RepositoryApiBuilder().id("api-test").updatedAt(new Date()).definition("test").build();
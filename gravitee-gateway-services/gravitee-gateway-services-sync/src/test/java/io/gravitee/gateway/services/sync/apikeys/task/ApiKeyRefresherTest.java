@@ -0,0 +1,248 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.services.sync.apikeys.task;
+
+import io.gravitee.definition.model.Plan;
+import io.gravitee.gateway.handlers.api.definition.Api;
+import io.gravitee.node.api.cluster.ClusterManager;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.ApiKeyRepository;
+import io.gravitee.repository.management.api.search.ApiKeyCriteria;
+import io.gravitee.repository.management.model.ApiKey;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Refreshes the api-keys of many APIs against an in-memory repository counting the queries it receives.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ApiKeyRefresherTest {
+
+    private static final int APIS = 5000;
+    private static final int BATCH_SIZE = 100;
+
+    private ApiKeyRefresher refresher;
+
+    private InMemoryApiKeyRepository apiKeyRepository;
+
+    private Map<String, ApiKey> cache;
+
+    @Mock
+    private ClusterManager clusterManager;
+
+    @Before
+    public void setUp() {
+        when(clusterManager.isMasterNode()).thenReturn(true);
+
+        apiKeyRepository = new InMemoryApiKeyRepository();
+        cache = new HashMap<>();
+
+        refresher = new ApiKeyRefresher();
+        refresher.setCache(cache);
+        refresher.setApiKeyRepository(apiKeyRepository);
+        refresher.setClusterManager(clusterManager);
+        refresher.setBatchSize(BATCH_SIZE);
+
+        for (int i = 0; i < APIS; i++) {
+            refresher.register(api("api-" + i));
+            apiKeyRepository.save(apiKey("key-" + i, "plan-api-" + i, false, daysAgo(30)));
+        }
+    }
+
+    @Test
+    public void shouldLoadAllApiKeysByBatches() {
+        refresher.run();
+
+        assertEquals(APIS / BATCH_SIZE, apiKeyRepository.calls);
+        assertEquals(APIS, cache.size());
+        assertTrue(apiKeyRepository.criteria.stream().noneMatch(ApiKeyCriteria::isIncludeRevoked));
+        assertTrue(apiKeyRepository.criteria.stream().allMatch(criteria -> criteria.getPlans().size() == BATCH_SIZE));
+    }
+
+    @Test
+    public void shouldRefreshUpdatedApiKeysOnly() {
+        refresher.run();
+        apiKeyRepository.reset();
+
+        apiKeyRepository.save(apiKey("key-1", "plan-api-1", true, new Date()));
+        apiKeyRepository.save(apiKey("key-new", "plan-api-2", false, new Date()));
+        refresher.run();
+
+        assertEquals(APIS / BATCH_SIZE, apiKeyRepository.calls);
+        assertTrue(apiKeyRepository.criteria.stream().allMatch(criteria -> criteria.isIncludeRevoked() && criteria.getFrom() > 0));
+        assertFalse(cache.containsKey("key-1"));
+        assertTrue(cache.containsKey("key-new"));
+        assertEquals(APIS, cache.size());
+    }
+
+    @Test
+    public void shouldLoadAllApiKeysOfNewPlans() {
+        refresher.run();
+        apiKeyRepository.reset();
+
+        refresher.register(api("api-" + APIS));
+        apiKeyRepository.save(apiKey("key-" + APIS, "plan-api-" + APIS, false, daysAgo(30)));
+        refresher.run();
+
+        // The existing plans are refreshed incrementally, the new one is loaded entirely
+        assertEquals(APIS / BATCH_SIZE + 1, apiKeyRepository.calls);
+        ApiKeyCriteria newPlanCriteria = apiKeyRepository.criteria.get(apiKeyRepository.criteria.size() - 1);
+        assertEquals(Collections.singletonList("plan-api-" + APIS), newPlanCriteria.getPlans());
+        assertFalse(newPlanCriteria.isIncludeRevoked());
+        assertTrue(cache.containsKey("key-" + APIS));
+    }
+
+    @Test
+    public void shouldNotRefreshUnregisteredApi() {
+        refresher.run();
+        apiKeyRepository.reset();
+
+        refresher.unregister("api-0");
+        refresher.run();
+
+        assertTrue(apiKeyRepository.criteria.stream().noneMatch(criteria -> criteria.getPlans().contains("plan-api-0")));
+        assertFalse(refresher.isRegistered("api-0"));
+    }
+
+    @Test
+    public void shouldBackoffOnRepositoryErrors() {
+        apiKeyRepository.failing = true;
+
+        // Runs 1, 2, 4 and 8 reach the repository: 0, 1 then 3 runs are skipped after each consecutive error
+        for (int i = 0; i < 8; i++) {
+            refresher.run();
+        }
+
+        assertEquals(4, apiKeyRepository.calls);
+        assertEquals(4, refresher.getErrorsCount());
+        assertEquals(-1, refresher.getLastRefreshAt());
+
+        // After 4 errors, the next 7 runs are skipped
+        apiKeyRepository.failing = false;
+        for (int i = 0; i < 8; i++) {
+            refresher.run();
+        }
+
+        assertEquals(APIS, cache.size());
+        assertNotEquals(-1, refresher.getLastRefreshAt());
+
+        // Once the repository is back, refreshes are no longer skipped
+        apiKeyRepository.reset();
+        refresher.run();
+        refresher.run();
+        assertEquals(2 * APIS / BATCH_SIZE, apiKeyRepository.calls);
+    }
+
+    private static Api api(String id) {
+        Plan plan = new Plan();
+        plan.setId("plan-" + id);
+        plan.setSecurity(io.gravitee.repository.management.model.Plan.PlanSecurityType.API_KEY.name());
+
+        Api api = new Api();
+        api.setId(id);
+        api.setPlans(Collections.singletonList(plan));
+        return api;
+    }
+
+    private static ApiKey apiKey(String key, String plan, boolean revoked, Date updatedAt) {
+        ApiKey apiKey = new ApiKey();
+        apiKey.setKey(key);
+        apiKey.setPlan(plan);
+        apiKey.setRevoked(revoked);
+        apiKey.setUpdatedAt(updatedAt);
+        return apiKey;
+    }
+
+    private static Date daysAgo(int days) {
+        return new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(days));
+    }
+
+    private static class InMemoryApiKeyRepository implements ApiKeyRepository {
+
+        private final Map<String, ApiKey> apiKeys = new HashMap<>();
+
+        private final List<ApiKeyCriteria> criteria = new ArrayList<>();
+
+        private int calls;
+
+        private boolean failing;
+
+        void save(ApiKey apiKey) {
+            apiKeys.put(apiKey.getKey(), apiKey);
+        }
+
+        void reset() {
+            calls = 0;
+            criteria.clear();
+        }
+
+        @Override
+        public List<ApiKey> findByCriteria(ApiKeyCriteria filter) throws TechnicalException {
+            calls++;
+            criteria.add(filter);
+
+            if (failing) {
+                throw new TechnicalException("Repository is not available");
+            }
+
+            return apiKeys.values()
+                    .stream()
+                    .filter(apiKey -> filter.getPlans().contains(apiKey.getPlan()))
+                    .filter(apiKey -> filter.isIncludeRevoked() || !apiKey.isRevoked())
+                    .filter(apiKey -> filter.getFrom() == 0 || apiKey.getUpdatedAt().getTime() >= filter.getFrom())
+                    .filter(apiKey -> filter.getTo() == 0 || apiKey.getUpdatedAt().getTime() <= filter.getTo())
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public Optional<ApiKey> findById(String apiKey) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public ApiKey create(ApiKey apiKey) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public ApiKey update(ApiKey apiKey) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public Set<ApiKey> findBySubscription(String subscription) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public Set<ApiKey> findByPlan(String plan) {
+            throw new IllegalStateException();
+        }
+    }
+}
@@ -65,11 +65,12 @@ public class ApiKeyRepositoryRefresherTest {
 
     @Before
     public void setUp() {
-        refresher = new ApiKeyRefresher(api);
+        refresher = new ApiKeyRefresher();
         refresher.setCache(cache);
         refresher.setApiKeyRepository(apiKeyRepository);
         refresher.setClusterManager(clusterManager);
         when(clusterManager.isMasterNode()).thenReturn(true);
+        when(api.getId()).thenReturn("api-id");
     }
 
     @Test
@@ -81,7 +82,7 @@ public class ApiKeyRepositoryRefresherTest {
         List<Plan> plans = Collections.singletonList(plan);
         when(api.getPlans()).thenReturn(plans);
 
-        refresher.initialize();
+        refresher.register(api);
         refresher.run();
 
         verify(apiKeyRepository, never()).findByCriteria(any());
@@ -97,7 +98,7 @@ public class ApiKeyRepositoryRefresherTest {
         List<Plan> plans = Collections.singletonList(plan);
         when(api.getPlans()).thenReturn(plans);
 
-        refresher.initialize();
+        refresher.register(api);
         refresher.run();
 
         verify(apiKeyRepository).findByCriteria(ArgumentMatchers.argThat(criteria -> !criteria.isIncludeRevoked() &&
@@ -116,7 +117,7 @@ public class ApiKeyRepositoryRefresherTest {
 
         when(apiKeyRepository.findByCriteria(any())).thenThrow(TechnicalException.class);
 
-        refresher.initialize();
+        refresher.register(api);
         refresher.run();
 
         verify(apiKeyRepository).findByCriteria(ArgumentMatchers.argThat(criteria -> !criteria.isIncludeRevoked() &&
@@ -134,7 +135,7 @@ public class ApiKeyRepositoryRefresherTest {
         List<Plan> plans = Collections.singletonList(plan);
         when(api.getPlans()).thenReturn(plans);
 
-        refresher.initialize();
+        refresher.register(api);
         refresher.run();
 
         verify(apiKeyRepository).findByCriteria(ArgumentMatchers.argThat(criteria -> !criteria.isIncludeRevoked() &&
@@ -149,7 +150,7 @@ public class ApiKeyRepositoryRefresherTest {
         List<Plan> plans = Collections.singletonList(plan);
         when(api.getPlans()).thenReturn(plans);
 
-        refresher.initialize();
+        refresher.register(api);
         refresher.run();
 
         verify(apiKeyRepository).findByCriteria(ArgumentMatchers.argThat(criteria -> !criteria.isIncludeRevoked() &&
@@ -164,7 +165,7 @@ public class ApiKeyRepositoryRefresherTest {
         List<Plan> plans = Collections.singletonList(plan);
         when(api.getPlans()).thenReturn(plans);
 
-        refresher.initialize();
+        refresher.register(api);
         refresher.run();
 
         Mockito.verifyZeroInteractions(apiKeyRepository);
@@ -176,7 +177,7 @@ public class ApiKeyRepositoryRefresherTest {
         List<Plan> plans = Collections.singletonList(plan);
         when(api.getPlans()).thenReturn(plans);
 
-        refresher.initialize();
+        refresher.register(api);
         refresher.run();
         refresher.run();
 
@@ -206,7 +207,7 @@ public class ApiKeyRepositoryRefresherTest {
         when(apiKeyRepository.findByCriteria(Mockito.any(ApiKeyCriteria.class)))
                 .thenReturn(Collections.singletonList(apiKey1));
 
-        refresher.initialize();
+        refresher.register(api);
         refresher.run();
         refresher.run();
 
@@ -245,7 +246,7 @@ public class ApiKeyRepositoryRefresherTest {
                 .thenReturn(Collections.singletonList(apiKey1))
                 .thenReturn(Collections.singletonList(apiKey2));
 
-        refresher.initialize();
+        refresher.register(api);
         refresher.run();
         refresher.run();
 
@@ -0,0 +1,187 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.services.sync.cache;
+
+import com.google.common.base.Ticker;
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.listener.EntryUpdatedListener;
+import com.hazelcast.map.listener.MapListener;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public class NearCachedMapTest {
+
+    private static final long TTL = 60;
+    private static final long MISS_TTL = 5;
+
+    private Map<String, String> source;
+
+    private FakeTicker ticker;
+
+    private NearCachedMap<String, String> cache;
+
+    @Before
+    public void setUp() {
+        source = spy(new HashMap<>());
+        ticker = new FakeTicker();
+        cache = new NearCachedMap<>(source, 2, TTL, MISS_TTL, TimeUnit.SECONDS, ticker);
+    }
+
+    @Test
+    public void shouldServeEntryLocally() {
+        source.put("key", "value");
+
+        assertEquals("value", cache.get("key"));
+        assertEquals("value", cache.get("key"));
+
+        verify(source, times(1)).get("key");
+        assertEquals(1, cache.stats().hitCount());
+    }
+
+    @Test
+    public void shouldCacheUnknownKey() {
+        assertNull(cache.get("unknown"));
+        assertNull(cache.get("unknown"));
+
+        verify(source, times(1)).get("unknown");
+    }
+
+    @Test
+    public void shouldGetIfCachedWithoutReadingSource() {
+        source.put("key", "value");
+
+        // Not read yet: the source map has to be read
+        assertFalse(cache.getIfCached("key").isPresent());
+        assertFalse(cache.getIfCached("unknown").isPresent());
+
+        cache.get("key");
+        cache.get("unknown");
+
+        assertEquals(Optional.of("value"), cache.getIfCached("key").get());
+        assertEquals(Optional.empty(), cache.getIfCached("unknown").get());
+        verify(source, times(1)).get("key");
+        verify(source, times(1)).get("unknown");
+    }
+
+    @Test
+    public void shouldExpireEntries() {
+        source.put("key", "value");
+        cache.get("key");
+        cache.get("unknown");
+
+        ticker.advance(MISS_TTL);
+        cache.get("key");
+        cache.get("unknown");
+
+        verify(source, times(1)).get("key");
+        verify(source, times(2)).get("unknown");
+
+        ticker.advance(TTL);
+        cache.get("key");
+
+        verify(source, times(2)).get("key");
+    }
+
+    @Test
+    public void shouldInvalidateOnPut() {
+        assertNull(cache.get("key"));
+
+        cache.put("key", "value");
+        assertEquals("value", cache.get("key"));
+
+        cache.put("key", "other");
+        assertEquals("other", cache.get("key"));
+        assertEquals("other", source.get("key"));
+    }
+
+    @Test
+    public void shouldInvalidateOnRemove() {
+        cache.put("key", "value");
+        assertEquals("value", cache.get("key"));
+
+        cache.remove("key");
+        assertNull(cache.get("key"));
+        assertNull(source.get("key"));
+    }
+
+    @Test
+    public void shouldBoundLocalEntries() {
+        source.put("key1", "value1");
+        source.put("key2", "value2");
+        source.put("key3", "value3");
+
+        cache.get("key1");
+        cache.get("key2");
+        cache.get("key3");
+
+        assertEquals(2, cache.localSize());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldInvalidateOnClusterUpdate() {
+        IMap<String, String> distributed = mock(IMap.class);
+        when(distributed.addEntryListener(any(MapListener.class), eq(false))).thenReturn("listener");
+        when(distributed.get("key")).thenReturn("value", "updated");
+
+        NearCachedMap<String, String> cache = new NearCachedMap<>(distributed, 2, TTL, MISS_TTL, TimeUnit.SECONDS, ticker);
+        ArgumentCaptor<MapListener> listener = ArgumentCaptor.forClass(MapListener.class);
+        verify(distributed).addEntryListener(listener.capture(), eq(false));
+
+        assertEquals("value", cache.get("key"));
+        assertEquals("value", cache.get("key"));
+
+        // Another member of the cluster has updated the entry
+        EntryEvent<String, String> event = mock(EntryEvent.class);
+        when(event.getKey()).thenReturn("key");
+        ((EntryUpdatedListener<String, String>) listener.getValue()).entryUpdated(event);
+
+        assertEquals("updated", cache.get("key"));
+
+        cache.close();
+        verify(distributed).removeEntryListener("listener");
+    }
+
+    private static class FakeTicker extends Ticker {
+
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long seconds) {
+            nanos += TimeUnit.SECONDS.toNanos(seconds);
+        }
+    }
+}
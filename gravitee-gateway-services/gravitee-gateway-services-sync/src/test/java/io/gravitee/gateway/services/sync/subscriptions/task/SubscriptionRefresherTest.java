@@ -0,0 +1,325 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.services.sync.subscriptions.task;
+
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.listener.EntryAddedListener;
+import com.hazelcast.map.listener.EntryRemovedListener;
+import com.hazelcast.map.listener.MapListener;
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.definition.model.Plan;
+import io.gravitee.gateway.handlers.api.definition.Api;
+import io.gravitee.gateway.services.sync.subscriptions.cache.SubscriptionIndex;
+import io.gravitee.node.api.cluster.ClusterManager;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.SubscriptionRepository;
+import io.gravitee.repository.management.api.search.Pageable;
+import io.gravitee.repository.management.api.search.SubscriptionCriteria;
+import io.gravitee.repository.management.model.Subscription;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Refreshes the subscriptions of many APIs against an in-memory repository counting the queries it receives.
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SubscriptionRefresherTest {
+
+    private static final int APIS = 5000;
+    private static final int BATCH_SIZE = 100;
+
+    private SubscriptionRefresher refresher;
+
+    private InMemorySubscriptionRepository subscriptionRepository;
+
+    private Map<String, Subscription> cache;
+
+    private SubscriptionIndex index;
+
+    @Mock
+    private ClusterManager clusterManager;
+
+    @Before
+    public void setUp() {
+        subscriptionRepository = new InMemorySubscriptionRepository();
+        cache = new HashMap<>();
+        index = new SubscriptionIndex();
+
+        refresher = new SubscriptionRefresher();
+        refresher.setCache(cache);
+        refresher.setIndex(index);
+        refresher.setSubscriptionRepository(subscriptionRepository);
+        refresher.setClusterManager(clusterManager);
+        refresher.setBatchSize(BATCH_SIZE);
+
+        for (int i = 0; i < APIS; i++) {
+            refresher.register(api("api-" + i));
+            subscriptionRepository.save(subscription("sub-" + i, "api-" + i, "client-" + i, Subscription.Status.ACCEPTED, daysAgo(30)));
+        }
+    }
+
+    @Test
+    public void shouldLoadAllSubscriptionsByBatches() {
+        refresher.run();
+
+        assertEquals(APIS / BATCH_SIZE, subscriptionRepository.calls);
+        assertTrue(subscriptionRepository.criteria.stream().allMatch(criteria -> criteria.getPlans().size() == BATCH_SIZE));
+        assertEquals(APIS, index.size());
+        assertEquals(APIS, cache.size());
+        assertEquals("sub-42", index.find("api-42", "client-42").getId());
+        assertNull(index.find("api-42", "client-43"));
+    }
+
+    @Test
+    public void shouldRefreshUpdatedSubscriptionsOnly() {
+        refresher.run();
+        subscriptionRepository.reset();
+
+        subscriptionRepository.save(subscription("sub-1", "api-1", "client-1", Subscription.Status.CLOSED, new Date()));
+        subscriptionRepository.save(subscription("sub-2", "api-2", "other-client", Subscription.Status.ACCEPTED, new Date()));
+        refresher.run();
+
+        assertEquals(APIS / BATCH_SIZE, subscriptionRepository.calls);
+        assertTrue(subscriptionRepository.criteria.stream().allMatch(criteria -> criteria.getFrom() > 0));
+
+        assertNull(index.find("api-1", "client-1"));
+        assertFalse(cache.containsKey("sub-1"));
+
+        assertNull(index.find("api-2", "client-2"));
+        assertEquals("sub-2", index.find("api-2", "other-client").getId());
+        assertEquals("other-client", cache.get("sub-2").getClientId());
+
+        assertEquals(APIS - 1, index.size());
+    }
+
+    @Test
+    public void shouldLoadAllSubscriptionsOfNewPlans() {
+        refresher.run();
+        subscriptionRepository.reset();
+
+        refresher.register(api("api-" + APIS));
+        subscriptionRepository.save(subscription("sub-" + APIS, "api-" + APIS, "client-" + APIS, Subscription.Status.ACCEPTED, daysAgo(30)));
+        refresher.run();
+
+        assertEquals(APIS / BATCH_SIZE + 1, subscriptionRepository.calls);
+        assertNotNull(index.find("api-" + APIS, "client-" + APIS));
+    }
+
+    @Test
+    public void shouldBackoffOnRepositoryErrors() {
+        subscriptionRepository.failing = true;
+
+        // Runs 1, 2, 4 and 8 reach the repository: 0, 1 then 3 runs are skipped after each consecutive error
+        for (int i = 0; i < 8; i++) {
+            refresher.run();
+        }
+
+        assertEquals(4, subscriptionRepository.calls);
+        assertEquals(4, refresher.getErrorsCount());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void shouldBuildIndexFromDistributedCache_notMasterNode() {
+        when(clusterManager.isMasterNode()).thenReturn(false);
+        refresher.setDistributed(true);
+
+        cache.put("sub-1", subscription("sub-1", "api-1", "client-1", Subscription.Status.ACCEPTED, new Date()));
+        refresher.run();
+
+        assertEquals(0, subscriptionRepository.calls);
+        assertEquals("sub-1", index.find("api-1", "client-1").getId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldFollowDistributedCacheChanges_notMasterNode() {
+        when(clusterManager.isMasterNode()).thenReturn(false);
+
+        IMap<String, Subscription> distributedCache = mock(IMap.class);
+        when(distributedCache.addEntryListener(any(MapListener.class), eq(true))).thenReturn("listener");
+        when(distributedCache.values()).thenReturn(Collections.singletonList(
+                subscription("sub-1", "api-1", "client-1", Subscription.Status.ACCEPTED, new Date())));
+
+        refresher.setCache(distributedCache);
+        refresher.setDistributed(true);
+        refresher.initialize();
+
+        ArgumentCaptor<MapListener> listener = ArgumentCaptor.forClass(MapListener.class);
+        verify(distributedCache).addEntryListener(listener.capture(), eq(true));
+
+        refresher.run();
+        assertNotNull(index.find("api-1", "client-1"));
+
+        // The master node has updated the distributed cache
+        Subscription added = subscription("sub-2", "api-2", "client-2", Subscription.Status.ACCEPTED, new Date());
+        ((EntryAddedListener<String, Subscription>) listener.getValue()).entryAdded(event("sub-2", added));
+        ((EntryRemovedListener<String, Subscription>) listener.getValue()).entryRemoved(event("sub-1", null));
+
+        // Changes are applied as soon as they are received
+        assertNull(index.find("api-1", "client-1"));
+        assertEquals("sub-2", index.find("api-2", "client-2").getId());
+        assertEquals(0, subscriptionRepository.calls);
+
+        refresher.close();
+        verify(distributedCache).removeEntryListener("listener");
+    }
+
+    @Test
+    public void shouldResyncIndexFromDistributedCache_notMasterNode() {
+        when(clusterManager.isMasterNode()).thenReturn(false);
+        refresher.setDistributed(true);
+
+        refresher.run();
+        assertNull(index.find("api-1", "client-1"));
+
+        // A change of the distributed cache has been missed
+        cache.put("sub-1", subscription("sub-1", "api-1", "client-1", Subscription.Status.ACCEPTED, new Date()));
+
+        for (int i = 1; i < SubscriptionRefresher.RESYNC_RUNS; i++) {
+            refresher.run();
+        }
+        assertNull(index.find("api-1", "client-1"));
+
+        refresher.run();
+        assertEquals("sub-1", index.find("api-1", "client-1").getId());
+        assertEquals(0, subscriptionRepository.calls);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static EntryEvent<String, Subscription> event(String key, Subscription value) {
+        EntryEvent<String, Subscription> event = mock(EntryEvent.class);
+        when(event.getKey()).thenReturn(key);
+        if (value != null) {
+            when(event.getValue()).thenReturn(value);
+        }
+        return event;
+    }
+
+    private static Api api(String id) {
+        Plan plan = new Plan();
+        plan.setId("plan-" + id);
+        plan.setSecurity(io.gravitee.repository.management.model.Plan.PlanSecurityType.OAUTH2.name());
+
+        Api api = new Api();
+        api.setId(id);
+        api.setPlans(Collections.singletonList(plan));
+        return api;
+    }
+
+    private static Subscription subscription(String id, String api, String clientId, Subscription.Status status, Date updatedAt) {
+        Subscription subscription = new Subscription();
+        subscription.setId(id);
+        subscription.setApi(api);
+        subscription.setPlan("plan-" + api);
+        subscription.setClientId(clientId);
+        subscription.setStatus(status);
+        subscription.setUpdatedAt(updatedAt);
+        return subscription;
+    }
+
+    private static Date daysAgo(int days) {
+        return new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(days));
+    }
+
+    private static class InMemorySubscriptionRepository implements SubscriptionRepository {
+
+        private final Map<String, Subscription> subscriptions = new HashMap<>();
+
+        private final List<SubscriptionCriteria> criteria = new ArrayList<>();
+
+        private int calls;
+
+        private boolean failing;
+
+        void save(Subscription subscription) {
+            subscriptions.put(subscription.getId(), subscription);
+        }
+
+        void reset() {
+            calls = 0;
+            criteria.clear();
+        }
+
+        @Override
+        public List<Subscription> search(SubscriptionCriteria filter) throws TechnicalException {
+            calls++;
+            criteria.add(filter);
+
+            if (failing) {
+                throw new TechnicalException("Repository is not available");
+            }
+
+            return subscriptions.values()
+                    .stream()
+                    .filter(subscription -> filter.getPlans().contains(subscription.getPlan()))
+                    .filter(subscription -> filter.getStatuses().contains(subscription.getStatus()))
+                    .filter(subscription -> filter.getFrom() == 0 || subscription.getUpdatedAt().getTime() >= filter.getFrom())
+                    .filter(subscription -> filter.getTo() == 0 || subscription.getUpdatedAt().getTime() <= filter.getTo())
+                    .map(this::copy)
+                    .collect(Collectors.toList());
+        }
+
+        private Subscription copy(Subscription subscription) {
+            // The copy constructor ignores the client id
+            Subscription copy = new Subscription(subscription);
+            copy.setClientId(subscription.getClientId());
+            return copy;
+        }
+
+        @Override
+        public Page<Subscription> search(SubscriptionCriteria criteria, Pageable pageable) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public Optional<Subscription> findById(String id) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public Subscription create(Subscription subscription) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public Subscription update(Subscription subscription) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public void delete(String id) {
+            throw new IllegalStateException();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.standalone.buffer;
+
+import io.gravitee.gateway.api.buffer.Buffer;
+import io.gravitee.gateway.buffer.netty.BufferImpl;
+import io.gravitee.gateway.core.buffer.NativeBufferFactory;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public class NettyNativeBufferFactory implements NativeBufferFactory {
+
+    @Override
+    public Buffer wrap(ByteBuf nativeBuffer) {
+        return BufferImpl.wrap(nativeBuffer);
+    }
+
+    @Override
+    public boolean isPooled(Buffer buffer) {
+        return buffer instanceof BufferImpl && ((BufferImpl) buffer).isPooled();
+    }
+}
@@ -28,6 +28,7 @@ import io.gravitee.gateway.api.buffer.Buffer;
 import io.gravitee.gateway.api.handler.Handler;
 import io.gravitee.gateway.api.http2.HttpFrame;
 import io.gravitee.gateway.api.ws.WebSocket;
+import io.gravitee.gateway.buffer.netty.BufferImpl;
 import io.gravitee.reporter.api.http.Metrics;
 import io.vertx.core.MultiMap;
 import io.vertx.core.http.HttpServerRequest;
@@ -182,7 +183,8 @@ public class VertxHttpServerRequest implements Request {
     public Request bodyHandler(Handler<Buffer> bodyHandler) {
         if (! serverRequest.isEnded()) {
             serverRequest.handler(event -> {
-                bodyHandler.handle(Buffer.buffer(event.getBytes()));
+                // Vert.x gives its own copy of the received content, it can be shared without any further copy
+                bodyHandler.handle(BufferImpl.wrap(event.getByteBuf()));
                 metrics.setRequestContentLength(metrics.getRequestContentLength() + event.length());
             });
         }
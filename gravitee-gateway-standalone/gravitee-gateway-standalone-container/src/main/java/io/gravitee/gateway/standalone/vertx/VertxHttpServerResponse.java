@@ -22,6 +22,7 @@ import io.gravitee.gateway.api.Response;
 import io.gravitee.gateway.api.buffer.Buffer;
 import io.gravitee.gateway.api.handler.Handler;
 import io.gravitee.gateway.api.stream.WriteStream;
+import io.gravitee.gateway.buffer.netty.BufferImpl;
 import io.netty.buffer.ByteBuf;
 import io.vertx.core.http.HttpServerResponse;
 
@@ -104,11 +105,24 @@ public class VertxHttpServerResponse implements Response {
             }
 
             serverRequest.metrics().setResponseContentLength(serverRequest.metrics().getResponseContentLength() + chunk.length());
-            serverResponse.write(io.vertx.core.buffer.Buffer.buffer((ByteBuf) chunk.getNativeBuffer()));
+            io.vertx.core.buffer.Buffer buffer = io.vertx.core.buffer.Buffer.buffer((ByteBuf) chunk.getNativeBuffer());
+
+            if (isPooled(chunk)) {
+                // Pooled memory is given back once the chunk has been written
+                serverResponse.write(buffer, result -> ((BufferImpl) chunk).release());
+            } else {
+                serverResponse.write(buffer);
+            }
+        } else if (isPooled(chunk)) {
+            ((BufferImpl) chunk).release();
         }
         return this;
     }
 
+    private static boolean isPooled(Buffer chunk) {
+        return chunk instanceof BufferImpl && ((BufferImpl) chunk).isPooled();
+    }
+
     @Override
     public WriteStream<Buffer> drainHandler(Handler<Void> drainHandler) {
         serverResponse.drainHandler((aVoid -> drainHandler.handle(null)));
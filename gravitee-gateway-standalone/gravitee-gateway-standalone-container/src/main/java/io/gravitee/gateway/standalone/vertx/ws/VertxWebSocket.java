@@ -17,8 +17,7 @@ package io.gravitee.gateway.standalone.vertx.ws;
 
 import io.gravitee.gateway.api.handler.Handler;
 import io.gravitee.gateway.api.ws.WebSocket;
-import io.gravitee.gateway.api.ws.WebSocketFrame;
-import io.vertx.core.buffer.Buffer;
+import io.gravitee.gateway.core.proxy.ws.WebSocketFrames;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.ServerWebSocket;
 
@@ -55,12 +54,10 @@ class VertxWebSocket implements WebSocket {
 
     @Override
     public WebSocket write(io.gravitee.gateway.api.ws.WebSocketFrame frame) {
-        if (frame.type() == io.gravitee.gateway.api.ws.WebSocketFrame.Type.BINARY && frame.isFinal()) {
-            websocket.writeFrame(io.vertx.core.http.WebSocketFrame.binaryFrame(Buffer.buffer(frame.data().getBytes()), frame.isFinal()));
-        } else if (frame.type() == io.gravitee.gateway.api.ws.WebSocketFrame.Type.TEXT && frame.isFinal()) {
-            websocket.writeFrame(io.vertx.core.http.WebSocketFrame.textFrame(frame.data().toString(), frame.isFinal()));
-        } else if (frame.type() == WebSocketFrame.Type.CONTINUATION) {
-            websocket.writeFrame(io.vertx.core.http.WebSocketFrame.continuationFrame(Buffer.buffer(frame.data().toString()), frame.isFinal()));
+        io.vertx.core.http.WebSocketFrame vertxFrame = WebSocketFrames.toVertx(frame);
+
+        if (vertxFrame != null) {
+            websocket.writeFrame(vertxFrame);
         }
 
         return this;
@@ -17,6 +17,7 @@ package io.gravitee.gateway.standalone.vertx.ws;
 
 import io.gravitee.gateway.api.buffer.Buffer;
 import io.gravitee.gateway.api.ws.WebSocketFrame;
+import io.gravitee.gateway.buffer.netty.BufferImpl;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -25,6 +26,7 @@ import io.gravitee.gateway.api.ws.WebSocketFrame;
 class VertxWebSocketFrame implements WebSocketFrame {
 
     private final io.vertx.core.http.WebSocketFrame frame;
+    private Buffer data;
 
     VertxWebSocketFrame(io.vertx.core.http.WebSocketFrame frame) {
         this.frame = frame;
@@ -41,7 +43,12 @@ class VertxWebSocketFrame implements WebSocketFrame {
 
     @Override
     public Buffer data() {
-        return Buffer.buffer(frame.binaryData().getBytes());
+        if (data == null) {
+            // Payload is shared as-is, without copying it nor decoding text
+            data = BufferImpl.wrap(frame.binaryData().getByteBuf());
+        }
+
+        return data;
     }
 
     @Override
@@ -0,0 +1,44 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.standalone.buffer;
+
+import io.gravitee.gateway.api.buffer.Buffer;
+import io.gravitee.gateway.core.buffer.NativeBuffers;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public class NettyNativeBufferFactoryTest {
+
+    @Test
+    public void shouldWrapWithoutCopy() {
+        ByteBuf nativeBuffer = Unpooled.copiedBuffer("gravitee", StandardCharsets.UTF_8);
+
+        Buffer buffer = NativeBuffers.wrap(nativeBuffer);
+
+        assertEquals("gravitee", buffer.toString());
+        assertSame(nativeBuffer.array(), ((ByteBuf) buffer.getNativeBuffer()).array());
+        assertFalse(NativeBuffers.isPooled(buffer));
+    }
+}
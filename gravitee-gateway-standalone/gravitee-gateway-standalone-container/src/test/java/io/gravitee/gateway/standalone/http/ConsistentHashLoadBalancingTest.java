@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.standalone.http;
+
+import io.gravitee.gateway.standalone.AbstractWiremockGatewayTest;
+import io.gravitee.gateway.standalone.junit.annotation.ApiDescriptor;
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.fluent.Executor;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.util.EntityUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+@ApiDescriptor("/io/gravitee/gateway/standalone/http/consistent-hash-load-balancing.json")
+public class ConsistentHashLoadBalancingTest extends AbstractWiremockGatewayTest {
+
+    // Cookies are handled by the tests themselves
+    private final Executor executor = Executor.newInstance(HttpClientBuilder.create().disableCookieManagement().build());
+
+    @Before
+    public void setUp() {
+        wireMockRule.stubFor(get("/api1").willReturn(ok("api1").withHeader("Set-Cookie", "backend=api1")));
+        wireMockRule.stubFor(get("/api2").willReturn(ok("api2").withHeader("Set-Cookie", "backend=api2")));
+    }
+
+    @Test
+    public void call_consistent_hash_lb_same_endpoint_for_same_key() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            String client = "client-" + i;
+            String endpoint = body(call(Request.Get("http://localhost:8082/api").addHeader("X-Client", client)));
+
+            for (int j = 0; j < 3; j++) {
+                assertEquals(endpoint, body(call(Request.Get("http://localhost:8082/api").addHeader("X-Client", client))));
+            }
+        }
+
+        // Both endpoints are expected to serve some of the clients
+        assertTrue(wireMockRule.findAll(getRequestedFor(urlPathEqualTo("/api1"))).size() > 0);
+        assertTrue(wireMockRule.findAll(getRequestedFor(urlPathEqualTo("/api2"))).size() > 0);
+    }
+
+    @Test
+    public void call_consistent_hash_lb_sticky_with_cookie() throws Exception {
+        HttpResponse first = call(Request.Get("http://localhost:8082/api"));
+        String endpoint = body(first);
+
+        List<String> cookies = Arrays.stream(first.getHeaders("Set-Cookie")).map(Header::getValue).collect(Collectors.toList());
+        assertEquals(cookies.toString(), 2, cookies.size());
+        assertTrue(cookies.contains("backend=" + endpoint));
+
+        String sticky = cookies.stream().filter(cookie -> cookie.startsWith("GRAVITEE-LB=")).findFirst()
+                .map(cookie -> cookie.substring(0, cookie.indexOf(';'))).orElse(null);
+        assertTrue(cookies.toString(), sticky != null);
+
+        for (int i = 0; i < 10; i++) {
+            HttpResponse response = call(Request.Get("http://localhost:8082/api").addHeader("Cookie", sticky));
+
+            assertEquals(endpoint, body(response));
+            assertEquals(1, response.getHeaders("Set-Cookie").length);
+        }
+    }
+
+    private HttpResponse call(Request request) throws Exception {
+        HttpResponse response = executor.execute(request).returnResponse();
+
+        assertEquals(HttpStatus.SC_OK, response.getStatusLine().getStatusCode());
+        return response;
+    }
+
+    private static String body(HttpResponse response) throws Exception {
+        return EntityUtils.toString(response.getEntity());
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.standalone.http;
+
+import io.gravitee.gateway.standalone.AbstractWiremockGatewayTest;
+import io.gravitee.gateway.standalone.junit.annotation.ApiDescriptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.util.EntityUtils;
+import org.junit.Test;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+@ApiDescriptor("/io/gravitee/gateway/standalone/http/ewma-load-balancing.json")
+public class EwmaLoadBalancingTest extends AbstractWiremockGatewayTest {
+
+    private static final int DELAY = 100;
+
+    @Test
+    public void call_ewma_lb_shift_traffic_to_fastest_endpoint() throws Exception {
+        wireMockRule.stubFor(get("/api1").willReturn(ok("api1").withFixedDelay(DELAY)));
+        wireMockRule.stubFor(get("/api2").willReturn(ok("api2")));
+
+        int calls = 40;
+
+        for (int i = 0; i < calls; i++) {
+            call();
+        }
+
+        // Only the first call and the probes (10% of the calls, half of them on the slow endpoint) should reach api1
+        int slowCalls = wireMockRule.findAll(getRequestedFor(urlPathEqualTo("/api1"))).size();
+        assertTrue("Too many calls to the slow endpoint: " + slowCalls, slowCalls <= 10);
+
+        // Now the other endpoint is slowing down while the first one recovers
+        wireMockRule.stubFor(get("/api1").willReturn(ok("api1")));
+        wireMockRule.stubFor(get("/api2").willReturn(ok("api2").withFixedDelay(DELAY)));
+
+        int consecutive = 0;
+        for (int i = 0; i < 200 && consecutive < 10; i++) {
+            consecutive = call().equals("api1") ? consecutive + 1 : 0;
+        }
+
+        assertEquals(10, consecutive);
+    }
+
+    private String call() throws Exception {
+        HttpResponse response = Request.Get("http://localhost:8082/api").execute().returnResponse();
+
+        assertEquals(HttpStatus.SC_OK, response.getStatusLine().getStatusCode());
+        return EntityUtils.toString(response.getEntity());
+    }
+}
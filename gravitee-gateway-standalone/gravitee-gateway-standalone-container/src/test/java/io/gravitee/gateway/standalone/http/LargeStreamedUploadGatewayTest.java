@@ -0,0 +1,208 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.standalone.http;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.gravitee.definition.model.Api;
+import io.gravitee.definition.model.Endpoint;
+import io.gravitee.gateway.standalone.AbstractGatewayTest;
+import io.gravitee.gateway.standalone.junit.annotation.ApiDescriptor;
+import io.gravitee.gateway.standalone.junit.rules.ApiDeployer;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.util.ResourceLeakDetector;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.streams.Pump;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+import org.junit.rules.TestRule;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.URL;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * Streams a large request body through the gateway to an echo backend, with Netty leak detection set to paranoid, to
+ * ensure the body is forwarded without any lost or leaked buffer.
+ *
+ * The upload is 8 MiB by default, enough for many backpressure cycles. Larger uploads, such as the 1 GiB one used to
+ * track memory usage, can be run using the <code>gravitee.test.upload.size</code> system property:
+ * <code>mvn test -Dtest=LargeStreamedUploadGatewayTest -Dgravitee.test.upload.size=1073741824</code>
+ *
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+@ApiDescriptor("/io/gravitee/gateway/standalone/http/large-upload.json")
+public class LargeStreamedUploadGatewayTest extends AbstractGatewayTest {
+
+    private static final long UPLOAD_SIZE = Long.getLong("gravitee.test.upload.size", 8L * 1024 * 1024);
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private static ResourceLeakDetector.Level leakDetectionLevel;
+    private static ListAppender<ILoggingEvent> leakAppender;
+    private static Vertx vertx;
+    private static HttpServer backend;
+
+    @Rule
+    public final TestRule chain = RuleChain.outerRule(new ApiDeployer(this));
+
+    @BeforeClass
+    public static void startBackend() throws Exception {
+        leakDetectionLevel = ResourceLeakDetector.getLevel();
+        ResourceLeakDetector.setLevel(ResourceLeakDetector.Level.PARANOID);
+
+        leakAppender = new ListAppender<>();
+        leakAppender.start();
+        ((Logger) LoggerFactory.getLogger(ResourceLeakDetector.class)).addAppender(leakAppender);
+
+        vertx = Vertx.vertx();
+
+        CompletableFuture<HttpServer> started = new CompletableFuture<>();
+        vertx.createHttpServer()
+                .requestHandler(request -> {
+                    request.response().setChunked(true);
+                    request.endHandler(aVoid -> request.response().end());
+                    Pump.pump(request, request.response()).start();
+                })
+                .listen(0, event -> {
+                    if (event.succeeded()) {
+                        started.complete(event.result());
+                    } else {
+                        started.completeExceptionally(event.cause());
+                    }
+                });
+
+        backend = started.get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterClass
+    public static void stopBackend() {
+        ((Logger) LoggerFactory.getLogger(ResourceLeakDetector.class)).detachAppender(leakAppender);
+        ResourceLeakDetector.setLevel(leakDetectionLevel);
+        vertx.close();
+    }
+
+    @Override
+    public void before(Api api) {
+        super.before(api);
+
+        // Define dynamically endpoint port
+        for (Endpoint endpoint : api.getProxy().getGroups().iterator().next().getEndpoints()) {
+            try {
+                URL url = new URL(endpoint.getTarget());
+                endpoint.setTarget(new URI(url.getProtocol(), null, url.getHost(), backend.actualPort(),
+                        url.getPath(), null, null).toString());
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+
+    @Test
+    public void shouldStreamLargeBodyWithoutLeak() throws Exception {
+        HttpClient client = vertx.createHttpClient(new HttpClientOptions()
+                .setDefaultHost("localhost")
+                .setDefaultPort(8082));
+
+        CRC32 sentChecksum = new CRC32();
+        CRC32 receivedChecksum = new CRC32();
+        AtomicLong received = new AtomicLong();
+        CompletableFuture<Integer> completed = new CompletableFuture<>();
+
+        HttpClientRequest request = client.request(HttpMethod.POST, "/test/echo", response -> {
+            response.handler(chunk -> {
+                receivedChecksum.update(chunk.getBytes());
+                received.addAndGet(chunk.length());
+            });
+            response.endHandler(aVoid -> completed.complete(response.statusCode()));
+            response.exceptionHandler(completed::completeExceptionally);
+        });
+
+        request.setChunked(true);
+        request.exceptionHandler(completed::completeExceptionally);
+
+        // Wait for the connection before writing, so the write queue reflects the gateway backpressure
+        request.sendHead(version -> new Uploader(request, sentChecksum).write());
+
+        Assert.assertEquals(200, (int) completed.get(10, TimeUnit.MINUTES));
+        Assert.assertEquals(UPLOAD_SIZE, received.get());
+        Assert.assertEquals(sentChecksum.getValue(), receivedChecksum.getValue());
+
+        client.close();
+
+        assertNoLeak();
+    }
+
+    private static void assertNoLeak() throws InterruptedException {
+        // Leaks are only reported while allocating, once the leaked buffers have been garbage collected
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(100);
+            ByteBufAllocator.DEFAULT.buffer(1).release();
+        }
+
+        Assert.assertTrue(leakAppender.list.toString(), leakAppender.list.isEmpty());
+    }
+
+    private static class Uploader {
+
+        private final HttpClientRequest request;
+        private final CRC32 checksum;
+        private final byte[] chunk = new byte[CHUNK_SIZE];
+        private long remaining = UPLOAD_SIZE;
+        private int sequence;
+
+        private Uploader(HttpClientRequest request, CRC32 checksum) {
+            this.request = request;
+            this.checksum = checksum;
+        }
+
+        private void write() {
+            while (remaining > 0 && !request.writeQueueFull()) {
+                int length = (int) Math.min(remaining, CHUNK_SIZE);
+                for (int i = 0; i < length; i++) {
+                    chunk[i] = (byte) (sequence + i);
+                }
+                sequence++;
+
+                checksum.update(chunk, 0, length);
+                request.write(Buffer.buffer(length).appendBytes(chunk, 0, length));
+                remaining -= length;
+            }
+
+            if (remaining > 0) {
+                request.drainHandler(aVoid -> write());
+            } else {
+                request.end();
+            }
+        }
+    }
+}
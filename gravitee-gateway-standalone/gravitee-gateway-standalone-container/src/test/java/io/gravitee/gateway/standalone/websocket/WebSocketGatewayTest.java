@@ -0,0 +1,155 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.gateway.standalone.websocket;
+
+import io.gravitee.definition.model.Api;
+import io.gravitee.definition.model.Endpoint;
+import io.gravitee.gateway.standalone.AbstractGatewayTest;
+import io.gravitee.gateway.standalone.junit.annotation.ApiDescriptor;
+import io.gravitee.gateway.standalone.junit.category.IsolatedJvm;
+import io.gravitee.gateway.standalone.junit.rules.ApiDeployer;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.WebSocket;
+import io.vertx.core.http.WebSocketFrame;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.RuleChain;
+import org.junit.rules.TestRule;
+
+import java.net.URI;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author David BRASSELY (david.brassely at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+@ApiDescriptor("/io/gravitee/gateway/standalone/websocket/websocket.json")
+@Category(IsolatedJvm.class)
+public class WebSocketGatewayTest extends AbstractGatewayTest {
+
+    private static Vertx vertx;
+    private static HttpServer backend;
+
+    private static final List<String> receivedByBackend = new CopyOnWriteArrayList<>();
+
+    @Rule
+    public final TestRule chain = RuleChain.outerRule(new ApiDeployer(this));
+
+    @BeforeClass
+    public static void startBackend() throws Exception {
+        // Vert.x reads the resulting vertx.disableWebsockets flag only once per JVM: this test is run in its own JVM so
+        // that no gateway without WebSocket support has been started before.
+        System.setProperty("http.websocket.enabled", "true");
+
+        vertx = Vertx.vertx();
+
+        // Echo each frame as it has been received
+        CompletableFuture<HttpServer> started = new CompletableFuture<>();
+        vertx.createHttpServer()
+                .websocketHandler(websocket -> websocket.frameHandler(frame -> {
+                    receivedByBackend.add(describe(frame));
+                    websocket.writeFrame(frame);
+                }))
+                .listen(0, event -> {
+                    if (event.succeeded()) {
+                        started.complete(event.result());
+                    } else {
+                        started.completeExceptionally(event.cause());
+                    }
+                });
+
+        backend = started.get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterClass
+    public static void stopBackend() {
+        System.clearProperty("http.websocket.enabled");
+        if (vertx != null) {
+            vertx.close();
+        }
+    }
+
+    @Override
+    public void before(Api api) {
+        super.before(api);
+
+        // Define dynamically endpoint port
+        for (Endpoint endpoint : api.getProxy().getGroups().iterator().next().getEndpoints()) {
+            try {
+                URL url = new URL(endpoint.getTarget());
+                endpoint.setTarget(new URI(url.getProtocol(), null, url.getHost(), backend.actualPort(),
+                        url.getPath(), null, null).toString());
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+
+    @Test
+    public void shouldRelayFramesAsTheyAre() throws Exception {
+        List<WebSocketFrame> frames = Arrays.asList(
+                WebSocketFrame.textFrame("Grüße from Gravitee.io", true),
+                WebSocketFrame.binaryFrame(Buffer.buffer(new byte[] {0, (byte) 0xff, (byte) 0xc3, 0x28}), true),
+                WebSocketFrame.textFrame("fragmented ", false),
+                WebSocketFrame.continuationFrame(Buffer.buffer("text"), true),
+                WebSocketFrame.binaryFrame(Buffer.buffer(new byte[] {1, 2}), false),
+                WebSocketFrame.continuationFrame(Buffer.buffer(new byte[] {(byte) 0xc3}), false),
+                WebSocketFrame.continuationFrame(Buffer.buffer(new byte[] {3}), true));
+
+        // Written frames are released once sent
+        String[] expected = frames.stream().map(WebSocketGatewayTest::describe).toArray(String[]::new);
+
+        List<String> receivedByClient = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> received = new CompletableFuture<>();
+
+        HttpClient client = vertx.createHttpClient();
+        client.websocket(8082, "localhost", "/test", websocket -> {
+            websocket.frameHandler(frame -> {
+                receivedByClient.add(describe(frame));
+                if (receivedByClient.size() == frames.size()) {
+                    received.complete(null);
+                }
+            });
+
+            frames.forEach(websocket::writeFrame);
+        }, received::completeExceptionally);
+
+        // Fails if the client can not connect through the gateway
+        received.get(10, TimeUnit.SECONDS);
+
+        Assert.assertArrayEquals(expected, receivedByBackend.toArray());
+        Assert.assertArrayEquals(expected, receivedByClient.toArray());
+
+        client.close();
+    }
+
+    private static String describe(WebSocketFrame frame) {
+        String type = frame.isText() ? "text" : frame.isBinary() ? "binary" : frame.isContinuation() ? "continuation" : "other";
+        return type + (frame.isFinal() ? "/final " : "/partial ") + Arrays.toString(frame.binaryData().getBytes());
+    }
+}